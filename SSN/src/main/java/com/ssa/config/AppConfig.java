@@ -0,0 +1,92 @@
+package com.ssa.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configuration loader for application.properties.
+ *
+ * Black Box Implementation Detail: Callers ask for a key and a default.
+ * Lookup order is system property, environment variable, properties file,
+ * then the supplied default. Environment variable names are the key
+ * upper-cased with dots replaced by underscores (db.pool.maxSize -> DB_POOL_MAXSIZE).
+ */
+public final class AppConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
+
+    private static final String RESOURCE = "/application.properties";
+    private static final Properties properties = load();
+
+    private AppConfig() {
+        // Static utility
+    }
+
+    private static Properties load() {
+        Properties props = new Properties();
+        try (InputStream in = AppConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                props.load(in);
+            } else {
+                logger.warn("{} not found on classpath, using defaults", RESOURCE);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read {}, using defaults", RESOURCE, e);
+        }
+        return props;
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_'));
+        }
+        if (value == null) {
+            value = properties.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid integer for {}: '{}', using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid long for {}: '{}', using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number for {}: '{}', using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        return Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,228 @@
+package com.ssa.dedupe;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.DuplicateMatch;
+import com.ssa.model.DuplicateReport;
+import com.ssa.model.Person;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.util.BlockingKeys;
+import com.ssa.util.Interner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Finds probable duplicate person records.
+ *
+ * Black Box Implementation Detail: Records are only compared within blocks
+ * of records sharing a BlockingKeys key (last name + DOB, mother's maiden
+ * name + DOB, or the phonetic last/maiden name + birth year key), and each
+ * compared pair is scored with PersonSimilarity; pairs at or above
+ * dedupe.threshold are reported.
+ *
+ * findDuplicates() checks one person before it is saved: the blocking keys
+ * are indexed columns of persons, so that is three index seeks plus a
+ * handful of scores, however large the table.
+ *
+ * scanAll() checks the whole table: it streams every row into a compact
+ * profile, then for each key sorts the profiles by that key so each block
+ * is a run of equal keys. Blocks are scored on a fork/join pool of the
+ * scan's own (dedupe.batch.parallelism, 0 = one per core), shut down when
+ * the scan finishes, so an idle deduplicator holds no threads. A pair sharing several keys
+ * is scored only in the first block it shares that was scored. Blocks over
+ * dedupe.maxBlockSize members (typically placeholder data such as an
+ * "unknown" maiden name) would cost quadratic time and are skipped and
+ * counted instead; their pairs are still scored in any later block they
+ * share.
+ */
+public class PersonDeduplicator {
+    private static final Logger logger = LoggerFactory.getLogger(PersonDeduplicator.class);
+    private static final Comparator<DuplicateMatch> BY_SCORE = Comparator
+            .comparingDouble(DuplicateMatch::getScore).reversed()
+            .thenComparingLong(DuplicateMatch::getMatchedPersonId);
+    // Blocks per leaf task
+    private static final int LEAF_BLOCKS = 256;
+
+    private final IPersonRepository personRepository;
+    private final double threshold;
+    private final double firstNameFloor;
+    private final int maxBlockSize;
+    private final int parallelism;
+
+    public PersonDeduplicator(IPersonRepository personRepository) {
+        this(personRepository,
+                AppConfig.getDouble("dedupe.threshold", 0.90),
+                AppConfig.getDouble("dedupe.firstNameFloor", 0.80),
+                AppConfig.getInt("dedupe.maxBlockSize", 1000),
+                AppConfig.getInt("dedupe.batch.parallelism", 0));
+    }
+
+    /**
+     * @param threshold Minimum score of a reported pair
+     * @param firstNameFloor First-name similarity below which a pair is never a duplicate
+     * @param maxBlockSize Largest block scanAll() compares pairwise
+     * @param parallelism scanAll() worker threads; 0 for one per core
+     */
+    public PersonDeduplicator(IPersonRepository personRepository, double threshold, double firstNameFloor,
+                              int maxBlockSize, int parallelism) {
+        this.personRepository = personRepository;
+        this.threshold = threshold;
+        this.firstNameFloor = firstNameFloor;
+        this.maxBlockSize = Math.max(2, maxBlockSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Existing persons that person probably duplicates, best match first.
+     * person itself (same ID) is never reported.
+     */
+    public List<DuplicateMatch> findDuplicates(Person person) {
+        PersonProfile candidate = PersonProfile.of(person, null);
+        BlockingKeys keys = BlockingKeys.of(person.getLastName(), person.getMothersMaidenName(),
+                person.getDateOfBirth());
+        List<DuplicateMatch> matches = new ArrayList<>();
+        for (Person existing : personRepository.findByBlockingKeys(keys)) {
+            if (existing.getPersonId().equals(person.getPersonId())) {
+                continue;
+            }
+            double score = PersonSimilarity.score(candidate, PersonProfile.of(existing, null), firstNameFloor);
+            if (score >= threshold) {
+                matches.add(new DuplicateMatch(person.getPersonId(), existing.getPersonId(), score));
+            }
+        }
+        matches.sort(BY_SCORE);
+        return matches;
+    }
+
+    /**
+     * Score every blocked pair in the persons table.
+     */
+    public DuplicateReport scanAll() {
+        long start = System.nanoTime();
+        Interner names = new Interner();
+        List<PersonProfile> profiles = new ArrayList<>();
+        try (Stream<Person> all = personRepository.streamAll()) {
+            all.forEach(person -> profiles.add(PersonProfile.of(person, names)));
+        }
+
+        PersonProfile[] sorted = profiles.toArray(new PersonProfile[0]);
+        List<Block> blocks = new ArrayList<>();
+        long oversized = 0;
+        for (int key = 0; key < BlockingKeys.COUNT; key++) {
+            int k = key;
+            Arrays.parallelSort(sorted, Comparator.comparingLong(p -> p.keys[k]));
+            for (int lo = 0; lo < sorted.length; ) {
+                int hi = lo + 1;
+                while (hi < sorted.length && sorted[hi].keys[k] == sorted[lo].keys[k]) {
+                    hi++;
+                }
+                if (hi - lo > maxBlockSize) {
+                    oversized++;
+                } else if (hi - lo > 1) {
+                    for (int i = lo; i < hi; i++) {
+                        sorted[i].scoredKeys |= 1 << k;
+                    }
+                    blocks.add(new Block(k, Arrays.copyOfRange(sorted, lo, hi)));
+                }
+                lo = hi;
+            }
+        }
+
+        Tally tally;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            tally = pool.invoke(new CompareTask(blocks, 0, blocks.size()));
+        } finally {
+            pool.shutdown();
+        }
+        tally.matches.sort(BY_SCORE);
+        DuplicateReport report = new DuplicateReport(sorted.length, blocks.size(), oversized, tally.comparisons,
+                tally.matches, (System.nanoTime() - start) / 1_000_000);
+        if (oversized > 0) {
+            logger.warn("Duplicate scan skipped {} blocks larger than {} persons", oversized, maxBlockSize);
+        }
+        logger.info("Duplicate scan finished: {}", report);
+        return report;
+    }
+
+    private Tally compare(Block block) {
+        Tally tally = new Tally();
+        PersonProfile[] members = block.members;
+        for (int i = 0; i < members.length; i++) {
+            for (int j = i + 1; j < members.length; j++) {
+                PersonProfile a = members[i];
+                PersonProfile b = members[j];
+                if (a.sharesKeyBefore(b, block.key)) {
+                    continue;
+                }
+                tally.comparisons++;
+                double score = PersonSimilarity.score(a, b, firstNameFloor);
+                if (score >= threshold) {
+                    // Report the newer record as the duplicate of the older one
+                    boolean aNewer = a.personId > b.personId;
+                    tally.matches.add(new DuplicateMatch(aNewer ? a.personId : b.personId,
+                            aNewer ? b.personId : a.personId, score));
+                }
+            }
+        }
+        return tally;
+    }
+
+    private static final class Block {
+        final int key;
+        final PersonProfile[] members;
+
+        Block(int key, PersonProfile[] members) {
+            this.key = key;
+            this.members = members;
+        }
+    }
+
+    private static final class Tally {
+        long comparisons;
+        final List<DuplicateMatch> matches = new ArrayList<>();
+
+        Tally add(Tally other) {
+            comparisons += other.comparisons;
+            matches.addAll(other.matches);
+            return this;
+        }
+    }
+
+    private final class CompareTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Block> blocks;
+        private final int lo;
+        private final int hi;
+
+        CompareTask(List<Block> blocks, int lo, int hi) {
+            this.blocks = blocks;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (hi - lo <= LEAF_BLOCKS) {
+                Tally tally = new Tally();
+                for (int i = lo; i < hi; i++) {
+                    tally.add(compare(blocks.get(i)));
+                }
+                return tally;
+            }
+            int mid = (lo + hi) >>> 1;
+            CompareTask left = new CompareTask(blocks, lo, mid);
+            left.fork();
+            Tally right = new CompareTask(blocks, mid, hi).compute();
+            return left.join().add(right);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ssa.dedupe;
+
+import com.ssa.model.Person;
+import com.ssa.util.BlockingKeys;
+import com.ssa.util.Interner;
+import com.ssa.util.NameKeys;
+
+import java.time.LocalDate;
+
+/**
+ * The parts of a person that duplicate detection compares, already
+ * normalized, plus its blocking keys. Small enough that a batch scan can
+ * hold one per row of the persons table.
+ */
+final class PersonProfile {
+    final Long personId;
+    final String firstName;
+    final String lastName;
+    final String mothersMaidenName;
+    final String fathersName;
+    final String placeOfBirth;
+    final int birthYear;
+    final int birthMonth;
+    final int birthDay;
+    final long[] keys;
+    // Bit i set: this profile's block for keys[i] was scored by the batch scan (not skipped as oversized)
+    int scoredKeys;
+
+    private PersonProfile(Long personId, String firstName, String lastName, String mothersMaidenName,
+                          String fathersName, String placeOfBirth, LocalDate dateOfBirth, long[] keys) {
+        this.personId = personId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.mothersMaidenName = mothersMaidenName;
+        this.fathersName = fathersName;
+        this.placeOfBirth = placeOfBirth;
+        this.birthYear = dateOfBirth != null ? dateOfBirth.getYear() : 0;
+        this.birthMonth = dateOfBirth != null ? dateOfBirth.getMonthValue() : 0;
+        this.birthDay = dateOfBirth != null ? dateOfBirth.getDayOfMonth() : 0;
+        this.keys = keys;
+    }
+
+    /**
+     * @param names Interner shared by a batch scan, or null for a one-off profile
+     */
+    static PersonProfile of(Person person, Interner names) {
+        BlockingKeys blocking = BlockingKeys.of(person.getLastName(), person.getMothersMaidenName(),
+                person.getDateOfBirth());
+        long[] keys = new long[BlockingKeys.COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = blocking.get(i);
+        }
+        return new PersonProfile(person.getPersonId(),
+                key(person.getFirstName(), names),
+                key(person.getLastName(), names),
+                key(person.getMothersMaidenName(), names),
+                key(person.getFathersName(), names),
+                key(person.getPlaceOfBirth(), names),
+                person.getDateOfBirth(), keys);
+    }
+
+    private static String key(String value, Interner names) {
+        String normalized = value == null ? "" : NameKeys.normalize(value);
+        return names != null ? names.intern(normalized) : normalized;
+    }
+
+    /**
+     * True if this and other share a blocking key before position index
+     * whose block was scored, i.e. the pair was already compared in an
+     * earlier block. A shared key whose block was skipped as oversized does
+     * not count.
+     */
+    boolean sharesKeyBefore(PersonProfile other, int index) {
+        for (int i = 0; i < index; i++) {
+            if (keys[i] == other.keys[i] && (scoredKeys & (1 << i)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ssa.dedupe;
+
+/**
+ * Weighted similarity of two person profiles in [0, 1].
+ *
+ * Black Box Implementation Detail: Names are compared with Jaro-Winkler,
+ * which forgives the typos clerks make (transpositions, a dropped letter)
+ * and weighs the start of a name most. Weights: first name 0.30, last name
+ * 0.25, mother's maiden name 0.20, date of birth 0.15, father's name 0.05,
+ * place of birth 0.05. The date scores 1 when equal, 0.8 when day and month
+ * are swapped, 0.6 when exactly one of year, month and day differs, else 0.
+ * A first-name similarity under firstNameFloor scores the pair 0 outright:
+ * twins share every other field.
+ */
+final class PersonSimilarity {
+    private static final double FIRST = 0.30;
+    private static final double LAST = 0.25;
+    private static final double MAIDEN = 0.20;
+    private static final double DOB = 0.15;
+    private static final double FATHER = 0.05;
+    private static final double PLACE = 0.05;
+
+    private PersonSimilarity() {
+    }
+
+    static double score(PersonProfile a, PersonProfile b, double firstNameFloor) {
+        double first = jaroWinkler(a.firstName, b.firstName);
+        if (first < firstNameFloor) {
+            return 0;
+        }
+        return FIRST * first
+                + LAST * jaroWinkler(a.lastName, b.lastName)
+                + MAIDEN * jaroWinkler(a.mothersMaidenName, b.mothersMaidenName)
+                + DOB * dateScore(a, b)
+                + FATHER * jaroWinkler(a.fathersName, b.fathersName)
+                + PLACE * jaroWinkler(a.placeOfBirth, b.placeOfBirth);
+    }
+
+    private static double dateScore(PersonProfile a, PersonProfile b) {
+        boolean year = a.birthYear == b.birthYear;
+        boolean month = a.birthMonth == b.birthMonth;
+        boolean day = a.birthDay == b.birthDay;
+        if (year && month && day) {
+            return 1;
+        }
+        if (year && a.birthMonth == b.birthDay && a.birthDay == b.birthMonth) {
+            return 0.8;
+        }
+        int equal = (year ? 1 : 0) + (month ? 1 : 0) + (day ? 1 : 0);
+        return equal == 2 ? 0.6 : 0;
+    }
+
+    /**
+     * Jaro-Winkler similarity (prefix scale 0.1, up to 4 characters).
+     */
+    static double jaroWinkler(String s, String t) {
+        if (s.equals(t)) {
+            return 1;
+        }
+        int sLen = s.length();
+        int tLen = t.length();
+        if (sLen == 0 || tLen == 0) {
+            return 0;
+        }
+        int window = Math.max(0, Math.max(sLen, tLen) / 2 - 1);
+        boolean[] sMatched = new boolean[sLen];
+        boolean[] tMatched = new boolean[tLen];
+        int matches = 0;
+        for (int i = 0; i < sLen; i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(tLen, i + window + 1);
+            for (int j = from; j < to; j++) {
+                if (!tMatched[j] && s.charAt(i) == t.charAt(j)) {
+                    sMatched[i] = true;
+                    tMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < sLen; i++) {
+            if (!sMatched[i]) {
+                continue;
+            }
+            while (!tMatched[j]) {
+                j++;
+            }
+            if (s.charAt(i) != t.charAt(j)) {
+                transpositions++;
+            }
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / sLen + m / tLen + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        int maxPrefix = Math.min(4, Math.min(sLen, tLen));
+        while (prefix < maxPrefix && s.charAt(prefix) == t.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
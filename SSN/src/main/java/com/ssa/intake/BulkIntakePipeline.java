@@ -0,0 +1,412 @@
+package com.ssa.intake;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Application;
+import com.ssa.model.IntakeCheckpoint;
+import com.ssa.model.Person;
+import com.ssa.model.ReferenceNumberGenerator;
+import com.ssa.repository.IApplicationRepository;
+import com.ssa.repository.IIntakeCheckpointRepository;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.repository.impl.ReferenceSequenceRepositoryImpl;
+import com.ssa.service.impl.ReferenceNumberAllocator;
+import com.ssa.util.DatabaseManager;
+import com.ssa.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads an intake CSV file of persons, creating each valid person and a
+ * PENDING application for them.
+ *
+ * Black Box Implementation Detail: Three stages overlap.
+ * <ol>
+ *   <li>The calling thread streams the file (CsvReader) and cuts it into
+ *       chunks of intake.chunkSize records.</li>
+ *   <li>Each chunk is mapped and checked (Person.isValid(),
+ *       isEligibleForSSN()) on a pool of intake.workers threads.</li>
+ *   <li>One writer thread takes the chunks in file order. It appends the
+ *       rejected records to the rejects file, then in one transaction
+ *       (DatabaseManager.inTransaction) batch-inserts the chunk's persons,
+ *       their applications and the job's checkpoint.</li>
+ * </ol>
+ * At most intake.maxInFlightChunks chunks are read but not yet committed,
+ * so memory stays flat however large the file is, and a slow database
+ * throttles the reader.
+ *
+ * Because the checkpoint commits with the rows, running a job again after a
+ * crash resumes after the last committed record and loads no record twice.
+ * It also cuts the rejects file back to the length recorded with that
+ * checkpoint. A job is identified by its source path unless a job ID is
+ * given, and a checkpoint for a source whose size has changed is refused.
+ * A completed job is not loaded again.
+ *
+ * Application reference numbers come from a ReferenceNumberGenerator,
+ * collision-free by default (ReferenceNumberAllocator). Should a chunk
+ * still hit a taken number, e.g. one written by another tool, it is rolled
+ * back and retried with newly drawn numbers.
+ */
+public class BulkIntakePipeline {
+    private static final Logger logger = LoggerFactory.getLogger(BulkIntakePipeline.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long OFFER_WAIT_MILLIS = 100;
+    private static final Chunk END = new Chunk(List.of(), 0, 0);
+
+    private final DatabaseManager databaseManager;
+    private final IPersonRepository personRepository;
+    private final IApplicationRepository applicationRepository;
+    private final IIntakeCheckpointRepository checkpoints;
+    private final ReferenceNumberGenerator references;
+    private final int workers;
+    private final int chunkSize;
+    private final int maxInFlightChunks;
+
+    public BulkIntakePipeline(DatabaseManager databaseManager, IPersonRepository personRepository,
+                              IApplicationRepository applicationRepository, IIntakeCheckpointRepository checkpoints) {
+        this(databaseManager, personRepository, applicationRepository, checkpoints,
+                new ReferenceNumberAllocator(new ReferenceSequenceRepositoryImpl(databaseManager)),
+                AppConfig.getInt("intake.workers", 0),
+                AppConfig.getInt("intake.chunkSize", 1000),
+                AppConfig.getInt("intake.maxInFlightChunks", 8));
+    }
+
+    /**
+     * @param references Reference numbers for the created applications
+     * @param workers Validation threads; 0 for one per core
+     * @param chunkSize Records per chunk, which is also the unit of commit
+     * @param maxInFlightChunks Chunks read but not yet committed before the reader waits
+     */
+    public BulkIntakePipeline(DatabaseManager databaseManager, IPersonRepository personRepository,
+                              IApplicationRepository applicationRepository, IIntakeCheckpointRepository checkpoints,
+                              ReferenceNumberGenerator references, int workers, int chunkSize,
+                              int maxInFlightChunks) {
+        this.databaseManager = databaseManager;
+        this.personRepository = personRepository;
+        this.applicationRepository = applicationRepository;
+        this.checkpoints = checkpoints;
+        this.references = references;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxInFlightChunks = Math.max(1, maxInFlightChunks);
+    }
+
+    /**
+     * Load source, resuming its job if an earlier run was interrupted.
+     * @param source UTF-8 CSV file with a header row
+     * @param rejectsFile Where rejected records are written with their reasons
+     */
+    public IntakeReport run(Path source, Path rejectsFile) throws IOException {
+        return run(source.toAbsolutePath().normalize().toString(), source, rejectsFile);
+    }
+
+    /**
+     * Load source as job jobId, resuming it if an earlier run was interrupted.
+     * @throws IOException if a file cannot be read or written, the source is malformed
+     *                     or it changed since the job's checkpoint
+     * @throws RepositoryException if a chunk cannot be committed; committed chunks stay, and a rerun resumes
+     */
+    public IntakeReport run(String jobId, Path source, Path rejectsFile) throws IOException {
+        long start = System.nanoTime();
+        long sourceSize = Files.size(source);
+        IntakeCheckpoint checkpoint = checkpoints.findByJobId(jobId).orElse(null);
+        if (checkpoint != null && checkpoint.getSourceSize() != sourceSize) {
+            throw new IOException("Intake source " + source + " changed since job " + jobId
+                    + " was checkpointed; delete the checkpoint to load it again");
+        }
+        Run run = new Run(jobId, sourceSize, checkpoint);
+        if (checkpoint != null && checkpoint.isCompleted()) {
+            logger.info("Intake job {} already completed: {}", jobId, checkpoint);
+            return run.report(start);
+        }
+        if (checkpoint != null) {
+            logger.info("Resuming intake job {} after record {}", jobId, checkpoint.getLastRecord());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, named("ssn-intake-worker-"));
+        ExecutorService writerThread = Executors.newSingleThreadExecutor(named("ssn-intake-writer-"));
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(source, StandardCharsets.UTF_8))) {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IOException("Intake source " + source + " is empty");
+            }
+            PersonCsvMapper mapper = new PersonCsvMapper(header);
+            try (RejectsFile rejects = checkpoint == null
+                    ? RejectsFile.create(rejectsFile, header)
+                    : RejectsFile.resume(rejectsFile, checkpoint.getRejectsBytes())) {
+                for (long skipped = 0; skipped < run.skipped; skipped++) {
+                    if (reader.next() == null) {
+                        throw new IOException("Intake source " + source + " has fewer records than job "
+                                + jobId + " already committed");
+                    }
+                }
+                BlockingQueue<CompletableFuture<Chunk>> queue = new ArrayBlockingQueue<>(maxInFlightChunks);
+                Future<?> writer = writerThread.submit(() -> {
+                    drain(queue, run, rejects);
+                    return null;
+                });
+                try {
+                    read(reader, mapper, run, pool, queue, writer);
+                } finally {
+                    enqueue(queue, CompletableFuture.completedFuture(END), writer);
+                    awaitWriter(writer);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            writerThread.shutdownNow();
+        }
+
+        checkpoints.save(run.checkpoint(true));
+        IntakeReport report = run.report(start);
+        logger.info("Intake job {} finished: {}", jobId, report);
+        return report;
+    }
+
+    private void read(CsvReader reader, PersonCsvMapper mapper, Run run, ExecutorService pool,
+                      BlockingQueue<CompletableFuture<Chunk>> queue, Future<?> writer) throws IOException {
+        long record = run.skipped;
+        while (!writer.isDone()) {
+            long readStart = System.nanoTime();
+            List<Row> rows = new ArrayList<>(chunkSize);
+            List<String> fields;
+            while (rows.size() < chunkSize && (fields = reader.next()) != null) {
+                rows.add(new Row(++record, fields));
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            run.readLatency.record(System.nanoTime() - readStart);
+            run.recordsRead += rows.size();
+            Chunk chunk = new Chunk(rows, record, readStart);
+            enqueue(queue, CompletableFuture.supplyAsync(() -> validate(chunk, mapper, run), pool), writer);
+        }
+    }
+
+    private static void enqueue(BlockingQueue<CompletableFuture<Chunk>> queue, CompletableFuture<Chunk> chunk,
+                                Future<?> writer) throws InterruptedIOException {
+        try {
+            // A failed writer stops taking; do not wait for room forever
+            while (!queue.offer(chunk, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing intake chunk");
+        }
+    }
+
+    private static void awaitWriter(Future<?> writer) throws IOException {
+        try {
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for intake writer");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error error) throw error;
+            throw new IOException("Intake writer failed", cause);
+        }
+    }
+
+    private static Chunk validate(Chunk chunk, PersonCsvMapper mapper, Run run) {
+        for (Row row : chunk.rows) {
+            long start = System.nanoTime();
+            try {
+                Person person = mapper.toPerson(row.fields);
+                if (!person.isValid()) {
+                    row.reason = "Incomplete person record";
+                } else if (!person.isEligibleForSSN()) {
+                    row.reason = "Not eligible for an SSN (date of birth)";
+                } else {
+                    row.person = person;
+                }
+            } catch (IllegalArgumentException e) {
+                row.reason = e.getMessage();
+            }
+            run.validateLatency.record(System.nanoTime() - start);
+        }
+        return chunk;
+    }
+
+    private void drain(BlockingQueue<CompletableFuture<Chunk>> queue, Run run, RejectsFile rejects)
+            throws IOException, InterruptedException {
+        while (true) {
+            Chunk chunk = queue.take().join();
+            if (chunk == END) {
+                return;
+            }
+            commit(chunk, run, rejects);
+        }
+    }
+
+    private void commit(Chunk chunk, Run run, RejectsFile rejects) throws IOException {
+        List<Person> persons = new ArrayList<>(chunk.rows.size());
+        int rejected = 0;
+        for (Row row : chunk.rows) {
+            if (row.person != null) {
+                persons.add(row.person);
+            } else {
+                rejects.write(row.record, row.reason, row.fields);
+                rejected++;
+            }
+        }
+        rejects.flush();
+
+        long start = System.nanoTime();
+        IntakeCheckpoint next = run.checkpointAfter(chunk.lastRecord, persons.size(), rejected, rejects.length());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                databaseManager.inTransaction(() -> {
+                    personRepository.saveAll(persons);
+                    List<Application> applications = new ArrayList<>(persons.size());
+                    for (Person person : persons) {
+                        applications.add(new Application(person, references));
+                    }
+                    applicationRepository.saveAll(applications);
+                    checkpoints.save(next);
+                });
+                break;
+            } catch (RepositoryException e) {
+                // Rolled back: the generated IDs written into the persons are void
+                persons.forEach(person -> person.setPersonId(null));
+                if (!isUniqueViolation(e) || attempt == MAX_ATTEMPTS) {
+                    logger.error("Intake job {} failed at records {}..{}", run.jobId,
+                            chunk.lastRecord - chunk.rows.size() + 1, chunk.lastRecord, e);
+                    throw e;
+                }
+                logger.warn("Reference number collision in intake records up to {}; retrying", chunk.lastRecord);
+            }
+        }
+        long end = System.nanoTime();
+        run.writeLatency.record(end - start);
+        run.chunkLatency.record(end - chunk.readStart);
+        run.committed(next, persons.size(), rejected);
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql) {
+                for (SQLException s = sql; s != null; s = s.getNextException()) {
+                    if ("23505".equals(s.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Row {
+        final long record;
+        final List<String> fields;
+        Person person;
+        String reason;
+
+        Row(long record, List<String> fields) {
+            this.record = record;
+            this.fields = fields;
+        }
+    }
+
+    private static final class Chunk {
+        final List<Row> rows;
+        final long lastRecord;
+        final long readStart;
+
+        Chunk(List<Row> rows, long lastRecord, long readStart) {
+            this.rows = rows;
+            this.lastRecord = lastRecord;
+            this.readStart = readStart;
+        }
+    }
+
+    /**
+     * State of one run. recordsRead belongs to the reader; the rest of the
+     * counters to the writer; the caller reads them after both finish.
+     */
+    private static final class Run {
+        final String jobId;
+        final long sourceSize;
+        final long skipped;
+        final LatencyHistogram readLatency = new LatencyHistogram();
+        final LatencyHistogram validateLatency = new LatencyHistogram();
+        final LatencyHistogram writeLatency = new LatencyHistogram();
+        final LatencyHistogram chunkLatency = new LatencyHistogram();
+        IntakeCheckpoint last;
+        long recordsRead;
+        long personsCreated;
+        long rejected;
+
+        Run(String jobId, long sourceSize, IntakeCheckpoint checkpoint) {
+            this.jobId = jobId;
+            this.sourceSize = sourceSize;
+            this.last = checkpoint;
+            this.skipped = checkpoint != null ? checkpoint.getLastRecord() : 0;
+        }
+
+        IntakeCheckpoint checkpointAfter(long lastRecord, int persons, int rejects, long rejectsBytes) {
+            long basePersons = last != null ? last.getPersonsCreated() : 0;
+            long baseApplications = last != null ? last.getApplicationsCreated() : 0;
+            long baseRejected = last != null ? last.getRejected() : 0;
+            return new IntakeCheckpoint(jobId, sourceSize, lastRecord, basePersons + persons,
+                    baseApplications + persons, baseRejected + rejects, rejectsBytes, false, LocalDateTime.now());
+        }
+
+        void committed(IntakeCheckpoint checkpoint, int persons, int rejects) {
+            last = checkpoint;
+            personsCreated += persons;
+            rejected += rejects;
+        }
+
+        /**
+         * The latest checkpoint, marked completed if requested.
+         */
+        IntakeCheckpoint checkpoint(boolean completed) {
+            IntakeCheckpoint base = last != null ? last : checkpointAfter(0, 0, 0, 0);
+            return new IntakeCheckpoint(jobId, sourceSize, base.getLastRecord(), base.getPersonsCreated(),
+                    base.getApplicationsCreated(), base.getRejected(), base.getRejectsBytes(), completed,
+                    LocalDateTime.now());
+        }
+
+        IntakeReport report(long startNanos) {
+            return new IntakeReport(jobId, skipped, recordsRead, personsCreated, personsCreated, rejected,
+                    (System.nanoTime() - startNanos) / 1_000_000,
+                    readLatency, validateLatency, writeLatency, chunkLatency);
+        }
+    }
+}
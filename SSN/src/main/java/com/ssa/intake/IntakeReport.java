@@ -0,0 +1,111 @@
+package com.ssa.intake;
+
+import com.ssa.util.LatencyHistogram;
+
+/**
+ * Outcome and timings of one BulkIntakePipeline run.
+ *
+ * Counts cover this run only; records committed by earlier runs of the same
+ * job are counted in skippedRecords. Stage latencies: read is the time to
+ * parse one chunk from the file, validate is per record, write is one
+ * chunk's insert transaction, and chunk is a chunk's whole trip from read
+ * to commit (including time queued behind other chunks).
+ */
+public class IntakeReport {
+    private final String jobId;
+    private final long skippedRecords;
+    private final long recordsRead;
+    private final long personsCreated;
+    private final long applicationsCreated;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final LatencyHistogram readLatency;
+    private final LatencyHistogram validateLatency;
+    private final LatencyHistogram writeLatency;
+    private final LatencyHistogram chunkLatency;
+
+    IntakeReport(String jobId, long skippedRecords, long recordsRead, long personsCreated, long applicationsCreated,
+                 long rejected, long elapsedMillis, LatencyHistogram readLatency, LatencyHistogram validateLatency,
+                 LatencyHistogram writeLatency, LatencyHistogram chunkLatency) {
+        this.jobId = jobId;
+        this.skippedRecords = skippedRecords;
+        this.recordsRead = recordsRead;
+        this.personsCreated = personsCreated;
+        this.applicationsCreated = applicationsCreated;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.readLatency = readLatency;
+        this.validateLatency = validateLatency;
+        this.writeLatency = writeLatency;
+        this.chunkLatency = chunkLatency;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getPersonsCreated() {
+        return personsCreated;
+    }
+
+    public long getApplicationsCreated() {
+        return applicationsCreated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Records read per second of wall-clock time.
+     */
+    public double getRecordsPerSecond() {
+        return elapsedMillis == 0 ? recordsRead : recordsRead * 1000.0 / elapsedMillis;
+    }
+
+    public LatencyHistogram getReadLatency() {
+        return readLatency;
+    }
+
+    public LatencyHistogram getValidateLatency() {
+        return validateLatency;
+    }
+
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    public LatencyHistogram getChunkLatency() {
+        return chunkLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "IntakeReport{" +
+                "jobId='" + jobId + '\'' +
+                ", skippedRecords=" + skippedRecords +
+                ", recordsRead=" + recordsRead +
+                ", personsCreated=" + personsCreated +
+                ", applicationsCreated=" + applicationsCreated +
+                ", rejected=" + rejected +
+                ", elapsedMillis=" + elapsedMillis +
+                ", recordsPerSecond=" + String.format("%.0f", getRecordsPerSecond()) +
+                ", read=" + readLatency +
+                ", validate=" + validateLatency +
+                ", write=" + writeLatency +
+                ", chunk=" + chunkLatency +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+package com.ssa.intake;
+
+import com.ssa.model.Person;
+import com.ssa.model.enums.CitizenshipStatus;
+import com.ssa.util.NameKeys;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps intake CSV records to Person objects by header name.
+ *
+ * Black Box Implementation Detail: Header names are matched
+ * case-insensitively and may appear in any order; extra columns are
+ * ignored. Dates are ISO (yyyy-MM-dd) and citizenship_status is a
+ * CitizenshipStatus constant name. Blank fields become null so that
+ * Person.isValid() decides what is missing. Text fields longer than their
+ * persons column (or whose normalized search key would be) are refused
+ * here, so the record is rejected instead of failing its chunk's insert on
+ * every run.
+ */
+final class PersonCsvMapper {
+    static final String FIRST_NAME = "first_name";
+    static final String MIDDLE_NAME = "middle_name";
+    static final String LAST_NAME = "last_name";
+    static final String DATE_OF_BIRTH = "date_of_birth";
+    static final String PLACE_OF_BIRTH = "place_of_birth";
+    static final String MOTHERS_MAIDEN_NAME = "mothers_maiden_name";
+    static final String FATHERS_NAME = "fathers_name";
+    static final String CITIZENSHIP_STATUS = "citizenship_status";
+
+    private static final List<String> REQUIRED = List.of(FIRST_NAME, LAST_NAME, DATE_OF_BIRTH, PLACE_OF_BIRTH,
+            MOTHERS_MAIDEN_NAME, FATHERS_NAME, CITIZENSHIP_STATUS);
+
+    // Column widths of the persons table (see DatabaseManager)
+    private static final int NAME_LENGTH = 100;
+    private static final int PLACE_LENGTH = 200;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    /**
+     * @throws IOException if a required column is missing from the header
+     */
+    PersonCsvMapper(List<String> header) throws IOException {
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED) {
+            if (!columns.containsKey(column)) {
+                throw new IOException("Intake file has no " + column + " column");
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException with a reader-facing reason if a field cannot be parsed
+     */
+    Person toPerson(List<String> fields) {
+        Person person = new Person();
+        person.setFirstName(name(fields, FIRST_NAME));
+        person.setMiddleName(text(fields, MIDDLE_NAME, NAME_LENGTH));
+        person.setLastName(name(fields, LAST_NAME));
+        person.setPlaceOfBirth(text(fields, PLACE_OF_BIRTH, PLACE_LENGTH));
+        person.setMothersMaidenName(text(fields, MOTHERS_MAIDEN_NAME, NAME_LENGTH));
+        person.setFathersName(text(fields, FATHERS_NAME, NAME_LENGTH));
+        String dateOfBirth = field(fields, DATE_OF_BIRTH);
+        if (dateOfBirth != null) {
+            try {
+                person.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date_of_birth: " + dateOfBirth);
+            }
+        }
+        String citizenship = field(fields, CITIZENSHIP_STATUS);
+        if (citizenship != null) {
+            try {
+                person.setCitizenshipStatus(CitizenshipStatus.valueOf(citizenship.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid citizenship_status: " + citizenship);
+            }
+        }
+        return person;
+    }
+
+    /**
+     * A first or last name, which is also stored normalized (NameKeys); normalizing can lengthen it.
+     */
+    private String name(List<String> fields, String column) {
+        String value = text(fields, column, NAME_LENGTH);
+        String normalized = NameKeys.normalize(value);
+        if (normalized != null && normalized.length() > NAME_LENGTH) {
+            throw new IllegalArgumentException(column + " is longer than " + NAME_LENGTH + " characters once normalized");
+        }
+        return value;
+    }
+
+    private String text(List<String> fields, String column, int maxLength) {
+        String value = field(fields, column);
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
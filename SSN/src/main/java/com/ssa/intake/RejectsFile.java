@@ -0,0 +1,101 @@
+package com.ssa.intake;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * CSV file of rejected intake records: record number, reason, then the
+ * record's original fields.
+ *
+ * Black Box Implementation Detail: The writer counts the bytes it has
+ * written, so a checkpoint can record the file length that matches its
+ * committed records. A resumed job truncates the file back to that length
+ * first, which drops rejects written for chunks that never committed.
+ */
+final class RejectsFile implements Closeable {
+    private final OutputStream out;
+    private long length;
+
+    private RejectsFile(OutputStream out, long length) {
+        this.out = out;
+        this.length = length;
+    }
+
+    /**
+     * Start a new rejects file with a header row.
+     */
+    static RejectsFile create(Path path, List<String> header) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        RejectsFile file = new RejectsFile(out, 0);
+        file.writeRecord("record", "reason", header);
+        return file;
+    }
+
+    /**
+     * Reopen a rejects file for appending, cut back to committedLength.
+     */
+    static RejectsFile resume(Path path, long committedLength) throws IOException {
+        if (Files.size(path) < committedLength) {
+            throw new IOException("Rejects file " + path + " is shorter than its checkpoint (" + committedLength
+                    + " bytes)");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(committedLength);
+        }
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        return new RejectsFile(out, committedLength);
+    }
+
+    void write(long record, String reason, List<String> fields) throws IOException {
+        writeRecord(Long.toString(record), reason, fields);
+    }
+
+    private void writeRecord(String record, String reason, List<String> fields) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        appendField(line, record);
+        line.append(',');
+        appendField(line, reason);
+        for (String field : fields) {
+            line.append(',');
+            appendField(line, field);
+        }
+        line.append('\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        length += bytes.length;
+    }
+
+    private static void appendField(StringBuilder line, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Bytes in the file once flushed.
+     */
+    long length() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -4,7 +4,7 @@ import com.ssa.model.enums.ApplicationStatus;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * PRIMITIVE: Application entity representing an SSN application request.
@@ -17,9 +17,10 @@ import java.util.UUID;
  */
 public class Application {
     private Long applicationId;
-    private String referenceNumber;  // User-friendly reference (e.g., "APP-2024-001234")
+    private String referenceNumber;  // User-friendly reference (e.g., "APP-2024-7XK2M9Q"), see ReferenceCode
     private Long personId;
     private Person person;  // Associated person object
+    private Supplier<Person> personLoader;  // Fetches person on first access, if not loaded
     private LocalDateTime applicationDate;
     private ApplicationStatus status;
     private LocalDateTime reviewDate;
@@ -27,27 +28,30 @@ public class Application {
     private String reviewedBy;  // Admin username who processed the application
     private String assignedSSN;  // SSN assigned upon approval
 
-    // Constructor
-    public Application() {
+    // Constructors
+    /**
+     * An application already stored under referenceNumber, for a row mapper to fill in.
+     */
+    public Application(Long applicationId, String referenceNumber) {
+        this.applicationId = applicationId;
+        this.referenceNumber = Objects.requireNonNull(referenceNumber, "referenceNumber");
         this.applicationDate = LocalDateTime.now();
         this.status = ApplicationStatus.PENDING;
-        this.referenceNumber = generateReferenceNumber();
     }
 
-    public Application(Person person) {
-        this();
+    /**
+     * A new application whose reference number comes from references, for the year it is submitted.
+     * Services pass their ReferenceNumberAllocator; ReferenceNumberGenerator.random() is for tests and tools.
+     */
+    public Application(Person person, ReferenceNumberGenerator references) {
+        this.applicationDate = LocalDateTime.now();
+        this.status = ApplicationStatus.PENDING;
         this.person = person;
         this.personId = person.getPersonId();
+        this.referenceNumber = references.next(applicationDate.getYear());
     }
 
     // Business logic methods
-    private String generateReferenceNumber() {
-        // Format: APP-YYYY-XXXXXX (APP-year-6 digit random)
-        int year = LocalDateTime.now().getYear();
-        String random = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return "APP-" + year + "-" + random;
-    }
-
     public boolean isPending() {
         return status == ApplicationStatus.PENDING;
     }
@@ -99,17 +103,41 @@ public class Application {
         this.personId = personId;
     }
 
+    /**
+     * The applicant. If a person loader is set and the person is not loaded
+     * yet, the loader runs now (once); see setPersonLoader().
+     */
     public Person getPerson() {
+        if (person == null && personLoader != null) {
+            Supplier<Person> loader = personLoader;
+            personLoader = null;
+            person = loader.get();
+        }
         return person;
     }
 
     public void setPerson(Person person) {
         this.person = person;
+        this.personLoader = null;
         if (person != null) {
             this.personId = person.getPersonId();
         }
     }
 
+    /**
+     * Load the person on the first getPerson() call rather than now.
+     */
+    public void setPersonLoader(Supplier<Person> personLoader) {
+        this.personLoader = personLoader;
+    }
+
+    /**
+     * Whether the person is in memory, i.e. getPerson() will not load it.
+     */
+    public boolean isPersonLoaded() {
+        return person != null;
+    }
+
     public LocalDateTime getApplicationDate() {
         return applicationDate;
     }
@@ -0,0 +1,49 @@
+package com.ssa.model;
+
+/**
+ * PRIMITIVE: Outcome of approving one application in a batch.
+ *
+ * Either approved, with the updated application (status APPROVED and the
+ * assigned SSN), or not, with the reason. A failed item leaves its
+ * application, person and SSN records unchanged.
+ */
+public class ApprovalResult {
+    private final Long applicationId;
+    private final Application application;
+    private final String error;
+
+    /**
+     * @param application Approved application, or null if the item failed
+     * @param error Why the item failed, or null if it was approved
+     */
+    public ApprovalResult(Long applicationId, Application application, String error) {
+        this.applicationId = applicationId;
+        this.application = application;
+        this.error = error;
+    }
+
+    public boolean isApproved() {
+        return error == null;
+    }
+
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    public Application getApplication() {
+        return application;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "ApprovalResult{" +
+                "applicationId=" + applicationId +
+                (isApproved() ? ", approved, ssn=" + SSN.maskSSN(application.getAssignedSSN())
+                        : ", error='" + error + '\'') +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.ssa.model;
+
+import java.util.List;
+
+/**
+ * PRIMITIVE: Outcome of verifying the audit hash chain.
+ *
+ * Each failure names the segment it was found in and what did not match.
+ * Logs written after the last sealed segment are counted in unsealedLogs;
+ * they are not covered by any hash yet.
+ */
+public class AuditChainReport {
+    private final int segmentsChecked;
+    private final long logsChecked;
+    private final long unsealedLogs;
+    private final List<String> failures;
+    private final long elapsedMillis;
+
+    public AuditChainReport(int segmentsChecked, long logsChecked, long unsealedLogs,
+                            List<String> failures, long elapsedMillis) {
+        this.segmentsChecked = segmentsChecked;
+        this.logsChecked = logsChecked;
+        this.unsealedLogs = unsealedLogs;
+        this.failures = List.copyOf(failures);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * True if every checked segment matched its hashes.
+     */
+    public boolean isIntact() {
+        return failures.isEmpty();
+    }
+
+    public int getSegmentsChecked() {
+        return segmentsChecked;
+    }
+
+    public long getLogsChecked() {
+        return logsChecked;
+    }
+
+    public long getUnsealedLogs() {
+        return unsealedLogs;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditChainReport{" +
+                "intact=" + isIntact() +
+                ", segmentsChecked=" + segmentsChecked +
+                ", logsChecked=" + logsChecked +
+                ", unsealedLogs=" + unsealedLogs +
+                ", failures=" + failures.size() +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+package com.ssa.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * PRIMITIVE: One sealed segment of the audit hash chain.
+ *
+ * A segment covers every audit log with an ID after the previous segment's
+ * lastLogId up to its own lastLogId. merkleRoot commits to those logs;
+ * chainHash commits to this header and, through prevHash, to every earlier
+ * segment. Hashes are lower-case hex SHA-256.
+ */
+public class AuditChainSegment {
+    private final long segmentNo;
+    private final long firstLogId;
+    private final long lastLogId;
+    private final int logCount;
+    private final LocalDateTime firstTimestamp;
+    private final LocalDateTime lastTimestamp;
+    private final String merkleRoot;
+    private final String prevHash;
+    private final String chainHash;
+    private final LocalDateTime sealedAt;
+
+    /**
+     * @param firstTimestamp Earliest timestamp among the segment's logs
+     * @param lastTimestamp Latest timestamp among the segment's logs
+     */
+    public AuditChainSegment(long segmentNo, long firstLogId, long lastLogId, int logCount,
+                             LocalDateTime firstTimestamp, LocalDateTime lastTimestamp,
+                             String merkleRoot, String prevHash, String chainHash, LocalDateTime sealedAt) {
+        this.segmentNo = segmentNo;
+        this.firstLogId = firstLogId;
+        this.lastLogId = lastLogId;
+        this.logCount = logCount;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.merkleRoot = merkleRoot;
+        this.prevHash = prevHash;
+        this.chainHash = chainHash;
+        this.sealedAt = sealedAt;
+    }
+
+    public long getSegmentNo() {
+        return segmentNo;
+    }
+
+    public long getFirstLogId() {
+        return firstLogId;
+    }
+
+    public long getLastLogId() {
+        return lastLogId;
+    }
+
+    public int getLogCount() {
+        return logCount;
+    }
+
+    public LocalDateTime getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public String getMerkleRoot() {
+        return merkleRoot;
+    }
+
+    public String getPrevHash() {
+        return prevHash;
+    }
+
+    public String getChainHash() {
+        return chainHash;
+    }
+
+    public LocalDateTime getSealedAt() {
+        return sealedAt;
+    }
+
+    /**
+     * Whether any of this segment's logs fall between from and to (inclusive).
+     */
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return !firstTimestamp.isAfter(to) && !lastTimestamp.isBefore(from);
+    }
+
+    @Override
+    public String toString() {
+        return "AuditChainSegment{" +
+                "segmentNo=" + segmentNo +
+                ", logs=" + firstLogId + ".." + lastLogId +
+                ", logCount=" + logCount +
+                ", chainHash='" + chainHash + '\'' +
+                '}';
+    }
+}
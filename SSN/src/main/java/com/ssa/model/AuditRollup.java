@@ -0,0 +1,58 @@
+package com.ssa.model;
+
+import com.ssa.model.enums.RollupResolution;
+
+import java.time.LocalDateTime;
+
+/**
+ * PRIMITIVE: Number of audit events in one time bucket.
+ *
+ * A null action or user name means the count is summed over all of them.
+ */
+public class AuditRollup {
+    private final RollupResolution resolution;
+    private final LocalDateTime bucketStart;
+    private final String action;
+    private final String userName;
+    private final long count;
+
+    public AuditRollup(RollupResolution resolution, LocalDateTime bucketStart, String action, String userName,
+                       long count) {
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+        this.action = action;
+        this.userName = userName;
+        this.count = count;
+    }
+
+    public RollupResolution getResolution() {
+        return resolution;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditRollup{" +
+                "resolution=" + resolution.name() +
+                ", bucketStart=" + bucketStart +
+                ", action='" + action + '\'' +
+                ", userName='" + userName + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
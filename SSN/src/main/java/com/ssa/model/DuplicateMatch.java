@@ -0,0 +1,41 @@
+package com.ssa.model;
+
+/**
+ * PRIMITIVE: A probable duplicate pair of person records.
+ *
+ * personId is the record being checked (null for a person not saved yet);
+ * matchedPersonId is the existing record it resembles. score is the
+ * weighted name/date similarity in [0, 1].
+ */
+public class DuplicateMatch {
+    private final Long personId;
+    private final long matchedPersonId;
+    private final double score;
+
+    public DuplicateMatch(Long personId, long matchedPersonId, double score) {
+        this.personId = personId;
+        this.matchedPersonId = matchedPersonId;
+        this.score = score;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public long getMatchedPersonId() {
+        return matchedPersonId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "DuplicateMatch{" +
+                "personId=" + personId +
+                ", matchedPersonId=" + matchedPersonId +
+                ", score=" + String.format("%.3f", score) +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.ssa.model;
+
+import java.util.List;
+
+/**
+ * PRIMITIVE: Outcome of a duplicate-person scan over the persons table.
+ *
+ * Matches are ordered by score, highest first. Blocks larger than the
+ * configured maximum are not compared pairwise and are only counted in
+ * oversizedBlocks; their members may still meet through another key.
+ */
+public class DuplicateReport {
+    private final long personsScanned;
+    private final long blocksCompared;
+    private final long oversizedBlocks;
+    private final long comparisons;
+    private final List<DuplicateMatch> matches;
+    private final long elapsedMillis;
+
+    public DuplicateReport(long personsScanned, long blocksCompared, long oversizedBlocks, long comparisons,
+                           List<DuplicateMatch> matches, long elapsedMillis) {
+        this.personsScanned = personsScanned;
+        this.blocksCompared = blocksCompared;
+        this.oversizedBlocks = oversizedBlocks;
+        this.comparisons = comparisons;
+        this.matches = List.copyOf(matches);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getPersonsScanned() {
+        return personsScanned;
+    }
+
+    public long getBlocksCompared() {
+        return blocksCompared;
+    }
+
+    public long getOversizedBlocks() {
+        return oversizedBlocks;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public List<DuplicateMatch> getMatches() {
+        return matches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DuplicateReport{" +
+                "personsScanned=" + personsScanned +
+                ", blocksCompared=" + blocksCompared +
+                ", oversizedBlocks=" + oversizedBlocks +
+                ", comparisons=" + comparisons +
+                ", matches=" + matches.size() +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.ssa.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * PRIMITIVE: Progress of one bulk intake job.
+ *
+ * lastRecord is the number of the last CSV record (1 = first data row)
+ * whose outcome is committed; resuming the job starts after it. The counts
+ * are cumulative over every run of the job, and rejectsBytes is the length
+ * of the rejects file at the same point.
+ */
+public class IntakeCheckpoint {
+    private final String jobId;
+    private final long sourceSize;
+    private final long lastRecord;
+    private final long personsCreated;
+    private final long applicationsCreated;
+    private final long rejected;
+    private final long rejectsBytes;
+    private final boolean completed;
+    private final LocalDateTime updatedAt;
+
+    public IntakeCheckpoint(String jobId, long sourceSize, long lastRecord, long personsCreated,
+                            long applicationsCreated, long rejected, long rejectsBytes, boolean completed,
+                            LocalDateTime updatedAt) {
+        this.jobId = jobId;
+        this.sourceSize = sourceSize;
+        this.lastRecord = lastRecord;
+        this.personsCreated = personsCreated;
+        this.applicationsCreated = applicationsCreated;
+        this.rejected = rejected;
+        this.rejectsBytes = rejectsBytes;
+        this.completed = completed;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    public long getLastRecord() {
+        return lastRecord;
+    }
+
+    public long getPersonsCreated() {
+        return personsCreated;
+    }
+
+    public long getApplicationsCreated() {
+        return applicationsCreated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getRejectsBytes() {
+        return rejectsBytes;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IntakeCheckpoint{" +
+                "jobId='" + jobId + '\'' +
+                ", lastRecord=" + lastRecord +
+                ", personsCreated=" + personsCreated +
+                ", applicationsCreated=" + applicationsCreated +
+                ", rejected=" + rejected +
+                ", completed=" + completed +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.ssa.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PRIMITIVE: One page of a keyset-paginated list.
+ *
+ * The next-page token is opaque to callers: pass it back unchanged to get
+ * the following page. A null token means there are no more pages.
+ *
+ * @param <T> Item type
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextPageToken;
+
+    public Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "size=" + items.size() +
+                ", hasNext=" + hasNext() +
+                '}';
+    }
+}
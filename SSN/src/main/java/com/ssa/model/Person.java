@@ -180,7 +180,7 @@ public class Person {
                 "personId=" + personId +
                 ", name='" + getFullName() + '\'' +
                 ", dateOfBirth=" + dateOfBirth +
-                ", ssn='" + (ssn != null ? "***-**-" + ssn.substring(7) : "Not Assigned") + '\'' +
+                ", ssn='" + (ssn != null ? SSN.maskSSN(ssn) : "Not Assigned") + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,126 @@
+package com.ssa.model;
+
+import java.util.Arrays;
+
+/**
+ * PRIMITIVE: Application reference numbers of the form APP-YYYY-CCCCCCK.
+ *
+ * CCCCCC is a 30-bit per-year sequence value in Crockford base 32 (digits
+ * and upper-case letters without I, L, O and U, so it reads back unambiguously).
+ * The value is first passed through a fixed bijection, so consecutive
+ * sequence values do not give consecutive codes but distinct values still
+ * give distinct codes. K is a Luhn mod 32 check character: it catches any
+ * single mistyped character and any swap of two adjacent ones except 0 and
+ * Z, so isValid() rejects most typos without a database lookup.
+ *
+ * References issued before this format have six hex digits after the year
+ * and so never equal a code of this format.
+ */
+public final class ReferenceCode {
+    /** Sequence values per year: [0, CAPACITY). */
+    public static final long CAPACITY = 1L << 30;
+
+    /** Length of a reference number (APP-YYYY-CCCCCCK). */
+    public static final int LENGTH = 16;
+
+    private static final String PREFIX = "APP-";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int RADIX = 32;
+    private static final int PAYLOAD_CHARS = 6;
+    private static final long MASK = CAPACITY - 1;
+    // Odd, so multiplication is a bijection mod 2^30
+    private static final long MIX = 0x2F0F1E27L;
+    private static final byte[] DIGIT = new byte[128];
+
+    static {
+        Arrays.fill(DIGIT, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGIT[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private ReferenceCode() {
+    }
+
+    /**
+     * Reference number for sequence value of year.
+     * @param year Four-digit year
+     * @param value Sequence value in [0, CAPACITY)
+     */
+    public static String format(int year, long value) {
+        if (year < 1000 || year > 9999) {
+            throw new IllegalArgumentException("Year must have four digits: " + year);
+        }
+        if (value < 0 || value >= CAPACITY) {
+            throw new IllegalArgumentException("Sequence value out of range: " + value);
+        }
+        long code = (value * MIX) & MASK;
+        code ^= code >>> 15;
+        char[] out = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), out, 0);
+        for (int i = 7; i >= 4; i--) {
+            out[i] = (char) ('0' + year % 10);
+            year /= 10;
+        }
+        out[8] = '-';
+        for (int i = 8 + PAYLOAD_CHARS; i > 8; i--) {
+            out[i] = ALPHABET[(int) (code & (RADIX - 1))];
+            code >>>= 5;
+        }
+        out[LENGTH - 1] = ALPHABET[checkDigit(out, 9, 9 + PAYLOAD_CHARS)];
+        return new String(out);
+    }
+
+    /**
+     * Whether reference has this format and a correct check character.
+     */
+    public static boolean isValid(CharSequence reference) {
+        if (reference == null || reference.length() != LENGTH) return false;
+        for (int i = 0; i < PREFIX.length(); i++) {
+            if (reference.charAt(i) != PREFIX.charAt(i)) return false;
+        }
+        for (int i = 4; i < 8; i++) {
+            char c = reference.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        if (reference.charAt(8) != '-') return false;
+        int sum = 0;
+        boolean twice = false;
+        for (int i = LENGTH - 1; i > 8; i--) {
+            int digit = digit(reference.charAt(i));
+            if (digit < 0) return false;
+            sum += luhn(digit, twice);
+            twice = !twice;
+        }
+        return sum % RADIX == 0;
+    }
+
+    /**
+     * Whether reference looks like this format (right length and prefix),
+     * valid or not. Older references do not.
+     */
+    public static boolean hasFormat(CharSequence reference) {
+        return reference != null && reference.length() == LENGTH
+                && reference.toString().startsWith(PREFIX) && reference.charAt(8) == '-';
+    }
+
+    private static int checkDigit(char[] chars, int from, int to) {
+        int sum = 0;
+        boolean twice = true;
+        for (int i = to - 1; i >= from; i--) {
+            sum += luhn(DIGIT[chars[i]], twice);
+            twice = !twice;
+        }
+        return (RADIX - sum % RADIX) % RADIX;
+    }
+
+    private static int luhn(int digit, boolean twice) {
+        if (!twice) return digit;
+        int doubled = digit * 2;
+        return doubled / RADIX + doubled % RADIX;
+    }
+
+    private static int digit(char c) {
+        return c < 128 ? DIGIT[c] : -1;
+    }
+}
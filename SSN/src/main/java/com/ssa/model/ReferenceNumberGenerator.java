@@ -0,0 +1,28 @@
+package com.ssa.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PRIMITIVE: Source of application reference numbers.
+ *
+ * Implementations must be thread-safe. ReferenceNumberAllocator (service
+ * layer) is the collision-free implementation that services use.
+ */
+@FunctionalInterface
+public interface ReferenceNumberGenerator {
+    /**
+     * A reference number for an application submitted in year.
+     */
+    String next(int year);
+
+    /**
+     * Random codes in the ReferenceCode format, for applications built
+     * outside the services (tests, tools).
+     *
+     * Not collision-free: with n references in a year, the chance of a
+     * repeat is about n^2 / 2^31. Nothing is coordinated or stored.
+     */
+    static ReferenceNumberGenerator random() {
+        return year -> ReferenceCode.format(year, ThreadLocalRandom.current().nextLong(ReferenceCode.CAPACITY));
+    }
+}
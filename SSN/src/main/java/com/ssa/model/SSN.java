@@ -32,28 +32,37 @@ public class SSN {
         this.personId = personId;
     }
 
-    // Validation methods
+    // Validation methods (parsing and formatting live in SSNCodec)
     public static boolean isValidFormat(String ssn) {
-        if (ssn == null) return false;
-        // Remove dashes for validation
-        String cleaned = ssn.replace("-", "");
-        // Must be exactly 9 digits
-        return cleaned.matches("^\\d{9}$");
+        // Exactly 9 digits, dashes ignored
+        return SSNCodec.parse(ssn) != SSNCodec.INVALID;
+    }
+
+    /**
+     * Well-formed and within the issuance rules (area 001-899 except 666,
+     * group 01-99, serial 0001-9999).
+     */
+    public static boolean isValidNumber(String ssn) {
+        return SSNCodec.parseAssignable(ssn) != SSNCodec.INVALID;
     }
 
     public static String formatSSN(String ssn) {
-        if (ssn == null) return null;
-        String cleaned = ssn.replace("-", "");
-        if (cleaned.length() != 9) return ssn;
-        return cleaned.substring(0, 3) + "-" + 
-               cleaned.substring(3, 5) + "-" + 
-               cleaned.substring(5);
+        int packed = SSNCodec.parse(ssn);
+        if (packed == SSNCodec.INVALID || isFormatted(ssn)) return ssn;
+        return SSNCodec.toString(packed);
+    }
+
+    // Already XXX-XX-XXXX: callers normalize keys on every lookup, so skip the copy
+    private static boolean isFormatted(String ssn) {
+        return ssn.length() == SSNCodec.FORMATTED_LENGTH && ssn.charAt(3) == '-' && ssn.charAt(6) == '-';
     }
 
     public static String maskSSN(String ssn) {
-        if (ssn == null || ssn.length() < 4) return "***-**-****";
-        String formatted = formatSSN(ssn);
-        return "***-**-" + formatted.substring(7);
+        int packed = SSNCodec.parse(ssn);
+        if (packed == SSNCodec.INVALID) return "***-**-****";
+        char[] masked = new char[SSNCodec.FORMATTED_LENGTH];
+        SSNCodec.mask(packed, masked, 0);
+        return new String(masked);
     }
 
     public boolean isActive() {
@@ -61,21 +70,18 @@ public class SSN {
     }
 
     public String getAreaNumber() {
-        if (ssn == null || ssn.length() < 3) return null;
-        return ssn.substring(0, 3);
+        int packed = SSNCodec.parse(ssn);
+        return packed == SSNCodec.INVALID ? null : SSNCodec.field(SSNCodec.area(packed), 3);
     }
 
     public String getGroupNumber() {
-        if (ssn == null || ssn.length() < 6) return null;
-        String cleaned = ssn.replace("-", "");
-        return cleaned.substring(3, 5);
+        int packed = SSNCodec.parse(ssn);
+        return packed == SSNCodec.INVALID ? null : SSNCodec.field(SSNCodec.group(packed), 2);
     }
 
     public String getSerialNumber() {
-        if (ssn == null) return null;
-        String cleaned = ssn.replace("-", "");
-        if (cleaned.length() < 9) return null;
-        return cleaned.substring(5);
+        int packed = SSNCodec.parse(ssn);
+        return packed == SSNCodec.INVALID ? null : SSNCodec.field(SSNCodec.serial(packed), 4);
     }
 
     // Getters and Setters
@@ -126,10 +132,17 @@ public class SSN {
 
     @Override
     public String toString() {
-        return "SSN{" +
-                "ssn='" + maskSSN(ssn) + '\'' +
-                ", status=" + status +
-                ", issuedDate=" + issuedDate +
-                '}';
+        StringBuilder out = new StringBuilder(64).append("SSN{ssn='");
+        int packed = SSNCodec.parse(ssn);
+        if (packed == SSNCodec.INVALID) {
+            out.append("***-**-****");
+        } else {
+            SSNCodec.mask(packed, out);
+        }
+        return out.append('\'')
+                .append(", status=").append(status)
+                .append(", issuedDate=").append(issuedDate)
+                .append('}')
+                .toString();
     }
 }
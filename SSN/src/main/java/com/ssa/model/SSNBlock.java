@@ -0,0 +1,83 @@
+package com.ssa.model;
+
+/**
+ * PRIMITIVE: A reserved range of SSN serial slots within one area.
+ *
+ * Slots number every group/serial pair of an area in issuance order:
+ * slot 0 is GG=01 SSSS=0001, slot 9998 is 01-9999, slot 9999 is 02-0001.
+ * The block covers [startSlot, endSlot).
+ */
+public class SSNBlock {
+    public static final int SERIALS_PER_GROUP = 9999;
+    public static final int GROUPS_PER_AREA = 99;
+    public static final int SLOTS_PER_AREA = SERIALS_PER_GROUP * GROUPS_PER_AREA;
+
+    private final long reservationId;
+    private final int area;
+    private final int startSlot;
+    private final int endSlot;
+    private final boolean reclaimed;
+
+    public SSNBlock(long reservationId, int area, int startSlot, int endSlot, boolean reclaimed) {
+        this.reservationId = reservationId;
+        this.area = area;
+        this.startSlot = startSlot;
+        this.endSlot = endSlot;
+        this.reclaimed = reclaimed;
+    }
+
+    /**
+     * Format a slot of this block's area as XXX-XX-XXXX.
+     */
+    public String format(int slot) {
+        int group = slot / SERIALS_PER_GROUP + 1;
+        int serial = slot % SERIALS_PER_GROUP + 1;
+        return SSNCodec.toString(SSNCodec.pack(area, group, serial));
+    }
+
+    /**
+     * Slot of a formatted SSN within its area.
+     */
+    public static int slotOf(String ssn) {
+        int packed = SSNCodec.parse(ssn);
+        return (SSNCodec.group(packed) - 1) * SERIALS_PER_GROUP + SSNCodec.serial(packed) - 1;
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public int getArea() {
+        return area;
+    }
+
+    public int getStartSlot() {
+        return startSlot;
+    }
+
+    public int getEndSlot() {
+        return endSlot;
+    }
+
+    public int size() {
+        return endSlot - startSlot;
+    }
+
+    /**
+     * True if the block was taken over from a crashed owner; some of its
+     * slots may already have been issued.
+     */
+    public boolean isReclaimed() {
+        return reclaimed;
+    }
+
+    @Override
+    public String toString() {
+        return "SSNBlock{" +
+                "reservationId=" + reservationId +
+                ", area=" + area +
+                ", slots=[" + startSlot + ", " + endSlot + ")" +
+                ", reclaimed=" + reclaimed +
+                '}';
+    }
+}
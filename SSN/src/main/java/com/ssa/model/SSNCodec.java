@@ -0,0 +1,155 @@
+package com.ssa.model;
+
+/**
+ * PRIMITIVE: Allocation-free parsing and formatting of SSNs.
+ *
+ * An SSN is packed into an int holding its nine digits as a decimal number
+ * (area * 1_000_000 + group * 10_000 + serial), so 123-45-6789 is 123456789.
+ * parse() reads a CharSequence in one pass without creating strings;
+ * format()/mask() write into a caller-supplied StringBuilder or char[].
+ * INVALID (-1) stands for "not an SSN".
+ */
+public final class SSNCodec {
+    public static final int INVALID = -1;
+
+    /**
+     * Length of a formatted SSN (XXX-XX-XXXX).
+     */
+    public static final int FORMATTED_LENGTH = 11;
+
+    private static final int EXCLUDED_AREA = 666;
+    private static final int FIRST_RESERVED_AREA = 900;
+
+    private SSNCodec() {
+    }
+
+    /**
+     * Parse nine digits, ignoring dashes anywhere (same rule as SSN.isValidFormat).
+     * @return Packed SSN, or INVALID if the text is not exactly nine digits
+     */
+    public static int parse(CharSequence text) {
+        if (text == null) return INVALID;
+        int value = 0;
+        int digits = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '-') continue;
+            if (c < '0' || c > '9' || digits == 9) return INVALID;
+            value = value * 10 + (c - '0');
+            digits++;
+        }
+        return digits == 9 ? value : INVALID;
+    }
+
+    /**
+     * Parse and check the issuance rules: area 001-899 except 666,
+     * group 01-99, serial 0001-9999.
+     * @return Packed SSN, or INVALID if malformed or not assignable
+     */
+    public static int parseAssignable(CharSequence text) {
+        int packed = parse(text);
+        return isAssignable(packed) ? packed : INVALID;
+    }
+
+    public static boolean isAssignable(int packed) {
+        if (packed < 0) return false;
+        int area = area(packed);
+        return area != 0 && area != EXCLUDED_AREA && area < FIRST_RESERVED_AREA
+                && group(packed) != 0 && serial(packed) != 0;
+    }
+
+    public static int pack(int area, int group, int serial) {
+        return area * 1_000_000 + group * 10_000 + serial;
+    }
+
+    public static int area(int packed) {
+        return packed / 1_000_000;
+    }
+
+    public static int group(int packed) {
+        return packed / 10_000 % 100;
+    }
+
+    public static int serial(int packed) {
+        return packed % 10_000;
+    }
+
+    /**
+     * Write XXX-XX-XXXX into dst.
+     * @return Offset just past the written characters
+     */
+    public static int format(int packed, char[] dst, int offset) {
+        offset = writeDigits(area(packed), 3, dst, offset);
+        dst[offset++] = '-';
+        offset = writeDigits(group(packed), 2, dst, offset);
+        dst[offset++] = '-';
+        return writeDigits(serial(packed), 4, dst, offset);
+    }
+
+    /**
+     * Append XXX-XX-XXXX to out.
+     */
+    public static StringBuilder format(int packed, StringBuilder out) {
+        appendDigits(area(packed), 3, out);
+        out.append('-');
+        appendDigits(group(packed), 2, out);
+        out.append('-');
+        return appendDigits(serial(packed), 4, out);
+    }
+
+    /**
+     * Write ***-**-XXXX (last four digits only) into dst.
+     * @return Offset just past the written characters
+     */
+    public static int mask(int packed, char[] dst, int offset) {
+        for (int i = 0; i < 7; i++) {
+            dst[offset + i] = i == 3 || i == 6 ? '-' : '*';
+        }
+        return writeDigits(serial(packed), 4, dst, offset + 7);
+    }
+
+    /**
+     * Append ***-**-XXXX (last four digits only) to out.
+     */
+    public static StringBuilder mask(int packed, StringBuilder out) {
+        out.append("***-**-");
+        return appendDigits(serial(packed), 4, out);
+    }
+
+    /**
+     * Formatted SSN as a new String (one char[] and the String itself).
+     */
+    public static String toString(int packed) {
+        char[] buf = new char[FORMATTED_LENGTH];
+        format(packed, buf, 0);
+        return new String(buf);
+    }
+
+    /**
+     * One field as a zero-padded string, e.g. group 5 with width 2 is "05".
+     */
+    static String field(int value, int width) {
+        char[] buf = new char[width];
+        writeDigits(value, width, buf, 0);
+        return new String(buf);
+    }
+
+    private static int writeDigits(int value, int width, char[] dst, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            dst[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+
+    private static StringBuilder appendDigits(int value, int width, StringBuilder out) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ssa.model.enums;
+
+/**
+ * How a person name search compares names.
+ * EXACT ignores case, accents and punctuation; SOUNDS_LIKE compares Soundex codes.
+ */
+public enum NameMatch {
+    EXACT("Exact"),
+    SOUNDS_LIKE("Sounds Like");
+
+    private final String displayName;
+
+    NameMatch(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
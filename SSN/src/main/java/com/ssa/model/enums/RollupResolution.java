@@ -0,0 +1,46 @@
+package com.ssa.model.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time bucket size of an audit rollup.
+ * Each resolution truncates event timestamps to the start of its bucket.
+ */
+public enum RollupResolution {
+    MINUTE("Per Minute", ChronoUnit.MINUTES),
+    HOUR("Per Hour", ChronoUnit.HOURS),
+    DAY("Per Day", ChronoUnit.DAYS);
+
+    private final String displayName;
+    private final ChronoUnit unit;
+
+    RollupResolution(String displayName, ChronoUnit unit) {
+        this.displayName = displayName;
+        this.unit = unit;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Start of the bucket containing time.
+     */
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * Start of the first bucket at or after time.
+     */
+    public LocalDateTime nextBucketFrom(LocalDateTime time) {
+        LocalDateTime start = bucketOf(time);
+        return start.equals(time) ? start : start.plus(1, unit);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
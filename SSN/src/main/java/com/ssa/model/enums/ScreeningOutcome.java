@@ -0,0 +1,25 @@
+package com.ssa.model.enums;
+
+/**
+ * Result of automatic pre-screening of a pending application.
+ */
+public enum ScreeningOutcome {
+    PASSED("Passed"),
+    FLAGGED("Flagged for Review"),
+    REJECTED("Rejected");
+
+    private final String displayName;
+
+    ScreeningOutcome(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -1,11 +1,15 @@
 package com.ssa.repository;
 
 import com.ssa.model.Application;
+import com.ssa.model.Page;
 import com.ssa.model.enums.ApplicationStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * BLACK BOX INTERFACE: Repository for Application entity data access.
@@ -27,6 +31,13 @@ public interface IApplicationRepository extends IRepository<Application, Long> {
      */
     Optional<Application> findByReferenceNumber(String referenceNumber);
 
+    /**
+     * Which of the given reference numbers are already used.
+     * @param referenceNumbers Candidate reference numbers
+     * @return The subset that exists in storage
+     */
+    Set<String> findExistingReferenceNumbers(Collection<String> referenceNumbers);
+
     /**
      * Find all applications with a specific status.
      * @param status Application status
@@ -34,6 +45,26 @@ public interface IApplicationRepository extends IRepository<Application, Long> {
      */
     List<Application> findByStatus(ApplicationStatus status);
 
+    /**
+     * Stream applications with a specific status, oldest first.
+     * The stream holds database resources: close it (try-with-resources).
+     * @param status Application status
+     * @return Stream of applications with that status
+     */
+    default Stream<Application> streamByStatus(ApplicationStatus status) {
+        return findByStatus(status).stream();
+    }
+
+    /**
+     * Find one page of applications with a status, oldest first.
+     * Keyset pagination on (application_date, application_id).
+     * @param status Application status
+     * @param pageSize Maximum number of applications on the page
+     * @param pageToken Token from the previous page, or null for the first page
+     * @return Page of applications with the token for the next page
+     */
+    Page<Application> findByStatus(ApplicationStatus status, int pageSize, String pageToken);
+
     /**
      * Find applications submitted within a date range.
      * @param from Start date/time
@@ -42,6 +73,17 @@ public interface IApplicationRepository extends IRepository<Application, Long> {
      */
     List<Application> findByDateRange(LocalDateTime from, LocalDateTime to);
 
+    /**
+     * Stream applications submitted within a date range.
+     * The stream holds database resources: close it (try-with-resources).
+     * @param from Start date/time
+     * @param to End date/time
+     * @return Stream of applications in date range
+     */
+    default Stream<Application> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return findByDateRange(from, to).stream();
+    }
+
     /**
      * Find applications for a specific person.
      * @param personId Person ID
@@ -49,6 +91,24 @@ public interface IApplicationRepository extends IRepository<Application, Long> {
      */
     List<Application> findByPersonId(Long personId);
 
+    /**
+     * Update applications, each only if it is still PENDING in storage, so a
+     * decision made meanwhile by someone else is never overwritten.
+     * All updates are one transaction (or join the caller's).
+     * @param applications Applications with their new state
+     * @return IDs of the applications that were not updated because they are no longer pending
+     */
+    Set<Long> updateAllIfPending(Collection<Application> applications);
+
+    /**
+     * Write an application's status, reviewer, review date and review notes,
+     * but only if it is still PENDING without review notes in storage, so a
+     * decision or review made meanwhile is never overwritten.
+     * @param application Application with its new review state
+     * @return true if it was updated, false if it was reviewed or decided meanwhile
+     */
+    boolean updateReviewIfUnreviewed(Application application);
+
     /**
      * Count applications by status.
      * @param status Application status
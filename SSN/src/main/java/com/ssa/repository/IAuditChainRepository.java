@@ -0,0 +1,59 @@
+package com.ssa.repository;
+
+import com.ssa.model.AuditChainSegment;
+import com.ssa.model.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BLACK BOX INTERFACE: Storage for the audit hash chain.
+ *
+ * What this interface does: Stores sealed chain segments and reads the audit
+ * logs they cover in log ID order, which is the order they are hashed in.
+ *
+ * Hidden implementation:
+ * - Segment table layout
+ * - How logs are read by ID range
+ *
+ * Replaceable by: Any implementation (H2, PostgreSQL, a write-once store, etc.)
+ */
+public interface IAuditChainRepository {
+    /**
+     * All segments, oldest first.
+     */
+    List<AuditChainSegment> findSegments();
+
+    /**
+     * The most recently sealed segment, if any.
+     */
+    Optional<AuditChainSegment> findLastSegment();
+
+    /**
+     * Store a newly sealed segment. Segments are never updated.
+     */
+    void saveSegment(AuditChainSegment segment);
+
+    /**
+     * Audit logs with IDs after afterLogId, in ID order.
+     * @param afterLogId Exclusive lower bound (0 for the start)
+     * @param limit Maximum number of logs
+     */
+    List<AuditLog> findLogsAfter(long afterLogId, int limit);
+
+    /**
+     * Audit logs with afterLogId &lt; ID &lt;= lastLogId, in ID order.
+     */
+    List<AuditLog> findLogsBetween(long afterLogId, long lastLogId);
+
+    /**
+     * Number of audit logs with IDs after afterLogId.
+     */
+    long countLogsAfter(long afterLogId);
+
+    /**
+     * Number of audit logs with IDs after afterLogId and timestamps between from and to (inclusive).
+     */
+    long countLogsAfter(long afterLogId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,9 +1,11 @@
 package com.ssa.repository;
 
 import com.ssa.model.AuditLog;
+import com.ssa.model.Page;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * BLACK BOX INTERFACE: Repository for AuditLog entity data access.
@@ -26,6 +28,17 @@ public interface IAuditRepository extends IRepository<AuditLog, Long> {
      */
     List<AuditLog> findByDateRange(LocalDateTime from, LocalDateTime to);
 
+    /**
+     * Stream audit logs within a date range, oldest first.
+     * The stream holds database resources: close it (try-with-resources).
+     * @param from Start date/time
+     * @param to End date/time
+     * @return Stream of audit logs in date range
+     */
+    default Stream<AuditLog> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return findByDateRange(from, to).stream();
+    }
+
     /**
      * Find audit logs by user.
      * @param userName Username to search for
@@ -46,4 +59,13 @@ public interface IAuditRepository extends IRepository<AuditLog, Long> {
      * @return List of most recent audit logs
      */
     List<AuditLog> findRecent(int limit);
+
+    /**
+     * Page backwards through audit logs, newest first.
+     * Keyset pagination on (timestamp, log_id).
+     * @param pageSize Maximum number of logs on the page
+     * @param pageToken Token from the previous page, or null for the most recent logs
+     * @return Page of audit logs with the token for the next (older) page
+     */
+    Page<AuditLog> findRecent(int pageSize, String pageToken);
 }
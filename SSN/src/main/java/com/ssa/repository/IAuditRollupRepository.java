@@ -0,0 +1,73 @@
+package com.ssa.repository;
+
+import com.ssa.model.AuditLog;
+import com.ssa.model.AuditRollup;
+import com.ssa.model.enums.RollupResolution;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * BLACK BOX INTERFACE: Pre-aggregated audit event counts.
+ *
+ * What this interface does: Keeps counts of audit events per action, user
+ * and time bucket (minute, hour, day) up to date as logs are written, and
+ * answers count queries without touching the raw logs.
+ *
+ * Hidden implementation:
+ * - Rollup table layout and indexes
+ * - How increments are merged
+ * - Retention of fine-grained buckets
+ *
+ * Replaceable by: Any implementation (H2, PostgreSQL, a metrics store, etc.)
+ */
+public interface IAuditRollupRepository {
+    /**
+     * Add logs to the counts of every resolution.
+     * @param logs Newly written audit logs
+     */
+    void increment(Collection<AuditLog> logs);
+
+    /**
+     * Counts per bucket, action and user.
+     * @param resolution Bucket size
+     * @param from Start; the bucket containing it is included
+     * @param to End (exclusive)
+     * @param action Only this action, or null for all
+     * @param userName Only this user, or null for all
+     * @return Rollups ordered by bucket, action, user
+     */
+    List<AuditRollup> findCounts(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                 String action, String userName);
+
+    /**
+     * Counts per bucket, summed over users.
+     * @param action Only this action, or null to sum over actions too
+     * @return Rollups ordered by bucket, with a null user name
+     */
+    List<AuditRollup> findTotals(RollupResolution resolution, LocalDateTime from, LocalDateTime to, String action);
+
+    /**
+     * Number of events between from and to, to the minute. Whole days and
+     * hours inside the range are read from the coarser buckets. Where minute
+     * (or hour) buckets have already been purged, the ends of the range are
+     * rounded down to the hour (or day).
+     * @param action Only this action, or null for all
+     * @param userName Only this user, or null for all
+     */
+    long count(LocalDateTime from, LocalDateTime to, String action, String userName);
+
+    /**
+     * Replace the counts of the days covering [from, to) with counts of the given logs.
+     * Used to reconcile after rollup updates were lost.
+     * @param logs Every log in those days
+     */
+    void rebuild(LocalDateTime from, LocalDateTime to, Iterable<AuditLog> logs);
+
+    /**
+     * Delete buckets of one resolution that start before cutoff.
+     * @return Number of buckets deleted
+     */
+    int purgeBefore(RollupResolution resolution, LocalDateTime cutoff);
+}
@@ -0,0 +1,34 @@
+package com.ssa.repository;
+
+import com.ssa.model.IntakeCheckpoint;
+
+import java.util.Optional;
+
+/**
+ * BLACK BOX INTERFACE: Progress records of bulk intake jobs.
+ *
+ * What this interface does: Remembers how far each intake job got, so an
+ * interrupted job can resume without loading any row twice.
+ *
+ * Hidden implementation:
+ * - Checkpoint table layout
+ *
+ * Replaceable by: Any implementation that can join the transaction the
+ * intake rows are written in (H2, PostgreSQL, etc.)
+ */
+public interface IIntakeCheckpointRepository {
+    /**
+     * The checkpoint of a job, if it has committed anything.
+     */
+    Optional<IntakeCheckpoint> findByJobId(String jobId);
+
+    /**
+     * Insert or replace a job's checkpoint.
+     */
+    void save(IntakeCheckpoint checkpoint);
+
+    /**
+     * Forget a job, so its source is loaded from the start next time.
+     */
+    void delete(String jobId);
+}
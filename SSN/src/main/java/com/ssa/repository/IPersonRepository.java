@@ -1,10 +1,14 @@
 package com.ssa.repository;
 
 import com.ssa.model.Person;
+import com.ssa.model.enums.NameMatch;
+import com.ssa.util.BlockingKeys;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * BLACK BOX INTERFACE: Repository for Person entity data access.
@@ -27,6 +31,23 @@ public interface IPersonRepository extends IRepository<Person, Long> {
      */
     List<Person> findByName(String firstName, String lastName);
 
+    /**
+     * Find persons by first and last name.
+     * Case, accents and punctuation are ignored in both modes.
+     * @param firstName First name, or null/blank to match on last name only
+     * @param lastName Last name
+     * @param match EXACT, or SOUNDS_LIKE to match names with the same phonetic code
+     * @return List of matching persons; for SOUNDS_LIKE, exact spellings first
+     */
+    List<Person> findByName(String firstName, String lastName, NameMatch match);
+
+    /**
+     * Find persons sharing at least one duplicate-detection blocking key.
+     * @param keys Blocking keys of the person being checked
+     * @return Candidate duplicates in ID order
+     */
+    List<Person> findByBlockingKeys(BlockingKeys keys);
+
     /**
      * Find person by SSN.
      * @param ssn Social Security Number
@@ -47,4 +68,13 @@ public interface IPersonRepository extends IRepository<Person, Long> {
      * @return true if person has SSN assigned
      */
     boolean hasSSN(Long personId);
+
+    /**
+     * Set the SSN of persons that do not have one yet, leaving every other
+     * column as stored, so a person is never given a second SSN and edits
+     * made meanwhile are kept. All updates are one transaction (or join the caller's).
+     * @param ssnsByPersonId New SSN per person ID
+     * @return IDs of the persons that were not updated because they already have an SSN or no longer exist
+     */
+    Set<Long> assignSSNsIfUnassigned(Map<Long, String> ssnsByPersonId);
 }
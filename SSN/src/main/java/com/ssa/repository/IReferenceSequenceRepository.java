@@ -0,0 +1,27 @@
+package com.ssa.repository;
+
+/**
+ * BLACK BOX INTERFACE: Persistent per-year sequences for application reference numbers.
+ *
+ * What this interface does: Hands out disjoint ranges of a year's sequence
+ * values. A reserved range is never handed out again, even if the process
+ * that reserved it dies before using it.
+ *
+ * Hidden implementation:
+ * - Sequence storage
+ * - Locking / transaction strategy
+ *
+ * Replaceable by: Any implementation (H2, a database sequence, a coordination service, etc.)
+ */
+public interface IReferenceSequenceRepository {
+    /**
+     * Reserve the next count values of year's sequence, committed before
+     * this method returns and independent of any transaction of the caller.
+     * @param year Year the values belong to
+     * @param count Number of values wanted
+     * @param limit Values at or above this are never reserved
+     * @return First reserved value; the range is [first, min(first + count, limit))
+     * @throws com.ssa.exception.RepositoryException if the year's values are used up
+     */
+    long reserve(int year, int count, long limit);
+}
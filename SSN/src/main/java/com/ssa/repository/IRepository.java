@@ -1,7 +1,13 @@
 package com.ssa.repository;
 
+import com.ssa.model.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * BLACK BOX INTERFACE: Generic repository for data access operations.
@@ -27,6 +33,20 @@ public interface IRepository<T, ID> {
      */
     T save(T entity);
 
+    /**
+     * Save or update many entities in bulk.
+     * Implementations should batch the writes; this default just loops over save().
+     * @param entities Entities to save
+     * @return Saved entities, in input order, with generated IDs populated
+     */
+    default List<T> saveAll(Collection<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
     /**
      * Find entity by ID.
      * @param id Entity ID
@@ -34,18 +54,63 @@ public interface IRepository<T, ID> {
      */
     Optional<T> findById(ID id);
 
+    /**
+     * Find many entities by ID in bulk.
+     * Implementations should fetch them in a few queries; this default just loops over findById().
+     * @param ids Entity IDs; unknown IDs are skipped
+     * @return Entities found, in ID order
+     */
+    default List<T> findAllById(Collection<ID> ids) {
+        List<T> found = new ArrayList<>(ids.size());
+        for (ID id : new LinkedHashSet<>(ids)) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
     /**
      * Find all entities of this type.
      * @return List of all entities
      */
     List<T> findAll();
 
+    /**
+     * Stream all entities of this type without loading them all into memory.
+     * The stream holds database resources: close it (try-with-resources).
+     * Implementations should read through a forward-only cursor; this default
+     * falls back to findAll().
+     * @return Stream of all entities
+     */
+    default Stream<T> streamAll() {
+        return findAll().stream();
+    }
+
+    /**
+     * Find one page of entities in ID order using keyset pagination.
+     * Every page costs the same regardless of how deep it is.
+     * @param pageSize Maximum number of entities on the page
+     * @param pageToken Token from the previous page, or null for the first page
+     * @return Page of entities with the token for the next page
+     */
+    Page<T> findAll(int pageSize, String pageToken);
+
     /**
      * Delete entity by ID.
      * @param id Entity ID to delete
      */
     void delete(ID id);
 
+    /**
+     * Delete many entities by ID in bulk.
+     * Implementations should batch the deletes; this default just loops over delete().
+     * @param ids Entity IDs to delete
+     */
+    default void deleteAll(Collection<ID> ids) {
+        for (ID id : ids) {
+            delete(id);
+        }
+    }
+
     /**
      * Check if entity exists.
      * @param id Entity ID
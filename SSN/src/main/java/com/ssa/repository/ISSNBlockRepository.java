@@ -0,0 +1,65 @@
+package com.ssa.repository;
+
+import com.ssa.model.SSNBlock;
+
+import java.util.Optional;
+
+/**
+ * BLACK BOX INTERFACE: Persistent reservations of SSN serial blocks.
+ *
+ * What this interface does: Hands out disjoint ranges of SSN slots to
+ * allocators, remembers who holds which range, and returns ranges left
+ * behind by a crashed owner to the pool. An owner holds its blocks under a
+ * lease that it must keep renewing; a block whose lease ran out is
+ * considered orphaned.
+ *
+ * Hidden implementation:
+ * - Per-area sequence storage
+ * - Reservation bookkeeping
+ * - Locking / transaction strategy
+ *
+ * Replaceable by: Any implementation (H2, PostgreSQL, a coordination service, etc.)
+ */
+public interface ISSNBlockRepository {
+    /**
+     * Reserve a block for an owner. Ranges returned by returnUnused() or
+     * reclaimOrphans() are handed out before fresh slots are taken.
+     * @param owner Allocator identity
+     * @param blockSize Maximum number of slots in the block
+     * @param leaseMillis How long the block stays the owner's without renewLease()
+     * @return The reserved block, or empty if every area is exhausted
+     */
+    Optional<SSNBlock> reserveBlock(String owner, int blockSize, long leaseMillis);
+
+    /**
+     * Extend the lease on every block an owner holds.
+     * @param owner Allocator identity
+     * @param leaseMillis New lease length, counted from now
+     * @return Number of blocks renewed; a block missing from the count was reclaimed
+     */
+    int renewLease(String owner, long leaseMillis);
+
+    /**
+     * Forget a fully used block. Does nothing if the owner no longer holds it.
+     * @param owner Allocator identity
+     * @param reservationId Block reservation ID
+     */
+    void releaseBlock(String owner, long reservationId);
+
+    /**
+     * Give back the unused tail of a block so another allocator can use it.
+     * Does nothing if the owner no longer holds it.
+     * @param owner Allocator identity
+     * @param reservationId Block reservation ID
+     * @param fromSlot First slot that was not handed out
+     */
+    void returnUnused(String owner, long reservationId, int fromSlot);
+
+    /**
+     * Release blocks held by other owners whose lease has expired, e.g.
+     * because their process crashed. Blocks under a live lease are never taken.
+     * @param liveOwner Owner whose blocks are never reclaimed
+     * @return Number of blocks reclaimed
+     */
+    int reclaimOrphans(String liveOwner);
+}
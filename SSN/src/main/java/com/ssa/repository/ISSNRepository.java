@@ -5,6 +5,7 @@ import com.ssa.model.enums.SSNStatus;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * BLACK BOX INTERFACE: Repository for SSN entity data access.
@@ -17,6 +18,10 @@ import java.util.Optional;
  * - Status filtering
  * 
  * Replaceable by: Any implementation (H2, PostgreSQL, MongoDB, etc.)
+ *
+ * save() and saveAll() only issue new SSNs: saving an SSN that already
+ * exists fails with a RepositoryException instead of reassigning it.
+ * Changes to an issued SSN go through update().
  */
 public interface ISSNRepository extends IRepository<SSN, String> {
     /**
@@ -40,6 +45,14 @@ public interface ISSNRepository extends IRepository<SSN, String> {
      */
     boolean ssnExists(String ssn);
 
+    /**
+     * Update the person and status of an SSN that is already issued.
+     * @param ssn SSN with its new state
+     * @return The updated SSN
+     * @throws com.ssa.exception.RepositoryException if the SSN does not exist
+     */
+    SSN update(SSN ssn);
+
     /**
      * Find all SSNs with a specific status.
      * @param status SSN status
@@ -47,6 +60,23 @@ public interface ISSNRepository extends IRepository<SSN, String> {
      */
     List<SSN> findByStatus(SSNStatus status);
 
+    /**
+     * Stream SSNs with a specific status.
+     * The stream holds database resources: close it (try-with-resources).
+     * @param status SSN status
+     * @return Stream of SSNs with that status
+     */
+    default Stream<SSN> streamByStatus(SSNStatus status) {
+        return findByStatus(status).stream();
+    }
+
+    /**
+     * Count SSNs with a specific status.
+     * @param status SSN status
+     * @return Number of SSNs with that status
+     */
+    long countByStatus(SSNStatus status);
+
     /**
      * Get the latest SSN issued (for sequence tracking).
      * @return Optional containing the most recently issued SSN
@@ -0,0 +1,264 @@
+package com.ssa.repository.cache;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.Page;
+import com.ssa.model.SSN;
+import com.ssa.model.SSNCodec;
+import com.ssa.model.enums.SSNStatus;
+import com.ssa.repository.ISSNRepository;
+import com.ssa.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter front for ISSNRepository existence checks.
+ *
+ * Black Box Implementation Detail: An in-memory Bloom filter holds every
+ * issued SSN. When the filter says a number is definitely absent,
+ * ssnExists/findBySSN answer without touching the database; otherwise the
+ * delegate decides. This is what makes collision checks during SSN generation
+ * cheap: almost every fresh candidate is a definite miss.
+ *
+ * The filter is built by rebuild() (streams the whole ssns table) and updated
+ * on every save through this decorator. Until rebuild() has run, every call
+ * goes to the delegate. Deletes cannot be removed from a Bloom filter; they
+ * only cost an extra database check until the next rebuild.
+ */
+public class BloomFilteredSSNRepository implements ISSNRepository {
+    private static final Logger logger = LoggerFactory.getLogger(BloomFilteredSSNRepository.class);
+
+    private final ISSNRepository delegate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    private final LongAdder definiteNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder truePositives = new LongAdder();
+
+    public BloomFilteredSSNRepository(ISSNRepository delegate) {
+        this(delegate,
+                AppConfig.getLong("ssn.bloom.expectedInsertions", 1_000_000),
+                AppConfig.getDouble("ssn.bloom.falsePositiveRate", 0.01));
+    }
+
+    public BloomFilteredSSNRepository(ISSNRepository delegate, long expectedInsertions, double falsePositiveRate) {
+        this.delegate = delegate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * (Re)build the filter by streaming every row of the ssns table.
+     * Saves that happen while the rebuild runs are added to the new filter too.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long existing = delegate.count();
+        // Leave headroom so the filter stays near its target rate as new SSNs are issued
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, existing * 2), falsePositiveRate);
+        building = next;
+        try (Stream<SSN> all = delegate.streamAll()) {
+            all.forEach(ssn -> add(next, ssn.getSsn()));
+        } finally {
+            building = null;
+        }
+        filter = next;
+        logger.info("SSN Bloom filter built: {} SSNs, {} bits, {} hashes in {}ms",
+                next.getInsertions(), next.getBitCount(), next.getHashCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return true if the database must be asked, false if the SSN is definitely unused
+     */
+    private boolean mightExist(String ssn) {
+        BloomFilter current = filter;
+        long key = toKey(ssn);
+        if (current == null || key < 0) {
+            return true;
+        }
+        if (!current.mightContain(key)) {
+            definiteNegatives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void recordOutcome(boolean exists) {
+        if (filter == null) return;
+        if (exists) {
+            truePositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    private void remember(String ssn) {
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        if (current != null) add(current, ssn);
+        if (next != null) add(next, ssn);
+    }
+
+    private static void add(BloomFilter target, String ssn) {
+        long key = toKey(ssn);
+        if (key >= 0) {
+            target.add(key);
+        }
+    }
+
+    private static long toKey(String ssn) {
+        return SSNCodec.parse(ssn);
+    }
+
+    // Metrics
+
+    /**
+     * Observed false-positive rate: filter said "maybe" but the database said no,
+     * as a share of all lookups for SSNs that did not exist.
+     */
+    public double getObservedFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long negatives = fp + definiteNegatives.sum();
+        return negatives == 0 ? 0.0 : (double) fp / negatives;
+    }
+
+    /**
+     * Theoretical false-positive rate from the filter's current fill.
+     */
+    public double getExpectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? 1.0 : current.expectedFalsePositiveRate();
+    }
+
+    /**
+     * Lookups answered "absent" without a database round trip.
+     */
+    public long getDefiniteNegatives() {
+        return definiteNegatives.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public long getTruePositives() {
+        return truePositives.sum();
+    }
+
+    // Filtered reads
+
+    @Override
+    public boolean ssnExists(String ssn) {
+        if (!mightExist(ssn)) return false;
+        boolean exists = delegate.ssnExists(ssn);
+        recordOutcome(exists);
+        return exists;
+    }
+
+    @Override
+    public boolean exists(String ssn) {
+        return ssnExists(ssn);
+    }
+
+    @Override
+    public Optional<SSN> findBySSN(String ssn) {
+        if (!mightExist(ssn)) return Optional.empty();
+        Optional<SSN> found = delegate.findBySSN(ssn);
+        recordOutcome(found.isPresent());
+        return found;
+    }
+
+    @Override
+    public Optional<SSN> findById(String ssn) {
+        return findBySSN(ssn);
+    }
+
+    // Writes update the filter
+
+    @Override
+    public SSN save(SSN ssn) {
+        SSN saved = delegate.save(ssn);
+        remember(saved.getSsn());
+        return saved;
+    }
+
+    @Override
+    public List<SSN> saveAll(Collection<SSN> ssns) {
+        List<SSN> saved = delegate.saveAll(ssns);
+        saved.forEach(ssn -> remember(ssn.getSsn()));
+        return saved;
+    }
+
+    @Override
+    public SSN update(SSN ssn) {
+        // An existing SSN is already in the filter
+        return delegate.update(ssn);
+    }
+
+    @Override
+    public void delete(String ssn) {
+        delegate.delete(ssn);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> ssns) {
+        delegate.deleteAll(ssns);
+    }
+
+    // Pass-through
+
+    @Override
+    public Optional<SSN> findByPersonId(Long personId) {
+        return delegate.findByPersonId(personId);
+    }
+
+    @Override
+    public List<SSN> findByStatus(SSNStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public Stream<SSN> streamByStatus(SSNStatus status) {
+        return delegate.streamByStatus(status);
+    }
+
+    @Override
+    public long countByStatus(SSNStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public Optional<SSN> getLatestSSN() {
+        return delegate.getLatestSSN();
+    }
+
+    @Override
+    public List<SSN> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<SSN> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<SSN> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
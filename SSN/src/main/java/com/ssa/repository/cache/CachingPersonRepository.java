@@ -0,0 +1,280 @@
+package com.ssa.repository.cache;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.Page;
+import com.ssa.model.Person;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.NameMatch;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.util.BlockingKeys;
+import com.ssa.util.CacheStats;
+import com.ssa.util.DatabaseManager;
+import com.ssa.util.TtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of any IPersonRepository.
+ *
+ * Black Box Implementation Detail: findById and findBySSN are served from
+ * bounded TTL caches, including cached "not found" answers. Every write that
+ * goes through this decorator invalidates the affected entries before it
+ * returns and, inside a DatabaseManager.inTransaction, again when that
+ * commits or rolls back, so a read racing the commit cannot leave the old
+ * row cached for cache.ttlMs. Writes that bypass it (direct SQL) become visible once the TTL
+ * expires. Callers receive copies, never the cached instance.
+ */
+public class CachingPersonRepository implements IPersonRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CachingPersonRepository.class);
+
+    // Above this many rows a bulk write clears the SSN cache instead of scanning it per row
+    private static final int BULK_INVALIDATE_THRESHOLD = 64;
+
+    private final IPersonRepository delegate;
+    private final TtlCache<Long, Person> byId;
+    private final TtlCache<String, Person> bySsn;
+    private final DatabaseManager databaseManager;
+
+    public CachingPersonRepository(IPersonRepository delegate) {
+        this(delegate,
+                AppConfig.getInt("cache.person.maxSize", 10000),
+                AppConfig.getLong("cache.ttlMs", 300000),
+                AppConfig.getLong("cache.negativeTtlMs", 30000));
+    }
+
+    public CachingPersonRepository(IPersonRepository delegate, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this(delegate, maxSize, ttlMillis, negativeTtlMillis, DatabaseManager.getInstance());
+    }
+
+    /**
+     * @param databaseManager Whose transactions invalidation is repeated after
+     */
+    public CachingPersonRepository(IPersonRepository delegate, int maxSize, long ttlMillis, long negativeTtlMillis,
+                                   DatabaseManager databaseManager) {
+        this.delegate = delegate;
+        this.byId = new TtlCache<>(maxSize, ttlMillis, negativeTtlMillis);
+        this.bySsn = new TtlCache<>(maxSize, ttlMillis, negativeTtlMillis);
+        this.databaseManager = databaseManager;
+    }
+
+    // Cached reads
+
+    @Override
+    public Optional<Person> findById(Long personId) {
+        if (personId == null) return Optional.empty();
+        return byId.get(personId, delegate::findById).map(EntityCopies::copy);
+    }
+
+    /**
+     * Bulk reads go straight to the delegate and are not cached.
+     */
+    @Override
+    public List<Person> findAllById(Collection<Long> personIds) {
+        return delegate.findAllById(personIds);
+    }
+
+    @Override
+    public Optional<Person> findBySSN(String ssn) {
+        if (ssn == null) return Optional.empty();
+        return bySsn.get(SSN.formatSSN(ssn), delegate::findBySSN).map(EntityCopies::copy);
+    }
+
+    // Writes invalidate
+
+    @Override
+    public Person save(Person person) {
+        Person saved = delegate.save(person);
+        Long personId = saved.getPersonId();
+        String ssn = saved.getSsn();
+        invalidateThroughCompletion(() -> invalidate(personId, ssn));
+        return saved;
+    }
+
+    @Override
+    public List<Person> saveAll(Collection<Person> persons) {
+        List<Person> saved = delegate.saveAll(persons);
+        Map<Long, String> ssnsById = new HashMap<>();
+        saved.forEach(person -> ssnsById.put(person.getPersonId(), person.getSsn()));
+        invalidateThroughCompletion(() -> {
+            if (ssnsById.size() > BULK_INVALIDATE_THRESHOLD) {
+                bySsn.invalidateAll();
+                ssnsById.keySet().forEach(byId::invalidate);
+            } else {
+                ssnsById.forEach(this::invalidate);
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    public Set<Long> assignSSNsIfUnassigned(Map<Long, String> ssnsByPersonId) {
+        Set<Long> skipped = delegate.assignSSNsIfUnassigned(ssnsByPersonId);
+        Map<Long, String> assigned = new HashMap<>(ssnsByPersonId);
+        assigned.keySet().removeAll(skipped);
+        invalidateThroughCompletion(() -> assigned.forEach(this::invalidate));
+        return skipped;
+    }
+
+    @Override
+    public void delete(Long personId) {
+        delegate.delete(personId);
+        invalidateThroughCompletion(() -> invalidateId(personId));
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> personIds) {
+        delegate.deleteAll(personIds);
+        List<Long> deleted = List.copyOf(personIds);
+        invalidateThroughCompletion(() -> {
+            if (deleted.size() > BULK_INVALIDATE_THRESHOLD) {
+                bySsn.invalidateAll();
+                deleted.forEach(byId::invalidate);
+            } else {
+                deleted.forEach(this::invalidateId);
+            }
+        });
+    }
+
+    // Drops the entries now, so the writing transaction reads its own rows, and
+    // again when it ends, in case another thread reloaded the old row meanwhile
+    private void invalidateThroughCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (databaseManager.isInTransaction()) {
+            databaseManager.afterCompletion(invalidation);
+        }
+    }
+
+    private void invalidate(Long personId, String ssn) {
+        invalidateId(personId);
+        if (ssn != null) {
+            // Clears a cached "not found" for a freshly assigned SSN
+            bySsn.invalidate(SSN.formatSSN(ssn));
+        }
+    }
+
+    private void invalidateId(Long personId) {
+        if (personId == null) return;
+        byId.invalidate(personId);
+        bySsn.invalidateMatching(cached -> personId.equals(cached.getPersonId()));
+    }
+
+    // Warm-up
+
+    /**
+     * Warm up from the file named by cache.warmup.file.
+     */
+    public int warmUp() {
+        return warmUp(Path.of(AppConfig.get("cache.warmup.file", "./data/cache-warmup.keys")));
+    }
+
+    /**
+     * Save hot keys to cache.warmup.file, at most cache.warmup.keys per cache.
+     */
+    public void saveHotKeys() {
+        saveHotKeys(Path.of(AppConfig.get("cache.warmup.file", "./data/cache-warmup.keys")),
+                AppConfig.getInt("cache.warmup.keys", 1000));
+    }
+
+    /**
+     * Load the keys recorded by saveHotKeys() so the first lookups after a restart are hits.
+     * @param file Warm-up file; missing file means cold start
+     * @return Number of keys loaded
+     */
+    public int warmUp(Path file) {
+        int loaded = 0;
+        for (String id : WarmupFile.read(file, "person.id")) {
+            try {
+                findById(Long.parseLong(id));
+                loaded++;
+            } catch (NumberFormatException e) {
+                logger.debug("Skipping bad warm-up key {}", id);
+            }
+        }
+        for (String ssn : WarmupFile.read(file, "person.ssn")) {
+            findBySSN(ssn);
+            loaded++;
+        }
+        logger.info("Person cache warmed up with {} keys", loaded);
+        return loaded;
+    }
+
+    /**
+     * Record the most recently used keys for the next warmUp().
+     * @param file Warm-up file
+     * @param limit Maximum keys per cache
+     */
+    public void saveHotKeys(Path file, int limit) {
+        WarmupFile.write(file, "person.id", byId.hotKeys(limit));
+        WarmupFile.write(file, "person.ssn", bySsn.hotKeys(limit));
+    }
+
+    public CacheStats getIdCacheStats() {
+        return byId.getStats();
+    }
+
+    public CacheStats getSsnCacheStats() {
+        return bySsn.getStats();
+    }
+
+    // Uncached pass-through
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName) {
+        return delegate.findByName(firstName, lastName);
+    }
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName, NameMatch match) {
+        return delegate.findByName(firstName, lastName, match);
+    }
+
+    @Override
+    public List<Person> findByBlockingKeys(BlockingKeys keys) {
+        return delegate.findByBlockingKeys(keys);
+    }
+
+    @Override
+    public List<Person> findByDateOfBirth(LocalDate dateOfBirth) {
+        return delegate.findByDateOfBirth(dateOfBirth);
+    }
+
+    @Override
+    public boolean hasSSN(Long personId) {
+        return delegate.hasSSN(personId);
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<Person> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public boolean exists(Long personId) {
+        return delegate.exists(personId);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
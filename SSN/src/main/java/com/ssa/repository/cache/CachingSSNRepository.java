@@ -0,0 +1,225 @@
+package com.ssa.repository.cache;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.Page;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.SSNStatus;
+import com.ssa.repository.ISSNRepository;
+import com.ssa.util.CacheStats;
+import com.ssa.util.DatabaseManager;
+import com.ssa.util.TtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of any ISSNRepository.
+ *
+ * Black Box Implementation Detail: findBySSN/findById are served from a
+ * bounded TTL cache keyed by the formatted SSN, including cached "not found"
+ * answers. Writes through this decorator invalidate their keys at once and,
+ * inside a DatabaseManager.inTransaction, again when it commits or rolls
+ * back, so a read racing the commit cannot leave the old row cached for
+ * cache.ttlMs. ssnExists is
+ * deliberately not cached: SSN generation probes many never-seen numbers and
+ * would flush useful entries out of the cache.
+ */
+public class CachingSSNRepository implements ISSNRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CachingSSNRepository.class);
+
+    private final ISSNRepository delegate;
+    private final TtlCache<String, SSN> bySsn;
+    private final DatabaseManager databaseManager;
+
+    public CachingSSNRepository(ISSNRepository delegate) {
+        this(delegate,
+                AppConfig.getInt("cache.ssn.maxSize", 10000),
+                AppConfig.getLong("cache.ttlMs", 300000),
+                AppConfig.getLong("cache.negativeTtlMs", 30000));
+    }
+
+    public CachingSSNRepository(ISSNRepository delegate, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this(delegate, maxSize, ttlMillis, negativeTtlMillis, DatabaseManager.getInstance());
+    }
+
+    /**
+     * @param databaseManager Whose transactions invalidation is repeated after
+     */
+    public CachingSSNRepository(ISSNRepository delegate, int maxSize, long ttlMillis, long negativeTtlMillis,
+                                DatabaseManager databaseManager) {
+        this.delegate = delegate;
+        this.bySsn = new TtlCache<>(maxSize, ttlMillis, negativeTtlMillis);
+        this.databaseManager = databaseManager;
+    }
+
+    // Cached reads
+
+    @Override
+    public Optional<SSN> findBySSN(String ssn) {
+        if (ssn == null) return Optional.empty();
+        return bySsn.get(SSN.formatSSN(ssn), delegate::findBySSN).map(EntityCopies::copy);
+    }
+
+    @Override
+    public Optional<SSN> findById(String ssn) {
+        return findBySSN(ssn);
+    }
+
+    // Writes invalidate
+
+    @Override
+    public SSN save(SSN ssn) {
+        SSN saved = delegate.save(ssn);
+        invalidate(saved.getSsn());
+        return saved;
+    }
+
+    @Override
+    public List<SSN> saveAll(Collection<SSN> ssns) {
+        List<SSN> saved = delegate.saveAll(ssns);
+        List<String> keys = saved.stream().map(SSN::getSsn).toList();
+        invalidateThroughCompletion(() -> keys.forEach(this::invalidateKey));
+        return saved;
+    }
+
+    @Override
+    public SSN update(SSN ssn) {
+        SSN updated = delegate.update(ssn);
+        invalidate(updated.getSsn());
+        return updated;
+    }
+
+    @Override
+    public void delete(String ssn) {
+        delegate.delete(ssn);
+        invalidate(ssn);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> ssns) {
+        delegate.deleteAll(ssns);
+        List<String> keys = List.copyOf(ssns);
+        invalidateThroughCompletion(() -> keys.forEach(this::invalidateKey));
+    }
+
+    private void invalidate(String ssn) {
+        invalidateThroughCompletion(() -> invalidateKey(ssn));
+    }
+
+    private void invalidateKey(String ssn) {
+        bySsn.invalidate(SSN.formatSSN(ssn));
+    }
+
+    // Drops the entries now, so the writing transaction reads its own rows, and
+    // again when it ends, in case another thread reloaded the old row meanwhile
+    private void invalidateThroughCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (databaseManager.isInTransaction()) {
+            databaseManager.afterCompletion(invalidation);
+        }
+    }
+
+    // Warm-up
+
+    /**
+     * Warm up from the file named by cache.warmup.file.
+     */
+    public int warmUp() {
+        return warmUp(Path.of(AppConfig.get("cache.warmup.file", "./data/cache-warmup.keys")));
+    }
+
+    /**
+     * Save hot keys to cache.warmup.file, at most cache.warmup.keys per cache.
+     */
+    public void saveHotKeys() {
+        saveHotKeys(Path.of(AppConfig.get("cache.warmup.file", "./data/cache-warmup.keys")),
+                AppConfig.getInt("cache.warmup.keys", 1000));
+    }
+
+    /**
+     * Load the keys recorded by saveHotKeys() so the first lookups after a restart are hits.
+     * @param file Warm-up file; missing file means cold start
+     * @return Number of keys loaded
+     */
+    public int warmUp(Path file) {
+        List<String> keys = WarmupFile.read(file, "ssn");
+        keys.forEach(this::findBySSN);
+        logger.info("SSN cache warmed up with {} keys", keys.size());
+        return keys.size();
+    }
+
+    /**
+     * Record the most recently used keys for the next warmUp().
+     * @param file Warm-up file
+     * @param limit Maximum number of keys
+     */
+    public void saveHotKeys(Path file, int limit) {
+        WarmupFile.write(file, "ssn", bySsn.hotKeys(limit));
+    }
+
+    public CacheStats getCacheStats() {
+        return bySsn.getStats();
+    }
+
+    // Uncached pass-through
+
+    @Override
+    public Optional<SSN> findByPersonId(Long personId) {
+        return delegate.findByPersonId(personId);
+    }
+
+    @Override
+    public boolean ssnExists(String ssn) {
+        return delegate.ssnExists(ssn);
+    }
+
+    @Override
+    public List<SSN> findByStatus(SSNStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public Stream<SSN> streamByStatus(SSNStatus status) {
+        return delegate.streamByStatus(status);
+    }
+
+    @Override
+    public long countByStatus(SSNStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public Optional<SSN> getLatestSSN() {
+        return delegate.getLatestSSN();
+    }
+
+    @Override
+    public List<SSN> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<SSN> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<SSN> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public boolean exists(String ssn) {
+        return delegate.exists(ssn);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ssa.repository.cache;
+
+import com.ssa.model.Person;
+import com.ssa.model.SSN;
+
+/**
+ * Defensive copies for cached entities.
+ *
+ * Entities are mutable, so the caches hand out copies; a caller editing a
+ * Person it looked up must not change what the next caller sees.
+ */
+final class EntityCopies {
+    private EntityCopies() {
+        // Static utility
+    }
+
+    static Person copy(Person source) {
+        if (source == null) return null;
+        Person copy = new Person();
+        copy.setPersonId(source.getPersonId());
+        copy.setFirstName(source.getFirstName());
+        copy.setMiddleName(source.getMiddleName());
+        copy.setLastName(source.getLastName());
+        copy.setDateOfBirth(source.getDateOfBirth());
+        copy.setPlaceOfBirth(source.getPlaceOfBirth());
+        copy.setMothersMaidenName(source.getMothersMaidenName());
+        copy.setFathersName(source.getFathersName());
+        copy.setCitizenshipStatus(source.getCitizenshipStatus());
+        copy.setSsn(source.getSsn());
+        copy.setCreatedDate(source.getCreatedDate());
+        return copy;
+    }
+
+    static SSN copy(SSN source) {
+        if (source == null) return null;
+        SSN copy = new SSN();
+        copy.setSsn(source.getSsn());
+        copy.setPersonId(source.getPersonId());
+        copy.setIssuedDate(source.getIssuedDate());
+        copy.setStatus(source.getStatus());
+        return copy;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ssa.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain-text list of recently used cache keys, one "kind:key" per line.
+ *
+ * Written on shutdown and read on startup so a restarted cache begins warm.
+ * A missing or unreadable file just means a cold start.
+ */
+final class WarmupFile {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupFile.class);
+
+    private WarmupFile() {
+        // Static utility
+    }
+
+    static List<String> read(Path file, String kind) {
+        List<String> keys = new ArrayList<>();
+        if (file == null || !Files.exists(file)) {
+            return keys;
+        }
+        String prefix = kind + ":";
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.startsWith(prefix)) {
+                    keys.add(line.substring(prefix.length()));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read cache warm-up file {}", file, e);
+        }
+        return keys;
+    }
+
+    static void write(Path file, String kind, List<?> keys) {
+        List<String> lines = new ArrayList<>();
+        String prefix = kind + ":";
+        try {
+            if (Files.exists(file)) {
+                // Keep other caches' keys that share the file
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.startsWith(prefix)) {
+                        lines.add(line);
+                    }
+                }
+            }
+            for (Object key : keys) {
+                lines.add(prefix + key);
+            }
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not write cache warm-up file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ssa.repository.chain;
+
+import com.ssa.model.AuditChainSegment;
+import com.ssa.model.AuditLog;
+import com.ssa.util.MerkleTree;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Canonical hashing of audit logs and chain segment headers.
+ *
+ * Black Box Implementation Detail: A leaf is SHA-256 over 0x00, the log ID,
+ * the timestamp in UTC microseconds (the precision audit_logs stores), then
+ * user, action, details and IP as [length:4][UTF-8] with -1 for null. A
+ * header hash is SHA-256 over the previous header hash and every header
+ * field, so changing any sealed segment breaks every later link.
+ */
+final class AuditChainHashing {
+    static final String GENESIS = "0".repeat(64);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private AuditChainHashing() {
+    }
+
+    /**
+     * Build the segment that seals logs (in ID order) after the segment whose chain hash is prevHash.
+     */
+    static AuditChainSegment seal(long segmentNo, List<AuditLog> logs, String prevHash, MessageDigest digest) {
+        LocalDateTime first = logs.get(0).getTimestamp();
+        LocalDateTime last = first;
+        for (AuditLog log : logs) {
+            if (log.getTimestamp().isBefore(first)) first = log.getTimestamp();
+            if (log.getTimestamp().isAfter(last)) last = log.getTimestamp();
+        }
+        long firstLogId = logs.get(0).getLogId();
+        long lastLogId = logs.get(logs.size() - 1).getLogId();
+        String root = merkleRoot(logs, digest);
+        String chainHash = chainHash(segmentNo, firstLogId, lastLogId, logs.size(), first, last, root, prevHash, digest);
+        return new AuditChainSegment(segmentNo, firstLogId, lastLogId, logs.size(), first, last,
+                root, prevHash, chainHash, LocalDateTime.now());
+    }
+
+    static String merkleRoot(List<AuditLog> logs, MessageDigest digest) {
+        List<byte[]> leaves = new ArrayList<>(logs.size());
+        for (AuditLog log : logs) {
+            leaves.add(leafHash(log, digest));
+        }
+        return HEX.formatHex(MerkleTree.root(leaves, digest));
+    }
+
+    /**
+     * The chain hash the header of segment should have.
+     */
+    static String chainHash(AuditChainSegment segment, MessageDigest digest) {
+        return chainHash(segment.getSegmentNo(), segment.getFirstLogId(), segment.getLastLogId(),
+                segment.getLogCount(), segment.getFirstTimestamp(), segment.getLastTimestamp(),
+                segment.getMerkleRoot(), segment.getPrevHash(), digest);
+    }
+
+    private static String chainHash(long segmentNo, long firstLogId, long lastLogId, int logCount,
+                                    LocalDateTime first, LocalDateTime last, String merkleRoot,
+                                    String prevHash, MessageDigest digest) {
+        ByteBuffer header = ByteBuffer.allocate(44);
+        header.putLong(segmentNo).putLong(firstLogId).putLong(lastLogId).putInt(logCount)
+                .putLong(micros(first)).putLong(micros(last));
+        digest.update(HEX.parseHex(prevHash));
+        digest.update(header.array());
+        digest.update(HEX.parseHex(merkleRoot));
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static byte[] leafHash(AuditLog log, MessageDigest digest) {
+        digest.update(MerkleTree.LEAF_PREFIX);
+        ByteBuffer fixed = ByteBuffer.allocate(16);
+        fixed.putLong(log.getLogId()).putLong(micros(log.getTimestamp()));
+        digest.update(fixed.array());
+        update(digest, log.getUserName());
+        update(digest, log.getAction());
+        update(digest, log.getDetails());
+        update(digest, log.getIpAddress());
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,192 @@
+package com.ssa.repository.chain;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.AuditChainReport;
+import com.ssa.model.AuditChainSegment;
+import com.ssa.model.AuditLog;
+import com.ssa.repository.IAuditChainRepository;
+import com.ssa.util.MerkleTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Checks the audit hash chain against the stored audit logs.
+ *
+ * Black Box Implementation Detail: Verification has two parts. The header
+ * links (each segment's prevHash equals the previous chainHash, and each
+ * chainHash matches its header) are checked sequentially over the segment
+ * table, which holds one small row per segment. Segment contents are then
+ * checked independently: re-read the segment's ID range, recount it and
+ * recompute its Merkle root. That is a fork/join task split down to single
+ * segments, so whole-history verification runs on every core. A date range
+ * checks all links but re-reads only the segments whose logs overlap it, so
+ * its cost follows the size of the range, not of the history.
+ *
+ * Parallelism is audit.chain.verifyParallelism (0 = one per core), capped at
+ * the connection pool size since every task holds a connection while it
+ * reads. Each verification runs on its own fork/join pool, shut down when
+ * it finishes, so an idle verifier holds no threads.
+ */
+public class AuditChainVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerifier.class);
+
+    private final IAuditChainRepository chain;
+    private final int parallelism;
+
+    public AuditChainVerifier(IAuditChainRepository chain) {
+        this(chain, AppConfig.getInt("audit.chain.verifyParallelism", 0));
+    }
+
+    /**
+     * @param parallelism Worker threads; 0 for one per core
+     */
+    public AuditChainVerifier(IAuditChainRepository chain, int parallelism) {
+        this.chain = chain;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.parallelism = Math.max(1, Math.min(threads, AppConfig.getInt("db.pool.maxSize", 10)));
+    }
+
+    /**
+     * Verify every sealed segment.
+     */
+    public AuditChainReport verifyAll() {
+        return verify(segment -> true, null, null);
+    }
+
+    /**
+     * Verify the segments holding logs between from and to (inclusive), and every header link.
+     */
+    public AuditChainReport verifyRange(LocalDateTime from, LocalDateTime to) {
+        return verify(segment -> segment.overlaps(from, to), from, to);
+    }
+
+    private AuditChainReport verify(Predicate<AuditChainSegment> selected, LocalDateTime from, LocalDateTime to) {
+        long start = System.nanoTime();
+        List<AuditChainSegment> segments = chain.findSegments();
+        List<String> failures = checkLinks(segments);
+
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            if (selected.test(segments.get(i))) {
+                indexes.add(i);
+            }
+        }
+        Tally contents;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            contents = pool.invoke(new VerifyTask(segments, indexes, 0, indexes.size()));
+        } finally {
+            pool.shutdown();
+        }
+        failures.addAll(contents.failures);
+
+        long lastSealed = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).getLastLogId();
+        long unsealed = from == null ? chain.countLogsAfter(lastSealed) : chain.countLogsAfter(lastSealed, from, to);
+        AuditChainReport report = new AuditChainReport(indexes.size(), contents.logs, unsealed, failures,
+                (System.nanoTime() - start) / 1_000_000);
+        if (report.isIntact()) {
+            logger.info("Audit chain verified: {}", report);
+        } else {
+            logger.error("Audit chain verification FAILED: {} {}", report, report.getFailures());
+        }
+        return report;
+    }
+
+    private static List<String> checkLinks(List<AuditChainSegment> segments) {
+        List<String> failures = new ArrayList<>();
+        MessageDigest digest = MerkleTree.sha256();
+        AuditChainSegment previous = null;
+        for (AuditChainSegment segment : segments) {
+            long expectedNo = previous == null ? 1 : previous.getSegmentNo() + 1;
+            String expectedPrev = previous == null ? AuditChainHashing.GENESIS : previous.getChainHash();
+            if (segment.getSegmentNo() != expectedNo) {
+                failures.add("Segment " + segment.getSegmentNo() + ": expected segment " + expectedNo);
+            }
+            if (!expectedPrev.equals(segment.getPrevHash())) {
+                failures.add("Segment " + segment.getSegmentNo() + ": previous hash does not match segment "
+                        + (expectedNo - 1));
+            }
+            if (!AuditChainHashing.chainHash(segment, digest).equals(segment.getChainHash())) {
+                failures.add("Segment " + segment.getSegmentNo() + ": header does not match its chain hash");
+            }
+            if (previous != null && segment.getFirstLogId() <= previous.getLastLogId()) {
+                failures.add("Segment " + segment.getSegmentNo() + ": log IDs overlap segment "
+                        + previous.getSegmentNo());
+            }
+            previous = segment;
+        }
+        return failures;
+    }
+
+    /**
+     * Re-read one segment's logs and compare them with its header.
+     */
+    private Tally verifySegment(List<AuditChainSegment> segments, int index) {
+        AuditChainSegment segment = segments.get(index);
+        long after = index == 0 ? 0 : segments.get(index - 1).getLastLogId();
+        List<AuditLog> logs = chain.findLogsBetween(after, segment.getLastLogId());
+        Tally tally = new Tally();
+        tally.logs = logs.size();
+        String name = "Segment " + segment.getSegmentNo() + " (logs " + (after + 1) + ".." + segment.getLastLogId() + ")";
+        if (logs.size() != segment.getLogCount()) {
+            tally.failures.add(name + ": " + logs.size() + " logs, sealed with " + segment.getLogCount());
+            return tally;
+        }
+        if (logs.get(0).getLogId() != segment.getFirstLogId()) {
+            tally.failures.add(name + ": first log is " + logs.get(0).getLogId()
+                    + ", sealed with " + segment.getFirstLogId());
+            return tally;
+        }
+        if (!AuditChainHashing.merkleRoot(logs, MerkleTree.sha256()).equals(segment.getMerkleRoot())) {
+            tally.failures.add(name + ": Merkle root mismatch; a log was altered");
+        }
+        return tally;
+    }
+
+    private static final class Tally {
+        long logs;
+        final List<String> failures = new ArrayList<>();
+
+        Tally add(Tally other) {
+            logs += other.logs;
+            failures.addAll(other.failures);
+            return this;
+        }
+    }
+
+    private final class VerifyTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<AuditChainSegment> segments;
+        private final List<Integer> indexes;
+        private final int lo;
+        private final int hi;
+
+        VerifyTask(List<AuditChainSegment> segments, List<Integer> indexes, int lo, int hi) {
+            this.segments = segments;
+            this.indexes = indexes;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (hi - lo <= 1) {
+                return lo == hi ? new Tally() : verifySegment(segments, indexes.get(lo));
+            }
+            int mid = (lo + hi) >>> 1;
+            VerifyTask left = new VerifyTask(segments, indexes, lo, mid);
+            left.fork();
+            Tally right = new VerifyTask(segments, indexes, mid, hi).compute();
+            return left.join().add(right);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.ssa.repository.chain;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditChainSegment;
+import com.ssa.model.AuditLog;
+import com.ssa.model.Page;
+import com.ssa.repository.IAuditChainRepository;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.util.MerkleTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * IAuditRepository decorator that seals audit_logs into a hash chain.
+ *
+ * Black Box Implementation Detail: Writes through this decorator are
+ * serialized, so log IDs are committed in order and every row below the
+ * highest sealed ID is already visible when it is sealed. Once
+ * audit.chain.segmentSize logs are waiting, the next segment is sealed: its
+ * logs are read back in ID order (hashing exactly what was stored), their
+ * Merkle root is computed and a header linked to the previous one is
+ * inserted. With the async audit writer that is one extra range read per
+ * segment on the writer thread. A failed seal is logged and retried on the
+ * next write; the logs themselves are already stored.
+ *
+ * Sealed logs must not change, so deletes are rejected. Logs written around
+ * this decorator still get sealed, but only if their IDs commit in order.
+ * close() seals a final partial segment.
+ */
+public class ChainedAuditRepository implements IAuditRepository, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ChainedAuditRepository.class);
+
+    private final IAuditRepository delegate;
+    private final IAuditChainRepository chain;
+    private final int segmentSize;
+    private final Object writeLock = new Object();
+
+    // Guarded by writeLock; pending < 0 means "recount from the database"
+    private AuditChainSegment lastSegment;
+    private long pending = -1;
+
+    public ChainedAuditRepository(IAuditRepository delegate, IAuditChainRepository chain) {
+        this(delegate, chain, AppConfig.getInt("audit.chain.segmentSize", 1024));
+    }
+
+    public ChainedAuditRepository(IAuditRepository delegate, IAuditChainRepository chain, int segmentSize) {
+        this.delegate = delegate;
+        this.chain = chain;
+        this.segmentSize = Math.max(1, segmentSize);
+    }
+
+    /**
+     * Seal every log written so far, ending with a partial segment if needed.
+     * @return Number of segments sealed
+     */
+    public int sealPending() {
+        synchronized (writeLock) {
+            return seal(1);
+        }
+    }
+
+    @Override
+    public void close() {
+        int sealed = sealPending();
+        if (sealed > 0) {
+            logger.info("Sealed {} audit chain segment(s) on close", sealed);
+        }
+    }
+
+    /**
+     * Seal full segments while at least minimum logs are waiting.
+     */
+    private int seal(int minimum) {
+        int sealed = 0;
+        try {
+            if (pending < 0) {
+                lastSegment = chain.findLastSegment().orElse(null);
+                pending = chain.countLogsAfter(lastSealedId());
+            }
+            while (pending >= minimum) {
+                List<AuditLog> logs = chain.findLogsAfter(lastSealedId(), segmentSize);
+                if (logs.isEmpty()) {
+                    pending = 0;
+                    break;
+                }
+                long segmentNo = lastSegment == null ? 1 : lastSegment.getSegmentNo() + 1;
+                String prevHash = lastSegment == null ? AuditChainHashing.GENESIS : lastSegment.getChainHash();
+                AuditChainSegment segment = AuditChainHashing.seal(segmentNo, logs, prevHash, MerkleTree.sha256());
+                chain.saveSegment(segment);
+                lastSegment = segment;
+                pending = Math.max(0, pending - logs.size());
+                sealed++;
+            }
+        } catch (RepositoryException e) {
+            logger.error("Failed to seal audit chain segment; will retry on the next write", e);
+            pending = -1;
+        }
+        return sealed;
+    }
+
+    private long lastSealedId() {
+        return lastSegment == null ? 0 : lastSegment.getLastLogId();
+    }
+
+    private void written(int count) {
+        if (pending >= 0) {
+            pending += count;
+        }
+        seal(segmentSize);
+    }
+
+    // Writes
+
+    @Override
+    public AuditLog save(AuditLog log) {
+        synchronized (writeLock) {
+            try {
+                AuditLog saved = delegate.save(log);
+                written(1);
+                return saved;
+            } catch (RuntimeException e) {
+                pending = -1;
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        synchronized (writeLock) {
+            try {
+                List<AuditLog> saved = delegate.saveAll(logs);
+                written(saved.size());
+                return saved;
+            } catch (RuntimeException e) {
+                // Earlier chunks may have committed; recount before the next seal
+                pending = -1;
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void delete(Long logId) {
+        throw new UnsupportedOperationException("Audit logs are sealed into a hash chain and cannot be deleted");
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> logIds) {
+        throw new UnsupportedOperationException("Audit logs are sealed into a hash chain and cannot be deleted");
+    }
+
+    // Reads
+
+    @Override
+    public Optional<AuditLog> findById(Long logId) {
+        return delegate.findById(logId);
+    }
+
+    @Override
+    public List<AuditLog> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return delegate.findByDateRange(from, to);
+    }
+
+    @Override
+    public Stream<AuditLog> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return delegate.streamByDateRange(from, to);
+    }
+
+    @Override
+    public List<AuditLog> findByUser(String userName) {
+        return delegate.findByUser(userName);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return delegate.findByAction(action);
+    }
+
+    @Override
+    public List<AuditLog> findRecent(int limit) {
+        return delegate.findRecent(limit);
+    }
+
+    @Override
+    public Page<AuditLog> findRecent(int pageSize, String pageToken) {
+        return delegate.findRecent(pageSize, pageToken);
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<AuditLog> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<AuditLog> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public boolean exists(Long logId) {
+        return delegate.exists(logId);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
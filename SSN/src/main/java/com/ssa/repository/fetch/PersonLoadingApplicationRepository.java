@@ -0,0 +1,275 @@
+package com.ssa.repository.fetch;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.Application;
+import com.ssa.model.Page;
+import com.ssa.model.Person;
+import com.ssa.model.enums.ApplicationStatus;
+import com.ssa.repository.IApplicationRepository;
+import com.ssa.repository.IPersonRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Fills in Application.person on the applications any IApplicationRepository
+ * returns, without one person query per application.
+ *
+ * Black Box Implementation Detail: Every list or page read is followed by a
+ * single batched IPersonRepository.findAllById for the distinct person IDs
+ * on it (split into groups of repository.applications.personBatchSize), so
+ * a page of 500 pending applications costs two queries, not 501. In EAGER
+ * mode that query runs before the read returns. In LAZY mode each
+ * application gets a loader instead, and the first getPerson() call on any
+ * application of a group loads the persons of the whole group; a caller
+ * that never looks at persons pays nothing. NONE returns applications as
+ * the delegate does. Streams and writes pass through unchanged.
+ */
+public class PersonLoadingApplicationRepository implements IApplicationRepository {
+
+    /**
+     * When the persons of returned applications are read.
+     */
+    public enum FetchMode {
+        EAGER,
+        LAZY,
+        NONE
+    }
+
+    private final IApplicationRepository delegate;
+    private final IPersonRepository personRepository;
+    private final FetchMode fetchMode;
+    private final int batchSize;
+
+    public PersonLoadingApplicationRepository(IApplicationRepository delegate, IPersonRepository personRepository) {
+        this(delegate, personRepository,
+                FetchMode.valueOf(AppConfig.get("repository.applications.personFetch", "EAGER").toUpperCase(Locale.ROOT)),
+                AppConfig.getInt("repository.applications.personBatchSize", 500));
+    }
+
+    /**
+     * @param delegate Repository that reads the applications
+     * @param personRepository Repository the persons are read from
+     * @param fetchMode When persons are read
+     * @param batchSize Most persons read by one query
+     */
+    public PersonLoadingApplicationRepository(IApplicationRepository delegate, IPersonRepository personRepository,
+                                              FetchMode fetchMode, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.delegate = delegate;
+        this.personRepository = personRepository;
+        this.fetchMode = fetchMode;
+        this.batchSize = batchSize;
+    }
+
+    // Reads with persons attached
+
+    @Override
+    public Optional<Application> findById(Long id) {
+        Optional<Application> application = delegate.findById(id);
+        application.ifPresent(this::attach);
+        return application;
+    }
+
+    @Override
+    public List<Application> findAllById(Collection<Long> ids) {
+        return attach(delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Application> findAll() {
+        return attach(delegate.findAll());
+    }
+
+    @Override
+    public Page<Application> findAll(int pageSize, String pageToken) {
+        return attach(delegate.findAll(pageSize, pageToken));
+    }
+
+    @Override
+    public Optional<Application> findByReferenceNumber(String referenceNumber) {
+        Optional<Application> application = delegate.findByReferenceNumber(referenceNumber);
+        application.ifPresent(this::attach);
+        return application;
+    }
+
+    @Override
+    public List<Application> findByStatus(ApplicationStatus status) {
+        return attach(delegate.findByStatus(status));
+    }
+
+    @Override
+    public Page<Application> findByStatus(ApplicationStatus status, int pageSize, String pageToken) {
+        return attach(delegate.findByStatus(status, pageSize, pageToken));
+    }
+
+    @Override
+    public List<Application> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return attach(delegate.findByDateRange(from, to));
+    }
+
+    /**
+     * Every application here has the same person, so it is read once with findById.
+     */
+    @Override
+    public List<Application> findByPersonId(Long personId) {
+        List<Application> applications = delegate.findByPersonId(personId);
+        if (fetchMode == FetchMode.NONE || applications.isEmpty()) {
+            return applications;
+        }
+        PersonBatch batch = new PersonBatch(Set.of(personId));
+        for (Application application : applications) {
+            if (fetchMode == FetchMode.EAGER) {
+                application.setPerson(batch.get(personId));
+            } else {
+                application.setPersonLoader(() -> batch.get(personId));
+            }
+        }
+        return applications;
+    }
+
+    // Pass-through
+
+    @Override
+    public Stream<Application> streamByStatus(ApplicationStatus status) {
+        return delegate.streamByStatus(status);
+    }
+
+    @Override
+    public Stream<Application> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return delegate.streamByDateRange(from, to);
+    }
+
+    @Override
+    public Stream<Application> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Set<String> findExistingReferenceNumbers(Collection<String> referenceNumbers) {
+        return delegate.findExistingReferenceNumbers(referenceNumbers);
+    }
+
+    @Override
+    public Set<Long> updateAllIfPending(Collection<Application> applications) {
+        return delegate.updateAllIfPending(applications);
+    }
+
+    @Override
+    public boolean updateReviewIfUnreviewed(Application application) {
+        return delegate.updateReviewIfUnreviewed(application);
+    }
+
+    @Override
+    public long countByStatus(ApplicationStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public Application save(Application application) {
+        return delegate.save(application);
+    }
+
+    @Override
+    public List<Application> saveAll(Collection<Application> applications) {
+        return delegate.saveAll(applications);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        delegate.deleteAll(ids);
+    }
+
+    @Override
+    public boolean exists(Long id) {
+        return delegate.exists(id);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    // Attaching
+
+    private Page<Application> attach(Page<Application> page) {
+        attach(page.getItems());
+        return page;
+    }
+
+    private void attach(Application application) {
+        attach(List.of(application));
+    }
+
+    private List<Application> attach(List<Application> applications) {
+        if (fetchMode == FetchMode.NONE) {
+            return applications;
+        }
+        for (int from = 0; from < applications.size(); from += batchSize) {
+            List<Application> group = applications.subList(from, Math.min(from + batchSize, applications.size()));
+            Set<Long> personIds = new LinkedHashSet<>();
+            for (Application application : group) {
+                if (!application.isPersonLoaded() && application.getPersonId() != null) {
+                    personIds.add(application.getPersonId());
+                }
+            }
+            if (personIds.isEmpty()) {
+                continue;
+            }
+            PersonBatch batch = new PersonBatch(personIds);
+            for (Application application : group) {
+                Long personId = application.getPersonId();
+                if (application.isPersonLoaded() || personId == null) {
+                    continue;
+                }
+                if (fetchMode == FetchMode.EAGER) {
+                    application.setPerson(batch.get(personId));
+                } else {
+                    application.setPersonLoader(() -> batch.get(personId));
+                }
+            }
+        }
+        return applications;
+    }
+
+    /**
+     * The persons of one group of applications, read together on first use.
+     */
+    private final class PersonBatch {
+        private final Set<Long> personIds;
+        private Map<Long, Person> persons;
+
+        PersonBatch(Set<Long> personIds) {
+            this.personIds = personIds;
+        }
+
+        synchronized Person get(Long personId) {
+            if (persons == null) {
+                persons = new HashMap<>();
+                if (personIds.size() == 1) {
+                    personRepository.findById(personId).ifPresent(person -> persons.put(personId, person));
+                } else {
+                    for (Person person : personRepository.findAllById(personIds)) {
+                        persons.put(person.getPersonId(), person);
+                    }
+                }
+            }
+            return persons.get(personId);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.ssa.repository.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Page;
+import com.ssa.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Shared JDBC query plumbing for the H2 repositories.
+ *
+ * Black Box Implementation Detail: Subclasses map rows; this class owns
+ * connection handling, SQLException translation, streaming cursors, keyset
+ * pagination and transactions. It makes no assumption about how rows are
+ * stored, so repositories spread over several tables build on it directly;
+ * single-table CRUD repositories use AbstractJdbcRepository.
+ *
+ * @param <T> Entity type
+ */
+public abstract class AbstractJdbcQueries<T> {
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+    protected final DatabaseManager databaseManager;
+    private final int fetchSize;
+
+    protected AbstractJdbcQueries(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        this.fetchSize = Math.max(1, AppConfig.getInt("db.fetch.size", 1000));
+    }
+
+    /**
+     * Name used in error messages.
+     */
+    protected abstract String tableName();
+
+    protected abstract T mapRow(ResultSet rs) throws SQLException;
+
+    protected List<T> queryList(String sql, Object... params) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindParams(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<T> results = new ArrayList<>();
+                while (rs.next()) {
+                    results.add(mapRow(rs));
+                }
+                return results;
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Query on " + tableName() + " failed", e);
+        }
+    }
+
+    /**
+     * Run a query through a forward-only, read-only cursor and map rows lazily.
+     *
+     * The connection stays borrowed until the returned stream is closed. H2 is
+     * switched to lazy query execution for the session so it hands rows over as
+     * they are produced instead of materializing the whole result first.
+     */
+    protected Stream<T> queryStream(String sql, Object... params) {
+        Connection conn = databaseManager.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            setLazyExecution(conn, true);
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            bindParams(ps, params);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeCursor(rs, ps, conn);
+            throw new RepositoryException("Streaming query on " + tableName() + " failed", e);
+        }
+        ResultSet cursor = rs;
+        PreparedStatement statement = ps;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapRow(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RepositoryException("Failed to read " + tableName() + " row", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeCursor(cursor, statement, conn));
+    }
+
+    private void closeCursor(ResultSet rs, PreparedStatement ps, Connection conn) {
+        try (conn) {
+            if (rs != null) rs.close();
+            if (ps != null) ps.close();
+            // The cursor must be closed before the session accepts another command
+            setLazyExecution(conn, false);
+        } catch (SQLException e) {
+            logger.warn("Error closing streaming cursor on {}", tableName(), e);
+        }
+    }
+
+    private static void setLazyExecution(Connection conn, boolean lazy) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+
+    /**
+     * Run a keyset page query. The SQL must end with "LIMIT ?"; the limit is
+     * bound here as pageSize + 1 so we know whether another page exists
+     * without a separate count.
+     * @param tokenOf Builds the continuation token from the last row on the page
+     */
+    protected Page<T> queryPage(String sql, int pageSize, Function<T, String> tokenOf, Object... params) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        Object[] withLimit = new Object[params.length + 1];
+        System.arraycopy(params, 0, withLimit, 0, params.length);
+        withLimit[params.length] = pageSize + 1;
+        List<T> rows = queryList(sql, withLimit);
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new Page<>(page, tokenOf.apply(page.get(pageSize - 1)));
+    }
+
+    protected static long parseLongKey(String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+
+    protected static LocalDateTime parseTimestampKey(String key) {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+
+    protected Optional<T> queryOne(String sql, Object... params) {
+        List<T> results = queryList(sql, params);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    protected long queryLong(String sql, Object... params) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindParams(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Query on " + tableName() + " failed", e);
+        }
+    }
+
+    protected int execute(String sql, Object... params) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindParams(ps, params);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RepositoryException("Update on " + tableName() + " failed", e);
+        }
+    }
+
+    protected static void bindParams(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            ps.setObject(i + 1, param instanceof Enum<?> e ? e.name() : param);
+        }
+    }
+
+    /**
+     * Run work inside a transaction on the given connection, rolling back on failure.
+     * If the connection is already in a transaction (DatabaseManager.inTransaction),
+     * work just joins it; the owner of that transaction commits.
+     */
+    protected static void inTransaction(Connection conn, SqlWork work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        if (!autoCommit) {
+            work.run();
+            return;
+        }
+        conn.setAutoCommit(false);
+        try {
+            work.run();
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface SqlWork {
+        void run() throws SQLException;
+    }
+}
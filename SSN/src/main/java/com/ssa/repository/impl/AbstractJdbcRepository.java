@@ -0,0 +1,266 @@
+package com.ssa.repository.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Page;
+import com.ssa.repository.IRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Single-table CRUD for the H2 repositories.
+ *
+ * Black Box Implementation Detail: Subclasses describe their table (SQL text,
+ * parameter binding, row mapping); this class implements IRepository over it
+ * with batched bulk writes, on top of the query plumbing of
+ * AbstractJdbcQueries.
+ *
+ * @param <T> Entity type
+ * @param <ID> ID type
+ */
+public abstract class AbstractJdbcRepository<T, ID> extends AbstractJdbcQueries<T> implements IRepository<T, ID> {
+    private final int batchSize;
+
+    protected AbstractJdbcRepository(DatabaseManager databaseManager) {
+        super(databaseManager);
+        this.batchSize = Math.max(1, AppConfig.getInt("db.batch.size", 500));
+    }
+
+    // Table description supplied by subclasses
+
+    protected abstract String idColumn();
+
+    protected abstract ID getId(T entity);
+
+    /**
+     * Whether save() should insert (true) or update (false) this entity.
+     */
+    protected abstract boolean isNew(T entity);
+
+    protected abstract String insertSql();
+
+    protected abstract void bindInsert(PreparedStatement ps, T entity) throws SQLException;
+
+    protected abstract String updateSql();
+
+    protected abstract void bindUpdate(PreparedStatement ps, T entity) throws SQLException;
+
+    /**
+     * Write a generated key back into a freshly inserted entity.
+     * Repositories with natural keys leave this as a no-op.
+     */
+    protected void applyGeneratedId(T entity, ResultSet keys) throws SQLException {
+        // Natural key - nothing to write back
+    }
+
+    protected boolean hasGeneratedId() {
+        return true;
+    }
+
+    // IRepository
+
+    @Override
+    public T save(T entity) {
+        try (Connection conn = databaseManager.getConnection()) {
+            if (isNew(entity)) {
+                insert(conn, entity);
+            } else {
+                update(conn, entity);
+            }
+            return entity;
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to save " + tableName() + " row", e);
+        }
+    }
+
+    private void insert(Connection conn, T entity) throws SQLException {
+        try (PreparedStatement ps = prepareInsert(conn)) {
+            bindInsert(ps, entity);
+            ps.executeUpdate();
+            if (hasGeneratedId()) {
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        applyGeneratedId(entity, keys);
+                    }
+                }
+            }
+        }
+    }
+
+    private void update(Connection conn, T entity) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(updateSql())) {
+            bindUpdate(ps, entity);
+            if (ps.executeUpdate() == 0) {
+                throw new RepositoryException("No " + tableName() + " row with " + idColumn() + "=" + getId(entity));
+            }
+        }
+    }
+
+    private PreparedStatement prepareInsert(Connection conn) throws SQLException {
+        return hasGeneratedId()
+                ? conn.prepareStatement(insertSql(), new String[]{idColumn()})
+                : conn.prepareStatement(insertSql());
+    }
+
+    /**
+     * Batched save: entities are written in chunks of db.batch.size, one
+     * transaction per chunk. Generated IDs are written back into the entities.
+     * If a chunk fails it is rolled back; chunks before it stay committed. An
+     * update whose row no longer exists fails its chunk, as it fails save().
+     */
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        List<T> all = new ArrayList<>(entities);
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<T> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+            try (Connection conn = databaseManager.getConnection()) {
+                inTransaction(conn, () -> writeChunk(conn, chunk));
+            } catch (SQLException e) {
+                throw new RepositoryException("Batch save into " + tableName() + " failed at row " + from, e);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Updates run first, so a chunk that names a missing row fails before any
+     * insert has handed out generated IDs.
+     */
+    private void writeChunk(Connection conn, List<T> chunk) throws SQLException {
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        for (T entity : chunk) {
+            (isNew(entity) ? inserts : updates).add(entity);
+        }
+        if (!updates.isEmpty()) {
+            try (PreparedStatement ps = conn.prepareStatement(updateSql())) {
+                for (T entity : updates) {
+                    bindUpdate(ps, entity);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        throw new RepositoryException("No " + tableName() + " row with " + idColumn() + "="
+                                + getId(updates.get(i)));
+                    }
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            try (PreparedStatement ps = prepareInsert(conn)) {
+                for (T entity : inserts) {
+                    bindInsert(ps, entity);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                if (hasGeneratedId()) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T entity : inserts) {
+                            if (!keys.next()) break;
+                            applyGeneratedId(entity, keys);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Batched delete, one transaction per chunk of db.batch.size IDs.
+     */
+    @Override
+    public void deleteAll(Collection<ID> ids) {
+        List<ID> all = new ArrayList<>(ids);
+        String sql = "DELETE FROM " + tableName() + " WHERE " + idColumn() + " = ?";
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<ID> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+            try (Connection conn = databaseManager.getConnection()) {
+                inTransaction(conn, () -> {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        for (ID id : chunk) {
+                            ps.setObject(1, id);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                });
+            } catch (SQLException e) {
+                throw new RepositoryException("Batch delete from " + tableName() + " failed at row " + from, e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return queryOne("SELECT * FROM " + tableName() + " WHERE " + idColumn() + " = ?", id);
+    }
+
+    /**
+     * One "= ANY(?)" query (an index seek per ID) per chunk of db.batch.size IDs.
+     */
+    @Override
+    public List<T> findAllById(Collection<ID> ids) {
+        List<Object> all = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<T> found = new ArrayList<>(all.size());
+        String sql = "SELECT * FROM " + tableName() + " WHERE " + idColumn() + " = ANY(?) ORDER BY " + idColumn();
+        for (int from = 0; from < all.size(); from += batchSize) {
+            Object[] chunk = all.subList(from, Math.min(from + batchSize, all.size())).toArray();
+            found.addAll(queryList(sql, (Object) chunk));
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return queryList("SELECT * FROM " + tableName() + " ORDER BY " + idColumn());
+    }
+
+    @Override
+    public Stream<T> streamAll() {
+        return queryStream("SELECT * FROM " + tableName() + " ORDER BY " + idColumn());
+    }
+
+    /**
+     * Keyset pagination on the primary key. Only numeric IDs are supported here;
+     * repositories with other key types override this.
+     */
+    @Override
+    public Page<T> findAll(int pageSize, String pageToken) {
+        String scope = tableName() + ".all";
+        String[] after = KeysetToken.decode(pageToken, scope, 1);
+        String sql = "SELECT * FROM " + tableName()
+                + (after == null ? "" : " WHERE " + idColumn() + " > ?")
+                + " ORDER BY " + idColumn() + " LIMIT ?";
+        Function<T, String> tokenOf = entity -> KeysetToken.encode(scope, String.valueOf(getId(entity)));
+        return after == null
+                ? queryPage(sql, pageSize, tokenOf)
+                : queryPage(sql, pageSize, tokenOf, parseLongKey(after[0]));
+    }
+
+    @Override
+    public void delete(ID id) {
+        execute("DELETE FROM " + tableName() + " WHERE " + idColumn() + " = ?", id);
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        return queryLong("SELECT COUNT(*) FROM " + tableName() + " WHERE " + idColumn() + " = ?", id) > 0;
+    }
+
+    @Override
+    public long count() {
+        return queryLong("SELECT COUNT(*) FROM " + tableName());
+    }
+}
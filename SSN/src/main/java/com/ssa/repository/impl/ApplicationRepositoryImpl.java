@@ -0,0 +1,255 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Application;
+import com.ssa.model.Page;
+import com.ssa.model.enums.ApplicationStatus;
+import com.ssa.repository.IApplicationRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * H2 implementation of IApplicationRepository over the applications table.
+ */
+public class ApplicationRepositoryImpl extends AbstractJdbcRepository<Application, Long> implements IApplicationRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO applications (reference_number, person_id, application_date, status,
+                                      review_date, review_notes, reviewed_by, assigned_ssn)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE applications SET reference_number = ?, person_id = ?, application_date = ?, status = ?,
+                                    review_date = ?, review_notes = ?, reviewed_by = ?, assigned_ssn = ?
+            WHERE application_id = ?
+            """;
+
+    private static final String UPDATE_IF_PENDING_SQL = UPDATE_SQL + " AND status = 'PENDING'";
+
+    private static final String REVIEW_IF_UNREVIEWED_SQL = """
+            UPDATE applications SET status = ?, review_date = ?, review_notes = ?, reviewed_by = ?
+            WHERE application_id = ? AND status = 'PENDING' AND review_notes IS NULL
+            """;
+
+    public ApplicationRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public ApplicationRepositoryImpl(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    @Override
+    protected String tableName() {
+        return "applications";
+    }
+
+    @Override
+    protected String idColumn() {
+        return "application_id";
+    }
+
+    @Override
+    protected Long getId(Application application) {
+        return application.getApplicationId();
+    }
+
+    @Override
+    protected boolean isNew(Application application) {
+        return application.getApplicationId() == null;
+    }
+
+    @Override
+    protected String insertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement ps, Application application) throws SQLException {
+        bindColumns(ps, application);
+    }
+
+    @Override
+    protected String updateSql() {
+        return UPDATE_SQL;
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement ps, Application application) throws SQLException {
+        int next = bindColumns(ps, application);
+        ps.setLong(next, application.getApplicationId());
+    }
+
+    private int bindColumns(PreparedStatement ps, Application application) throws SQLException {
+        Long personId = application.getPersonId() != null ? application.getPersonId()
+                : application.getPerson() != null ? application.getPerson().getPersonId() : null;
+        ps.setString(1, application.getReferenceNumber());
+        ps.setObject(2, personId);
+        ps.setObject(3, application.getApplicationDate());
+        ps.setString(4, application.getStatus().name());
+        ps.setObject(5, application.getReviewDate());
+        ps.setString(6, application.getReviewNotes());
+        ps.setString(7, application.getReviewedBy());
+        ps.setString(8, application.getAssignedSSN());
+        return 9;
+    }
+
+    @Override
+    protected void applyGeneratedId(Application application, ResultSet keys) throws SQLException {
+        application.setApplicationId(keys.getLong(1));
+    }
+
+    @Override
+    protected Application mapRow(ResultSet rs) throws SQLException {
+        Application application = new Application(rs.getLong("application_id"), rs.getString("reference_number"));
+        application.setPersonId(rs.getLong("person_id"));
+        application.setApplicationDate(rs.getObject("application_date", LocalDateTime.class));
+        application.setStatus(ApplicationStatus.valueOf(rs.getString("status")));
+        application.setReviewDate(rs.getObject("review_date", LocalDateTime.class));
+        application.setReviewNotes(rs.getString("review_notes"));
+        application.setReviewedBy(rs.getString("reviewed_by"));
+        application.setAssignedSSN(rs.getString("assigned_ssn"));
+        return application;
+    }
+
+    @Override
+    public Set<Long> updateAllIfPending(Collection<Application> applications) {
+        List<Application> all = List.copyOf(applications);
+        Set<Long> skipped = new HashSet<>();
+        if (all.isEmpty()) {
+            return skipped;
+        }
+        try (Connection conn = databaseManager.getConnection()) {
+            inTransaction(conn, () -> {
+                try (PreparedStatement ps = conn.prepareStatement(UPDATE_IF_PENDING_SQL)) {
+                    for (Application application : all) {
+                        bindUpdate(ps, application);
+                        ps.addBatch();
+                    }
+                    int[] updated = ps.executeBatch();
+                    for (int i = 0; i < updated.length; i++) {
+                        if (updated[i] == 0) {
+                            skipped.add(all.get(i).getApplicationId());
+                        }
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            throw new RepositoryException("Conditional update of applications failed", e);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean updateReviewIfUnreviewed(Application application) {
+        return execute(REVIEW_IF_UNREVIEWED_SQL, application.getStatus(), application.getReviewDate(),
+                application.getReviewNotes(), application.getReviewedBy(), application.getApplicationId()) > 0;
+    }
+
+    @Override
+    public Optional<Application> findByReferenceNumber(String referenceNumber) {
+        return queryOne("SELECT * FROM applications WHERE reference_number = ?", referenceNumber);
+    }
+
+    /**
+     * One seek of the reference_number unique index per candidate, in a single query.
+     */
+    @Override
+    public Set<String> findExistingReferenceNumbers(Collection<String> referenceNumbers) {
+        Set<String> existing = new HashSet<>();
+        if (referenceNumbers.isEmpty()) {
+            return existing;
+        }
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT reference_number FROM applications WHERE reference_number = ANY(?)")) {
+            ps.setObject(1, referenceNumbers.toArray(new String[0]));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+            return existing;
+        } catch (SQLException e) {
+            throw new RepositoryException("Query on applications failed", e);
+        }
+    }
+
+    @Override
+    public List<Application> findByStatus(ApplicationStatus status) {
+        return queryList("SELECT * FROM applications WHERE status = ? ORDER BY application_date, application_id", status);
+    }
+
+    /**
+     * Seek past the last (application_date, application_id) seen. The leading
+     * application_date >= ? keeps the predicate an index range on
+     * idx_app_status_date; the OR only breaks ties within one timestamp.
+     */
+    @Override
+    public Page<Application> findByStatus(ApplicationStatus status, int pageSize, String pageToken) {
+        String scope = "applications.status." + status.name();
+        String[] after = KeysetToken.decode(pageToken, scope, 2);
+        Function<Application, String> tokenOf = app -> KeysetToken.encode(scope,
+                app.getApplicationDate().toString(), String.valueOf(app.getApplicationId()));
+        if (after == null) {
+            return queryPage("SELECT * FROM applications WHERE status = ?"
+                    + " ORDER BY application_date, application_id LIMIT ?", pageSize, tokenOf, status);
+        }
+        LocalDateTime date = parseTimestampKey(after[0]);
+        long id = parseLongKey(after[1]);
+        return queryPage("SELECT * FROM applications WHERE status = ? AND application_date >= ?"
+                        + " AND (application_date > ? OR application_id > ?)"
+                        + " ORDER BY application_date, application_id LIMIT ?",
+                pageSize, tokenOf, status, date, date, id);
+    }
+
+    @Override
+    public Stream<Application> streamByStatus(ApplicationStatus status) {
+        return queryStream("SELECT * FROM applications WHERE status = ? ORDER BY application_date, application_id", status);
+    }
+
+    @Override
+    public List<Application> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return queryList("SELECT * FROM applications WHERE application_date BETWEEN ? AND ?"
+                + " ORDER BY application_date, application_id", from, to);
+    }
+
+    @Override
+    public Stream<Application> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return queryStream("SELECT * FROM applications WHERE application_date BETWEEN ? AND ?"
+                + " ORDER BY application_date, application_id", from, to);
+    }
+
+    @Override
+    public List<Application> findByPersonId(Long personId) {
+        return queryList("SELECT * FROM applications WHERE person_id = ? ORDER BY application_date, application_id", personId);
+    }
+
+    /**
+     * Sum of the status's counter rows in status_counts (maintained by
+     * StatusCountTrigger), not a scan of applications.
+     */
+    @Override
+    public long countByStatus(ApplicationStatus status) {
+        return queryLong("SELECT COALESCE(SUM(row_count), 0) FROM status_counts"
+                + " WHERE table_name = 'applications' AND status = ?", status);
+    }
+
+    @Override
+    public long count() {
+        return queryLong("SELECT COALESCE(SUM(row_count), 0) FROM status_counts WHERE table_name = 'applications'");
+    }
+}
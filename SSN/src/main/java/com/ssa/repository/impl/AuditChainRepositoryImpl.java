@@ -0,0 +1,139 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditChainSegment;
+import com.ssa.model.AuditLog;
+import com.ssa.repository.IAuditChainRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * H2 implementation of IAuditChainRepository over the audit_chain_segments
+ * and audit_logs tables.
+ *
+ * Black Box Implementation Detail: Segments are keyed by segment number and
+ * only ever inserted. Logs are read by primary key range, so verifying one
+ * segment is a single range scan regardless of table size.
+ */
+public class AuditChainRepositoryImpl implements IAuditChainRepository {
+    private static final String SEGMENT_COLUMNS = "segment_no, first_log_id, last_log_id, log_count,"
+            + " first_timestamp, last_timestamp, merkle_root, prev_hash, chain_hash, sealed_at";
+
+    private final DatabaseManager databaseManager;
+
+    public AuditChainRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public AuditChainRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    // Segments
+
+    @Override
+    public List<AuditChainSegment> findSegments() {
+        return query("SELECT " + SEGMENT_COLUMNS + " FROM audit_chain_segments ORDER BY segment_no",
+                AuditChainRepositoryImpl::mapSegment);
+    }
+
+    @Override
+    public Optional<AuditChainSegment> findLastSegment() {
+        return query("SELECT " + SEGMENT_COLUMNS + " FROM audit_chain_segments ORDER BY segment_no DESC LIMIT 1",
+                AuditChainRepositoryImpl::mapSegment).stream().findFirst();
+    }
+
+    @Override
+    public void saveSegment(AuditChainSegment segment) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO audit_chain_segments (" + SEGMENT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            AbstractJdbcRepository.bindParams(ps, segment.getSegmentNo(), segment.getFirstLogId(),
+                    segment.getLastLogId(), segment.getLogCount(), segment.getFirstTimestamp(),
+                    segment.getLastTimestamp(), segment.getMerkleRoot(), segment.getPrevHash(),
+                    segment.getChainHash(), segment.getSealedAt());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to save audit chain segment " + segment.getSegmentNo(), e);
+        }
+    }
+
+    // Logs
+
+    @Override
+    public List<AuditLog> findLogsAfter(long afterLogId, int limit) {
+        return query("SELECT * FROM audit_logs WHERE log_id > ? ORDER BY log_id LIMIT ?",
+                AuditChainRepositoryImpl::mapLog, afterLogId, limit);
+    }
+
+    @Override
+    public List<AuditLog> findLogsBetween(long afterLogId, long lastLogId) {
+        return query("SELECT * FROM audit_logs WHERE log_id > ? AND log_id <= ? ORDER BY log_id",
+                AuditChainRepositoryImpl::mapLog, afterLogId, lastLogId);
+    }
+
+    @Override
+    public long countLogsAfter(long afterLogId) {
+        return query("SELECT COUNT(*) FROM audit_logs WHERE log_id > ?", rs -> rs.getLong(1), afterLogId).get(0);
+    }
+
+    @Override
+    public long countLogsAfter(long afterLogId, LocalDateTime from, LocalDateTime to) {
+        return query("SELECT COUNT(*) FROM audit_logs WHERE log_id > ? AND timestamp BETWEEN ? AND ?",
+                rs -> rs.getLong(1), afterLogId, from, to).get(0);
+    }
+
+    private <R> List<R> query(String sql, RowMapper<R> mapper, Object... params) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            AbstractJdbcRepository.bindParams(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<R> results = new ArrayList<>();
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
+                return results;
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Audit chain query failed", e);
+        }
+    }
+
+    private static AuditChainSegment mapSegment(ResultSet rs) throws SQLException {
+        return new AuditChainSegment(
+                rs.getLong("segment_no"),
+                rs.getLong("first_log_id"),
+                rs.getLong("last_log_id"),
+                rs.getInt("log_count"),
+                rs.getObject("first_timestamp", LocalDateTime.class),
+                rs.getObject("last_timestamp", LocalDateTime.class),
+                rs.getString("merkle_root"),
+                rs.getString("prev_hash"),
+                rs.getString("chain_hash"),
+                rs.getObject("sealed_at", LocalDateTime.class));
+    }
+
+    private static AuditLog mapLog(ResultSet rs) throws SQLException {
+        AuditLog log = new AuditLog();
+        log.setLogId(rs.getLong("log_id"));
+        log.setTimestamp(rs.getObject("timestamp", LocalDateTime.class));
+        log.setUserName(rs.getString("user_name"));
+        log.setAction(rs.getString("action"));
+        log.setDetails(rs.getString("details"));
+        log.setIpAddress(rs.getString("ip_address"));
+        return log;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<R> {
+        R map(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditLog;
+import com.ssa.model.Page;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * H2 implementation of IAuditRepository over the audit_logs table.
+ *
+ * Audit entries are append-only: saving an entry that already has a log ID
+ * is rejected rather than silently rewriting history.
+ */
+public class AuditRepositoryImpl extends AbstractJdbcRepository<AuditLog, Long> implements IAuditRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (timestamp, user_name, action, details, ip_address) VALUES (?, ?, ?, ?, ?)";
+
+    public AuditRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public AuditRepositoryImpl(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    @Override
+    protected String tableName() {
+        return "audit_logs";
+    }
+
+    @Override
+    protected String idColumn() {
+        return "log_id";
+    }
+
+    @Override
+    protected Long getId(AuditLog log) {
+        return log.getLogId();
+    }
+
+    @Override
+    protected boolean isNew(AuditLog log) {
+        if (log.getLogId() != null) {
+            throw new RepositoryException("Audit log " + log.getLogId() + " is immutable");
+        }
+        return true;
+    }
+
+    @Override
+    protected String insertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement ps, AuditLog log) throws SQLException {
+        ps.setObject(1, log.getTimestamp() != null ? log.getTimestamp() : LocalDateTime.now());
+        ps.setString(2, log.getUserName());
+        ps.setString(3, log.getAction());
+        ps.setString(4, log.getDetails());
+        ps.setString(5, log.getIpAddress());
+    }
+
+    @Override
+    protected String updateSql() {
+        throw new UnsupportedOperationException("Audit logs are append-only");
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement ps, AuditLog log) {
+        throw new UnsupportedOperationException("Audit logs are append-only");
+    }
+
+    @Override
+    protected void applyGeneratedId(AuditLog log, ResultSet keys) throws SQLException {
+        log.setLogId(keys.getLong(1));
+    }
+
+    @Override
+    protected AuditLog mapRow(ResultSet rs) throws SQLException {
+        AuditLog log = new AuditLog();
+        log.setLogId(rs.getLong("log_id"));
+        log.setTimestamp(rs.getObject("timestamp", LocalDateTime.class));
+        log.setUserName(rs.getString("user_name"));
+        log.setAction(rs.getString("action"));
+        log.setDetails(rs.getString("details"));
+        log.setIpAddress(rs.getString("ip_address"));
+        return log;
+    }
+
+    @Override
+    public List<AuditLog> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return queryList("SELECT * FROM audit_logs WHERE timestamp BETWEEN ? AND ? ORDER BY timestamp, log_id", from, to);
+    }
+
+    @Override
+    public Stream<AuditLog> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return queryStream("SELECT * FROM audit_logs WHERE timestamp BETWEEN ? AND ? ORDER BY timestamp, log_id", from, to);
+    }
+
+    @Override
+    public List<AuditLog> findByUser(String userName) {
+        return queryList("SELECT * FROM audit_logs WHERE user_name = ? ORDER BY timestamp, log_id", userName);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return queryList("SELECT * FROM audit_logs WHERE action = ? ORDER BY timestamp, log_id", action);
+    }
+
+    @Override
+    public List<AuditLog> findRecent(int limit) {
+        return queryList("SELECT * FROM audit_logs ORDER BY timestamp DESC, log_id DESC LIMIT ?", limit);
+    }
+
+    /**
+     * Seek before the last (timestamp, log_id) seen, walking idx_audit_date backwards.
+     */
+    @Override
+    public Page<AuditLog> findRecent(int pageSize, String pageToken) {
+        String scope = "audit_logs.recent";
+        String[] before = KeysetToken.decode(pageToken, scope, 2);
+        Function<AuditLog, String> tokenOf = log -> KeysetToken.encode(scope,
+                log.getTimestamp().toString(), String.valueOf(log.getLogId()));
+        if (before == null) {
+            return queryPage("SELECT * FROM audit_logs ORDER BY timestamp DESC, log_id DESC LIMIT ?", pageSize, tokenOf);
+        }
+        LocalDateTime timestamp = parseTimestampKey(before[0]);
+        long logId = parseLongKey(before[1]);
+        return queryPage("SELECT * FROM audit_logs WHERE timestamp <= ? AND (timestamp < ? OR log_id < ?)"
+                + " ORDER BY timestamp DESC, log_id DESC LIMIT ?", pageSize, tokenOf, timestamp, timestamp, logId);
+    }
+}
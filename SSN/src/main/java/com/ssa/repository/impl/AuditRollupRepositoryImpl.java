@@ -0,0 +1,325 @@
+package com.ssa.repository.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditLog;
+import com.ssa.model.AuditRollup;
+import com.ssa.model.enums.RollupResolution;
+import com.ssa.repository.IAuditRollupRepository;
+import com.ssa.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * H2 implementation of IAuditRollupRepository over the audit_rollups table.
+ *
+ * Black Box Implementation Detail: One row per (resolution, bucket start,
+ * action, user) holds an event count. increment() first folds a batch of
+ * logs into per-bucket deltas in memory, then applies them with one batched
+ * MERGE in a single transaction, so a group of 256 logs from the async audit
+ * writer costs a few dozen row updates. Minute and hour buckets older than
+ * audit.rollup.minuteRetentionDays / hourRetentionDays are purged at most
+ * once an hour; day buckets are kept.
+ */
+public class AuditRollupRepositoryImpl implements IAuditRollupRepository {
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupRepositoryImpl.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String MERGE_SQL = """
+            MERGE INTO audit_rollups r
+            USING (VALUES (CAST(? AS VARCHAR(10)), CAST(? AS TIMESTAMP), CAST(? AS VARCHAR(100)),
+                           CAST(? AS VARCHAR(100)), CAST(? AS BIGINT)))
+                AS d(resolution, bucket_start, action, user_name, delta)
+            ON r.resolution = d.resolution AND r.bucket_start = d.bucket_start
+                AND r.action = d.action AND r.user_name = d.user_name
+            WHEN MATCHED THEN UPDATE SET event_count = r.event_count + d.delta
+            WHEN NOT MATCHED THEN INSERT (resolution, bucket_start, action, user_name, event_count)
+                VALUES (d.resolution, d.bucket_start, d.action, d.user_name, d.delta)
+            """;
+
+    private final DatabaseManager databaseManager;
+    private final int minuteRetentionDays;
+    private final int hourRetentionDays;
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    public AuditRollupRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public AuditRollupRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        this.minuteRetentionDays = AppConfig.getInt("audit.rollup.minuteRetentionDays", 14);
+        this.hourRetentionDays = AppConfig.getInt("audit.rollup.hourRetentionDays", 400);
+    }
+
+    // Writes
+
+    @Override
+    public void increment(Collection<AuditLog> logs) {
+        if (logs.isEmpty()) return;
+        Map<BucketKey, Long> deltas = fold(logs);
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = databaseManager.getConnection()) {
+                AbstractJdbcRepository.inTransaction(conn, () -> merge(conn, deltas));
+                break;
+            } catch (SQLException e) {
+                // Two writers inserting the same new bucket: the loser retries and updates it
+                if (!"23505".equals(e.getSQLState()) || attempt == MAX_ATTEMPTS) {
+                    throw new RepositoryException("Failed to update audit rollups", e);
+                }
+            }
+        }
+        purgeIfDue();
+    }
+
+    private static Map<BucketKey, Long> fold(Iterable<AuditLog> logs) {
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        for (AuditLog log : logs) {
+            fold(deltas, log, log.getTimestamp() != null ? log.getTimestamp() : LocalDateTime.now());
+        }
+        return deltas;
+    }
+
+    private static void fold(Map<BucketKey, Long> deltas, AuditLog log, LocalDateTime time) {
+        String action = Objects.requireNonNullElse(log.getAction(), "");
+        String user = Objects.requireNonNullElse(log.getUserName(), "");
+        for (RollupResolution resolution : RollupResolution.values()) {
+            deltas.merge(new BucketKey(resolution, resolution.bucketOf(time), action, user), 1L, Long::sum);
+        }
+    }
+
+    private static void merge(Connection conn, Map<BucketKey, Long> deltas) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(MERGE_SQL)) {
+            for (Map.Entry<BucketKey, Long> entry : deltas.entrySet()) {
+                BucketKey key = entry.getKey();
+                ps.setString(1, key.resolution.name());
+                ps.setObject(2, key.bucketStart);
+                ps.setString(3, key.action);
+                ps.setString(4, key.userName);
+                ps.setLong(5, entry.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public void rebuild(LocalDateTime from, LocalDateTime to, Iterable<AuditLog> logs) {
+        LocalDateTime start = RollupResolution.DAY.bucketOf(from);
+        LocalDateTime end = RollupResolution.DAY.nextBucketFrom(to);
+        // Folded one log at a time, so memory grows with the number of buckets, not of logs
+        Map<BucketKey, Long> counts = new HashMap<>();
+        long inRange = 0;
+        for (AuditLog log : logs) {
+            LocalDateTime time = log.getTimestamp();
+            if (time != null && !time.isBefore(start) && time.isBefore(end)) {
+                fold(counts, log, time);
+                inRange++;
+            }
+        }
+        try (Connection conn = databaseManager.getConnection()) {
+            AbstractJdbcRepository.inTransaction(conn, () -> {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "DELETE FROM audit_rollups WHERE bucket_start >= ? AND bucket_start < ?")) {
+                    ps.setObject(1, start);
+                    ps.setObject(2, end);
+                    ps.executeUpdate();
+                }
+                merge(conn, counts);
+            });
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to rebuild audit rollups", e);
+        }
+        logger.info("Rebuilt audit rollups for {} - {} from {} logs", start, end, inRange);
+    }
+
+    @Override
+    public int purgeBefore(RollupResolution resolution, LocalDateTime cutoff) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "DELETE FROM audit_rollups WHERE resolution = ? AND bucket_start < ?")) {
+            ps.setString(1, resolution.name());
+            ps.setObject(2, cutoff);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to purge audit rollups", e);
+        }
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last < PURGE_INTERVAL_MILLIS || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            LocalDateTime today = LocalDateTime.now();
+            if (minuteRetentionDays > 0) {
+                purgeBefore(RollupResolution.MINUTE, today.minusDays(minuteRetentionDays));
+            }
+            if (hourRetentionDays > 0) {
+                purgeBefore(RollupResolution.HOUR, today.minusDays(hourRetentionDays));
+            }
+        } catch (RepositoryException e) {
+            logger.warn("Audit rollup purge failed", e);
+        }
+    }
+
+    // Reads
+
+    @Override
+    public List<AuditRollup> findCounts(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                        String action, String userName) {
+        StringBuilder sql = new StringBuilder("SELECT bucket_start, action, user_name, event_count"
+                + " FROM audit_rollups WHERE resolution = ? AND bucket_start >= ? AND bucket_start < ?");
+        List<Object> params = new ArrayList<>(List.of(resolution, resolution.bucketOf(from), to));
+        filter(sql, params, action, userName);
+        sql.append(" ORDER BY bucket_start, action, user_name");
+        return query(sql.toString(), params, rs -> new AuditRollup(resolution,
+                rs.getObject(1, LocalDateTime.class), rs.getString(2), rs.getString(3), rs.getLong(4)));
+    }
+
+    @Override
+    public List<AuditRollup> findTotals(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                        String action) {
+        StringBuilder sql = new StringBuilder("SELECT bucket_start, SUM(event_count)"
+                + " FROM audit_rollups WHERE resolution = ? AND bucket_start >= ? AND bucket_start < ?");
+        List<Object> params = new ArrayList<>(List.of(resolution, resolution.bucketOf(from), to));
+        filter(sql, params, action, null);
+        sql.append(" GROUP BY bucket_start ORDER BY bucket_start");
+        return query(sql.toString(), params, rs -> new AuditRollup(resolution,
+                rs.getObject(1, LocalDateTime.class), action, null, rs.getLong(2)));
+    }
+
+    /**
+     * Split [from, to) into edges at the finest retained resolution and a
+     * middle of coarser buckets, recursively, and sum each piece from its own
+     * resolution.
+     */
+    @Override
+    public long count(LocalDateTime from, LocalDateTime to, String action, String userName) {
+        RollupResolution finest = finestRetained(from);
+        return sumAligned(finest, finest.bucketOf(from), finest.bucketOf(to), action, userName);
+    }
+
+    /**
+     * Minute buckets before the minute retention horizon are gone, so edges there are rounded to hours (or days).
+     */
+    private RollupResolution finestRetained(LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        if (minuteRetentionDays <= 0 || !from.isBefore(now.minusDays(minuteRetentionDays))) {
+            return RollupResolution.MINUTE;
+        }
+        if (hourRetentionDays <= 0 || !from.isBefore(now.minusDays(hourRetentionDays))) {
+            return RollupResolution.HOUR;
+        }
+        return RollupResolution.DAY;
+    }
+
+    private long sumAligned(RollupResolution resolution, LocalDateTime start, LocalDateTime end,
+                            String action, String userName) {
+        if (!start.isBefore(end)) {
+            return 0;
+        }
+        if (resolution == RollupResolution.DAY) {
+            return sum(resolution, start, end, action, userName);
+        }
+        RollupResolution coarser = RollupResolution.values()[resolution.ordinal() + 1];
+        LocalDateTime innerStart = coarser.nextBucketFrom(start);
+        LocalDateTime innerEnd = coarser.bucketOf(end);
+        if (!innerStart.isBefore(innerEnd)) {
+            return sum(resolution, start, end, action, userName);
+        }
+        return sum(resolution, start, innerStart, action, userName)
+                + sumAligned(coarser, innerStart, innerEnd, action, userName)
+                + sum(resolution, innerEnd, end, action, userName);
+    }
+
+    private long sum(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                     String action, String userName) {
+        if (!from.isBefore(to)) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("SELECT COALESCE(SUM(event_count), 0)"
+                + " FROM audit_rollups WHERE resolution = ? AND bucket_start >= ? AND bucket_start < ?");
+        List<Object> params = new ArrayList<>(List.of(resolution, from, to));
+        filter(sql, params, action, userName);
+        return query(sql.toString(), params, rs -> rs.getLong(1)).get(0);
+    }
+
+    private static void filter(StringBuilder sql, List<Object> params, String action, String userName) {
+        if (action != null) {
+            sql.append(" AND action = ?");
+            params.add(action);
+        }
+        if (userName != null) {
+            sql.append(" AND user_name = ?");
+            params.add(userName);
+        }
+    }
+
+    private <R> List<R> query(String sql, List<Object> params, RowMapper<R> mapper) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            AbstractJdbcRepository.bindParams(ps, params.toArray());
+            try (ResultSet rs = ps.executeQuery()) {
+                List<R> results = new ArrayList<>();
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
+                return results;
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Query on audit_rollups failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<R> {
+        R map(ResultSet rs) throws SQLException;
+    }
+
+    private static final class BucketKey {
+        private final RollupResolution resolution;
+        private final LocalDateTime bucketStart;
+        private final String action;
+        private final String userName;
+
+        BucketKey(RollupResolution resolution, LocalDateTime bucketStart, String action, String userName) {
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+            this.action = action;
+            this.userName = userName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BucketKey)) return false;
+            BucketKey other = (BucketKey) o;
+            return resolution == other.resolution && bucketStart.equals(other.bucketStart)
+                    && action.equals(other.action) && userName.equals(other.userName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resolution, bucketStart, action, userName);
+        }
+    }
+}
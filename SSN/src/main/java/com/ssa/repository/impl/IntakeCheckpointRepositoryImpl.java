@@ -0,0 +1,89 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.IntakeCheckpoint;
+import com.ssa.repository.IIntakeCheckpointRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * H2 implementation of IIntakeCheckpointRepository over the
+ * intake_checkpoints table. Connections come from DatabaseManager, so a
+ * save() inside DatabaseManager.inTransaction() commits with the rows it
+ * records.
+ */
+public class IntakeCheckpointRepositoryImpl implements IIntakeCheckpointRepository {
+
+    private static final String MERGE_SQL = """
+            MERGE INTO intake_checkpoints (job_id, source_size, last_record, persons_created,
+                                           applications_created, rejected, rejects_bytes, completed, updated_at)
+            KEY (job_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final DatabaseManager databaseManager;
+
+    public IntakeCheckpointRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public IntakeCheckpointRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    public Optional<IntakeCheckpoint> findByJobId(String jobId) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM intake_checkpoints WHERE job_id = ?")) {
+            ps.setString(1, jobId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(new IntakeCheckpoint(
+                        rs.getString("job_id"),
+                        rs.getLong("source_size"),
+                        rs.getLong("last_record"),
+                        rs.getLong("persons_created"),
+                        rs.getLong("applications_created"),
+                        rs.getLong("rejected"),
+                        rs.getLong("rejects_bytes"),
+                        rs.getBoolean("completed"),
+                        rs.getObject("updated_at", LocalDateTime.class)));
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Query on intake_checkpoints failed", e);
+        }
+    }
+
+    @Override
+    public void save(IntakeCheckpoint checkpoint) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(MERGE_SQL)) {
+            AbstractJdbcRepository.bindParams(ps, checkpoint.getJobId(), checkpoint.getSourceSize(),
+                    checkpoint.getLastRecord(), checkpoint.getPersonsCreated(), checkpoint.getApplicationsCreated(),
+                    checkpoint.getRejected(), checkpoint.getRejectsBytes(), checkpoint.isCompleted(),
+                    checkpoint.getUpdatedAt());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to save intake checkpoint " + checkpoint.getJobId(), e);
+        }
+    }
+
+    @Override
+    public void delete(String jobId) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM intake_checkpoints WHERE job_id = ?")) {
+            ps.setString(1, jobId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to delete intake checkpoint " + jobId, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ssa.repository.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation tokens for keyset pagination.
+ *
+ * A token carries the sort key of the last row on a page plus the query it
+ * belongs to (scope), so a token from one listing cannot be replayed against
+ * another. Encoding is URL-safe Base64 of "v1|scope|key1|key2...".
+ */
+public final class KeysetToken {
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private KeysetToken() {
+        // Static utility
+    }
+
+    public static String encode(String scope, String... keys) {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(scope);
+        for (String key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by encode() for the same scope.
+     * @return The sort key values, or null when the token is null (first page)
+     * @throws IllegalArgumentException if the token is malformed or belongs to another query
+     */
+    public static String[] decode(String token, String scope, int keyCount) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != keyCount + 2 || !VERSION.equals(parts[0]) || !scope.equals(parts[1])) {
+            throw new IllegalArgumentException("Invalid page token for " + scope);
+        }
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 2, keys, 0, keyCount);
+        return keys;
+    }
+}
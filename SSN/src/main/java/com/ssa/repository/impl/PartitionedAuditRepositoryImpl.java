@@ -0,0 +1,637 @@
+package com.ssa.repository.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditLog;
+import com.ssa.model.Page;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * IAuditRepository that keeps one table per calendar month.
+ *
+ * Black Box Implementation Detail: A log is routed to audit_logs_pYYYYMM by
+ * its timestamp; tables are created on first write. Partition DDL runs on
+ * a connection of its own, because DDL commits whatever transaction it
+ * runs in and must not commit the caller's. Date range and "recent"
+ * queries only open the months they cover, newest-first reads stop as soon
+ * as enough rows are found, and each month has its own small timestamp
+ * index. Log IDs come from one shared sequence so they stay unique across
+ * months. Lookups by ID, user or action visit every month.
+ *
+ * Logs written to the plain audit_logs table before partitioning was
+ * switched on stay where they are and are read as one more partition, older
+ * than every month; nothing new is written there. On start the sequence is
+ * moved past the highest audit_logs ID, so new IDs never repeat an old one.
+ *
+ * Retention works on whole months: a partition older than
+ * audit.partition.retentionMonths is dropped (or renamed to
+ * audit_archive_pYYYYMM with audit.partition.retentionMode=ARCHIVE), which
+ * costs the same whatever its size. The legacy table is never removed.
+ */
+public class PartitionedAuditRepositoryImpl extends AbstractJdbcQueries<AuditLog> implements IAuditRepository {
+
+    private static final String LEGACY_TABLE = "audit_logs";
+    private static final String LEGACY_KEY = "legacy";
+    private static final String PARTITION_PREFIX = "audit_logs_p";
+    private static final String ARCHIVE_PREFIX = "audit_archive_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * What happens to a partition that falls out of the retention window.
+     */
+    public enum RetentionMode {
+        DROP,
+        ARCHIVE
+    }
+
+    private final int retentionMonths;
+    private final RetentionMode retentionMode;
+    private final Object ddlLock = new Object();
+    // Whether audit_logs held rows when this repository started
+    private final boolean legacy;
+    // Copy-on-write; readers take the current snapshot
+    private volatile NavigableSet<YearMonth> partitions;
+
+    public PartitionedAuditRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public PartitionedAuditRepositoryImpl(DatabaseManager databaseManager) {
+        this(databaseManager,
+                AppConfig.getInt("audit.partition.retentionMonths", 0),
+                RetentionMode.valueOf(AppConfig.get("audit.partition.retentionMode", "DROP").toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * @param retentionMonths Months to keep, counting the current one; 0 keeps everything
+     * @param retentionMode Whether expired months are dropped or archived
+     */
+    public PartitionedAuditRepositoryImpl(DatabaseManager databaseManager, int retentionMonths,
+                                          RetentionMode retentionMode) {
+        super(databaseManager);
+        this.retentionMonths = retentionMonths;
+        this.retentionMode = retentionMode;
+        this.legacy = alignSequence() > 0;
+        this.partitions = Collections.unmodifiableNavigableSet(loadPartitions());
+        applyRetention();
+    }
+
+    // Partition catalog
+
+    /**
+     * Restart audit_log_seq above the highest audit_logs ID if it is not
+     * there already.
+     * @return That highest ID, or 0 when audit_logs is empty
+     */
+    private long alignSequence() {
+        try (Connection conn = databaseManager.getIndependentConnection();
+             Statement stmt = conn.createStatement()) {
+            long maxLegacyId;
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(log_id), 0) FROM " + LEGACY_TABLE)) {
+                rs.next();
+                maxLegacyId = rs.getLong(1);
+            }
+            long nextValue;
+            try (ResultSet rs = stmt.executeQuery("SELECT BASE_VALUE FROM information_schema.sequences"
+                    + " WHERE sequence_schema = SCHEMA() AND sequence_name = 'AUDIT_LOG_SEQ'")) {
+                nextValue = rs.next() ? rs.getLong(1) : 1;
+            }
+            if (nextValue <= maxLegacyId) {
+                stmt.execute("ALTER SEQUENCE audit_log_seq RESTART WITH " + (maxLegacyId + 1));
+                logger.info("Audit log IDs restarted at {}, above the legacy audit_logs table", maxLegacyId + 1);
+            }
+            if (maxLegacyId > 0) {
+                logger.info("Reading audit logs written before partitioning from {}", LEGACY_TABLE);
+            }
+            return maxLegacyId;
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to align audit_log_seq with " + LEGACY_TABLE, e);
+        }
+    }
+
+    private NavigableSet<YearMonth> loadPartitions() {
+        NavigableSet<YearMonth> found = new TreeSet<>();
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT table_name FROM information_schema.tables"
+                             + " WHERE table_schema = SCHEMA() AND table_name LIKE ?")) {
+            ps.setString(1, PARTITION_PREFIX.toUpperCase(Locale.ROOT) + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = monthOf(rs.getString(1));
+                    if (month != null) {
+                        found.add(month);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to list audit partitions", e);
+        }
+        return found;
+    }
+
+    private static YearMonth monthOf(String tableName) {
+        String suffix = tableName.substring(PARTITION_PREFIX.length());
+        if (suffix.length() != 6) return null;
+        try {
+            return YearMonth.parse(suffix, SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String partitionTable(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    /**
+     * Tables to read for months, with the legacy table (if any) at the old end.
+     * @param oldestFirst Whether months is in ascending order
+     */
+    private List<String> tables(Collection<YearMonth> months, boolean oldestFirst) {
+        List<String> tables = new ArrayList<>(months.size() + 1);
+        if (legacy && oldestFirst) {
+            tables.add(LEGACY_TABLE);
+        }
+        months.forEach(month -> tables.add(partitionTable(month)));
+        if (legacy && !oldestFirst) {
+            tables.add(LEGACY_TABLE);
+        }
+        return tables;
+    }
+
+    private List<String> oldestFirst() {
+        return tables(partitions, true);
+    }
+
+    private List<String> newestFirst() {
+        return tables(partitions.descendingSet(), false);
+    }
+
+    private static String sourceKey(String table) {
+        return LEGACY_TABLE.equals(table) ? LEGACY_KEY : table.substring(PARTITION_PREFIX.length());
+    }
+
+    /**
+     * Months currently stored, oldest first.
+     */
+    public List<YearMonth> getPartitions() {
+        return new ArrayList<>(partitions);
+    }
+
+    /**
+     * Create the partition for month if needed. Entering a new month also
+     * applies the retention policy.
+     */
+    private void ensurePartition(YearMonth month) {
+        if (partitions.contains(month)) return;
+        synchronized (ddlLock) {
+            if (partitions.contains(month)) return;
+            String table = partitionTable(month);
+            try (Connection conn = databaseManager.getIndependentConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                        + " log_id BIGINT DEFAULT (NEXT VALUE FOR audit_log_seq) PRIMARY KEY,"
+                        + " timestamp TIMESTAMP NOT NULL,"
+                        + " user_name VARCHAR(100) NOT NULL,"
+                        + " action VARCHAR(100) NOT NULL,"
+                        + " details TEXT,"
+                        + " ip_address VARCHAR(50))");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_date ON " + table + "(timestamp)");
+            } catch (SQLException e) {
+                throw new RepositoryException("Failed to create audit partition " + table, e);
+            }
+            NavigableSet<YearMonth> updated = new TreeSet<>(partitions);
+            updated.add(month);
+            partitions = Collections.unmodifiableNavigableSet(updated);
+            logger.info("Created audit partition {}", table);
+        }
+        if (month.equals(YearMonth.now())) {
+            applyRetention();
+        }
+    }
+
+    /**
+     * Drop or archive every partition older than the retention window.
+     * @return Number of partitions removed
+     */
+    public int applyRetention() {
+        if (retentionMonths <= 0) return 0;
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths - 1L);
+        int removed = 0;
+        for (YearMonth month : partitions.headSet(oldestKept, false)) {
+            removePartition(month, retentionMode);
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Remove one month of logs from the repository without touching its rows one by one.
+     * @param mode DROP deletes the table; ARCHIVE renames it to audit_archive_pYYYYMM
+     */
+    public void removePartition(YearMonth month, RetentionMode mode) {
+        synchronized (ddlLock) {
+            if (!partitions.contains(month)) return;
+            String table = partitionTable(month);
+            String sql = mode == RetentionMode.ARCHIVE
+                    ? "ALTER TABLE " + table + " RENAME TO " + ARCHIVE_PREFIX + month.format(SUFFIX)
+                    : "DROP TABLE " + table;
+            try (Connection conn = databaseManager.getIndependentConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            } catch (SQLException e) {
+                throw new RepositoryException("Failed to remove audit partition " + table, e);
+            }
+            NavigableSet<YearMonth> updated = new TreeSet<>(partitions);
+            updated.remove(month);
+            partitions = Collections.unmodifiableNavigableSet(updated);
+            logger.info("Audit partition {} {}", table, mode == RetentionMode.ARCHIVE ? "archived" : "dropped");
+        }
+    }
+
+    @Override
+    protected String tableName() {
+        return "audit_logs partitions";
+    }
+
+    private static void requireNew(AuditLog log) {
+        if (log.getLogId() != null) {
+            throw new RepositoryException("Audit log " + log.getLogId() + " is immutable");
+        }
+    }
+
+    private static void bindInsert(PreparedStatement ps, AuditLog log) throws SQLException {
+        ps.setObject(1, log.getTimestamp());
+        ps.setString(2, log.getUserName());
+        ps.setString(3, log.getAction());
+        ps.setString(4, log.getDetails());
+        ps.setString(5, log.getIpAddress());
+    }
+
+    @Override
+    protected AuditLog mapRow(ResultSet rs) throws SQLException {
+        AuditLog log = new AuditLog();
+        log.setLogId(rs.getLong("log_id"));
+        log.setTimestamp(rs.getObject("timestamp", LocalDateTime.class));
+        log.setUserName(rs.getString("user_name"));
+        log.setAction(rs.getString("action"));
+        log.setDetails(rs.getString("details"));
+        log.setIpAddress(rs.getString("ip_address"));
+        return log;
+    }
+
+    // Writes
+
+    @Override
+    public AuditLog save(AuditLog log) {
+        saveAll(List.of(log));
+        return log;
+    }
+
+    /**
+     * Writes all logs in one transaction, one insert batch per month touched.
+     */
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        Map<YearMonth, List<AuditLog>> byMonth = new LinkedHashMap<>();
+        for (AuditLog log : logs) {
+            requireNew(log);
+            if (log.getTimestamp() == null) {
+                log.setTimestamp(LocalDateTime.now());
+            }
+            byMonth.computeIfAbsent(YearMonth.from(log.getTimestamp()), m -> new ArrayList<>()).add(log);
+        }
+        byMonth.keySet().forEach(this::ensurePartition);
+        try (Connection conn = databaseManager.getConnection()) {
+            inTransaction(conn, () -> {
+                for (Map.Entry<YearMonth, List<AuditLog>> entry : byMonth.entrySet()) {
+                    insertBatch(conn, partitionTable(entry.getKey()), entry.getValue());
+                }
+            });
+        } catch (SQLException e) {
+            logs.forEach(log -> log.setLogId(null));
+            throw new RepositoryException("Failed to save audit logs", e);
+        }
+        return new ArrayList<>(logs);
+    }
+
+    private void insertBatch(Connection conn, String table, List<AuditLog> logs) throws SQLException {
+        String sql = "INSERT INTO " + table + " (timestamp, user_name, action, details, ip_address)"
+                + " VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql, new String[]{"log_id"})) {
+            for (AuditLog log : logs) {
+                bindInsert(ps, log);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (AuditLog log : logs) {
+                    if (!keys.next()) break;
+                    log.setLogId(keys.getLong(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(Long logId) {
+        for (String table : newestFirst()) {
+            if (execute("DELETE FROM " + table + " WHERE log_id = ?", logId) > 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> logIds) {
+        logIds.forEach(this::delete);
+    }
+
+    // Reads that must visit every month
+
+    @Override
+    public Optional<AuditLog> findById(Long logId) {
+        for (String table : newestFirst()) {
+            Optional<AuditLog> log = queryOne("SELECT * FROM " + table + " WHERE log_id = ?", logId);
+            if (log.isPresent()) {
+                return log;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * One ANY(?) lookup per table, in log ID order.
+     */
+    @Override
+    public List<AuditLog> findAllById(Collection<Long> logIds) {
+        Object[] ids = new LinkedHashSet<>(logIds).toArray();
+        List<AuditLog> found = collect(oldestFirst(), table -> "SELECT * FROM " + table + " WHERE log_id = ANY(?)",
+                (Object) ids);
+        found.sort(Comparator.comparing(AuditLog::getLogId));
+        return found;
+    }
+
+    @Override
+    public boolean exists(Long logId) {
+        return findById(logId).isPresent();
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (String table : oldestFirst()) {
+            total += queryLong("SELECT COUNT(*) FROM " + table);
+        }
+        return total;
+    }
+
+    /**
+     * All logs, legacy ones first, then month by month; by log ID within each.
+     */
+    @Override
+    public List<AuditLog> findAll() {
+        return collect(oldestFirst(), table -> "SELECT * FROM " + table + " ORDER BY log_id");
+    }
+
+    @Override
+    public Stream<AuditLog> streamAll() {
+        return streamAcross(oldestFirst(), table -> queryStream("SELECT * FROM " + table + " ORDER BY log_id"));
+    }
+
+    /**
+     * Keyset pagination on (table, log_id), in findAll() order.
+     */
+    @Override
+    public Page<AuditLog> findAll(int pageSize, String pageToken) {
+        String scope = "audit_logs.partitioned.all";
+        String[] after = KeysetToken.decode(pageToken, scope, 2);
+        BiFunction<String, AuditLog, String> tokenOf = (table, log) -> KeysetToken.encode(scope,
+                sourceKey(table), String.valueOf(log.getLogId()));
+        if (after == null) {
+            return pageAcross(oldestFirst(), pageSize, tokenOf, (table, limit) ->
+                    queryList("SELECT * FROM " + table + " ORDER BY log_id LIMIT ?", limit));
+        }
+        long afterId = parseLongKey(after[1]);
+        String afterTable;
+        List<String> remaining;
+        if (LEGACY_KEY.equals(after[0])) {
+            afterTable = LEGACY_TABLE;
+            remaining = oldestFirst();
+        } else {
+            YearMonth afterMonth = parseMonthKey(after[0]);
+            afterTable = partitionTable(afterMonth);
+            remaining = partitions.tailSet(afterMonth, true).stream()
+                    .map(PartitionedAuditRepositoryImpl::partitionTable).toList();
+        }
+        return pageAcross(remaining, pageSize, tokenOf, (table, limit) ->
+                table.equals(afterTable)
+                        ? queryList("SELECT * FROM " + table + " WHERE log_id > ? ORDER BY log_id LIMIT ?", afterId, limit)
+                        : queryList("SELECT * FROM " + table + " ORDER BY log_id LIMIT ?", limit));
+    }
+
+    @Override
+    public List<AuditLog> findByUser(String userName) {
+        return collect(oldestFirst(), table -> "SELECT * FROM " + table
+                + " WHERE user_name = ? ORDER BY timestamp, log_id", userName);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return collect(oldestFirst(), table -> "SELECT * FROM " + table
+                + " WHERE action = ? ORDER BY timestamp, log_id", action);
+    }
+
+    // Reads routed to the months they cover
+
+    @Override
+    public List<AuditLog> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return collect(tablesBetween(from, to), table -> "SELECT * FROM " + table
+                + " WHERE timestamp BETWEEN ? AND ? ORDER BY timestamp, log_id", from, to);
+    }
+
+    @Override
+    public Stream<AuditLog> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return streamAcross(tablesBetween(from, to), table -> queryStream(
+                "SELECT * FROM " + table + " WHERE timestamp BETWEEN ? AND ? ORDER BY timestamp, log_id", from, to));
+    }
+
+    @Override
+    public List<AuditLog> findRecent(int limit) {
+        List<AuditLog> recent = new ArrayList<>();
+        for (String table : newestFirst()) {
+            if (recent.size() >= limit) break;
+            recent.addAll(queryList("SELECT * FROM " + table
+                    + " ORDER BY timestamp DESC, log_id DESC LIMIT ?", limit - recent.size()));
+        }
+        return recent;
+    }
+
+    /**
+     * Seek before the last (timestamp, log_id) seen, starting in that row's table
+     * and moving to older tables only while the page is not full.
+     */
+    @Override
+    public Page<AuditLog> findRecent(int pageSize, String pageToken) {
+        String scope = "audit_logs.partitioned.recent";
+        String[] before = KeysetToken.decode(pageToken, scope, 3);
+        BiFunction<String, AuditLog, String> tokenOf = (table, log) -> KeysetToken.encode(scope,
+                sourceKey(table), log.getTimestamp().toString(), String.valueOf(log.getLogId()));
+        if (before == null) {
+            return pageAcross(newestFirst(), pageSize, tokenOf, (table, limit) ->
+                    queryList("SELECT * FROM " + table + " ORDER BY timestamp DESC, log_id DESC LIMIT ?", limit));
+        }
+        LocalDateTime timestamp = parseTimestampKey(before[1]);
+        long logId = parseLongKey(before[2]);
+        String beforeTable;
+        List<String> remaining;
+        if (LEGACY_KEY.equals(before[0])) {
+            beforeTable = LEGACY_TABLE;
+            remaining = List.of(LEGACY_TABLE);
+        } else {
+            YearMonth beforeMonth = parseMonthKey(before[0]);
+            beforeTable = partitionTable(beforeMonth);
+            remaining = tables(partitions.headSet(beforeMonth, true).descendingSet(), false);
+        }
+        return pageAcross(remaining, pageSize, tokenOf, (table, limit) ->
+                table.equals(beforeTable)
+                        ? queryList("SELECT * FROM " + table
+                                + " WHERE timestamp <= ? AND (timestamp < ? OR log_id < ?)"
+                                + " ORDER BY timestamp DESC, log_id DESC LIMIT ?", timestamp, timestamp, logId, limit)
+                        : queryList("SELECT * FROM " + table + " ORDER BY timestamp DESC, log_id DESC LIMIT ?", limit));
+    }
+
+    // Routing helpers
+
+    /**
+     * The legacy table has no month, so it is read whatever the range.
+     */
+    private List<String> tablesBetween(LocalDateTime from, LocalDateTime to) {
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        if (first.isAfter(last)) {
+            return List.of();
+        }
+        return tables(partitions.subSet(first, true, last, true), true);
+    }
+
+    private List<AuditLog> collect(List<String> tables, Function<String, String> sql, Object... params) {
+        List<AuditLog> results = new ArrayList<>();
+        for (String table : tables) {
+            results.addAll(queryList(sql.apply(table), params));
+        }
+        return results;
+    }
+
+    /**
+     * Fill one page from tables in order, asking each for only the rows still
+     * missing (plus one, to learn whether another page exists). The token
+     * names the table the last row came from.
+     */
+    private Page<AuditLog> pageAcross(List<String> tables, int pageSize, BiFunction<String, AuditLog, String> tokenOf,
+                                      PartitionQuery query) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        List<AuditLog> rows = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        for (String table : tables) {
+            if (rows.size() > pageSize) break;
+            List<AuditLog> fetched = query.fetch(table, pageSize + 1 - rows.size());
+            rows.addAll(fetched);
+            fetched.forEach(log -> sources.add(table));
+        }
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<AuditLog> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new Page<>(page, tokenOf.apply(sources.get(pageSize - 1), page.get(pageSize - 1)));
+    }
+
+    /**
+     * Chain per-table cursors into one stream. Each table's cursor (and its
+     * connection) is opened only when the previous one is used up.
+     */
+    private Stream<AuditLog> streamAcross(List<String> tables, Function<String, Stream<AuditLog>> open) {
+        ChainedCursor cursor = new ChainedCursor(tables.iterator(), open);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static YearMonth parseMonthKey(String key) {
+        try {
+            return YearMonth.parse(key, SUFFIX);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+
+    private static final class ChainedCursor extends Spliterators.AbstractSpliterator<AuditLog> {
+        private final Iterator<String> tables;
+        private final Function<String, Stream<AuditLog>> open;
+        private Stream<AuditLog> current;
+        private Iterator<AuditLog> rows = Collections.emptyIterator();
+
+        ChainedCursor(Iterator<String> tables, Function<String, Stream<AuditLog>> open) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.tables = tables;
+            this.open = open;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super AuditLog> action) {
+            while (!rows.hasNext()) {
+                close();
+                if (!tables.hasNext()) {
+                    return false;
+                }
+                current = open.apply(tables.next());
+                rows = current.iterator();
+            }
+            action.accept(rows.next());
+            return true;
+        }
+
+        void close() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionQuery {
+        List<AuditLog> fetch(String table, int limit);
+    }
+}
@@ -0,0 +1,234 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Person;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.CitizenshipStatus;
+import com.ssa.model.enums.NameMatch;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.util.BlockingKeys;
+import com.ssa.util.DatabaseManager;
+import com.ssa.util.NameKeys;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * H2 implementation of IPersonRepository over the persons table.
+ *
+ * Name searches never apply functions to the name columns: every save also
+ * writes normalized (case-folded, accent-free) and Soundex keys of the first
+ * and last name, computed by NameKeys, and findByName seeks
+ * idx_person_name_norm or idx_person_name_sdx with the same keys of the
+ * search terms. The same way, every save writes the person's duplicate
+ * blocking keys (BlockingKeys), and findByBlockingKeys is a union of three
+ * index seeks.
+ */
+public class PersonRepositoryImpl extends AbstractJdbcRepository<Person, Long> implements IPersonRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO persons (first_name, middle_name, last_name, date_of_birth, place_of_birth,
+                                 mothers_maiden_name, fathers_name, citizenship_status, ssn, created_date,
+                                 first_name_norm, last_name_norm, first_name_sdx, last_name_sdx,
+                                 block_name_dob, block_maiden_dob, block_phonetic)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE persons SET first_name = ?, middle_name = ?, last_name = ?, date_of_birth = ?,
+                               place_of_birth = ?, mothers_maiden_name = ?, fathers_name = ?,
+                               citizenship_status = ?, ssn = ?, created_date = ?,
+                               first_name_norm = ?, last_name_norm = ?, first_name_sdx = ?, last_name_sdx = ?,
+                               block_name_dob = ?, block_maiden_dob = ?, block_phonetic = ?
+            WHERE person_id = ?
+            """;
+
+    private static final String ASSIGN_SSN_SQL = "UPDATE persons SET ssn = ? WHERE person_id = ? AND ssn IS NULL";
+
+    public PersonRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public PersonRepositoryImpl(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    @Override
+    protected String tableName() {
+        return "persons";
+    }
+
+    @Override
+    protected String idColumn() {
+        return "person_id";
+    }
+
+    @Override
+    protected Long getId(Person person) {
+        return person.getPersonId();
+    }
+
+    @Override
+    protected boolean isNew(Person person) {
+        return person.getPersonId() == null;
+    }
+
+    @Override
+    protected String insertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement ps, Person person) throws SQLException {
+        bindColumns(ps, person);
+    }
+
+    @Override
+    protected String updateSql() {
+        return UPDATE_SQL;
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement ps, Person person) throws SQLException {
+        int next = bindColumns(ps, person);
+        ps.setLong(next, person.getPersonId());
+    }
+
+    private int bindColumns(PreparedStatement ps, Person person) throws SQLException {
+        ps.setString(1, person.getFirstName());
+        ps.setString(2, person.getMiddleName());
+        ps.setString(3, person.getLastName());
+        ps.setObject(4, person.getDateOfBirth());
+        ps.setString(5, person.getPlaceOfBirth());
+        ps.setString(6, person.getMothersMaidenName());
+        ps.setString(7, person.getFathersName());
+        ps.setString(8, person.getCitizenshipStatus() != null ? person.getCitizenshipStatus().name() : null);
+        ps.setString(9, SSN.formatSSN(person.getSsn()));
+        ps.setObject(10, person.getCreatedDate() != null ? person.getCreatedDate() : LocalDateTime.now());
+        ps.setString(11, NameKeys.normalize(person.getFirstName()));
+        ps.setString(12, NameKeys.normalize(person.getLastName()));
+        ps.setString(13, NameKeys.soundex(person.getFirstName()));
+        ps.setString(14, NameKeys.soundex(person.getLastName()));
+        BlockingKeys keys = BlockingKeys.of(person.getLastName(), person.getMothersMaidenName(),
+                person.getDateOfBirth());
+        ps.setLong(15, keys.getNameDob());
+        ps.setLong(16, keys.getMaidenDob());
+        ps.setLong(17, keys.getPhonetic());
+        return 18;
+    }
+
+    @Override
+    protected void applyGeneratedId(Person person, ResultSet keys) throws SQLException {
+        person.setPersonId(keys.getLong(1));
+    }
+
+    @Override
+    protected Person mapRow(ResultSet rs) throws SQLException {
+        Person person = new Person();
+        person.setPersonId(rs.getLong("person_id"));
+        person.setFirstName(rs.getString("first_name"));
+        person.setMiddleName(rs.getString("middle_name"));
+        person.setLastName(rs.getString("last_name"));
+        person.setDateOfBirth(rs.getObject("date_of_birth", LocalDate.class));
+        person.setPlaceOfBirth(rs.getString("place_of_birth"));
+        person.setMothersMaidenName(rs.getString("mothers_maiden_name"));
+        person.setFathersName(rs.getString("fathers_name"));
+        String citizenship = rs.getString("citizenship_status");
+        person.setCitizenshipStatus(citizenship != null ? CitizenshipStatus.valueOf(citizenship) : null);
+        person.setSsn(rs.getString("ssn"));
+        person.setCreatedDate(rs.getObject("created_date", LocalDateTime.class));
+        return person;
+    }
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName) {
+        return findByName(firstName, lastName, NameMatch.EXACT);
+    }
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName, NameMatch match) {
+        boolean anyFirstName = firstName == null || firstName.isBlank();
+        if (match == NameMatch.SOUNDS_LIKE) {
+            // Exact spellings first, then the rest of the phonetic matches
+            String order = " ORDER BY CASE WHEN last_name_norm = ?" + (anyFirstName ? "" : " AND first_name_norm = ?")
+                    + " THEN 0 ELSE 1 END, person_id";
+            String lastNorm = NameKeys.normalize(lastName);
+            if (anyFirstName) {
+                return queryList("SELECT * FROM persons WHERE last_name_sdx = ?" + order,
+                        NameKeys.soundex(lastName), lastNorm);
+            }
+            return queryList("SELECT * FROM persons WHERE last_name_sdx = ? AND first_name_sdx = ?" + order,
+                    NameKeys.soundex(lastName), NameKeys.soundex(firstName), lastNorm, NameKeys.normalize(firstName));
+        }
+        if (anyFirstName) {
+            return queryList("SELECT * FROM persons WHERE last_name_norm = ? ORDER BY person_id",
+                    NameKeys.normalize(lastName));
+        }
+        return queryList("SELECT * FROM persons WHERE last_name_norm = ? AND first_name_norm = ? ORDER BY person_id",
+                NameKeys.normalize(lastName), NameKeys.normalize(firstName));
+    }
+
+    @Override
+    public List<Person> findByBlockingKeys(BlockingKeys keys) {
+        return queryList("""
+                SELECT * FROM persons WHERE block_name_dob = ?
+                UNION SELECT * FROM persons WHERE block_maiden_dob = ?
+                UNION SELECT * FROM persons WHERE block_phonetic = ?
+                ORDER BY person_id
+                """, keys.getNameDob(), keys.getMaidenDob(), keys.getPhonetic());
+    }
+
+    @Override
+    public Optional<Person> findBySSN(String ssn) {
+        return queryOne("SELECT * FROM persons WHERE ssn = ?", SSN.formatSSN(ssn));
+    }
+
+    @Override
+    public List<Person> findByDateOfBirth(LocalDate dateOfBirth) {
+        return queryList("SELECT * FROM persons WHERE date_of_birth = ? ORDER BY person_id", dateOfBirth);
+    }
+
+    @Override
+    public boolean hasSSN(Long personId) {
+        return queryLong("SELECT COUNT(*) FROM persons WHERE person_id = ? AND ssn IS NOT NULL", personId) > 0;
+    }
+
+    @Override
+    public Set<Long> assignSSNsIfUnassigned(Map<Long, String> ssnsByPersonId) {
+        List<Long> personIds = new ArrayList<>(ssnsByPersonId.keySet());
+        Set<Long> skipped = new HashSet<>();
+        if (personIds.isEmpty()) {
+            return skipped;
+        }
+        try (Connection conn = databaseManager.getConnection()) {
+            inTransaction(conn, () -> {
+                try (PreparedStatement ps = conn.prepareStatement(ASSIGN_SSN_SQL)) {
+                    for (Long personId : personIds) {
+                        ps.setString(1, SSN.formatSSN(ssnsByPersonId.get(personId)));
+                        ps.setLong(2, personId);
+                        ps.addBatch();
+                    }
+                    int[] updated = ps.executeBatch();
+                    for (int i = 0; i < updated.length; i++) {
+                        if (updated[i] == 0) {
+                            skipped.add(personIds.get(i));
+                        }
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            throw new RepositoryException("Assigning SSNs to persons failed", e);
+        }
+        return skipped;
+    }
+}
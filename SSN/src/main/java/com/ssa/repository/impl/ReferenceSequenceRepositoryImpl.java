@@ -0,0 +1,98 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.repository.IReferenceSequenceRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * H2 implementation of IReferenceSequenceRepository.
+ *
+ * Black Box Implementation Detail: reference_sequences holds the next
+ * unreserved value of every year. A reservation is one short transaction
+ * on a connection of its own: SELECT ... FOR UPDATE locks the year's row,
+ * so concurrent reservations queue for that row rather than retrying, and
+ * the reservation commits even if the caller's transaction later rolls back.
+ * The first reservation of a year inserts its row; two processes racing to
+ * do so resolve on the primary key and the loser tries again.
+ */
+public class ReferenceSequenceRepositoryImpl implements IReferenceSequenceRepository {
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final DatabaseManager databaseManager;
+
+    public ReferenceSequenceRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public ReferenceSequenceRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    public long reserve(int year, int count, long limit) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try (Connection conn = databaseManager.getIndependentConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    long first = reserve(conn, year, count, limit);
+                    conn.commit();
+                    return first;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    if (!isDuplicateKey(e)) {
+                        throw e;
+                    }
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new RepositoryException("Failed to reserve reference numbers for " + year, e);
+            }
+        }
+        throw new RepositoryException("Failed to reserve reference numbers for " + year
+                + " after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    private long reserve(Connection conn, int year, int count, long limit) throws SQLException {
+        long next;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT next_value FROM reference_sequences WHERE ref_year = ? FOR UPDATE")) {
+            ps.setInt(1, year);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    try (PreparedStatement insert = conn.prepareStatement(
+                            "INSERT INTO reference_sequences (ref_year, next_value) VALUES (?, ?)")) {
+                        insert.setInt(1, year);
+                        insert.setLong(2, Math.min(count, limit));
+                        insert.executeUpdate();
+                    }
+                    return 0;
+                }
+                next = rs.getLong(1);
+            }
+        }
+        if (next >= limit) {
+            throw new RepositoryException("Reference numbers for " + year + " are used up");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE reference_sequences SET next_value = ? WHERE ref_year = ?")) {
+            ps.setLong(1, Math.min(next + count, limit));
+            ps.setInt(2, year);
+            ps.executeUpdate();
+        }
+        return next;
+    }
+
+    private static boolean isDuplicateKey(Exception e) {
+        // SQLState 23505: unique constraint violation
+        return e instanceof SQLException sql && "23505".equals(sql.getSQLState());
+    }
+}
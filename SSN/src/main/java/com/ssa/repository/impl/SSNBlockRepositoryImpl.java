@@ -0,0 +1,310 @@
+package com.ssa.repository.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.SSNBlock;
+import com.ssa.repository.ISSNBlockRepository;
+import com.ssa.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * H2 implementation of ISSNBlockRepository.
+ *
+ * Black Box Implementation Detail: ssn_area_sequences holds the next fresh
+ * slot of every opened area; ssn_block_reservations holds every block that
+ * is out (owner set) or waiting to be reused (owner NULL). A reservation is
+ * one short transaction whose row updates are compare-and-set, so racing
+ * allocators retry instead of holding locks. Every statement runs on an
+ * independent connection and commits on its own: a block must stay reserved
+ * (or released) whatever becomes of a transaction the caller has bound. Lease expiry is stored as
+ * lease_until and compared against the database clock, so processes with
+ * skewed clocks agree on which leases have run out.
+ */
+public class SSNBlockRepositoryImpl implements ISSNBlockRepository {
+    private static final Logger logger = LoggerFactory.getLogger(SSNBlockRepositoryImpl.class);
+
+    // Never issued, whatever the configured range
+    private static final int EXCLUDED_AREA = 666;
+    private static final int MAX_ATTEMPTS = 20;
+    private static final String LEASE_UNTIL = "DATEADD(MILLISECOND, ?, LOCALTIMESTAMP)";
+    // Rows written before leases existed have no lease_until and count as expired
+    private static final String LEASE_EXPIRED = "(lease_until IS NULL OR lease_until < LOCALTIMESTAMP)";
+
+    private final DatabaseManager databaseManager;
+    private final int firstArea;
+    private final int lastArea;
+
+    public SSNBlockRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public SSNBlockRepositoryImpl(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        this.firstArea = Math.max(1, AppConfig.getInt("app.ssn.area.start", 1));
+        this.lastArea = Math.min(899, AppConfig.getInt("app.ssn.area.end", 899));
+    }
+
+    @Override
+    public Optional<SSNBlock> reserveBlock(String owner, int blockSize, long leaseMillis) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try (Connection conn = databaseManager.getIndependentConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    SSNBlock block = claimReturned(conn, owner, leaseMillis);
+                    if (block == null) {
+                        block = reserveFresh(conn, owner, blockSize, leaseMillis);
+                    }
+                    conn.commit();
+                    return Optional.ofNullable(block);
+                } catch (LostRace e) {
+                    // Another allocator changed the same row first - try again
+                    conn.rollback();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    if (!isDuplicateKey(e)) {
+                        throw e;
+                    }
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new RepositoryException("Failed to reserve SSN block", e);
+            }
+        }
+        throw new RepositoryException("Failed to reserve SSN block after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    /**
+     * Claim the oldest block nobody owns.
+     * @return the claimed block, or null if there is none
+     */
+    private SSNBlock claimReturned(Connection conn, String owner, long leaseMillis) throws SQLException {
+        long id;
+        int area;
+        int start;
+        int end;
+        boolean reclaimed;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT reservation_id, area, start_slot, end_slot, reclaimed FROM ssn_block_reservations " +
+                        "WHERE owner IS NULL ORDER BY reservation_id LIMIT 1");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            id = rs.getLong(1);
+            area = rs.getInt(2);
+            start = rs.getInt(3);
+            end = rs.getInt(4);
+            reclaimed = rs.getBoolean(5);
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE ssn_block_reservations SET owner = ?, reserved_at = ?, lease_until = " + LEASE_UNTIL +
+                        " WHERE reservation_id = ? AND owner IS NULL")) {
+            ps.setString(1, owner);
+            ps.setObject(2, LocalDateTime.now());
+            ps.setLong(3, leaseMillis);
+            ps.setLong(4, id);
+            if (ps.executeUpdate() == 0) {
+                throw new LostRace();
+            }
+        }
+        logger.debug("Owner {} reused SSN block {} of area {}", owner, id, area);
+        return new SSNBlock(id, area, start, end, reclaimed);
+    }
+
+    /**
+     * Carve a new block off the lowest area that still has fresh slots.
+     * @return the new block, or null if every area is exhausted
+     */
+    private SSNBlock reserveFresh(Connection conn, String owner, int blockSize, long leaseMillis) throws SQLException {
+        int area;
+        int start;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT area, next_slot FROM ssn_area_sequences WHERE next_slot < ? ORDER BY area LIMIT 1")) {
+            ps.setInt(1, SSNBlock.SLOTS_PER_AREA);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    area = rs.getInt(1);
+                    start = rs.getInt(2);
+                } else {
+                    area = openNextArea(conn);
+                    start = 0;
+                    if (area < 0) {
+                        return null;
+                    }
+                }
+            }
+        }
+        int end = Math.min(SSNBlock.SLOTS_PER_AREA, start + blockSize);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE ssn_area_sequences SET next_slot = ? WHERE area = ? AND next_slot = ?")) {
+            ps.setInt(1, end);
+            ps.setInt(2, area);
+            ps.setInt(3, start);
+            if (ps.executeUpdate() == 0) {
+                throw new LostRace();
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO ssn_block_reservations (area, start_slot, end_slot, owner, reserved_at, lease_until, reclaimed) " +
+                        "VALUES (?, ?, ?, ?, ?, " + LEASE_UNTIL + ", FALSE)", new String[]{"reservation_id"})) {
+            ps.setInt(1, area);
+            ps.setInt(2, start);
+            ps.setInt(3, end);
+            ps.setString(4, owner);
+            ps.setObject(5, LocalDateTime.now());
+            ps.setLong(6, leaseMillis);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                logger.debug("Owner {} reserved slots [{}, {}) of area {}", owner, start, end, area);
+                return new SSNBlock(keys.getLong(1), area, start, end, false);
+            }
+        }
+    }
+
+    /**
+     * Start the sequence of the next unused area.
+     * @return the area number, or -1 when no areas are left
+     */
+    private int openNextArea(Connection conn) throws SQLException {
+        int last;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT MAX(area) FROM ssn_area_sequences");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            last = rs.getInt(1);
+        }
+        int next = Math.max(firstArea, last + 1);
+        if (next == EXCLUDED_AREA) {
+            next++;
+        }
+        if (next > lastArea) {
+            return -1;
+        }
+        // A concurrent allocator opening the same area fails here with a duplicate key and retries
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO ssn_area_sequences (area, next_slot) VALUES (?, 0)")) {
+            ps.setInt(1, next);
+            ps.executeUpdate();
+        }
+        logger.info("Opened SSN area {}", String.format("%03d", next));
+        return next;
+    }
+
+    @Override
+    public void releaseBlock(String owner, long reservationId) {
+        update("DELETE FROM ssn_block_reservations WHERE reservation_id = ? AND owner = ?", reservationId, owner);
+    }
+
+    @Override
+    public int renewLease(String owner, long leaseMillis) {
+        return update("UPDATE ssn_block_reservations SET lease_until = " + LEASE_UNTIL + " WHERE owner = ?",
+                leaseMillis, owner);
+    }
+
+    @Override
+    public void returnUnused(String owner, long reservationId, int fromSlot) {
+        int updated = update("UPDATE ssn_block_reservations SET start_slot = ?, owner = NULL, lease_until = NULL " +
+                "WHERE reservation_id = ? AND owner = ? AND end_slot > ?", fromSlot, reservationId, owner, fromSlot);
+        if (updated == 0) {
+            releaseBlock(owner, reservationId);
+        }
+    }
+
+    /**
+     * Orphaned blocks are trimmed past the highest SSN already issued from
+     * them, so a taker does not have to skip over numbers the crashed owner
+     * used. Unused gaps below that point are given up.
+     */
+    @Override
+    public int reclaimOrphans(String liveOwner) {
+        List<SSNBlock> orphans = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
+        int reclaimed = 0;
+        try (Connection conn = databaseManager.getIndependentConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT reservation_id, area, start_slot, end_slot, owner FROM ssn_block_reservations " +
+                            "WHERE owner IS NOT NULL AND owner <> ? AND " + LEASE_EXPIRED)) {
+                ps.setString(1, liveOwner);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        orphans.add(new SSNBlock(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), true));
+                        owners.add(rs.getString(5));
+                    }
+                }
+            }
+            for (int i = 0; i < orphans.size(); i++) {
+                SSNBlock orphan = orphans.get(i);
+                int from = Math.max(orphan.getStartSlot(), highestIssuedSlot(conn, orphan) + 1);
+                String sql = from < orphan.getEndSlot()
+                        ? "UPDATE ssn_block_reservations SET start_slot = " + from + ", owner = NULL, reclaimed = TRUE " +
+                          "WHERE reservation_id = ? AND owner = ? AND " + LEASE_EXPIRED
+                        : "DELETE FROM ssn_block_reservations WHERE reservation_id = ? AND owner = ? AND " + LEASE_EXPIRED;
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setLong(1, orphan.getReservationId());
+                    ps.setString(2, owners.get(i));
+                    // Zero rows: the owner renewed its lease or gave the block back meanwhile
+                    reclaimed += ps.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Failed to reclaim SSN blocks", e);
+        }
+        if (reclaimed > 0) {
+            logger.warn("Reclaimed {} SSN blocks left behind by other allocators", reclaimed);
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Highest slot of the block that is already in the ssns table, or -1.
+     * Formatted SSNs of one area sort in slot order, so this is a key range scan.
+     */
+    private int highestIssuedSlot(Connection conn, SSNBlock block) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT MAX(ssn) FROM ssns WHERE ssn >= ? AND ssn <= ?")) {
+            ps.setString(1, block.format(block.getStartSlot()));
+            ps.setString(2, block.format(block.getEndSlot() - 1));
+            try (ResultSet rs = ps.executeQuery()) {
+                String highest = rs.next() ? rs.getString(1) : null;
+                return highest == null ? -1 : SSNBlock.slotOf(highest);
+            }
+        }
+    }
+
+    private int update(String sql, Object... params) {
+        try (Connection conn = databaseManager.getIndependentConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            AbstractJdbcRepository.bindParams(ps, params);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RepositoryException("Update on ssn_block_reservations failed", e);
+        }
+    }
+
+    private static final class LostRace extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LostRace() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static boolean isDuplicateKey(Exception e) {
+        // SQLState 23505: unique constraint violation
+        return e instanceof SQLException sql && "23505".equals(sql.getSQLState());
+    }
+}
@@ -0,0 +1,188 @@
+package com.ssa.repository.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Page;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.SSNStatus;
+import com.ssa.repository.ISSNRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * H2 implementation of ISSNRepository over the ssns table.
+ *
+ * The SSN string is the natural key and every key is normalized to
+ * XXX-XX-XXXX before it reaches SQL. save() is a plain INSERT, so issuing an
+ * SSN twice hits the primary key instead of moving it to another person;
+ * update() is the only way to change an existing row.
+ */
+public class SSNRepositoryImpl extends AbstractJdbcRepository<SSN, String> implements ISSNRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ssns (ssn, person_id, issued_date, status) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE ssns SET person_id = ?, issued_date = ?, status = ? WHERE ssn = ?";
+
+    public SSNRepositoryImpl() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public SSNRepositoryImpl(DatabaseManager databaseManager) {
+        super(databaseManager);
+    }
+
+    @Override
+    protected String tableName() {
+        return "ssns";
+    }
+
+    @Override
+    protected String idColumn() {
+        return "ssn";
+    }
+
+    @Override
+    protected String getId(SSN ssn) {
+        return ssn.getSsn();
+    }
+
+    @Override
+    protected boolean isNew(SSN ssn) {
+        // Updates go through update(), never save()
+        return true;
+    }
+
+    @Override
+    protected boolean hasGeneratedId() {
+        return false;
+    }
+
+    @Override
+    protected String insertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    protected void bindInsert(PreparedStatement ps, SSN ssn) throws SQLException {
+        ps.setString(1, SSN.formatSSN(ssn.getSsn()));
+        ps.setLong(2, ssn.getPersonId());
+        ps.setObject(3, ssn.getIssuedDate());
+        ps.setString(4, ssn.getStatus().name());
+    }
+
+    @Override
+    protected String updateSql() {
+        return UPDATE_SQL;
+    }
+
+    @Override
+    protected void bindUpdate(PreparedStatement ps, SSN ssn) throws SQLException {
+        ps.setLong(1, ssn.getPersonId());
+        ps.setObject(2, ssn.getIssuedDate());
+        ps.setString(3, ssn.getStatus().name());
+        ps.setString(4, SSN.formatSSN(ssn.getSsn()));
+    }
+
+    @Override
+    public SSN update(SSN ssn) {
+        if (execute(UPDATE_SQL, ssn.getPersonId(), ssn.getIssuedDate(), ssn.getStatus(),
+                SSN.formatSSN(ssn.getSsn())) == 0) {
+            throw new RepositoryException("No ssns row with ssn=" + SSN.maskSSN(ssn.getSsn()));
+        }
+        return ssn;
+    }
+
+    @Override
+    protected SSN mapRow(ResultSet rs) throws SQLException {
+        SSN ssn = new SSN();
+        ssn.setSsn(rs.getString("ssn"));
+        ssn.setPersonId(rs.getLong("person_id"));
+        ssn.setIssuedDate(rs.getObject("issued_date", LocalDateTime.class));
+        ssn.setStatus(SSNStatus.valueOf(rs.getString("status")));
+        return ssn;
+    }
+
+    @Override
+    public Optional<SSN> findById(String ssn) {
+        return super.findById(SSN.formatSSN(ssn));
+    }
+
+    @Override
+    public void delete(String ssn) {
+        super.delete(SSN.formatSSN(ssn));
+    }
+
+    @Override
+    public void deleteAll(Collection<String> ssns) {
+        super.deleteAll(ssns.stream().map(SSN::formatSSN).toList());
+    }
+
+    @Override
+    public boolean exists(String ssn) {
+        return super.exists(SSN.formatSSN(ssn));
+    }
+
+    @Override
+    public Page<SSN> findAll(int pageSize, String pageToken) {
+        String scope = "ssns.all";
+        String[] after = KeysetToken.decode(pageToken, scope, 1);
+        Function<SSN, String> tokenOf = ssn -> KeysetToken.encode(scope, ssn.getSsn());
+        return after == null
+                ? queryPage("SELECT * FROM ssns ORDER BY ssn LIMIT ?", pageSize, tokenOf)
+                : queryPage("SELECT * FROM ssns WHERE ssn > ? ORDER BY ssn LIMIT ?", pageSize, tokenOf, after[0]);
+    }
+
+    @Override
+    public Optional<SSN> findBySSN(String ssn) {
+        return findById(ssn);
+    }
+
+    @Override
+    public Optional<SSN> findByPersonId(Long personId) {
+        return queryOne("SELECT * FROM ssns WHERE person_id = ?", personId);
+    }
+
+    @Override
+    public boolean ssnExists(String ssn) {
+        return exists(ssn);
+    }
+
+    @Override
+    public List<SSN> findByStatus(SSNStatus status) {
+        return queryList("SELECT * FROM ssns WHERE status = ? ORDER BY ssn", status);
+    }
+
+    @Override
+    public Stream<SSN> streamByStatus(SSNStatus status) {
+        return queryStream("SELECT * FROM ssns WHERE status = ? ORDER BY ssn", status);
+    }
+
+    /**
+     * Sum of the status's counter rows in status_counts (maintained by
+     * StatusCountTrigger), not a scan of ssns.
+     */
+    @Override
+    public long countByStatus(SSNStatus status) {
+        return queryLong("SELECT COALESCE(SUM(row_count), 0) FROM status_counts"
+                + " WHERE table_name = 'ssns' AND status = ?", status);
+    }
+
+    @Override
+    public long count() {
+        return queryLong("SELECT COALESCE(SUM(row_count), 0) FROM status_counts WHERE table_name = 'ssns'");
+    }
+
+    @Override
+    public Optional<SSN> getLatestSSN() {
+        return queryOne("SELECT * FROM ssns ORDER BY issued_date DESC, ssn DESC LIMIT 1");
+    }
+}
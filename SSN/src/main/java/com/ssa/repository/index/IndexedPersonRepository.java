@@ -0,0 +1,159 @@
+package com.ssa.repository.index;
+
+import com.ssa.model.Page;
+import com.ssa.model.Person;
+import com.ssa.model.enums.NameMatch;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.search.PersonSearchIndex;
+import com.ssa.util.BlockingKeys;
+import com.ssa.util.DatabaseManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * IPersonRepository that keeps a PersonSearchIndex current.
+ *
+ * Black Box Implementation Detail: Every save, saveAll, delete and deleteAll
+ * goes to the delegate first and reaches the index only once it is
+ * committed: inside a DatabaseManager.inTransaction it is applied after the
+ * commit and dropped on rollback, so the typeahead never offers a person
+ * the database does not hold. All reads are delegated. Wire one instance
+ * and hand it to every service that writes persons (PersonService,
+ * ApplicationService, BulkIntakePipeline); writes that bypass it show up
+ * after the next PersonSearchIndex.rebuild().
+ */
+public class IndexedPersonRepository implements IPersonRepository {
+    private final IPersonRepository delegate;
+    private final PersonSearchIndex searchIndex;
+    private final DatabaseManager databaseManager;
+
+    public IndexedPersonRepository(IPersonRepository delegate, PersonSearchIndex searchIndex) {
+        this(delegate, searchIndex, DatabaseManager.getInstance());
+    }
+
+    /**
+     * @param databaseManager Whose transactions the index writes wait for
+     */
+    public IndexedPersonRepository(IPersonRepository delegate, PersonSearchIndex searchIndex,
+                                   DatabaseManager databaseManager) {
+        this.delegate = delegate;
+        this.searchIndex = searchIndex;
+        this.databaseManager = databaseManager;
+    }
+
+    public PersonSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    // Writes keep the index current
+
+    @Override
+    public Person save(Person person) {
+        Person saved = delegate.save(person);
+        databaseManager.afterCommit(() -> searchIndex.put(saved));
+        return saved;
+    }
+
+    @Override
+    public List<Person> saveAll(Collection<Person> persons) {
+        List<Person> saved = delegate.saveAll(persons);
+        databaseManager.afterCommit(() -> saved.forEach(searchIndex::put));
+        return saved;
+    }
+
+    @Override
+    public void delete(Long personId) {
+        delegate.delete(personId);
+        if (personId != null) {
+            databaseManager.afterCommit(() -> searchIndex.remove(personId));
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> personIds) {
+        delegate.deleteAll(personIds);
+        List<Long> deleted = List.copyOf(personIds);
+        databaseManager.afterCommit(() -> deleted.forEach(searchIndex::remove));
+    }
+
+    // Pass-through
+
+    /**
+     * The index holds no SSNs, so there is nothing to update.
+     */
+    @Override
+    public Set<Long> assignSSNsIfUnassigned(Map<Long, String> ssnsByPersonId) {
+        return delegate.assignSSNsIfUnassigned(ssnsByPersonId);
+    }
+
+    @Override
+    public Optional<Person> findById(Long personId) {
+        return delegate.findById(personId);
+    }
+
+    @Override
+    public List<Person> findAllById(Collection<Long> personIds) {
+        return delegate.findAllById(personIds);
+    }
+
+    @Override
+    public Optional<Person> findBySSN(String ssn) {
+        return delegate.findBySSN(ssn);
+    }
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName) {
+        return delegate.findByName(firstName, lastName);
+    }
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName, NameMatch match) {
+        return delegate.findByName(firstName, lastName, match);
+    }
+
+    @Override
+    public List<Person> findByBlockingKeys(BlockingKeys keys) {
+        return delegate.findByBlockingKeys(keys);
+    }
+
+    @Override
+    public List<Person> findByDateOfBirth(LocalDate dateOfBirth) {
+        return delegate.findByDateOfBirth(dateOfBirth);
+    }
+
+    @Override
+    public boolean hasSSN(Long personId) {
+        return delegate.hasSSN(personId);
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<Person> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public boolean exists(Long personId) {
+        return delegate.exists(personId);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
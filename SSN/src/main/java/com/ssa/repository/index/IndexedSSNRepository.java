@@ -0,0 +1,149 @@
+package com.ssa.repository.index;
+
+import com.ssa.model.Page;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.SSNStatus;
+import com.ssa.repository.ISSNRepository;
+import com.ssa.util.DatabaseManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ISSNRepository whose point lookups are answered by an SSNRegistry.
+ *
+ * Black Box Implementation Detail: findBySSN, findById, ssnExists, exists and
+ * findByPersonId never reach the database; everything else is delegated.
+ * Writes go to the delegate first and reach the registry only once they are
+ * committed: inside a DatabaseManager.inTransaction they are applied after
+ * the commit and dropped on rollback, so the registry never holds an SSN the
+ * database does not. It is only as current as the writes that pass through
+ * this decorator. Wire it outermost and rebuild the registry if the ssns
+ * table is changed elsewhere.
+ */
+public class IndexedSSNRepository implements ISSNRepository {
+    private final ISSNRepository delegate;
+    private final SSNRegistry registry;
+    private final DatabaseManager databaseManager;
+
+    public IndexedSSNRepository(ISSNRepository delegate, SSNRegistry registry) {
+        this(delegate, registry, DatabaseManager.getInstance());
+    }
+
+    /**
+     * @param databaseManager Whose transactions the registry writes wait for
+     */
+    public IndexedSSNRepository(ISSNRepository delegate, SSNRegistry registry, DatabaseManager databaseManager) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.databaseManager = databaseManager;
+    }
+
+    // Registry reads
+
+    @Override
+    public Optional<SSN> findBySSN(String ssn) {
+        return registry.find(ssn);
+    }
+
+    @Override
+    public Optional<SSN> findById(String ssn) {
+        return registry.find(ssn);
+    }
+
+    @Override
+    public boolean ssnExists(String ssn) {
+        return registry.contains(ssn);
+    }
+
+    @Override
+    public boolean exists(String ssn) {
+        return registry.contains(ssn);
+    }
+
+    @Override
+    public Optional<SSN> findByPersonId(Long personId) {
+        if (personId == null) return Optional.empty();
+        return registry.findByPersonId(personId);
+    }
+
+    // Writes keep the registry current
+
+    @Override
+    public SSN save(SSN ssn) {
+        SSN saved = delegate.save(ssn);
+        databaseManager.afterCommit(() -> registry.put(saved));
+        return saved;
+    }
+
+    @Override
+    public List<SSN> saveAll(Collection<SSN> ssns) {
+        List<SSN> saved = delegate.saveAll(ssns);
+        databaseManager.afterCommit(() -> saved.forEach(registry::put));
+        return saved;
+    }
+
+    @Override
+    public SSN update(SSN ssn) {
+        SSN updated = delegate.update(ssn);
+        databaseManager.afterCommit(() -> registry.put(updated));
+        return updated;
+    }
+
+    @Override
+    public void delete(String ssn) {
+        delegate.delete(ssn);
+        databaseManager.afterCommit(() -> registry.remove(ssn));
+    }
+
+    @Override
+    public void deleteAll(Collection<String> ssns) {
+        delegate.deleteAll(ssns);
+        List<String> deleted = List.copyOf(ssns);
+        databaseManager.afterCommit(() -> deleted.forEach(registry::remove));
+    }
+
+    // Pass-through
+
+    @Override
+    public List<SSN> findByStatus(SSNStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public Stream<SSN> streamByStatus(SSNStatus status) {
+        return delegate.streamByStatus(status);
+    }
+
+    @Override
+    public long countByStatus(SSNStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public Optional<SSN> getLatestSSN() {
+        return delegate.getLatestSSN();
+    }
+
+    @Override
+    public List<SSN> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<SSN> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<SSN> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
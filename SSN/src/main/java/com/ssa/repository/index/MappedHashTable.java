@@ -0,0 +1,313 @@
+package com.ssa.repository.index;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Cleaner;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open-addressing hash table of long keys to a fixed number of long values,
+ * stored in a memory-mapped file.
+ *
+ * Black Box Implementation Detail: Slots are [key][sequence][value...] words
+ * with linear probing. A key word of 0 is empty and -1 is a deleted slot, so
+ * keys are stored as key + 1. Readers never lock: the key word is published
+ * with release semantics after the values, and read with acquire semantics.
+ * Values of a live slot can be overwritten, so they are guarded seqlock
+ * style: the writer makes the sequence odd, writes the values and releases
+ * the next even sequence; a reader takes sequence(), reads the values and
+ * accepts them only if holds(slot, key, sequence) still agrees.
+ * Exactly one writer at a time is expected (callers serialize writes).
+ * The header records whether the table was closed cleanly; a table that
+ * was not is not trusted on the next open.
+ */
+final class MappedHashTable implements AutoCloseable {
+    private static final long MAGIC = 0x5353_4E49_4458_0002L;
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+    private static final int HEADER_BYTES = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_CAPACITY = 8;
+    private static final int H_VALUE_WORDS = 16;
+    private static final int H_SIZE = 24;
+    private static final int H_USED = 32;
+    private static final int H_CLEAN = 40;
+
+    // Largest table a single mapping can hold
+    static final int MAX_CAPACITY = 1 << 26;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // Deletes the files of discarded tables once their mapping is unreachable
+    private static final Cleaner CLEANER = Cleaner.create();
+    // Files of discarded tables that may still be mapped
+    private static final Set<Path> RETIRED = ConcurrentHashMap.newKeySet();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int valueWords;
+    private final int slotBytes;
+    private int size;
+    private int used;
+
+    private MappedHashTable(Path file, FileChannel channel, MappedByteBuffer buffer,
+                            int capacity, int valueWords, int size, int used) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.valueWords = valueWords;
+        this.slotBytes = 8 * (2 + valueWords);
+        this.size = size;
+        this.used = used;
+    }
+
+    /**
+     * Create an empty table, replacing any file at that path.
+     * @param capacity Slot count, rounded up to a power of two
+     */
+    static MappedHashTable create(Path file, int capacity, int valueWords) throws IOException {
+        int slots = 16;
+        while (slots < capacity && slots < MAX_CAPACITY) {
+            slots <<= 1;
+        }
+        long bytes = HEADER_BYTES + (long) slots * 8 * (2 + valueWords);
+        Files.deleteIfExists(file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        buffer.order(ByteOrder.nativeOrder());
+        buffer.putLong(H_MAGIC, MAGIC);
+        buffer.putLong(H_CAPACITY, slots);
+        buffer.putLong(H_VALUE_WORDS, valueWords);
+        buffer.putLong(H_CLEAN, 0);
+        return new MappedHashTable(file, channel, buffer, slots, valueWords, 0, 0);
+    }
+
+    /**
+     * Map an existing table if it was closed cleanly.
+     * @return The table, or null if the file is missing, foreign or was not closed cleanly
+     */
+    static MappedHashTable openExisting(Path file, int valueWords) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = channel.size();
+        if (length < HEADER_BYTES) {
+            channel.close();
+            return null;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        buffer.order(ByteOrder.nativeOrder());
+        long capacity = buffer.getLong(H_CAPACITY);
+        boolean usable = buffer.getLong(H_MAGIC) == MAGIC
+                && buffer.getLong(H_VALUE_WORDS) == valueWords
+                && buffer.getLong(H_CLEAN) == 1
+                && capacity > 0 && capacity <= MAX_CAPACITY && Long.bitCount(capacity) == 1
+                && length == HEADER_BYTES + capacity * 8 * (2 + valueWords);
+        if (!usable) {
+            channel.close();
+            return null;
+        }
+        // Dirty until closed again
+        buffer.putLong(H_CLEAN, 0);
+        buffer.force();
+        return new MappedHashTable(file, channel, buffer, (int) capacity, valueWords,
+                (int) buffer.getLong(H_SIZE), (int) buffer.getLong(H_USED));
+    }
+
+    /**
+     * @return Slot holding key, or -1
+     */
+    int find(long key) {
+        long stored = key + 1;
+        int slot = (int) mix(key) & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            long k = (long) LONGS.getAcquire(buffer, offset(slot));
+            if (k == EMPTY) return -1;
+            if (k == stored) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Read before a slot's values; odd while the writer is changing them.
+     */
+    long sequence(int slot) {
+        return (long) LONGS.getAcquire(buffer, offset(slot) + 8);
+    }
+
+    long value(int slot, int word) {
+        return (long) LONGS.getOpaque(buffer, offset(slot) + 16 + 8 * word);
+    }
+
+    /**
+     * True if slot still holds key and its values were not written since
+     * sequence was read; otherwise the values just read may be torn and the
+     * reader has to look again.
+     */
+    boolean holds(int slot, long key, long sequence) {
+        VarHandle.loadLoadFence();
+        return (sequence & 1) == 0
+                && (long) LONGS.getOpaque(buffer, offset(slot) + 8) == sequence
+                && (long) LONGS.getAcquire(buffer, offset(slot)) == key + 1;
+    }
+
+    /**
+     * Insert or overwrite. Writer only.
+     */
+    void put(long key, long... values) {
+        int slot = find(key);
+        if (slot >= 0) {
+            writeValues(slot, values);
+            return;
+        }
+        long stored = key + 1;
+        slot = (int) mix(key) & mask;
+        while (true) {
+            long k = (long) LONGS.getAcquire(buffer, offset(slot));
+            if (k == EMPTY || k == DELETED) {
+                if (k == EMPTY) used++;
+                writeValues(slot, values);
+                LONGS.setRelease(buffer, offset(slot), stored);
+                size++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void writeValues(int slot, long[] values) {
+        int base = offset(slot);
+        long sequence = (long) LONGS.getOpaque(buffer, base + 8);
+        LONGS.setOpaque(buffer, base + 8, sequence + 1);
+        VarHandle.storeStoreFence();
+        for (int w = 0; w < valueWords; w++) {
+            LONGS.setOpaque(buffer, base + 16 + 8 * w, values[w]);
+        }
+        LONGS.setRelease(buffer, base + 8, sequence + 2);
+    }
+
+    /**
+     * Remove key if present. Writer only.
+     */
+    void remove(long key) {
+        int slot = find(key);
+        if (slot >= 0) {
+            LONGS.setRelease(buffer, offset(slot), DELETED);
+            size--;
+        }
+    }
+
+    /**
+     * Copy every live entry into target. Writer only.
+     */
+    void copyTo(MappedHashTable target) {
+        long[] values = new long[valueWords];
+        for (int slot = 0; slot < capacity; slot++) {
+            long k = (long) LONGS.getAcquire(buffer, offset(slot));
+            if (k != EMPTY && k != DELETED) {
+                for (int w = 0; w < valueWords; w++) {
+                    values[w] = value(slot, w);
+                }
+                target.put(k - 1, values);
+            }
+        }
+    }
+
+    /**
+     * More than half the slots are used (live or deleted), so probes get long.
+     */
+    boolean needsResize() {
+        return used > capacity / 2;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int valueWords() {
+        return valueWords;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Flush and mark the table as cleanly closed.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.putLong(H_SIZE, size);
+        buffer.putLong(H_USED, used);
+        buffer.force();
+        buffer.putLong(H_CLEAN, 1);
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Drop the table without marking it clean. Readers that still hold the
+     * mapping can finish; the file is deleted only once the mapping is
+     * unreachable, as a file cannot be deleted while mapped on every platform.
+     */
+    void discard() throws IOException {
+        channel.close();
+        Path retired = file;
+        RETIRED.add(retired);
+        CLEANER.register(buffer, () -> deleteRetired(retired));
+    }
+
+    /**
+     * True while file belongs to a discarded table whose mapping may still be in use.
+     */
+    static boolean isRetired(Path file) {
+        return RETIRED.contains(file);
+    }
+
+    // A failed delete leaves the file to the owner's next stale-file sweep
+    private static void deleteRetired(Path file) {
+        RETIRED.remove(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Still mapped or locked; swept up later
+        }
+    }
+
+    // Fits an int: MAX_CAPACITY slots of up to three words stay below 2 GB
+    private int offset(int slot) {
+        return HEADER_BYTES + slot * slotBytes;
+    }
+
+    // 64-bit finalizer from MurmurHash3
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
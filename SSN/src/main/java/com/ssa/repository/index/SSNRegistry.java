@@ -0,0 +1,335 @@
+package com.ssa.repository.index;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.SSN;
+import com.ssa.model.SSNCodec;
+import com.ssa.model.enums.SSNStatus;
+import com.ssa.repository.ISSNRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Off-heap SSN -> (personId, status, issued date) registry with a reverse
+ * personId -> SSN table, both in memory-mapped files.
+ *
+ * Black Box Implementation Detail: The SSN is used as its packed int
+ * (SSNCodec), so a lookup is a hash probe over mapped memory with no heap
+ * objects until the SSN result is built. Readers never block. Writes are
+ * serialized; when a table passes half full, a table twice the size is built
+ * next to it and swapped in, and readers on the old mapping simply finish.
+ *
+ * The files are only trusted if they were closed cleanly. After a crash
+ * (or on first use) open() rebuilds both tables by streaming the ssns table.
+ */
+public class SSNRegistry implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SSNRegistry.class);
+
+    private static final String SSN_TABLE = "ssn";
+    private static final String PERSON_TABLE = "person";
+    private static final int SSN_WORDS = 2;
+    private static final int PERSON_WORDS = 1;
+    private static final int STATUS_SHIFT = 56;
+    private static final long PERSON_MASK = (1L << STATUS_SHIFT) - 1;
+    private static final SSNStatus[] STATUSES = SSNStatus.values();
+
+    private final Path directory;
+    private final int initialCapacity;
+    private final Object writeLock = new Object();
+    private volatile Tables tables;
+    private long generation;
+
+    private SSNRegistry(Path directory, int initialCapacity) {
+        this.directory = directory;
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Open the registry configured by ssn.registry.dir / ssn.registry.initialCapacity.
+     */
+    public static SSNRegistry open(ISSNRepository source) {
+        return open(Path.of(AppConfig.get("ssn.registry.dir", "./data/ssn-registry")), source,
+                AppConfig.getInt("ssn.registry.initialCapacity", 65536));
+    }
+
+    /**
+     * Map the registry in directory, rebuilding it from source unless it was closed cleanly.
+     * @param directory Directory for the table files
+     * @param source Repository to rebuild from
+     * @param initialCapacity Slots to start with when building from scratch
+     */
+    public static SSNRegistry open(Path directory, ISSNRepository source, int initialCapacity) {
+        SSNRegistry registry = new SSNRegistry(directory, initialCapacity);
+        try {
+            Files.createDirectories(directory);
+            if (!registry.load()) {
+                registry.rebuild(source);
+            }
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to open SSN registry in " + directory, e);
+        }
+        return registry;
+    }
+
+    private boolean load() throws IOException {
+        Path ssnFile = latest(SSN_TABLE);
+        Path personFile = latest(PERSON_TABLE);
+        // New files must sort after whatever is on disk, usable or not
+        generation = Math.max(ssnFile == null ? 0 : generationOf(ssnFile),
+                personFile == null ? 0 : generationOf(personFile));
+        if (ssnFile == null || personFile == null) {
+            return false;
+        }
+        MappedHashTable ssns = MappedHashTable.openExisting(ssnFile, SSN_WORDS);
+        MappedHashTable persons = MappedHashTable.openExisting(personFile, PERSON_WORDS);
+        if (ssns == null || persons == null) {
+            logger.warn("SSN registry in {} was not closed cleanly; rebuilding", directory);
+            if (ssns != null) ssns.discard();
+            if (persons != null) persons.discard();
+            return false;
+        }
+        tables = new Tables(ssns, persons);
+        logger.info("SSN registry loaded with {} SSNs", ssns.size());
+        return true;
+    }
+
+    /**
+     * Throw the tables away and rebuild them from the repository.
+     */
+    public void rebuild(ISSNRepository source) {
+        synchronized (writeLock) {
+            long start = System.nanoTime();
+            int capacity = (int) Math.min(MappedHashTable.MAX_CAPACITY,
+                    Math.max(initialCapacity, source.count() * 2));
+            try {
+                // Readers keep using the old tables until the new ones are complete
+                Tables building = new Tables(
+                        MappedHashTable.create(nextFile(SSN_TABLE), capacity, SSN_WORDS),
+                        MappedHashTable.create(nextFile(PERSON_TABLE), capacity, PERSON_WORDS));
+                try (Stream<SSN> all = source.streamAll()) {
+                    for (SSN ssn : (Iterable<SSN>) all::iterator) {
+                        building = putInto(building, ssn);
+                    }
+                }
+                Tables old = tables;
+                tables = building;
+                if (old != null) {
+                    old.bySsn.discard();
+                    old.byPerson.discard();
+                }
+                deleteStale();
+            } catch (IOException e) {
+                throw new RepositoryException("Failed to rebuild SSN registry", e);
+            }
+            logger.info("SSN registry rebuilt with {} SSNs in {}ms",
+                    tables.bySsn.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Reads
+
+    public boolean contains(CharSequence ssn) {
+        int packed = SSNCodec.parse(ssn);
+        return packed != SSNCodec.INVALID && tables.bySsn.find(packed) >= 0;
+    }
+
+    public Optional<SSN> find(CharSequence ssn) {
+        int packed = SSNCodec.parse(ssn);
+        return packed == SSNCodec.INVALID ? Optional.empty() : find(packed);
+    }
+
+    private Optional<SSN> find(int packed) {
+        while (true) {
+            MappedHashTable table = tables.bySsn;
+            int slot = table.find(packed);
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            long sequence = table.sequence(slot);
+            long owner = table.value(slot, 0);
+            long issued = table.value(slot, 1);
+            if (table.holds(slot, packed, sequence)) {
+                return Optional.of(toSSN(packed, owner, issued));
+            }
+            // Slot was rewritten, deleted or reused while we read it - look again
+        }
+    }
+
+    public Optional<SSN> findByPersonId(long personId) {
+        MappedHashTable table = tables.byPerson;
+        int slot = table.find(personId);
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        int packed = (int) table.value(slot, 0);
+        return find(packed).filter(ssn -> ssn.getPersonId() == personId);
+    }
+
+    public int size() {
+        return tables.bySsn.size();
+    }
+
+    // Writes
+
+    public void put(SSN ssn) {
+        synchronized (writeLock) {
+            tables = putInto(tables, ssn);
+        }
+    }
+
+    public void remove(CharSequence ssn) {
+        int packed = SSNCodec.parse(ssn);
+        if (packed == SSNCodec.INVALID) return;
+        synchronized (writeLock) {
+            Tables current = tables;
+            int slot = current.bySsn.find(packed);
+            if (slot < 0) return;
+            long personId = current.bySsn.value(slot, 0) & PERSON_MASK;
+            current.bySsn.remove(packed);
+            int personSlot = current.byPerson.find(personId);
+            if (personSlot >= 0 && current.byPerson.value(personSlot, 0) == packed) {
+                current.byPerson.remove(personId);
+            }
+        }
+    }
+
+    /**
+     * Write one SSN, growing the tables first if needed. Caller holds writeLock.
+     * @return The tables now in use (differs from target after a resize)
+     */
+    private Tables putInto(Tables target, SSN ssn) {
+        int packed = SSNCodec.parse(ssn.getSsn());
+        if (packed == SSNCodec.INVALID || ssn.getPersonId() == null) {
+            return target;
+        }
+        long owner = ((long) ssn.getStatus().ordinal() << STATUS_SHIFT) | (ssn.getPersonId() & PERSON_MASK);
+        Tables result = target;
+        if (target.bySsn.needsResize() || target.byPerson.needsResize()) {
+            result = new Tables(grown(target.bySsn, SSN_TABLE), grown(target.byPerson, PERSON_TABLE));
+        }
+        result.bySsn.put(packed, owner, toMicros(ssn.getIssuedDate()));
+        result.byPerson.put(ssn.getPersonId(), packed);
+        return result;
+    }
+
+    /**
+     * Return table, or a copy twice its size if it is getting full.
+     */
+    private MappedHashTable grown(MappedHashTable table, String name) {
+        if (!table.needsResize()) {
+            return table;
+        }
+        try {
+            // Same size if most used slots are deleted ones
+            int capacity = table.size() * 4 > table.capacity() ? table.capacity() * 2 : table.capacity();
+            MappedHashTable larger = MappedHashTable.create(nextFile(name), capacity, table.valueWords());
+            table.copyTo(larger);
+            // Readers still on the old mapping finish normally; it is unmapped when collected
+            table.discard();
+            logger.debug("SSN registry table {} resized to {} slots", name, larger.capacity());
+            return larger;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flush both tables and mark them clean so the next open() can skip the rebuild.
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            try {
+                tables.bySsn.close();
+                tables.byPerson.close();
+            } catch (IOException e) {
+                throw new RepositoryException("Failed to close SSN registry", e);
+            }
+        }
+    }
+
+    // Files: <name>.<generation>.tbl; a resize or rebuild writes the next generation
+
+    private Path nextFile(String name) {
+        return directory.resolve(name + "." + (++generation) + ".tbl");
+    }
+
+    private Path latest(String name) throws IOException {
+        Path best = null;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isTableFile(file, name) && (best == null || generationOf(file) > generationOf(best))) {
+                    best = file;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void deleteStale() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                boolean ours = isTableFile(file, SSN_TABLE) || isTableFile(file, PERSON_TABLE);
+                if (ours && !file.equals(tables.bySsn.file()) && !file.equals(tables.byPerson.file())
+                        && !MappedHashTable.isRetired(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static boolean isTableFile(Path file, String name) {
+        String fileName = file.getFileName().toString();
+        return fileName.startsWith(name + ".") && fileName.endsWith(".tbl") && generationOf(file) >= 0;
+    }
+
+    private static long generationOf(Path file) {
+        String fileName = file.getFileName().toString();
+        int start = fileName.indexOf('.') + 1;
+        int end = fileName.lastIndexOf('.');
+        try {
+            return Long.parseLong(fileName.substring(start, end));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private static final class Tables {
+        private final MappedHashTable bySsn;
+        private final MappedHashTable byPerson;
+
+        Tables(MappedHashTable bySsn, MappedHashTable byPerson) {
+            this.bySsn = bySsn;
+            this.byPerson = byPerson;
+        }
+    }
+
+    // Packing
+
+    private static SSN toSSN(int packed, long owner, long issuedMicros) {
+        SSN ssn = new SSN(SSNCodec.toString(packed), owner & PERSON_MASK);
+        ssn.setStatus(STATUSES[(int) (owner >>> STATUS_SHIFT)]);
+        ssn.setIssuedDate(fromMicros(issuedMicros));
+        return ssn;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) return Long.MIN_VALUE;
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
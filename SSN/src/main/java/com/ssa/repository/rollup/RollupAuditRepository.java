@@ -0,0 +1,147 @@
+package com.ssa.repository.rollup;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditLog;
+import com.ssa.model.Page;
+import com.ssa.model.enums.RollupResolution;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.repository.IAuditRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * IAuditRepository decorator that keeps audit rollups in step with writes.
+ *
+ * Black Box Implementation Detail: save()/saveAll() store the logs through
+ * the delegate first, then add them to the rollup counts in one batched
+ * merge. With the async audit writer that is one rollup update per group
+ * commit. A failed rollup update is logged and swallowed: the logs are
+ * already stored, and failing the call would make the writer retry and
+ * insert them twice. The counts for those days are then short until
+ * rebuildRollups() runs. Deletes do not touch the counts either; rollups
+ * describe what was logged, not what is still retained.
+ */
+public class RollupAuditRepository implements IAuditRepository {
+    private static final Logger logger = LoggerFactory.getLogger(RollupAuditRepository.class);
+
+    private final IAuditRepository delegate;
+    private final IAuditRollupRepository rollups;
+
+    public RollupAuditRepository(IAuditRepository delegate, IAuditRollupRepository rollups) {
+        this.delegate = delegate;
+        this.rollups = rollups;
+    }
+
+    /**
+     * Recount the days covering [from, to) from the stored logs.
+     */
+    public void rebuildRollups(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = RollupResolution.DAY.bucketOf(from);
+        LocalDateTime end = RollupResolution.DAY.nextBucketFrom(to);
+        try (Stream<AuditLog> logs = delegate.streamByDateRange(start, end)) {
+            rollups.rebuild(start, end, logs::iterator);
+        }
+    }
+
+    private void addToRollups(Collection<AuditLog> logs) {
+        try {
+            rollups.increment(logs);
+        } catch (RepositoryException e) {
+            logger.error("Audit rollups missed {} logs; run rebuildRollups() for their days", logs.size(), e);
+        }
+    }
+
+    // Writes
+
+    @Override
+    public AuditLog save(AuditLog log) {
+        AuditLog saved = delegate.save(log);
+        addToRollups(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        List<AuditLog> saved = delegate.saveAll(logs);
+        addToRollups(saved);
+        return saved;
+    }
+
+    @Override
+    public void delete(Long logId) {
+        delegate.delete(logId);
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> logIds) {
+        delegate.deleteAll(logIds);
+    }
+
+    // Reads
+
+    @Override
+    public Optional<AuditLog> findById(Long logId) {
+        return delegate.findById(logId);
+    }
+
+    @Override
+    public List<AuditLog> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return delegate.findByDateRange(from, to);
+    }
+
+    @Override
+    public Stream<AuditLog> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        return delegate.streamByDateRange(from, to);
+    }
+
+    @Override
+    public List<AuditLog> findByUser(String userName) {
+        return delegate.findByUser(userName);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return delegate.findByAction(action);
+    }
+
+    @Override
+    public List<AuditLog> findRecent(int limit) {
+        return delegate.findRecent(limit);
+    }
+
+    @Override
+    public Page<AuditLog> findRecent(int pageSize, String pageToken) {
+        return delegate.findRecent(pageSize, pageToken);
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<AuditLog> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<AuditLog> findAll(int pageSize, String pageToken) {
+        return delegate.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public boolean exists(Long logId) {
+        return delegate.exists(logId);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+}
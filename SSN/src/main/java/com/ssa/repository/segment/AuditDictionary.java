@@ -0,0 +1,157 @@
+package com.ssa.repository.segment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent string -> int code dictionary for audit user names, actions
+ * and IP addresses.
+ *
+ * Black Box Implementation Detail: Codes are assigned in order starting at
+ * 1 and never change. The file is an append-only list of
+ * [length:4][CRC32C:4][UTF-8 bytes] entries; entry n has code n. A torn
+ * entry at the end (crash mid-append) is cut off on open. Once maxEntries
+ * strings are known, intern() refuses new ones and callers store the string
+ * inline instead, so a flood of distinct values cannot grow it forever.
+ *
+ * Lookups never lock. intern() must be called by one writer at a time, and
+ * the entry is written before any record that uses its code, so a reader
+ * that found a code in a record always finds its string here.
+ */
+final class AuditDictionary implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AuditDictionary.class);
+
+    static final int ABSENT = -1;
+    private static final int ENTRY_HEADER = 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int maxEntries;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    // Index = code; slot 0 is unused
+    private volatile String[] strings = new String[64];
+    private int size;
+    private boolean dirty;
+
+    private AuditDictionary(Path file, FileChannel channel, int maxEntries) {
+        this.file = file;
+        this.channel = channel;
+        this.maxEntries = maxEntries;
+    }
+
+    static AuditDictionary open(Path file, int maxEntries) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        AuditDictionary dictionary = new AuditDictionary(file, channel, maxEntries);
+        dictionary.load();
+        return dictionary;
+    }
+
+    private void load() throws IOException {
+        long length = channel.size();
+        ByteBuffer all = ByteBuffer.allocate((int) Math.min(length, Integer.MAX_VALUE));
+        channel.read(all, 0);
+        CRC32C crc = new CRC32C();
+        int offset = 0;
+        while (offset + ENTRY_HEADER <= all.capacity()) {
+            int entryLength = all.getInt(offset);
+            if (entryLength < 0 || entryLength > all.capacity() - offset - ENTRY_HEADER) {
+                break;
+            }
+            crc.reset();
+            crc.update(all.array(), offset + ENTRY_HEADER, entryLength);
+            if ((int) crc.getValue() != all.getInt(offset + 4)) {
+                break;
+            }
+            add(new String(all.array(), offset + ENTRY_HEADER, entryLength, StandardCharsets.UTF_8));
+            offset += ENTRY_HEADER + entryLength;
+        }
+        if (offset < length) {
+            logger.warn("Audit dictionary {}: damaged entry at {}; truncating", file, offset);
+            channel.truncate(offset);
+        }
+        channel.position(offset);
+    }
+
+    /**
+     * Code for value, or ABSENT if it has never been interned.
+     */
+    int lookup(String value) {
+        Integer code = codes.get(value);
+        return code == null ? ABSENT : code;
+    }
+
+    /**
+     * Code for value, adding it if there is room. Writer only.
+     * @return The code, or ABSENT if the dictionary is full
+     */
+    int intern(String value) throws IOException {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (size >= maxEntries) {
+            return ABSENT;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER + bytes.length);
+        entry.putInt(bytes.length).putInt((int) crc.getValue()).put(bytes).flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        dirty = true;
+        return add(value);
+    }
+
+    private int add(String value) {
+        int code = ++size;
+        String[] current = strings;
+        if (code >= current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[code] = value;
+        strings = current;
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * The canonical string for code; every decoded record shares this instance.
+     */
+    String get(int code) {
+        return strings[code];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Flush new entries to disk. Call before flushing records that use them.
+     */
+    void force() throws IOException {
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,315 @@
+package com.ssa.repository.segment;
+
+import com.ssa.model.AuditLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary layout of one audit record inside a segment.
+ *
+ * Black Box Implementation Detail: Records are written in the COMPACT
+ * format:
+ * [format:1][logId - segment base ID: varint]
+ * [timestamp micros - segment base micros: zigzag varint]
+ * [user][action][ip] as string references, then [details].
+ * A string reference is a varint tag: 0 for null, code << 1 for a
+ * dictionary code, or (length << 1) | 1 followed by inline UTF-8 bytes when
+ * the dictionary is full. Details are [kind:1] (0 null, 1 raw, 2 deflated)
+ * then [raw length: varint] and, when deflated, [stored length: varint],
+ * then the bytes; details are only deflated when longer than the threshold
+ * and compression actually pays.
+ *
+ * Records written before the compact format (PLAIN) are
+ * [format:1][logId:8][timestamp micros UTC:8] then user, action, details and
+ * IP as [length:4][UTF-8] with -1 for null; they are still read.
+ *
+ * readHeader() decodes only the ID, timestamp and user/action codes, so scans
+ * filter on integers and decode the strings of matching records only.
+ */
+final class AuditRecordCodec {
+    static final byte PLAIN = 1;
+    static final byte COMPACT = 2;
+    // Smallest valid COMPACT record: format, id, time, three null refs, null details
+    static final int MIN_LENGTH = 7;
+
+    private static final int DETAILS_NULL = 0;
+    private static final int DETAILS_RAW = 1;
+    private static final int DETAILS_DEFLATED = 2;
+
+    private final AuditDictionary dictionary;
+    private final int compressOver;
+    // Writer-only scratch state
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    private byte[] deflateBuffer = new byte[1024];
+
+    /**
+     * @param compressOver Details longer than this many UTF-8 bytes are deflated when that makes them smaller
+     */
+    AuditRecordCodec(AuditDictionary dictionary, int compressOver) {
+        this.dictionary = dictionary;
+        this.compressOver = compressOver;
+    }
+
+    // Writing (one writer at a time)
+
+    byte[] encode(AuditLog log, long baseId, long baseMicros) throws IOException {
+        out.reset();
+        out.write(COMPACT);
+        writeVarLong(log.getLogId() - baseId);
+        writeVarLong(zigzag(toMicros(log.getTimestamp()) - baseMicros));
+        writeReference(log.getUserName());
+        writeReference(log.getAction());
+        writeReference(log.getIpAddress());
+        writeDetails(log.getDetails());
+        return out.toByteArray();
+    }
+
+    private void writeReference(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        int code = dictionary.intern(value);
+        if (code != AuditDictionary.ABSENT) {
+            writeVarLong((long) code << 1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(((long) bytes.length << 1) | 1);
+            out.write(bytes);
+        }
+    }
+
+    private void writeDetails(String details) {
+        if (details == null) {
+            out.write(DETAILS_NULL);
+            return;
+        }
+        byte[] raw = details.getBytes(StandardCharsets.UTF_8);
+        if (raw.length > compressOver) {
+            int stored = deflate(raw);
+            if (stored > 0 && stored < raw.length) {
+                out.write(DETAILS_DEFLATED);
+                writeVarLong(raw.length);
+                writeVarLong(stored);
+                out.write(deflateBuffer, 0, stored);
+                return;
+            }
+        }
+        out.write(DETAILS_RAW);
+        writeVarLong(raw.length);
+        out.write(raw, 0, raw.length);
+    }
+
+    /**
+     * Deflate raw into deflateBuffer.
+     * @return Compressed length, or -1 if it would not be smaller than raw
+     */
+    private int deflate(byte[] raw) {
+        if (deflateBuffer.length < raw.length) {
+            deflateBuffer = new byte[raw.length];
+        }
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int stored = deflater.deflate(deflateBuffer, 0, raw.length);
+        return deflater.finished() ? stored : -1;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Reading (any thread)
+
+    /**
+     * Fill header from the record payload at offset without decoding its strings.
+     */
+    void readHeader(ByteBuffer buffer, int offset, long baseId, long baseMicros, RecordHeader header) {
+        byte format = buffer.get(offset);
+        if (format == PLAIN) {
+            header.logId = buffer.getLong(offset + 1);
+            header.micros = buffer.getLong(offset + 9);
+            header.userCode = RecordHeader.INLINE;
+            header.actionCode = RecordHeader.INLINE;
+            return;
+        }
+        checkFormat(format);
+        Cursor in = new Cursor(buffer, offset + 1);
+        header.logId = baseId + in.varLong();
+        header.micros = baseMicros + unzigzag(in.varLong());
+        header.userCode = in.referenceCode();
+        header.actionCode = in.referenceCode();
+    }
+
+    AuditLog decode(ByteBuffer buffer, int offset, long baseId, long baseMicros) {
+        byte format = buffer.get(offset);
+        if (format == PLAIN) {
+            return decodePlain(buffer, offset);
+        }
+        checkFormat(format);
+        Cursor in = new Cursor(buffer, offset + 1);
+        AuditLog log = new AuditLog();
+        log.setLogId(baseId + in.varLong());
+        log.setTimestamp(fromMicros(baseMicros + unzigzag(in.varLong())));
+        log.setUserName(in.reference());
+        log.setAction(in.reference());
+        log.setIpAddress(in.reference());
+        log.setDetails(in.details());
+        return log;
+    }
+
+    private static void checkFormat(byte format) {
+        if (format != COMPACT) {
+            throw new IllegalStateException("Unknown audit record format " + format);
+        }
+    }
+
+    private static AuditLog decodePlain(ByteBuffer buffer, int offset) {
+        AuditLog log = new AuditLog();
+        log.setLogId(buffer.getLong(offset + 1));
+        log.setTimestamp(fromMicros(buffer.getLong(offset + 9)));
+        int[] position = {offset + 17};
+        log.setUserName(plainString(buffer, position));
+        log.setAction(plainString(buffer, position));
+        log.setDetails(plainString(buffer, position));
+        log.setIpAddress(plainString(buffer, position));
+        return log;
+    }
+
+    private static String plainString(ByteBuffer buffer, int[] position) {
+        int length = buffer.getInt(position[0]);
+        position[0] += 4;
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(position[0], value);
+        position[0] += length;
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * ID, timestamp and user/action codes of one record; reused across a scan.
+     */
+    static final class RecordHeader {
+        // Value stored inline (or in a PLAIN record): compare the decoded string instead
+        static final int INLINE = -1;
+        static final int NULL = 0;
+
+        long logId;
+        long micros;
+        int userCode;
+        int actionCode;
+    }
+
+    /**
+     * Absolute-position reader over a record payload.
+     */
+    private final class Cursor {
+        private final ByteBuffer buffer;
+        private int position;
+
+        Cursor(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        long varLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        int referenceCode() {
+            long tag = varLong();
+            if (tag == 0) {
+                return RecordHeader.NULL;
+            }
+            if ((tag & 1) != 0) {
+                position += (int) (tag >>> 1);
+                return RecordHeader.INLINE;
+            }
+            return (int) (tag >>> 1);
+        }
+
+        String reference() {
+            long tag = varLong();
+            if (tag == 0) {
+                return null;
+            }
+            if ((tag & 1) == 0) {
+                return dictionary.get((int) (tag >>> 1));
+            }
+            return utf8((int) (tag >>> 1));
+        }
+
+        String details() {
+            int kind = buffer.get(position++);
+            if (kind == DETAILS_NULL) {
+                return null;
+            }
+            int rawLength = (int) varLong();
+            if (kind == DETAILS_RAW) {
+                return utf8(rawLength);
+            }
+            int stored = (int) varLong();
+            byte[] compressed = new byte[stored];
+            buffer.get(position, compressed);
+            position += stored;
+            byte[] raw = new byte[rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                inflater.inflate(raw);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt compressed audit details", e);
+            } finally {
+                inflater.end();
+            }
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+
+        private String utf8(int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.ssa.repository.segment;
+
+import com.ssa.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped audit segment file plus its sparse index.
+ *
+ * Black Box Implementation Detail: After a fixed header, records are
+ * [payload length:4][CRC32C of payload:4][payload] (see AuditRecordCodec),
+ * with consecutive log IDs
+ * starting at the segment's base ID. Every indexInterval records form a
+ * block whose first ID, byte range and min/max timestamp are kept in memory;
+ * queries skip whole blocks by ID or timestamp and only scan the ones that
+ * can match. Records after the last full block (the tail) are always scanned.
+ *
+ * A sealed segment writes its block list to a .idx file next to it so the
+ * next open does not have to scan it. The active segment is always rebuilt by
+ * scanning, and the scan stops at the first record whose length, CRC or ID
+ * does not check out - that is where the next append goes. Whatever lies
+ * after it is zeroed and flushed before any append, so bytes of a record cut
+ * short by a crash can never line up behind a new record and read as valid.
+ *
+ * One writer at a time (the repository serializes appends); readers never
+ * lock. The payload and CRC are written before the length, and end is
+ * published last, so a reader never sees a half-written record.
+ */
+final class AuditSegment {
+    private static final Logger logger = LoggerFactory.getLogger(AuditSegment.class);
+
+    private static final int MAGIC = 0x5353_4E41;
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_BASE_ID = 8;
+    private static final int H_CREATED = 16;
+    static final int RECORD_HEADER = 8;
+
+    private static final int INDEX_MAGIC = 0x5353_4E58;
+    private static final int INDEX_HEADER = 20;
+    private static final int INDEX_ENTRY = 40;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long baseId;
+    private final long createdMillis;
+    private final long baseMicros;
+    private final int indexInterval;
+    private final AuditRecordCodec codec;
+
+    private volatile Block[] blocks = new Block[0];
+    private volatile int end = HEADER_BYTES;
+    private volatile long lastId;
+    private boolean sealed;
+
+    // Writer-only: the block being filled
+    private int openStart;
+    private long openFirstId;
+    private long openMin;
+    private long openMax;
+    private int openCount;
+
+    private AuditSegment(Path file, FileChannel channel, MappedByteBuffer buffer, long baseId,
+                         long createdMillis, int indexInterval, AuditRecordCodec codec) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.baseId = baseId;
+        this.createdMillis = createdMillis;
+        // Record timestamps are stored relative to this
+        this.baseMicros = createdMillis * 1_000L;
+        this.indexInterval = Math.max(1, indexInterval);
+        this.codec = codec;
+        this.lastId = baseId - 1;
+    }
+
+    static String fileName(long baseId) {
+        return String.format("audit-%020d.seg", baseId);
+    }
+
+    static boolean isSegmentFile(Path file) {
+        return file.getFileName().toString().matches("audit-\\d{20}\\.seg");
+    }
+
+    /**
+     * Create an empty, writable segment whose first record will get baseId.
+     */
+    static AuditSegment create(Path directory, long baseId, int capacity, int indexInterval,
+                               AuditRecordCodec codec) throws IOException {
+        Path file = directory.resolve(fileName(baseId));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        long created = System.currentTimeMillis();
+        buffer.putInt(H_MAGIC, MAGIC);
+        buffer.putInt(H_VERSION, VERSION);
+        buffer.putLong(H_BASE_ID, baseId);
+        buffer.putLong(H_CREATED, created);
+        buffer.force();
+        return new AuditSegment(file, channel, buffer, baseId, created, indexInterval, codec);
+    }
+
+    /**
+     * Map an existing segment.
+     * @param writable true for the active segment: it is recovered by scanning and can be appended to;
+     *                 otherwise the segment is sealed and read through its .idx file when that is intact
+     */
+    static AuditSegment open(Path file, int indexInterval, boolean writable,
+                             AuditRecordCodec codec) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Audit segment " + file + " has invalid size " + size);
+        }
+        MappedByteBuffer buffer = channel.map(
+                writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt(H_MAGIC) != MAGIC || buffer.getInt(H_VERSION) != VERSION) {
+            channel.close();
+            throw new IOException("Audit segment " + file + " has an unknown header");
+        }
+        AuditSegment segment = new AuditSegment(file, channel, buffer, buffer.getLong(H_BASE_ID),
+                buffer.getLong(H_CREATED), indexInterval, codec);
+        if (writable) {
+            // Appends invalidate any index written before a crash
+            Files.deleteIfExists(segment.indexFile());
+            segment.recover();
+        } else {
+            if (!segment.loadIndex()) {
+                segment.recover();
+            }
+            segment.sealed = true;
+        }
+        return segment;
+    }
+
+    private Path indexFile() {
+        String name = file.getFileName().toString();
+        return file.resolveSibling(name.substring(0, name.length() - ".seg".length()) + ".idx");
+    }
+
+    // Recovery
+
+    private void recover() {
+        CRC32C crc = new CRC32C();
+        int offset = HEADER_BYTES;
+        long expectedId = baseId;
+        int capacity = buffer.capacity();
+        AuditRecordCodec.RecordHeader header = new AuditRecordCodec.RecordHeader();
+        while (offset + RECORD_HEADER <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0) {
+                break;
+            }
+            int payload = offset + RECORD_HEADER;
+            if (length < AuditRecordCodec.MIN_LENGTH || length > capacity - payload) {
+                logger.warn("Audit segment {}: record at {} has an impossible length; truncating", file, offset);
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.duplicate().position(payload).limit(payload + length));
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                logger.warn("Audit segment {}: damaged record at {}; truncating", file, offset);
+                break;
+            }
+            codec.readHeader(buffer, payload, baseId, baseMicros, header);
+            if (header.logId != expectedId) {
+                logger.warn("Audit segment {}: record at {} has ID {}, expected {}; truncating",
+                        file, offset, header.logId, expectedId);
+                break;
+            }
+            track(offset, payload + length, expectedId, header.micros);
+            offset = payload + length;
+            expectedId++;
+        }
+        end = offset;
+        lastId = expectedId - 1;
+        if (!buffer.isReadOnly()) {
+            clearTail(offset);
+        }
+    }
+
+    /**
+     * Zero from the end of the last good record to the last non-zero byte and flush.
+     */
+    private void clearTail(int from) {
+        int to = buffer.capacity();
+        while (to - Long.BYTES >= from && buffer.getLong(to - Long.BYTES) == 0) {
+            to -= Long.BYTES;
+        }
+        while (to > from && buffer.get(to - 1) == 0) {
+            to--;
+        }
+        if (to == from) {
+            return;
+        }
+        byte[] zeros = new byte[Math.min(to - from, 64 * 1024)];
+        for (int pos = from; pos < to; pos += zeros.length) {
+            buffer.put(pos, zeros, 0, Math.min(zeros.length, to - pos));
+        }
+        buffer.force();
+        logger.warn("Audit segment {}: cleared {} bytes after the last good record", file, to - from);
+    }
+
+    // Writes
+
+    /**
+     * Append one encoded record.
+     * @return false if it does not fit; the segment is unchanged
+     */
+    boolean append(byte[] payload, long logId, long timestampMicros) {
+        if (sealed) {
+            throw new IllegalStateException("Audit segment " + file + " is sealed");
+        }
+        int offset = end;
+        int payloadStart = offset + RECORD_HEADER;
+        if (payload.length > buffer.capacity() - payloadStart) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(payloadStart, payload);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        buffer.putInt(offset, payload.length);
+        track(offset, payloadStart + payload.length, logId, timestampMicros);
+        end = payloadStart + payload.length;
+        lastId = logId;
+        return true;
+    }
+
+    private void track(int start, int recordEnd, long logId, long micros) {
+        if (openCount == 0) {
+            openStart = start;
+            openFirstId = logId;
+            openMin = micros;
+            openMax = micros;
+        } else {
+            openMin = Math.min(openMin, micros);
+            openMax = Math.max(openMax, micros);
+        }
+        if (++openCount == indexInterval) {
+            closeBlock(logId, recordEnd);
+        }
+    }
+
+    private void closeBlock(long blockLastId, int blockEnd) {
+        Block[] current = blocks;
+        Block[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = new Block(this, openFirstId, blockLastId, openStart, blockEnd, openMin, openMax);
+        blocks = next;
+        openCount = 0;
+    }
+
+    /**
+     * Stop accepting appends, flush to disk and write the .idx file.
+     */
+    void seal() throws IOException {
+        if (sealed) return;
+        if (openCount > 0) {
+            closeBlock(lastId, end);
+        }
+        buffer.force();
+        writeIndex();
+        sealed = true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private void writeIndex() throws IOException {
+        Block[] all = blocks;
+        ByteBuffer out = ByteBuffer.allocate(INDEX_HEADER + all.length * INDEX_ENTRY + 4);
+        out.putInt(INDEX_MAGIC).putInt(all.length).putLong(lastId).putInt(end);
+        for (Block block : all) {
+            out.putLong(block.firstId).putLong(block.lastId).putInt(block.start).putInt(block.end)
+                    .putLong(block.minMicros).putLong(block.maxMicros);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        Path index = indexFile();
+        Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+        Files.write(temp, out.array());
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean loadIndex() {
+        Path index = indexFile();
+        if (!Files.isRegularFile(index)) {
+            return false;
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(index));
+            if (in.remaining() < INDEX_HEADER + 4 || in.getInt(0) != INDEX_MAGIC) {
+                throw new IOException("bad header");
+            }
+            int count = in.getInt(4);
+            if (count < 0 || in.capacity() != INDEX_HEADER + count * INDEX_ENTRY + 4) {
+                throw new IOException("bad length");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(in.array(), 0, in.capacity() - 4);
+            if ((int) crc.getValue() != in.getInt(in.capacity() - 4)) {
+                throw new IOException("bad checksum");
+            }
+            in.position(8);
+            long indexedLastId = in.getLong();
+            int indexedEnd = in.getInt();
+            if (indexedEnd < HEADER_BYTES || indexedEnd > buffer.capacity()) {
+                throw new IOException("end outside the segment");
+            }
+            Block[] loaded = new Block[count];
+            for (int i = 0; i < count; i++) {
+                loaded[i] = new Block(this, in.getLong(), in.getLong(), in.getInt(), in.getInt(),
+                        in.getLong(), in.getLong());
+            }
+            blocks = loaded;
+            lastId = indexedLastId;
+            end = indexedEnd;
+            return true;
+        } catch (IOException e) {
+            logger.warn("Ignoring audit index {} ({}); scanning the segment", index, e.getMessage());
+            return false;
+        }
+    }
+
+    // Reads
+
+    long baseId() {
+        return baseId;
+    }
+
+    long lastId() {
+        return lastId;
+    }
+
+    long createdMillis() {
+        return createdMillis;
+    }
+
+    long baseMicros() {
+        return baseMicros;
+    }
+
+    boolean isEmpty() {
+        return lastId < baseId;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Indexed blocks plus the unindexed tail (with unbounded timestamps), as of now.
+     */
+    List<Block> regions() {
+        Block[] indexed = blocks;
+        int limit = end;
+        List<Block> regions = new ArrayList<>(indexed.length + 1);
+        regions.addAll(Arrays.asList(indexed));
+        int tailStart = indexed.length == 0 ? HEADER_BYTES : indexed[indexed.length - 1].end;
+        if (limit > tailStart) {
+            long tailFirstId = indexed.length == 0 ? baseId : indexed[indexed.length - 1].lastId + 1;
+            regions.add(new Block(this, tailFirstId, Long.MAX_VALUE, tailStart, limit, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        return regions;
+    }
+
+    /**
+     * Decode every record in block whose header passes filter.
+     */
+    void scan(Block block, Predicate<AuditRecordCodec.RecordHeader> filter, Consumer<AuditLog> sink) {
+        AuditRecordCodec.RecordHeader header = new AuditRecordCodec.RecordHeader();
+        int offset = block.start;
+        while (offset < block.end) {
+            int length = buffer.getInt(offset);
+            int payload = offset + RECORD_HEADER;
+            codec.readHeader(buffer, payload, baseId, baseMicros, header);
+            if (filter.test(header)) {
+                sink.accept(codec.decode(buffer, payload, baseId, baseMicros));
+            }
+            offset = payload + length;
+        }
+    }
+
+    /**
+     * Byte offset of the record with logId, or -1 if this segment does not hold it.
+     */
+    int offsetOf(long logId) {
+        if (logId < baseId || logId > lastId) {
+            return -1;
+        }
+        // Last region starting at or before logId
+        List<Block> regions = regions();
+        int low = 0;
+        int high = regions.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (regions.get(mid).firstId <= logId) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        Block block = regions.get(low);
+        AuditRecordCodec.RecordHeader header = new AuditRecordCodec.RecordHeader();
+        for (int offset = block.start; offset < block.end; offset = next(offset)) {
+            codec.readHeader(buffer, offset + RECORD_HEADER, baseId, baseMicros, header);
+            if (header.logId == logId) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    AuditLog read(int offset) {
+        return codec.decode(buffer, offset + RECORD_HEADER, baseId, baseMicros);
+    }
+
+    int next(int offset) {
+        return offset + RECORD_HEADER + buffer.getInt(offset);
+    }
+
+    int start() {
+        return HEADER_BYTES;
+    }
+
+    int end() {
+        return end;
+    }
+
+    void close() throws IOException {
+        if (!sealed) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    /**
+     * Close and delete the segment and its index.
+     * Readers that still hold the mapping can finish; it is unmapped when collected.
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(indexFile());
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * A run of consecutive records with known ID and timestamp bounds.
+     */
+    static final class Block {
+        final AuditSegment segment;
+        final long firstId;
+        final long lastId;
+        final int start;
+        final int end;
+        final long minMicros;
+        final long maxMicros;
+
+        Block(AuditSegment segment, long firstId, long lastId, int start, int end, long minMicros, long maxMicros) {
+            this.segment = segment;
+            this.firstId = firstId;
+            this.lastId = lastId;
+            this.start = start;
+            this.end = end;
+            this.minMicros = minMicros;
+            this.maxMicros = maxMicros;
+        }
+    }
+}
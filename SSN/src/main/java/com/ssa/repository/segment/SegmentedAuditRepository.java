@@ -0,0 +1,551 @@
+package com.ssa.repository.segment;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.AuditLog;
+import com.ssa.model.Page;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.repository.impl.KeysetToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * File-backed IAuditRepository: an append-only log of memory-mapped segments.
+ *
+ * Black Box Implementation Detail: Records are appended to the active
+ * segment with consecutive log IDs; it rolls over to a new segment when it
+ * is full (audit.segment.maxBytes) or old (audit.segment.rollMs). Each
+ * segment keeps a sparse index of blocks (first ID, byte range, min/max
+ * timestamp), so:
+ * - findById binary-searches segments by base ID, then blocks by first ID
+ * - findByDateRange only scans blocks whose timestamps overlap the range
+ * - findRecent scans blocks newest-maximum first and stops once no remaining
+ *   block can beat what it already has
+ * User names, actions and IP addresses are stored as codes from a shared
+ * AuditDictionary and timestamps as offsets from the segment's start, so
+ * findByUser / findByAction scan everything but compare integers, and only
+ * decode the records that match. Decoded logs share one String instance per
+ * distinct user, action and IP.
+ *
+ * saveAll() is one append pass and, with audit.segment.fsync=true, one
+ * flush to disk. On open, damaged or torn records at the end of the active
+ * segment are detected by CRC and cut off. Logs cannot be deleted one by one;
+ * purgeBefore() removes whole segments.
+ */
+public class SegmentedAuditRepository implements IAuditRepository, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedAuditRepository.class);
+
+    private static final Comparator<AuditLog> OLDEST_FIRST =
+            Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getLogId);
+    private static final Comparator<AuditLog> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long rollMillis;
+    private final int indexInterval;
+    private final boolean fsync;
+    private final AuditDictionary dictionary;
+    private final AuditRecordCodec codec;
+    private final Object writeLock = new Object();
+    // Oldest first; copy-on-write
+    private volatile List<AuditSegment> segments;
+
+    public SegmentedAuditRepository() {
+        this(Path.of(AppConfig.get("audit.segment.dir", "./data/audit-segments")),
+                AppConfig.getInt("audit.segment.maxBytes", 64 * 1024 * 1024),
+                AppConfig.getLong("audit.segment.rollMs", 86_400_000L),
+                AppConfig.getInt("audit.segment.indexInterval", 128),
+                AppConfig.getBoolean("audit.segment.fsync", true),
+                AppConfig.getInt("audit.segment.dictionaryMax", 65536),
+                AppConfig.getInt("audit.segment.compressDetailsOver", 256));
+    }
+
+    /**
+     * @param directory Directory holding the segment files
+     * @param segmentBytes Size of each segment file
+     * @param rollMillis Age after which the active segment is rolled; 0 rolls on size only
+     * @param indexInterval Records per sparse index block
+     * @param fsync Whether every save is flushed to disk before returning
+     * @param dictionaryMax Distinct user/action/IP strings given codes; later ones are stored inline
+     * @param compressDetailsOver Details longer than this many bytes are deflated
+     */
+    public SegmentedAuditRepository(Path directory, int segmentBytes, long rollMillis, int indexInterval,
+                                    boolean fsync, int dictionaryMax, int compressDetailsOver) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(segmentBytes, AuditSegment.HEADER_BYTES + 4096);
+        this.rollMillis = rollMillis;
+        this.indexInterval = Math.max(1, indexInterval);
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            this.dictionary = AuditDictionary.open(directory.resolve("audit-dictionary.dat"), dictionaryMax);
+            this.codec = new AuditRecordCodec(dictionary, compressDetailsOver);
+            this.segments = List.copyOf(openSegments());
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to open audit segments in " + directory, e);
+        }
+        logger.info("Audit segment store opened with {} segments, {} records", segments.size(), count());
+    }
+
+    private List<AuditSegment> openSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(AuditSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+        List<AuditSegment> opened = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            AuditSegment segment = AuditSegment.open(files.get(i), indexInterval, i == files.size() - 1, codec);
+            if (!opened.isEmpty() && segment.baseId() != opened.get(opened.size() - 1).lastId() + 1) {
+                logger.warn("Audit segment {} does not continue from the previous one", files.get(i));
+            }
+            opened.add(segment);
+        }
+        if (opened.isEmpty()) {
+            opened.add(AuditSegment.create(directory, 1, segmentBytes, indexInterval, codec));
+        }
+        return opened;
+    }
+
+    private AuditSegment active() {
+        List<AuditSegment> current = segments;
+        return current.get(current.size() - 1);
+    }
+
+    // Writes
+
+    @Override
+    public AuditLog save(AuditLog log) {
+        saveAll(List.of(log));
+        return log;
+    }
+
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        for (AuditLog log : logs) {
+            if (log.getLogId() != null) {
+                throw new RepositoryException("Audit log " + log.getLogId() + " is immutable");
+            }
+        }
+        synchronized (writeLock) {
+            AuditSegment active = active();
+            try {
+                for (AuditLog log : logs) {
+                    if (log.getTimestamp() == null) {
+                        log.setTimestamp(LocalDateTime.now());
+                    }
+                    long logId = active.lastId() + 1;
+                    log.setLogId(logId);
+                    byte[] payload = codec.encode(log, active.baseId(), active.baseMicros());
+                    long micros = AuditRecordCodec.toMicros(log.getTimestamp());
+                    if (rollDue(active) || !active.append(payload, logId, micros)) {
+                        if (active.isEmpty()) {
+                            log.setLogId(null);
+                            throw new RepositoryException("Audit record of " + payload.length
+                                    + " bytes does not fit in a segment");
+                        }
+                        active = roll(active);
+                        // Offsets are relative to the segment, so encode again for the new one
+                        payload = codec.encode(log, active.baseId(), active.baseMicros());
+                        if (!active.append(payload, logId, micros)) {
+                            log.setLogId(null);
+                            throw new RepositoryException("Audit record of " + payload.length
+                                    + " bytes does not fit in a segment");
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new RepositoryException("Failed to append audit records", e);
+            } finally {
+                if (fsync) {
+                    forceAll(active);
+                }
+            }
+        }
+        return new ArrayList<>(logs);
+    }
+
+    private void forceAll(AuditSegment active) {
+        try {
+            // Dictionary entries must be durable before the records that use them
+            dictionary.force();
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to flush audit dictionary", e);
+        }
+        active.force();
+    }
+
+    private boolean rollDue(AuditSegment active) {
+        return rollMillis > 0 && !active.isEmpty()
+                && System.currentTimeMillis() - active.createdMillis() >= rollMillis;
+    }
+
+    private AuditSegment roll(AuditSegment active) throws IOException {
+        active.seal();
+        AuditSegment next = AuditSegment.create(directory, active.lastId() + 1, segmentBytes, indexInterval, codec);
+        List<AuditSegment> updated = new ArrayList<>(segments);
+        updated.add(next);
+        segments = List.copyOf(updated);
+        logger.debug("Rolled audit segment at log ID {}", next.baseId());
+        return next;
+    }
+
+    @Override
+    public void delete(Long logId) {
+        throw new UnsupportedOperationException("Audit logs are append-only; use purgeBefore()");
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> logIds) {
+        throw new UnsupportedOperationException("Audit logs are append-only; use purgeBefore()");
+    }
+
+    /**
+     * Delete the oldest sealed segments whose records are all older than cutoff.
+     * @return Number of segments deleted
+     */
+    public int purgeBefore(LocalDateTime cutoff) {
+        long cutoffMicros = AuditRecordCodec.toMicros(cutoff);
+        int purged = 0;
+        synchronized (writeLock) {
+            List<AuditSegment> remaining = new ArrayList<>(segments);
+            // Never the active segment, and only from the front so log IDs stay contiguous
+            while (remaining.size() > 1 && newestMicros(remaining.get(0)) < cutoffMicros) {
+                AuditSegment oldest = remaining.remove(0);
+                segments = List.copyOf(remaining);
+                try {
+                    oldest.delete();
+                } catch (IOException e) {
+                    logger.warn("Failed to delete audit segment starting at {}", oldest.baseId(), e);
+                }
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private static long newestMicros(AuditSegment segment) {
+        long newest = Long.MIN_VALUE;
+        for (AuditSegment.Block block : segment.regions()) {
+            newest = Math.max(newest, block.maxMicros);
+        }
+        return newest;
+    }
+
+    // Point reads
+
+    @Override
+    public Optional<AuditLog> findById(Long logId) {
+        AuditSegment segment = segmentFor(logId);
+        if (segment == null) {
+            return Optional.empty();
+        }
+        int offset = segment.offsetOf(logId);
+        return offset < 0 ? Optional.empty() : Optional.of(segment.read(offset));
+    }
+
+    @Override
+    public boolean exists(Long logId) {
+        List<AuditSegment> current = segments;
+        return logId != null && logId >= current.get(0).baseId()
+                && logId <= current.get(current.size() - 1).lastId();
+    }
+
+    @Override
+    public long count() {
+        List<AuditSegment> current = segments;
+        return current.get(current.size() - 1).lastId() - current.get(0).baseId() + 1;
+    }
+
+    /**
+     * Segment whose ID range would contain logId (binary search on base ID).
+     */
+    private AuditSegment segmentFor(Long logId) {
+        if (logId == null) return null;
+        List<AuditSegment> current = segments;
+        int low = 0;
+        int high = current.size() - 1;
+        if (logId < current.get(0).baseId()) return null;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (current.get(mid).baseId() <= logId) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return current.get(low);
+    }
+
+    // Sequential reads, in log ID order
+
+    @Override
+    public List<AuditLog> findAll() {
+        try (Stream<AuditLog> all = streamAll()) {
+            return all.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<AuditLog> streamAll() {
+        List<AuditSegment> current = segments;
+        return StreamSupport.stream(new SequentialCursor(current, 0, current.get(0).start()), false);
+    }
+
+    /**
+     * Keyset pagination on log ID.
+     */
+    @Override
+    public Page<AuditLog> findAll(int pageSize, String pageToken) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        String scope = "audit_segments.all";
+        String[] after = KeysetToken.decode(pageToken, scope, 1);
+        List<AuditSegment> current = segments;
+        SequentialCursor cursor;
+        if (after == null) {
+            cursor = new SequentialCursor(current, 0, current.get(0).start());
+        } else {
+            long afterId = parseLong(after[0]);
+            cursor = cursorAt(current, Math.max(afterId + 1, current.get(0).baseId()));
+        }
+        List<AuditLog> rows = new ArrayList<>(pageSize + 1);
+        while (rows.size() <= pageSize && cursor.tryAdvance(rows::add)) {
+            // Fill the page plus one to learn whether there is another
+        }
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<AuditLog> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new Page<>(page, KeysetToken.encode(scope, String.valueOf(page.get(pageSize - 1).getLogId())));
+    }
+
+    private SequentialCursor cursorAt(List<AuditSegment> current, long logId) {
+        for (int i = 0; i < current.size(); i++) {
+            AuditSegment segment = current.get(i);
+            if (logId <= segment.lastId()) {
+                int offset = segment.offsetOf(logId);
+                return new SequentialCursor(current, i, offset < 0 ? segment.start() : offset);
+            }
+        }
+        AuditSegment last = current.get(current.size() - 1);
+        return new SequentialCursor(current, current.size() - 1, last.end());
+    }
+
+    @Override
+    public List<AuditLog> findByUser(String userName) {
+        if (userName == null) return new ArrayList<>();
+        int code = dictionary.lookup(userName);
+        return scanAll(header -> header.userCode == code || header.userCode == AuditRecordCodec.RecordHeader.INLINE,
+                log -> userName.equals(log.getUserName()));
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        if (action == null) return new ArrayList<>();
+        int code = dictionary.lookup(action);
+        return scanAll(header -> header.actionCode == code || header.actionCode == AuditRecordCodec.RecordHeader.INLINE,
+                log -> action.equals(log.getAction()));
+    }
+
+    /**
+     * Scan every record, decoding those whose header passes candidates and
+     * keeping those that pass filter (needed for values stored inline).
+     */
+    private List<AuditLog> scanAll(Predicate<AuditRecordCodec.RecordHeader> candidates, Predicate<AuditLog> filter) {
+        List<AuditLog> results = new ArrayList<>();
+        for (AuditSegment.Block block : regions()) {
+            block.segment.scan(block, candidates, log -> {
+                if (filter.test(log)) {
+                    results.add(log);
+                }
+            });
+        }
+        results.sort(OLDEST_FIRST);
+        return results;
+    }
+
+    // Time-ordered reads through the sparse index
+
+    @Override
+    public List<AuditLog> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = AuditRecordCodec.toMicros(from);
+        long toMicros = AuditRecordCodec.toMicros(to);
+        List<AuditLog> results = new ArrayList<>();
+        for (AuditSegment.Block block : regions()) {
+            if (block.maxMicros >= fromMicros && block.minMicros <= toMicros) {
+                block.segment.scan(block, header -> header.micros >= fromMicros && header.micros <= toMicros,
+                        results::add);
+            }
+        }
+        results.sort(OLDEST_FIRST);
+        return results;
+    }
+
+    @Override
+    public List<AuditLog> findRecent(int limit) {
+        return newest(limit, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Keyset pagination on (timestamp, log_id), newest first.
+     */
+    @Override
+    public Page<AuditLog> findRecent(int pageSize, String pageToken) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        String scope = "audit_logs.recent";
+        String[] before = KeysetToken.decode(pageToken, scope, 2);
+        List<AuditLog> rows;
+        if (before == null) {
+            rows = newest(pageSize + 1, Long.MAX_VALUE, Long.MAX_VALUE);
+        } else {
+            LocalDateTime timestamp;
+            try {
+                timestamp = LocalDateTime.parse(before[0]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid page token", e);
+            }
+            rows = newest(pageSize + 1, AuditRecordCodec.toMicros(timestamp), parseLong(before[1]));
+        }
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<AuditLog> page = new ArrayList<>(rows.subList(0, pageSize));
+        AuditLog last = page.get(pageSize - 1);
+        return new Page<>(page, KeysetToken.encode(scope, last.getTimestamp().toString(),
+                String.valueOf(last.getLogId())));
+    }
+
+    /**
+     * The newest limit logs strictly before (beforeMicros, beforeId).
+     * Blocks are visited by descending max timestamp; once the result is full
+     * and a block's max is older than the oldest kept log, no later block can help.
+     */
+    private List<AuditLog> newest(int limit, long beforeMicros, long beforeId) {
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        List<AuditSegment.Block> candidates = new ArrayList<>();
+        for (AuditSegment.Block block : regions()) {
+            if (block.minMicros <= beforeMicros) {
+                candidates.add(block);
+            }
+        }
+        candidates.sort(Comparator.comparingLong((AuditSegment.Block block) -> block.maxMicros).reversed());
+        PriorityQueue<AuditLog> kept = new PriorityQueue<>(limit + 1, OLDEST_FIRST);
+        long[] oldestKept = {Long.MIN_VALUE};
+        Consumer<AuditLog> offer = log -> {
+            long micros = AuditRecordCodec.toMicros(log.getTimestamp());
+            if (micros == beforeMicros && log.getLogId() >= beforeId) {
+                return;
+            }
+            kept.offer(log);
+            if (kept.size() > limit) {
+                kept.poll();
+            }
+            if (kept.size() == limit) {
+                oldestKept[0] = AuditRecordCodec.toMicros(kept.peek().getTimestamp());
+            }
+        };
+        for (AuditSegment.Block block : candidates) {
+            if (kept.size() == limit && block.maxMicros < oldestKept[0]) {
+                break;
+            }
+            block.segment.scan(block, header -> header.micros <= beforeMicros, offer);
+        }
+        List<AuditLog> results = new ArrayList<>(kept);
+        results.sort(NEWEST_FIRST);
+        return results;
+    }
+
+    private List<AuditSegment.Block> regions() {
+        List<AuditSegment.Block> all = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            all.addAll(segment.regions());
+        }
+        return all;
+    }
+
+    private static long parseLong(String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+
+    /**
+     * Flush the active segment and release all mappings.
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            try {
+                dictionary.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close audit dictionary", e);
+            }
+            for (AuditSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close audit segment starting at {}", segment.baseId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks records in log ID order from a segment/offset, reading each
+     * segment's end only when it gets there.
+     */
+    private static final class SequentialCursor extends Spliterators.AbstractSpliterator<AuditLog> {
+        private final List<AuditSegment> segments;
+        private int segmentIndex;
+        private int offset;
+
+        SequentialCursor(List<AuditSegment> segments, int segmentIndex, int offset) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.segments = segments;
+            this.segmentIndex = segmentIndex;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super AuditLog> action) {
+            while (segmentIndex < segments.size()) {
+                AuditSegment segment = segments.get(segmentIndex);
+                if (offset < segment.end()) {
+                    action.accept(segment.read(offset));
+                    offset = segment.next(offset);
+                    return true;
+                }
+                segmentIndex++;
+                if (segmentIndex < segments.size()) {
+                    offset = segments.get(segmentIndex).start();
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.ssa.screening;
+
+import com.ssa.config.AppConfig;
+import com.ssa.dedupe.PersonDeduplicator;
+import com.ssa.exception.RepositoryException;
+import com.ssa.model.Application;
+import com.ssa.model.Page;
+import com.ssa.model.Person;
+import com.ssa.model.enums.ApplicationStatus;
+import com.ssa.model.enums.ScreeningOutcome;
+import com.ssa.repository.IApplicationRepository;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background pre-screening of pending applications.
+ *
+ * Black Box Implementation Detail: A poller thread reads PENDING
+ * applications every screening.pollIntervalMs through the keyset-paged
+ * IApplicationRepository.findByStatus(), oldest first, and keeps its page
+ * token between polls, so each poll reads only applications submitted since
+ * the last one (plus the last, partial page again). Each page's persons are
+ * loaded with one findAllById(). Applications that already carry review
+ * notes were screened by an earlier run and are skipped.
+ *
+ * Each application is queued on the first ScreeningLane that accepts it.
+ * By default the lanes are "expedited" (waiting longer than
+ * screening.expediteAfterMs) and "standard". screening.workers threads
+ * screen the queues. A free worker always takes the oldest application of
+ * the first lane that has work and is below its maxInFlight. The poller
+ * stops reading once screening.maxQueued applications are queued.
+ *
+ * The ScreeningStep checks run in order:
+ * <ul>
+ *   <li>A REJECTED failure rejects the application, with the reason, as
+ *       reviewer SCREENING_USER.</li>
+ *   <li>FLAGGED failures are collected into the review notes.</li>
+ *   <li>An application that passes every step is noted as passed.</li>
+ * </ul>
+ * Either way the application stays PENDING for an admin unless it was
+ * rejected. The result is written with a conditional update that only
+ * applies while the application is still PENDING without review notes, so
+ * an admin decision made during screening is never overwritten. An
+ * application whose screening or write fails is read again and re-queued
+ * by the next poll.
+ *
+ * This is a Java 17 tree, so screening runs on a fixed platform-thread pool
+ * rather than virtual threads. The steps are short and bounded by the
+ * lane caps, so threads per core are not the limit.
+ */
+public class ApplicationScreeningEngine implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationScreeningEngine.class);
+
+    /** Reviewer recorded on applications rejected by screening. */
+    public static final String SCREENING_USER = "screening";
+
+    private final IApplicationRepository applicationRepository;
+    private final IPersonRepository personRepository;
+    private final List<ScreeningStep> steps;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final int workerCount;
+    private final int pageSize;
+    private final int maxQueued;
+    private final long pollIntervalMs;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService poller;
+    private final long createdNanos = System.nanoTime();
+
+    // Guards the lane queues, the in-flight counts, tracked and cursor
+    private final Object lock = new Object();
+    // Applications queued or being screened, so a re-read page does not queue them twice
+    private final Set<Long> tracked = new HashSet<>();
+    // Applications whose screening failed, queued again by the next poll (the cursor is past them)
+    private final Set<Long> retry = new HashSet<>();
+    private int inFlight;
+    private String cursor;
+    private boolean started;
+    private boolean closed;
+
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ApplicationScreeningEngine(IApplicationRepository applicationRepository,
+                                      IPersonRepository personRepository, PersonDeduplicator deduplicator) {
+        this(applicationRepository, personRepository,
+                List.of(ScreeningStep.validity(), ScreeningStep.eligibility(), ScreeningStep.duplicates(deduplicator)),
+                List.of(ScreeningLane.waitingLongerThan("expedited",
+                                AppConfig.getInt("screening.lane.expedited.maxInFlight", 4),
+                                Duration.ofMillis(AppConfig.getLong("screening.expediteAfterMs", 86_400_000L))),
+                        ScreeningLane.all("standard", AppConfig.getInt("screening.lane.standard.maxInFlight", 3))),
+                AppConfig.getInt("screening.workers", 4),
+                AppConfig.getInt("screening.pageSize", 500),
+                AppConfig.getInt("screening.maxQueued", 5000),
+                AppConfig.getLong("screening.pollIntervalMs", 5000));
+    }
+
+    /**
+     * @param steps Checks run on every application, in order
+     * @param lanes Lanes in priority order; the last should accept everything
+     * @param workers Applications screened at once across all lanes
+     * @param pageSize Applications read per findByStatus() call
+     * @param maxQueued Queued applications at which the poller stops reading
+     * @param pollIntervalMs Delay between polls once start() is called
+     */
+    public ApplicationScreeningEngine(IApplicationRepository applicationRepository,
+                                      IPersonRepository personRepository, List<ScreeningStep> steps,
+                                      List<ScreeningLane> lanes, int workers, int pageSize, int maxQueued,
+                                      long pollIntervalMs) {
+        if (lanes.isEmpty()) {
+            throw new IllegalArgumentException("At least one screening lane is required");
+        }
+        this.applicationRepository = applicationRepository;
+        this.personRepository = personRepository;
+        this.steps = List.copyOf(steps);
+        lanes.forEach(lane -> this.lanes.add(new Lane(lane)));
+        this.workerCount = Math.max(1, workers);
+        this.pageSize = Math.max(1, pageSize);
+        this.maxQueued = Math.max(1, maxQueued);
+        this.pollIntervalMs = Math.max(1, pollIntervalMs);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "ssn-screening-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ssn-screening-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start polling in the background.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (started || closed) {
+                return;
+            }
+            started = true;
+        }
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                logger.error("Screening poll failed", e);
+            }
+        }, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Screening engine started: {} workers, lanes {}", workerCount, lanes);
+    }
+
+    /**
+     * Read newly pending applications and queue them for screening.
+     * @return Number of applications queued by this call
+     */
+    public int poll() {
+        int queued = requeueFailed();
+        while (true) {
+            String from;
+            synchronized (lock) {
+                if (tracked.size() >= maxQueued) {
+                    break;
+                }
+                from = cursor;
+            }
+            Page<Application> page = applicationRepository.findByStatus(ApplicationStatus.PENDING, pageSize, from);
+            queued += enqueue(page.getItems());
+            if (!page.hasNext()) {
+                // Keep the cursor before the partial last page; it is read again next time
+                break;
+            }
+            synchronized (lock) {
+                cursor = page.getNextPageToken();
+            }
+        }
+        dispatch();
+        return queued;
+    }
+
+    private int requeueFailed() {
+        List<Long> ids;
+        synchronized (lock) {
+            if (retry.isEmpty()) {
+                return 0;
+            }
+            ids = new ArrayList<>(retry);
+            retry.clear();
+        }
+        return enqueue(applicationRepository.findAllById(ids));
+    }
+
+    private int enqueue(List<Application> page) {
+        List<Application> fresh = new ArrayList<>(page.size());
+        Set<Long> personIds = new HashSet<>();
+        synchronized (lock) {
+            for (Application application : page) {
+                if (application.isPending() && application.getReviewNotes() == null
+                        && !tracked.contains(application.getApplicationId())) {
+                    fresh.add(application);
+                    if (!application.isPersonLoaded()) {
+                        personIds.add(application.getPersonId());
+                    }
+                }
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        // Skipped when the repository already attached the persons
+        Map<Long, Person> persons = new HashMap<>();
+        if (!personIds.isEmpty()) {
+            for (Person person : personRepository.findAllById(personIds)) {
+                persons.put(person.getPersonId(), person);
+            }
+        }
+        synchronized (lock) {
+            for (Application application : fresh) {
+                if (!application.isPersonLoaded()) {
+                    application.setPerson(persons.get(application.getPersonId()));
+                }
+                if (tracked.add(application.getApplicationId())) {
+                    laneFor(application).queue.add(application);
+                }
+            }
+        }
+        return fresh.size();
+    }
+
+    private Lane laneFor(Application application) {
+        for (Lane lane : lanes) {
+            if (lane.config.accepts(application)) {
+                return lane;
+            }
+        }
+        return lanes.get(lanes.size() - 1);
+    }
+
+    /**
+     * Hand queued work to free workers, highest-priority lane first.
+     */
+    private void dispatch() {
+        synchronized (lock) {
+            while (!closed && inFlight < workerCount) {
+                Lane next = null;
+                for (Lane lane : lanes) {
+                    if (!lane.queue.isEmpty() && lane.inFlight < lane.config.getMaxInFlight()) {
+                        next = lane;
+                        break;
+                    }
+                }
+                if (next == null) {
+                    return;
+                }
+                Application application = next.queue.poll();
+                next.inFlight++;
+                inFlight++;
+                Lane lane = next;
+                workers.execute(() -> run(lane, application));
+            }
+        }
+    }
+
+    private void run(Lane lane, Application application) {
+        long start = System.nanoTime();
+        lane.queueAge.record(ageNanos(application));
+        try {
+            screen(application);
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.error("Screening failed for application {}; retrying next poll", application.getApplicationId(), e);
+            synchronized (lock) {
+                retry.add(application.getApplicationId());
+            }
+        } finally {
+            lane.screenLatency.record(System.nanoTime() - start);
+            lane.completed.increment();
+            synchronized (lock) {
+                lane.inFlight--;
+                inFlight--;
+                tracked.remove(application.getApplicationId());
+            }
+            dispatch();
+        }
+    }
+
+    private void screen(Application application) {
+        Person person = application.getPerson();
+        if (person == null) {
+            record(application, ScreeningOutcome.REJECTED, "Person not found: " + application.getPersonId());
+            return;
+        }
+        List<String> flags = new ArrayList<>();
+        for (ScreeningStep step : steps) {
+            String reason = step.check(application, person);
+            if (reason == null) {
+                continue;
+            }
+            if (step.getFailureOutcome() == ScreeningOutcome.REJECTED) {
+                record(application, ScreeningOutcome.REJECTED, reason);
+                return;
+            }
+            flags.add(step.getName() + ": " + reason);
+        }
+        if (flags.isEmpty()) {
+            record(application, ScreeningOutcome.PASSED, null);
+        } else {
+            record(application, ScreeningOutcome.FLAGGED, String.join("; ", flags));
+        }
+    }
+
+    /**
+     * @throws RepositoryException if the result cannot be written; the caller retries
+     */
+    private void record(Application application, ScreeningOutcome outcome, String reason) {
+        switch (outcome) {
+            case REJECTED -> application.reject(SCREENING_USER, "Screening rejected - " + reason);
+            case FLAGGED -> application.setReviewNotes("Screening flagged - " + reason);
+            default -> application.setReviewNotes("Screening passed");
+        }
+        if (!applicationRepository.updateReviewIfUnreviewed(application)) {
+            logger.debug("Application {} changed during screening; result discarded", application.getApplicationId());
+            return;
+        }
+        switch (outcome) {
+            case REJECTED -> rejected.increment();
+            case FLAGGED -> flagged.increment();
+            default -> passed.increment();
+        }
+    }
+
+    private static long ageNanos(Application application) {
+        LocalDateTime submitted = application.getApplicationDate();
+        return submitted == null ? 0 : Math.max(0, Duration.between(submitted, LocalDateTime.now()).toNanos());
+    }
+
+    public ScreeningMetrics getMetrics() {
+        List<ScreeningMetrics.LaneMetrics> laneMetrics = new ArrayList<>(lanes.size());
+        synchronized (lock) {
+            for (Lane lane : lanes) {
+                Application oldest = lane.queue.peek();
+                laneMetrics.add(new ScreeningMetrics.LaneMetrics(lane.config.getName(), lane.queue.size(),
+                        lane.inFlight, lane.config.getMaxInFlight(), lane.completed.sum(),
+                        oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(ageNanos(oldest)),
+                        lane.queueAge, lane.screenLatency));
+            }
+        }
+        return new ScreeningMetrics(passed.sum(), flagged.sum(), rejected.sum(), failed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos), laneMetrics);
+    }
+
+    /**
+     * Stop polling and wait for applications being screened; queued ones are dropped
+     * and picked up by the next run.
+     */
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        synchronized (lock) {
+            closed = true;
+            lanes.forEach(lane -> lane.queue.clear());
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Screening workers did not finish within 30 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Screening engine stopped: {}", getMetrics());
+    }
+
+    private static final class Lane {
+        final ScreeningLane config;
+        final ArrayDeque<Application> queue = new ArrayDeque<>();
+        final LongAdder completed = new LongAdder();
+        final LatencyHistogram queueAge = new LatencyHistogram();
+        final LatencyHistogram screenLatency = new LatencyHistogram();
+        int inFlight;
+
+        Lane(ScreeningLane config) {
+            this.config = config;
+        }
+
+        @Override
+        public String toString() {
+            return config.toString();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ssa.screening;
+
+import com.ssa.model.Application;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+/**
+ * A priority lane of the screening engine.
+ *
+ * Black Box Implementation Detail: Lanes are tried in the order given to
+ * the engine; an application goes to the first lane whose predicate accepts
+ * it, so the last lane should accept everything. Within a lane work runs
+ * oldest-first. maxInFlight caps how many of the lane's applications are
+ * screened at once, so a flood in one lane cannot take every worker.
+ */
+public class ScreeningLane {
+    private final String name;
+    private final int maxInFlight;
+    private final Predicate<Application> accepts;
+
+    public ScreeningLane(String name, int maxInFlight, Predicate<Application> accepts) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.name = name;
+        this.maxInFlight = maxInFlight;
+        this.accepts = accepts;
+    }
+
+    /**
+     * Lane for applications that have waited at least maxWait since submission.
+     */
+    public static ScreeningLane waitingLongerThan(String name, int maxInFlight, Duration maxWait) {
+        return new ScreeningLane(name, maxInFlight, application -> application.getApplicationDate() != null
+                && application.getApplicationDate().isBefore(LocalDateTime.now().minus(maxWait)));
+    }
+
+    /**
+     * Lane that accepts every application.
+     */
+    public static ScreeningLane all(String name, int maxInFlight) {
+        return new ScreeningLane(name, maxInFlight, application -> true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public boolean accepts(Application application) {
+        return accepts.test(application);
+    }
+
+    @Override
+    public String toString() {
+        return "ScreeningLane{" +
+                "name='" + name + '\'' +
+                ", maxInFlight=" + maxInFlight +
+                '}';
+    }
+}
@@ -0,0 +1,158 @@
+package com.ssa.screening;
+
+import com.ssa.util.LatencyHistogram;
+
+import java.util.List;
+
+/**
+ * Point-in-time view of ApplicationScreeningEngine state.
+ *
+ * Counters are copied when the snapshot is taken; the latency histograms
+ * are live views shared with the engine.
+ */
+public class ScreeningMetrics {
+    private final long passed;
+    private final long flagged;
+    private final long rejected;
+    private final long failed;
+    private final long elapsedMillis;
+    private final List<LaneMetrics> lanes;
+
+    public ScreeningMetrics(long passed, long flagged, long rejected, long failed, long elapsedMillis,
+                            List<LaneMetrics> lanes) {
+        this.passed = passed;
+        this.flagged = flagged;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.lanes = List.copyOf(lanes);
+    }
+
+    public long getPassed() {
+        return passed;
+    }
+
+    public long getFlagged() {
+        return flagged;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Applications whose screening threw and was left for a later run.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getScreened() {
+        return passed + flagged + rejected;
+    }
+
+    /**
+     * Time since the engine was created.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getScreenedPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : getScreened() * 1000.0 / elapsedMillis;
+    }
+
+    public List<LaneMetrics> getLanes() {
+        return lanes;
+    }
+
+    @Override
+    public String toString() {
+        return "ScreeningMetrics{" +
+                "passed=" + passed +
+                ", flagged=" + flagged +
+                ", rejected=" + rejected +
+                ", failed=" + failed +
+                ", perSecond=" + String.format("%.1f", getScreenedPerSecond()) +
+                ", lanes=" + lanes +
+                '}';
+    }
+
+    /**
+     * State of one lane.
+     */
+    public static class LaneMetrics {
+        private final String name;
+        private final int queued;
+        private final int inFlight;
+        private final int maxInFlight;
+        private final long completed;
+        private final long oldestQueuedAgeMillis;
+        private final LatencyHistogram queueAge;
+        private final LatencyHistogram screenLatency;
+
+        public LaneMetrics(String name, int queued, int inFlight, int maxInFlight, long completed,
+                           long oldestQueuedAgeMillis, LatencyHistogram queueAge, LatencyHistogram screenLatency) {
+            this.name = name;
+            this.queued = queued;
+            this.inFlight = inFlight;
+            this.maxInFlight = maxInFlight;
+            this.completed = completed;
+            this.oldestQueuedAgeMillis = oldestQueuedAgeMillis;
+            this.queueAge = queueAge;
+            this.screenLatency = screenLatency;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * Time since submission of the oldest application waiting in the lane; 0 if none.
+         */
+        public long getOldestQueuedAgeMillis() {
+            return oldestQueuedAgeMillis;
+        }
+
+        /**
+         * Time from submission to the start of screening, per application.
+         */
+        public LatencyHistogram getQueueAge() {
+            return queueAge;
+        }
+
+        public LatencyHistogram getScreenLatency() {
+            return screenLatency;
+        }
+
+        @Override
+        public String toString() {
+            return "LaneMetrics{" +
+                    "name='" + name + '\'' +
+                    ", queued=" + queued +
+                    ", inFlight=" + inFlight +
+                    "/" + maxInFlight +
+                    ", completed=" + completed +
+                    ", oldestQueuedAgeMillis=" + oldestQueuedAgeMillis +
+                    ", queueAgeP99Micros=" + queueAge.getPercentileMicros(99) +
+                    ", screenP99Micros=" + screenLatency.getPercentileMicros(99) +
+                    '}';
+        }
+    }
+}
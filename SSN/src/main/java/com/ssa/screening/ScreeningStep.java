@@ -0,0 +1,90 @@
+package com.ssa.screening;
+
+import com.ssa.dedupe.PersonDeduplicator;
+import com.ssa.model.Application;
+import com.ssa.model.DuplicateMatch;
+import com.ssa.model.Person;
+import com.ssa.model.enums.ScreeningOutcome;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One automatic check run against a pending application.
+ *
+ * Black Box Implementation Detail: check() returns null when the
+ * application passes, otherwise the reason it did not. A failed step
+ * yields getFailureOutcome(): REJECTED ends screening and rejects the
+ * application, FLAGGED records the reason and lets the remaining steps
+ * run. Steps run on worker threads and must be thread-safe.
+ */
+public interface ScreeningStep {
+    String getName();
+
+    ScreeningOutcome getFailureOutcome();
+
+    /**
+     * @param person The applicant; never null
+     * @return null if the application passes, otherwise the reason
+     */
+    String check(Application application, Person person);
+
+    /**
+     * Rejects applications whose person record is incomplete.
+     */
+    static ScreeningStep validity() {
+        return of("validity", ScreeningOutcome.REJECTED,
+                (application, person) -> person.isValid() ? null : "Person record is incomplete");
+    }
+
+    /**
+     * Rejects applicants outside the SSN age rule or who already hold an SSN.
+     */
+    static ScreeningStep eligibility() {
+        return of("eligibility", ScreeningOutcome.REJECTED, (application, person) -> {
+            if (!person.isEligibleForSSN()) {
+                return "Person is not eligible for an SSN";
+            }
+            return person.getSsn() != null ? "Person already has an SSN" : null;
+        });
+    }
+
+    /**
+     * Flags applicants who probably duplicate an existing person.
+     */
+    static ScreeningStep duplicates(PersonDeduplicator deduplicator) {
+        return of("duplicates", ScreeningOutcome.FLAGGED, (application, person) -> {
+            List<DuplicateMatch> matches = deduplicator.findDuplicates(person);
+            if (matches.isEmpty()) {
+                return null;
+            }
+            return "Probable duplicate of person(s) " + matches.stream()
+                    .map(match -> String.valueOf(match.getMatchedPersonId()))
+                    .collect(Collectors.joining(", ", "[", "]"));
+        });
+    }
+
+    static ScreeningStep of(String name, ScreeningOutcome failureOutcome, Check check) {
+        return new ScreeningStep() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public ScreeningOutcome getFailureOutcome() {
+                return failureOutcome;
+            }
+
+            @Override
+            public String check(Application application, Person person) {
+                return check.check(application, person);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Check {
+        String check(Application application, Person person);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ssa.search;
+
+import com.ssa.model.Person;
+import com.ssa.util.Interner;
+import com.ssa.util.NameKeys;
+
+import java.time.LocalDate;
+
+/**
+ * One person as held by the PersonSearchIndex: enough to show a typeahead
+ * suggestion and to load the full record by ID.
+ */
+public final class PersonSearchHit {
+    private final long personId;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDate dateOfBirth;
+    // Normalized keys the index sorts and matches on
+    final String firstKey;
+    final String lastKey;
+    final long dobDay;
+
+    PersonSearchHit(long personId, String firstName, String lastName, LocalDate dateOfBirth,
+                    String firstKey, String lastKey) {
+        this.personId = personId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.dateOfBirth = dateOfBirth;
+        this.firstKey = firstKey;
+        this.lastKey = lastKey;
+        this.dobDay = dateOfBirth != null ? dateOfBirth.toEpochDay() : Long.MIN_VALUE;
+    }
+
+    static PersonSearchHit of(Person person, Interner names) {
+        return new PersonSearchHit(person.getPersonId(),
+                names.intern(person.getFirstName()),
+                names.intern(person.getLastName()),
+                person.getDateOfBirth(),
+                names.intern(key(person.getFirstName())),
+                names.intern(key(person.getLastName())));
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : NameKeys.normalize(name);
+    }
+
+    public long getPersonId() {
+        return personId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonSearchHit{" +
+                "personId=" + personId +
+                ", name='" + firstName + " " + lastName + '\'' +
+                ", dateOfBirth=" + dateOfBirth +
+                '}';
+    }
+}
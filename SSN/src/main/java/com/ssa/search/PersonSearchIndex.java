@@ -0,0 +1,340 @@
+package com.ssa.search;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.Person;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.util.Interner;
+import com.ssa.util.NameKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typeahead index over persons: last-name prefix, first-name
+ * prefix and exact date of birth, in any combination.
+ *
+ * Black Box Implementation Detail: The bulk of the index is an immutable
+ * snapshot holding every person three times over, as arrays sorted by
+ * (last, first), (first, last) and (date of birth, last, first) on the
+ * NameKeys-normalized names. A prefix (optionally under a date of birth) is
+ * then one contiguous run found by two binary searches, and the top N are
+ * the first N matching entries of that run. With both name prefixes and no
+ * date, the shorter of the two runs is scanned when it is small.
+ *
+ * put()/remove() do not touch the snapshot: they swap in a new copy of a
+ * small delta map (person ID -> latest entry or tombstone) that hides the
+ * snapshot's entry for that ID and is scanned linearly by every search. Once
+ * the delta reaches search.persons.mergeThreshold entries a background
+ * thread folds it into a new snapshot; writes made meanwhile carry over.
+ * Searches never lock.
+ */
+public class PersonSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PersonSearchIndex.class);
+
+    // Sorts after every normalized name character
+    private static final char MAX_CHAR = '\uffff';
+    // Scan a whole run (then sort) instead of the ordered one when it is at most this long
+    private static final int FULL_SCAN_LIMIT = 8192;
+
+    private static final Comparator<PersonSearchHit> BY_LAST = Comparator
+            .comparing((PersonSearchHit hit) -> hit.lastKey)
+            .thenComparing(hit -> hit.firstKey)
+            .thenComparingLong(PersonSearchHit::getPersonId);
+    private static final Comparator<PersonSearchHit> BY_FIRST = Comparator
+            .comparing((PersonSearchHit hit) -> hit.firstKey)
+            .thenComparing(hit -> hit.lastKey)
+            .thenComparingLong(PersonSearchHit::getPersonId);
+    private static final Comparator<PersonSearchHit> BY_DOB = Comparator
+            .comparingLong((PersonSearchHit hit) -> hit.dobDay)
+            .thenComparing(BY_LAST);
+
+    private static final PersonSearchHit TOMBSTONE = new PersonSearchHit(Long.MIN_VALUE, null, null, null, "", "");
+
+    private final int mergeThreshold;
+    private final Object writeLock = new Object();
+    private final Object snapshotLock = new Object();
+    private final AtomicBoolean merging = new AtomicBoolean();
+    private final Interner names = new Interner();
+
+    private volatile State state = new State(Snapshot.build(List.of()), Map.of());
+
+    public PersonSearchIndex() {
+        this(AppConfig.getInt("search.persons.mergeThreshold", 4096));
+    }
+
+    /**
+     * @param mergeThreshold Writes held in the delta before it is merged into the snapshot
+     */
+    public PersonSearchIndex(int mergeThreshold) {
+        this.mergeThreshold = Math.max(1, mergeThreshold);
+    }
+
+    // Loading
+
+    /**
+     * Replace the index contents with every row of the persons table.
+     */
+    public void rebuild(IPersonRepository personRepository) {
+        try (Stream<Person> persons = personRepository.streamAll()) {
+            rebuild(persons);
+        }
+    }
+
+    /**
+     * Replace the index contents with persons. put()/remove() calls made
+     * while this runs are kept.
+     */
+    public void rebuild(Stream<Person> persons) {
+        synchronized (snapshotLock) {
+            long start = System.nanoTime();
+            Map<Long, PersonSearchHit> before = state.delta;
+            List<PersonSearchHit> hits = new ArrayList<>();
+            persons.forEach(person -> hits.add(PersonSearchHit.of(person, names)));
+            install(Snapshot.build(hits), before);
+            logger.info("Person search index built: {} persons in {}ms", hits.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Writes
+
+    /**
+     * Add or replace a saved person (it must have an ID).
+     */
+    public void put(Person person) {
+        if (person.getPersonId() == null) {
+            throw new IllegalArgumentException("Only saved persons can be indexed");
+        }
+        write(person.getPersonId(), PersonSearchHit.of(person, names));
+    }
+
+    public void remove(long personId) {
+        write(personId, TOMBSTONE);
+    }
+
+    private void write(long personId, PersonSearchHit hit) {
+        int size;
+        synchronized (writeLock) {
+            State current = state;
+            Map<Long, PersonSearchHit> delta = new HashMap<>(current.delta);
+            delta.put(personId, hit);
+            state = new State(current.snapshot, delta);
+            size = delta.size();
+        }
+        if (size >= mergeThreshold && merging.compareAndSet(false, true)) {
+            Thread merger = new Thread(this::merge, "ssn-person-index-merge");
+            merger.setDaemon(true);
+            merger.start();
+        }
+    }
+
+    private void merge() {
+        try {
+            synchronized (snapshotLock) {
+                State start = state;
+                List<PersonSearchHit> hits = new ArrayList<>(start.snapshot.byLast.length + start.delta.size());
+                for (PersonSearchHit hit : start.snapshot.byLast) {
+                    if (!start.delta.containsKey(hit.getPersonId())) {
+                        hits.add(hit);
+                    }
+                }
+                for (PersonSearchHit hit : start.delta.values()) {
+                    if (hit != TOMBSTONE) {
+                        hits.add(hit);
+                    }
+                }
+                install(Snapshot.build(hits), start.delta);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Person search index merge failed", e);
+        } finally {
+            merging.set(false);
+        }
+    }
+
+    /**
+     * Swap in snapshot, keeping only delta entries written since before was current.
+     */
+    private void install(Snapshot snapshot, Map<Long, PersonSearchHit> before) {
+        synchronized (writeLock) {
+            Map<Long, PersonSearchHit> newer = new HashMap<>();
+            for (Map.Entry<Long, PersonSearchHit> entry : state.delta.entrySet()) {
+                if (before.get(entry.getKey()) != entry.getValue()) {
+                    newer.put(entry.getKey(), entry.getValue());
+                }
+            }
+            state = new State(snapshot, newer);
+        }
+    }
+
+    // Reads
+
+    /**
+     * Persons whose normalized names start with the given prefixes.
+     * @param lastNamePrefix Last name prefix, or null/blank for any
+     * @param firstNamePrefix First name prefix, or null/blank for any
+     * @param dateOfBirth Exact date of birth, or null for any
+     * @param limit Maximum number of hits
+     * @return Hits ordered by last name, first name and ID (by first name first when only a first name
+     *         prefix is given); empty if no criteria are given
+     */
+    public List<PersonSearchHit> search(String lastNamePrefix, String firstNamePrefix, LocalDate dateOfBirth,
+                                        int limit) {
+        String last = lastNamePrefix == null ? "" : NameKeys.normalize(lastNamePrefix);
+        String first = firstNamePrefix == null ? "" : NameKeys.normalize(firstNamePrefix);
+        if (limit <= 0 || (last.isEmpty() && first.isEmpty() && dateOfBirth == null)) {
+            return List.of();
+        }
+        State current = state;
+        Snapshot snapshot = current.snapshot;
+        Query query = new Query(last, first, dateOfBirth);
+
+        List<PersonSearchHit> found;
+        Comparator<PersonSearchHit> order = BY_LAST;
+        if (dateOfBirth != null) {
+            found = scan(snapshot.byDob, BY_DOB, query.probe(last, ""), query.probe(last + MAX_CHAR, ""),
+                    query, current.delta, limit);
+        } else if (!last.isEmpty()) {
+            int lo = lowerBound(snapshot.byLast, BY_LAST, query.probe(last, ""));
+            int hi = lowerBound(snapshot.byLast, BY_LAST, query.probe(last + MAX_CHAR, ""));
+            int firstLo = 0;
+            int firstHi = Integer.MAX_VALUE;
+            if (!first.isEmpty()) {
+                firstLo = lowerBound(snapshot.byFirst, BY_FIRST, query.probe("", first));
+                firstHi = lowerBound(snapshot.byFirst, BY_FIRST, query.probe("", first + MAX_CHAR));
+            }
+            if (firstHi - firstLo < hi - lo && firstHi - firstLo <= FULL_SCAN_LIMIT) {
+                found = scanRange(snapshot.byFirst, firstLo, firstHi, query, current.delta, Integer.MAX_VALUE);
+                found.sort(BY_LAST);
+            } else {
+                found = scanRange(snapshot.byLast, lo, hi, query, current.delta, limit);
+            }
+        } else {
+            order = BY_FIRST;
+            found = scan(snapshot.byFirst, BY_FIRST, query.probe("", first), query.probe("", first + MAX_CHAR),
+                    query, current.delta, limit);
+        }
+        return mergeDelta(found, current.delta, query, order, limit);
+    }
+
+    private static List<PersonSearchHit> scan(PersonSearchHit[] sorted, Comparator<PersonSearchHit> order,
+                                              PersonSearchHit from, PersonSearchHit to, Query query,
+                                              Map<Long, PersonSearchHit> delta, int limit) {
+        return scanRange(sorted, lowerBound(sorted, order, from), lowerBound(sorted, order, to), query, delta, limit);
+    }
+
+    private static List<PersonSearchHit> scanRange(PersonSearchHit[] sorted, int lo, int hi, Query query,
+                                                   Map<Long, PersonSearchHit> delta, int limit) {
+        List<PersonSearchHit> found = new ArrayList<>(Math.min(limit, Math.max(0, hi - lo)));
+        boolean shadowed = !delta.isEmpty();
+        for (int i = lo; i < hi && found.size() < limit; i++) {
+            PersonSearchHit hit = sorted[i];
+            if (query.matches(hit) && !(shadowed && delta.containsKey(hit.getPersonId()))) {
+                found.add(hit);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Add the delta's matches to the snapshot's and keep the first limit in order.
+     */
+    private static List<PersonSearchHit> mergeDelta(List<PersonSearchHit> found, Map<Long, PersonSearchHit> delta,
+                                                    Query query, Comparator<PersonSearchHit> order, int limit) {
+        boolean added = false;
+        for (PersonSearchHit hit : delta.values()) {
+            if (hit != TOMBSTONE && query.matches(hit)) {
+                found.add(hit);
+                added = true;
+            }
+        }
+        if (added) {
+            found.sort(order);
+        }
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * First index whose entry sorts at or after probe.
+     */
+    private static int lowerBound(PersonSearchHit[] sorted, Comparator<PersonSearchHit> order, PersonSearchHit probe) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(sorted[mid], probe) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class Query {
+        private final String last;
+        private final String first;
+        private final LocalDate dateOfBirth;
+        private final long dobDay;
+
+        Query(String last, String first, LocalDate dateOfBirth) {
+            this.last = last;
+            this.first = first;
+            this.dateOfBirth = dateOfBirth;
+            this.dobDay = dateOfBirth != null ? dateOfBirth.toEpochDay() : 0;
+        }
+
+        boolean matches(PersonSearchHit hit) {
+            return hit.lastKey.startsWith(last) && hit.firstKey.startsWith(first)
+                    && (dateOfBirth == null || hit.dobDay == dobDay);
+        }
+
+        /**
+         * Search key that sorts before every real entry with these keys.
+         */
+        PersonSearchHit probe(String lastKey, String firstKey) {
+            return new PersonSearchHit(Long.MIN_VALUE, null, null, dateOfBirth, firstKey, lastKey);
+        }
+    }
+
+    private static final class State {
+        final Snapshot snapshot;
+        final Map<Long, PersonSearchHit> delta;
+
+        State(Snapshot snapshot, Map<Long, PersonSearchHit> delta) {
+            this.snapshot = snapshot;
+            this.delta = delta;
+        }
+    }
+
+    private static final class Snapshot {
+        final PersonSearchHit[] byLast;
+        final PersonSearchHit[] byFirst;
+        final PersonSearchHit[] byDob;
+
+        private Snapshot(PersonSearchHit[] byLast, PersonSearchHit[] byFirst, PersonSearchHit[] byDob) {
+            this.byLast = byLast;
+            this.byFirst = byFirst;
+            this.byDob = byDob;
+        }
+
+        static Snapshot build(List<PersonSearchHit> hits) {
+            PersonSearchHit[] byLast = hits.toArray(new PersonSearchHit[0]);
+            PersonSearchHit[] byFirst = byLast.clone();
+            PersonSearchHit[] byDob = byLast.clone();
+            Arrays.parallelSort(byLast, BY_LAST);
+            Arrays.parallelSort(byFirst, BY_FIRST);
+            Arrays.parallelSort(byDob, BY_DOB);
+            return new Snapshot(byLast, byFirst, byDob);
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.ssa.service;
 
 import com.ssa.exception.ApplicationException;
 import com.ssa.model.Application;
+import com.ssa.model.ApprovalResult;
+import com.ssa.model.Page;
 import com.ssa.model.Person;
 import com.ssa.model.enums.ApplicationStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,6 +40,18 @@ public interface IApplicationService {
      */
     Application approveApplication(Long applicationId, String adminUser) throws ApplicationException;
 
+    /**
+     * Approve several applications and issue their SSNs in parallel.
+     * Each application succeeds or fails on its own; one failure does not
+     * fail the batch.
+     * @param applicationIds Application IDs to approve
+     * @param adminUser Admin username processing approval
+     * @return One result per ID, in the order given
+     * @throws ApplicationException if adminUser or applicationIds is missing
+     */
+    List<ApprovalResult> approveApplications(Collection<Long> applicationIds, String adminUser)
+            throws ApplicationException;
+
     /**
      * Reject an application.
      * @param applicationId Application ID to reject
@@ -53,6 +68,14 @@ public interface IApplicationService {
      */
     List<Application> getPendingApplications();
 
+    /**
+     * Get one page of pending applications, oldest first.
+     * @param pageSize Maximum number of applications on the page
+     * @param pageToken Token from the previous page, or null for the first page
+     * @return Page of applications awaiting review
+     */
+    Page<Application> getPendingApplications(int pageSize, String pageToken);
+
     /**
      * Get application by reference number.
      * @param referenceNumber Application reference
@@ -1,6 +1,10 @@
 package com.ssa.service;
 
+import com.ssa.model.AuditChainReport;
 import com.ssa.model.AuditLog;
+import com.ssa.model.AuditRollup;
+import com.ssa.model.Page;
+import com.ssa.model.enums.RollupResolution;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -56,4 +60,57 @@ public interface IAuditService {
      * @return List of most recent logs
      */
     List<AuditLog> getRecentLogs(int limit);
+
+    /**
+     * Page backwards through audit logs, newest first.
+     * @param pageSize Maximum number of logs on the page
+     * @param pageToken Token from the previous page, or null for the most recent logs
+     * @return Page of audit logs
+     */
+    Page<AuditLog> getRecentLogs(int pageSize, String pageToken);
+
+    /**
+     * Event counts per time bucket, action and user, from the pre-aggregated rollups.
+     * @param resolution Bucket size
+     * @param from Start; the bucket containing it is included
+     * @param to End (exclusive)
+     * @param action Only this action, or null for all
+     * @param userName Only this user, or null for all
+     * @return Counts ordered by bucket, action, user
+     */
+    List<AuditRollup> getActivityCounts(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                        String action, String userName);
+
+    /**
+     * Event counts per time bucket, summed over users.
+     * @param resolution Bucket size
+     * @param from Start; the bucket containing it is included
+     * @param to End (exclusive)
+     * @param action Only this action, or null for all
+     * @return Counts ordered by bucket
+     */
+    List<AuditRollup> getActivityTotals(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                        String action);
+
+    /**
+     * Number of events between from and to, to the minute.
+     * @param action Only this action, or null for all
+     * @param userName Only this user, or null for all
+     * @return Event count
+     */
+    long countActivity(LocalDateTime from, LocalDateTime to, String action, String userName);
+
+    /**
+     * Check every sealed audit log against the tamper-evident hash chain.
+     * @return Verification report listing any mismatches
+     */
+    AuditChainReport verifyAuditTrail();
+
+    /**
+     * Check the sealed audit logs between from and to (inclusive), and the links of the whole chain.
+     * @param from Start date/time
+     * @param to End date/time
+     * @return Verification report listing any mismatches
+     */
+    AuditChainReport verifyAuditTrail(LocalDateTime from, LocalDateTime to);
 }
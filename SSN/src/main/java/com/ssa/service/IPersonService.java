@@ -1,8 +1,12 @@
 package com.ssa.service;
 
 import com.ssa.exception.ValidationException;
+import com.ssa.model.DuplicateReport;
+import com.ssa.model.Page;
 import com.ssa.model.Person;
+import com.ssa.search.PersonSearchHit;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -70,4 +74,30 @@ public interface IPersonService {
      * @return List of all persons in system
      */
     List<Person> getAllPersons();
+
+    /**
+     * Get one page of persons in ID order.
+     * @param pageSize Maximum number of persons on the page
+     * @param pageToken Token from the previous page, or null for the first page
+     * @return Page of persons
+     */
+    Page<Person> getAllPersons(int pageSize, String pageToken);
+
+    /**
+     * Typeahead search: persons whose names start with the given prefixes.
+     * Case, accents and punctuation are ignored.
+     * @param lastNamePrefix Last name prefix, or null/blank for any
+     * @param firstNamePrefix First name prefix, or null/blank for any
+     * @param dateOfBirth Exact date of birth, or null for any
+     * @param limit Maximum number of results
+     * @return Matches ordered by last name, then first name
+     */
+    List<PersonSearchHit> searchPersons(String lastNamePrefix, String firstNamePrefix, LocalDate dateOfBirth,
+                                        int limit);
+
+    /**
+     * Scan all persons for probable duplicate records.
+     * @return Report listing probable duplicate pairs, best match first
+     */
+    DuplicateReport findDuplicatePersons();
 }
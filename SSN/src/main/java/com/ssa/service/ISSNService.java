@@ -2,6 +2,8 @@ package com.ssa.service;
 
 import com.ssa.exception.SSNException;
 import com.ssa.model.SSN;
+import com.ssa.model.enums.NameMatch;
+import com.ssa.model.enums.SSNStatus;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -51,6 +53,16 @@ public interface ISSNService {
      */
     List<SSN> searchByPerson(String firstName, String lastName, LocalDate dateOfBirth);
 
+    /**
+     * Search for SSNs by person criteria.
+     * @param firstName First name, or null/blank for any
+     * @param lastName Last name
+     * @param dateOfBirth Date of birth, or null for any
+     * @param match EXACT, or SOUNDS_LIKE to include names that sound the same
+     * @return List of matching SSNs
+     */
+    List<SSN> searchByPerson(String firstName, String lastName, LocalDate dateOfBirth, NameMatch match);
+
     /**
      * Suspend an SSN (mark as inactive).
      * @param ssn SSN to suspend
@@ -71,4 +83,11 @@ public interface ISSNService {
      * @return Total number of SSNs in system
      */
     long getTotalSSNCount();
+
+    /**
+     * Get count of SSNs by status.
+     * @param status SSN status
+     * @return Number of SSNs with that status
+     */
+    long getCountByStatus(SSNStatus status);
 }
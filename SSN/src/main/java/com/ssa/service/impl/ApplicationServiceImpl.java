@@ -0,0 +1,469 @@
+package com.ssa.service.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.ApplicationException;
+import com.ssa.exception.RepositoryException;
+import com.ssa.exception.SSNException;
+import com.ssa.model.Application;
+import com.ssa.model.ApprovalResult;
+import com.ssa.model.Page;
+import com.ssa.model.Person;
+import com.ssa.model.ReferenceCode;
+import com.ssa.model.ReferenceNumberGenerator;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.ApplicationStatus;
+import com.ssa.repository.IApplicationRepository;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.repository.ISSNRepository;
+import com.ssa.repository.impl.ReferenceSequenceRepositoryImpl;
+import com.ssa.service.IApplicationService;
+import com.ssa.service.IAuditService;
+import com.ssa.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of IApplicationService.
+ *
+ * Black Box Implementation Detail: approveApplications() works in three
+ * phases.
+ * <ol>
+ *   <li>Validate: every application and its person are read with two bulk
+ *       reads (findAllById). Items that are missing, not PENDING, for an
+ *       ineligible person, for a person who already has an SSN, or for a
+ *       person already in the batch fail here.</li>
+ *   <li>Issue: the remaining items draw numbers from the SSNBlockAllocator
+ *       on approval.parallelism threads. The allocator is lock-free, so the
+ *       threads only overlap their ssnExists() checks.</li>
+ *   <li>Write: items are written in chunks of approval.batchSize. Each chunk
+ *       is one transaction (DatabaseManager.inTransaction) with batched
+ *       inserts into ssns and batched updates of persons.ssn and
+ *       applications. The application update only applies while the row is
+ *       still PENDING, so an application decided concurrently (by another
+ *       admin or by screening) fails its item instead of being approved
+ *       twice. Likewise persons.ssn is only set while it is still empty, and
+ *       no other person column is written, so a person who got an SSN
+ *       elsewhere meanwhile fails the item as "already has an SSN".</li>
+ * </ol>
+ * If a chunk fails, it is retried one item per transaction, so one bad row
+ * fails only its own item. Every item gets an ApprovalResult and an audit
+ * record; nothing fails the whole batch. approveApplication() is a batch of
+ * one.
+ */
+public class ApplicationServiceImpl implements IApplicationService {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationServiceImpl.class);
+
+    // Consecutive already-issued candidates before an item gives up
+    private static final int MAX_COLLISIONS = 1000;
+
+    private final DatabaseManager databaseManager;
+    private final IApplicationRepository applicationRepository;
+    private final IPersonRepository personRepository;
+    private final ISSNRepository ssnRepository;
+    private final SSNBlockAllocator allocator;
+    private final ReferenceNumberGenerator references;
+    private final IAuditService auditService;
+    private final int parallelism;
+    private final int batchSize;
+    private final ExecutorService issuers;
+
+    public ApplicationServiceImpl(DatabaseManager databaseManager, IApplicationRepository applicationRepository,
+                                  IPersonRepository personRepository, ISSNRepository ssnRepository,
+                                  SSNBlockAllocator allocator, IAuditService auditService) {
+        this(databaseManager, applicationRepository, personRepository, ssnRepository, allocator,
+                new ReferenceNumberAllocator(new ReferenceSequenceRepositoryImpl(databaseManager)), auditService,
+                AppConfig.getInt("approval.parallelism", 0),
+                AppConfig.getInt("approval.batchSize", 500));
+    }
+
+    /**
+     * @param references Reference numbers for submitted applications
+     * @param parallelism Threads issuing SSNs for a batch; 0 for one per core
+     * @param batchSize Approvals written per transaction
+     */
+    public ApplicationServiceImpl(DatabaseManager databaseManager, IApplicationRepository applicationRepository,
+                                  IPersonRepository personRepository, ISSNRepository ssnRepository,
+                                  SSNBlockAllocator allocator, ReferenceNumberGenerator references,
+                                  IAuditService auditService, int parallelism, int batchSize) {
+        this.databaseManager = databaseManager;
+        this.applicationRepository = applicationRepository;
+        this.personRepository = personRepository;
+        this.ssnRepository = ssnRepository;
+        this.allocator = allocator;
+        this.references = references;
+        this.auditService = auditService;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        AtomicInteger threads = new AtomicInteger();
+        this.issuers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "ssn-approval-issuer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Application submitApplication(Person person) throws ApplicationException {
+        if (person == null) {
+            throw new ApplicationException("Person is required");
+        }
+        if (person.getPersonId() == null) {
+            if (!person.isValid()) {
+                throw new ApplicationException("Person record is incomplete");
+            }
+        } else {
+            Person stored = personRepository.findById(person.getPersonId())
+                    .orElseThrow(() -> new ApplicationException("Person not found: " + person.getPersonId()));
+            if (stored.getSsn() != null) {
+                throw new ApplicationException("Person " + stored.getPersonId() + " already has an SSN");
+            }
+            boolean pending = applicationRepository.findByPersonId(stored.getPersonId()).stream()
+                    .anyMatch(Application::isPending);
+            if (pending) {
+                throw new ApplicationException("Person " + stored.getPersonId() + " already has a pending application");
+            }
+        }
+        if (!person.isEligibleForSSN()) {
+            throw new ApplicationException("Person is not eligible for an SSN");
+        }
+        Application application;
+        try {
+            application = new Application(person, references);
+            databaseManager.inTransaction(() -> {
+                if (person.getPersonId() == null) {
+                    personRepository.save(person);
+                    application.setPersonId(person.getPersonId());
+                }
+                applicationRepository.save(application);
+            });
+        } catch (RepositoryException e) {
+            logger.error("Failed to submit application for {}", person.getFullName(), e);
+            throw new ApplicationException("Failed to submit application", e);
+        }
+        logger.info("Submitted application {} for person {}", application.getReferenceNumber(), person.getPersonId());
+        return application;
+    }
+
+    @Override
+    public Application approveApplication(Long applicationId, String adminUser) throws ApplicationException {
+        if (applicationId == null) {
+            throw new ApplicationException("Application ID is required");
+        }
+        ApprovalResult result = approveApplications(List.of(applicationId), adminUser).get(0);
+        if (!result.isApproved()) {
+            throw new ApplicationException(result.getError());
+        }
+        return result.getApplication();
+    }
+
+    @Override
+    public List<ApprovalResult> approveApplications(Collection<Long> applicationIds, String adminUser)
+            throws ApplicationException {
+        if (adminUser == null || adminUser.isBlank()) {
+            throw new ApplicationException("Admin user is required");
+        }
+        if (applicationIds == null) {
+            throw new ApplicationException("Application IDs are required");
+        }
+        long start = System.nanoTime();
+        Map<Long, ApprovalResult> results = new HashMap<>();
+        List<Approval> approvals = validate(new LinkedHashSet<>(applicationIds), results);
+        issue(approvals);
+
+        List<Approval> issued = new ArrayList<>(approvals.size());
+        for (Approval approval : approvals) {
+            if (approval.error != null) {
+                results.put(approval.applicationId(), new ApprovalResult(approval.applicationId(), null, approval.error));
+            } else {
+                issued.add(approval);
+            }
+        }
+        for (int from = 0; from < issued.size(); from += batchSize) {
+            write(issued.subList(from, Math.min(from + batchSize, issued.size())), adminUser, results);
+        }
+
+        List<ApprovalResult> outcomes = new ArrayList<>(applicationIds.size());
+        long approved = 0;
+        for (Long id : applicationIds) {
+            ApprovalResult result = results.get(id);
+            if (result == null) {
+                result = new ApprovalResult(id, null, "Application ID is required");
+            }
+            outcomes.add(result);
+            if (result.isApproved()) approved++;
+        }
+        logger.info("{} approved {} of {} applications in {} ms", adminUser, approved, applicationIds.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return outcomes;
+    }
+
+    /**
+     * Phase 1: check every item against committed state; failures go straight into results.
+     */
+    private List<Approval> validate(Set<Long> ids, Map<Long, ApprovalResult> results) {
+        ids.remove(null);
+        Map<Long, Application> applications = new HashMap<>();
+        for (Application application : applicationRepository.findAllById(ids)) {
+            applications.put(application.getApplicationId(), application);
+        }
+        // Persons the repository already attached are not read again
+        Map<Long, Person> persons = new HashMap<>();
+        Set<Long> personIds = new HashSet<>();
+        for (Application application : applications.values()) {
+            if (application.isPersonLoaded()) {
+                persons.put(application.getPersonId(), application.getPerson());
+            } else {
+                personIds.add(application.getPersonId());
+            }
+        }
+        if (!personIds.isEmpty()) {
+            for (Person person : personRepository.findAllById(personIds)) {
+                persons.put(person.getPersonId(), person);
+            }
+        }
+
+        List<Approval> approvals = new ArrayList<>(ids.size());
+        Set<Long> personsInBatch = new HashSet<>();
+        for (Long id : ids) {
+            Application application = applications.get(id);
+            Person person = application != null ? persons.get(application.getPersonId()) : null;
+            String problem;
+            if (application == null) {
+                problem = "Application not found: " + id;
+            } else if (!application.isPending()) {
+                problem = "Application " + application.getReferenceNumber() + " is not pending";
+            } else if (person == null) {
+                problem = "Person not found: " + application.getPersonId();
+            } else if (!person.isEligibleForSSN()) {
+                problem = "Person " + person.getPersonId() + " is not eligible for an SSN";
+            } else if (person.getSsn() != null) {
+                problem = "Person " + person.getPersonId() + " already has an SSN";
+            } else if (!personsInBatch.add(person.getPersonId())) {
+                problem = "Person " + person.getPersonId() + " has another application in this batch";
+            } else {
+                approvals.add(new Approval(application, person));
+                continue;
+            }
+            results.put(id, new ApprovalResult(id, null, problem));
+        }
+        return approvals;
+    }
+
+    /**
+     * Phase 2: draw an unused SSN for every item, approval.parallelism slices at a time.
+     */
+    private void issue(List<Approval> approvals) {
+        int slices = Math.min(parallelism, approvals.size());
+        if (slices <= 1) {
+            approvals.forEach(this::issue);
+            return;
+        }
+        List<CompletableFuture<Void>> running = new ArrayList<>(slices);
+        int per = (approvals.size() + slices - 1) / slices;
+        for (int from = 0; from < approvals.size(); from += per) {
+            List<Approval> slice = approvals.subList(from, Math.min(from + per, approvals.size()));
+            running.add(CompletableFuture.runAsync(() -> slice.forEach(this::issue), issuers));
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private void issue(Approval approval) {
+        try {
+            for (int attempt = 0; attempt < MAX_COLLISIONS; attempt++) {
+                String candidate = allocator.next();
+                if (!ssnRepository.ssnExists(candidate)) {
+                    approval.ssn = candidate;
+                    return;
+                }
+                logger.debug("Skipping already issued SSN {}", SSN.maskSSN(candidate));
+            }
+            approval.error = "No unused SSN found after " + MAX_COLLISIONS + " candidates";
+        } catch (SSNException | RepositoryException e) {
+            logger.error("SSN issuance failed for application {}", approval.applicationId(), e);
+            approval.error = "SSN issuance failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Phase 3: one transaction for the chunk, or one per item if the chunk fails.
+     */
+    private void write(List<Approval> chunk, String adminUser, Map<Long, ApprovalResult> results) {
+        try {
+            databaseManager.inTransaction(() -> save(chunk, adminUser));
+            chunk.forEach(approval -> approved(approval, adminUser, results));
+            return;
+        } catch (RepositoryException e) {
+            if (chunk.size() == 1) {
+                failed(chunk.get(0), e, results);
+                return;
+            }
+            logger.warn("Approval chunk of {} failed; retrying one at a time", chunk.size(), e);
+        }
+        for (Approval approval : chunk) {
+            try {
+                databaseManager.inTransaction(() -> save(List.of(approval), adminUser));
+                approved(approval, adminUser, results);
+            } catch (RepositoryException e) {
+                failed(approval, e, results);
+            }
+        }
+    }
+
+    private void save(List<Approval> chunk, String adminUser) {
+        List<SSN> ssns = new ArrayList<>(chunk.size());
+        Map<Long, String> ssnsByPerson = new LinkedHashMap<>();
+        List<Application> applications = new ArrayList<>(chunk.size());
+        for (Approval approval : chunk) {
+            ssns.add(new SSN(approval.ssn, approval.person.getPersonId()));
+            approval.person.setSsn(approval.ssn);
+            ssnsByPerson.put(approval.person.getPersonId(), approval.ssn);
+            approval.application.approve(adminUser, approval.ssn);
+            applications.add(approval.application);
+        }
+        // Both checks first, so a lost race rolls back before any SSN is written
+        Set<Long> decided = applicationRepository.updateAllIfPending(applications);
+        if (!decided.isEmpty()) {
+            throw new RepositoryException("Application " + decided.iterator().next() + " is no longer pending");
+        }
+        // Only the ssn column, and only if still empty: the phase 1 snapshot may be stale
+        Set<Long> taken = personRepository.assignSSNsIfUnassigned(ssnsByPerson);
+        if (!taken.isEmpty()) {
+            throw new RepositoryException("Person " + taken.iterator().next() + " already has an SSN");
+        }
+        ssnRepository.saveAll(ssns);
+    }
+
+    private void approved(Approval approval, String adminUser, Map<Long, ApprovalResult> results) {
+        approval.application.setPerson(approval.person);
+        results.put(approval.applicationId(), new ApprovalResult(approval.applicationId(), approval.application, null));
+        auditService.logAccess(adminUser, "APPROVE_APPLICATION", "Approved application "
+                + approval.application.getReferenceNumber() + ", issued SSN " + SSN.maskSSN(approval.ssn));
+    }
+
+    private void failed(Approval approval, RepositoryException e, Map<Long, ApprovalResult> results) {
+        logger.error("Failed to approve application {}", approval.applicationId(), e);
+        // Rolled back: undo the in-memory changes as well
+        approval.person.setSsn(null);
+        approval.restoreApplication();
+        results.put(approval.applicationId(),
+                new ApprovalResult(approval.applicationId(), null, "Failed to save approval: " + e.getMessage()));
+    }
+
+    @Override
+    public Application rejectApplication(Long applicationId, String reason, String adminUser)
+            throws ApplicationException {
+        if (adminUser == null || adminUser.isBlank()) {
+            throw new ApplicationException("Admin user is required");
+        }
+        if (reason == null || reason.isBlank()) {
+            throw new ApplicationException("A rejection reason is required");
+        }
+        Application application = findPending(applicationId);
+        application.reject(adminUser, reason);
+        boolean decided;
+        try {
+            decided = !applicationRepository.updateAllIfPending(List.of(application)).isEmpty();
+        } catch (RepositoryException e) {
+            logger.error("Failed to reject application {}", applicationId, e);
+            throw new ApplicationException("Failed to reject application", e);
+        }
+        if (decided) {
+            throw new ApplicationException("Application " + application.getReferenceNumber() + " is not pending");
+        }
+        auditService.logAccess(adminUser, "REJECT_APPLICATION",
+                "Rejected application " + application.getReferenceNumber() + ": " + reason);
+        return application;
+    }
+
+    private Application findPending(Long applicationId) throws ApplicationException {
+        if (applicationId == null) {
+            throw new ApplicationException("Application ID is required");
+        }
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new ApplicationException("Application not found: " + applicationId));
+        if (!application.isPending()) {
+            throw new ApplicationException("Application " + application.getReferenceNumber() + " is not pending");
+        }
+        return application;
+    }
+
+    @Override
+    public List<Application> getPendingApplications() {
+        return applicationRepository.findByStatus(ApplicationStatus.PENDING);
+    }
+
+    @Override
+    public Page<Application> getPendingApplications(int pageSize, String pageToken) {
+        return applicationRepository.findByStatus(ApplicationStatus.PENDING, pageSize, pageToken);
+    }
+
+    @Override
+    public Application getApplicationByReference(String referenceNumber) throws ApplicationException {
+        if (ReferenceCode.hasFormat(referenceNumber) && !ReferenceCode.isValid(referenceNumber)) {
+            // Mistyped: the check character does not match, no need to ask the database
+            throw new ApplicationException("Invalid reference number: " + referenceNumber);
+        }
+        return applicationRepository.findByReferenceNumber(referenceNumber)
+                .orElseThrow(() -> new ApplicationException("Application not found: " + referenceNumber));
+    }
+
+    @Override
+    public List<Application> getApplicationsByPerson(Long personId) {
+        return applicationRepository.findByPersonId(personId);
+    }
+
+    @Override
+    public long getCountByStatus(ApplicationStatus status) {
+        return applicationRepository.countByStatus(status);
+    }
+
+    /**
+     * One item of a batch approval as it moves through the phases.
+     */
+    private static final class Approval {
+        final Application application;
+        final Person person;
+        String ssn;
+        String error;
+        // Review state as validated, restored if the write rolls back
+        private final ApplicationStatus status;
+        private final String reviewedBy;
+        private final LocalDateTime reviewDate;
+        private final String assignedSSN;
+
+        Approval(Application application, Person person) {
+            this.application = application;
+            this.person = person;
+            this.status = application.getStatus();
+            this.reviewedBy = application.getReviewedBy();
+            this.reviewDate = application.getReviewDate();
+            this.assignedSSN = application.getAssignedSSN();
+        }
+
+        void restoreApplication() {
+            application.setStatus(status);
+            application.setReviewedBy(reviewedBy);
+            application.setReviewDate(reviewDate);
+            application.setAssignedSSN(assignedSSN);
+        }
+
+        Long applicationId() {
+            return application.getApplicationId();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ssa.service.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.AuditLog;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.util.LatencyHistogram;
+import com.ssa.util.MpscRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, group-committing writer for audit records.
+ *
+ * Black Box Implementation Detail: Callers enqueue into a lock-free ring
+ * buffer and return immediately. A single writer thread drains up to
+ * audit.async.batchSize records at a time and stores them with one
+ * saveAll() call, so many audit events share one transaction commit. When
+ * the buffer is full, BLOCK makes the caller wait for space and DROP
+ * discards the record and counts it. close() writes everything still queued.
+ * A record enqueued once close() has begun is either written before the
+ * writer stops or rejected as dropped: the writer does not exit while an
+ * enqueue() that saw the writer open is still in progress.
+ */
+public class AsyncAuditWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * What enqueue() does when the buffer is full.
+     */
+    public enum Backpressure {
+        BLOCK,
+        DROP
+    }
+
+    private final IAuditRepository repository;
+    private final MpscRingBuffer<AuditLog> buffer;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final Backpressure backpressure;
+    private final Thread writer;
+    private volatile boolean closed;
+    // enqueue() calls in progress; the writer keeps draining until they are done
+    private final AtomicInteger producers = new AtomicInteger();
+
+    // Records accepted / stored or given up on - flush() waits for the second to catch up
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+
+    public AsyncAuditWriter(IAuditRepository repository) {
+        this(repository,
+                AppConfig.getInt("audit.async.capacity", 8192),
+                AppConfig.getInt("audit.async.batchSize", 256),
+                AppConfig.getLong("audit.async.flushIntervalMs", 20),
+                Backpressure.valueOf(AppConfig.get("audit.async.backpressure", "BLOCK").toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * @param repository Where batches are stored
+     * @param capacity Ring buffer size (rounded up to a power of two)
+     * @param batchSize Maximum records per commit
+     * @param flushIntervalMs How long the writer sleeps when the buffer is empty
+     * @param backpressure Behaviour when the buffer is full
+     */
+    public AsyncAuditWriter(IAuditRepository repository, int capacity, int batchSize,
+                            long flushIntervalMs, Backpressure backpressure) {
+        this.repository = repository;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.backpressure = backpressure;
+        this.writer = new Thread(this::run, "ssn-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a record for writing.
+     * @return false if the record was dropped (DROP backpressure, or writer closed)
+     */
+    public boolean enqueue(AuditLog log) {
+        // Registered before closed is read, so a writer that has seen closed waits for this call
+        producers.incrementAndGet();
+        try {
+            if (closed) {
+                dropped.increment();
+                return false;
+            }
+            while (!buffer.offer(log)) {
+                if (backpressure == Backpressure.DROP || closed) {
+                    dropped.increment();
+                    return false;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+            }
+            accepted.incrementAndGet();
+            return true;
+        } finally {
+            producers.decrementAndGet();
+        }
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (!closed || producers.get() > 0 || buffer.size() > 0) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, idleParkNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long start = System.nanoTime();
+            try {
+                repository.saveAll(batch);
+                commitLatency.record(System.nanoTime() - start);
+                committed.add(batch.size());
+                batches.increment();
+                completed.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                // The failed transaction may have handed out IDs before rolling back
+                batch.forEach(log -> log.setLogId(null));
+                logger.warn("Audit batch of {} failed (attempt {}/{})", batch.size(), attempt, MAX_ATTEMPTS, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L * attempt));
+            }
+        }
+        logger.error("Giving up on {} audit records after {} attempts", batch.size(), MAX_ATTEMPTS);
+        failed.add(batch.size());
+        completed.addAndGet(batch.size());
+    }
+
+    /**
+     * Wait until every record accepted before this call has been written (or given up on).
+     * @return false if the timeout passed first
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (completed.get() < target) {
+            if (System.nanoTime() - deadline >= 0 || !writer.isAlive()) {
+                return completed.get() >= target;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting records, write everything still queued and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(AppConfig.getLong("audit.async.closeTimeoutSeconds", 30)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.error("Audit writer did not finish; {} records may be lost", buffer.size());
+        } else {
+            logger.info("Audit writer closed: {} committed, {} dropped, {} failed",
+                    committed.sum(), dropped.sum(), failed.sum());
+        }
+    }
+
+    public AuditWriterMetrics getMetrics() {
+        return new AuditWriterMetrics(buffer.size(), buffer.capacity(), committed.sum(), dropped.sum(),
+                failed.sum(), batches.sum(), commitLatency);
+    }
+}
@@ -0,0 +1,224 @@
+package com.ssa.service.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.AuditChainReport;
+import com.ssa.model.AuditLog;
+import com.ssa.model.AuditRollup;
+import com.ssa.model.Page;
+import com.ssa.model.enums.RollupResolution;
+import com.ssa.repository.IAuditRepository;
+import com.ssa.repository.IAuditRollupRepository;
+import com.ssa.repository.chain.AuditChainVerifier;
+import com.ssa.repository.chain.ChainedAuditRepository;
+import com.ssa.repository.impl.AuditChainRepositoryImpl;
+import com.ssa.repository.impl.AuditRepositoryImpl;
+import com.ssa.repository.impl.AuditRollupRepositoryImpl;
+import com.ssa.repository.rollup.RollupAuditRepository;
+import com.ssa.service.IAuditService;
+import com.ssa.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of IAuditService.
+ *
+ * Black Box Implementation Detail: logAccess() hands the record to an
+ * AsyncAuditWriter and returns without touching the database; the writer
+ * stores records in batches. Reads go straight to the repository, so a log
+ * written a moment ago may not be visible yet. Without a writer (or with
+ * audit.async.enabled=false) every call is a synchronous insert.
+ *
+ * With audit.rollup.enabled the repository is wrapped in a
+ * RollupAuditRepository, so each stored batch also updates the per-minute,
+ * per-hour and per-day counts that the activity queries read. With
+ * audit.chain.enabled (and storage in audit_logs) it is first wrapped in a
+ * ChainedAuditRepository, so stored logs are sealed into the hash chain that
+ * verifyAuditTrail() checks.
+ */
+public class AuditServiceImpl implements IAuditService {
+    private static final Logger logger = LoggerFactory.getLogger(AuditServiceImpl.class);
+
+    private final IAuditRepository auditRepository;
+    private final AsyncAuditWriter writer;
+    private final IAuditRollupRepository rollups;
+    private final AuditChainVerifier chainVerifier;
+    private final boolean enabled;
+
+    /**
+     * Build the rollups and writer from configuration and flush the writer when DatabaseManager closes.
+     */
+    public AuditServiceImpl(IAuditRepository auditRepository) {
+        this(Storage.configure(auditRepository));
+    }
+
+    private AuditServiceImpl(Storage storage) {
+        this(storage.repository, createWriter(storage.repository), storage.rollups, storage.chainVerifier);
+    }
+
+    /**
+     * @param auditRepository Audit log storage
+     * @param writer Asynchronous writer, or null to insert synchronously
+     */
+    public AuditServiceImpl(IAuditRepository auditRepository, AsyncAuditWriter writer) {
+        this(auditRepository, writer, null);
+    }
+
+    /**
+     * @param auditRepository Audit log storage; should already update rollups (see RollupAuditRepository)
+     * @param writer Asynchronous writer, or null to insert synchronously
+     * @param rollups Rollups for the activity queries, or null if not kept
+     */
+    public AuditServiceImpl(IAuditRepository auditRepository, AsyncAuditWriter writer,
+                            IAuditRollupRepository rollups) {
+        this(auditRepository, writer, rollups, null);
+    }
+
+    /**
+     * @param auditRepository Audit log storage; should already update rollups and seal the chain
+     * @param writer Asynchronous writer, or null to insert synchronously
+     * @param rollups Rollups for the activity queries, or null if not kept
+     * @param chainVerifier Hash chain verifier, or null if no chain is kept
+     */
+    public AuditServiceImpl(IAuditRepository auditRepository, AsyncAuditWriter writer,
+                            IAuditRollupRepository rollups, AuditChainVerifier chainVerifier) {
+        this.auditRepository = auditRepository;
+        this.writer = writer;
+        this.rollups = rollups;
+        this.chainVerifier = chainVerifier;
+        this.enabled = AppConfig.getBoolean("app.audit.enabled", true);
+    }
+
+    private static AsyncAuditWriter createWriter(IAuditRepository auditRepository) {
+        if (!AppConfig.getBoolean("app.audit.enabled", true)
+                || !AppConfig.getBoolean("audit.async.enabled", true)) {
+            return null;
+        }
+        AsyncAuditWriter writer = new AsyncAuditWriter(auditRepository);
+        DatabaseManager.getInstance().addCloseHook(writer);
+        return writer;
+    }
+
+    @Override
+    public void logAccess(String userName, String action, String details) {
+        logAccess(userName, action, details, null);
+    }
+
+    @Override
+    public void logAccess(String userName, String action, String details, String ipAddress) {
+        if (!enabled) return;
+        AuditLog log = new AuditLog(userName, action, details, ipAddress);
+        if (writer == null) {
+            auditRepository.save(log);
+        } else if (!writer.enqueue(log)) {
+            logger.debug("Audit record dropped: {} {}", userName, action);
+        }
+    }
+
+    @Override
+    public List<AuditLog> getAuditLogs(LocalDateTime from, LocalDateTime to) {
+        return auditRepository.findByDateRange(from, to);
+    }
+
+    @Override
+    public List<AuditLog> getLogsByUser(String userName) {
+        return auditRepository.findByUser(userName);
+    }
+
+    @Override
+    public List<AuditLog> getRecentLogs(int limit) {
+        return auditRepository.findRecent(limit);
+    }
+
+    @Override
+    public Page<AuditLog> getRecentLogs(int pageSize, String pageToken) {
+        return auditRepository.findRecent(pageSize, pageToken);
+    }
+
+    @Override
+    public List<AuditRollup> getActivityCounts(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                               String action, String userName) {
+        return requireRollups().findCounts(resolution, from, to, action, userName);
+    }
+
+    @Override
+    public List<AuditRollup> getActivityTotals(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                               String action) {
+        return requireRollups().findTotals(resolution, from, to, action);
+    }
+
+    @Override
+    public long countActivity(LocalDateTime from, LocalDateTime to, String action, String userName) {
+        return requireRollups().count(from, to, action, userName);
+    }
+
+    private IAuditRollupRepository requireRollups() {
+        if (rollups == null) {
+            throw new IllegalStateException("Audit rollups are not enabled; set audit.rollup.enabled=true");
+        }
+        return rollups;
+    }
+
+    @Override
+    public AuditChainReport verifyAuditTrail() {
+        return requireChain().verifyAll();
+    }
+
+    @Override
+    public AuditChainReport verifyAuditTrail(LocalDateTime from, LocalDateTime to) {
+        return requireChain().verifyRange(from, to);
+    }
+
+    private AuditChainVerifier requireChain() {
+        if (chainVerifier == null) {
+            throw new IllegalStateException("Audit hash chain is not enabled; set audit.chain.enabled=true");
+        }
+        return chainVerifier;
+    }
+
+    /**
+     * Writer metrics (queue depth, commit latency, dropped records), or null when writing synchronously.
+     */
+    public AuditWriterMetrics getWriterMetrics() {
+        return writer == null ? null : writer.getMetrics();
+    }
+
+    /**
+     * Audit repository as configured: sealed into the hash chain when
+     * audit.chain.enabled, then wrapped to update rollups when audit.rollup.enabled.
+     */
+    private static final class Storage {
+        final IAuditRepository repository;
+        final IAuditRollupRepository rollups;
+        final AuditChainVerifier chainVerifier;
+
+        private Storage(IAuditRepository repository, IAuditRollupRepository rollups,
+                        AuditChainVerifier chainVerifier) {
+            this.repository = repository;
+            this.rollups = rollups;
+            this.chainVerifier = chainVerifier;
+        }
+
+        static Storage configure(IAuditRepository auditRepository) {
+            IAuditRepository repository = auditRepository;
+            AuditChainVerifier chainVerifier = null;
+            // The chain covers the audit_logs table only
+            if (AppConfig.getBoolean("audit.chain.enabled", true) && auditRepository instanceof AuditRepositoryImpl) {
+                AuditChainRepositoryImpl chain = new AuditChainRepositoryImpl();
+                ChainedAuditRepository chained = new ChainedAuditRepository(auditRepository, chain);
+                // Registered before the writer, so it runs after the writer has flushed
+                DatabaseManager.getInstance().addCloseHook(chained);
+                repository = chained;
+                chainVerifier = new AuditChainVerifier(chain);
+            }
+            IAuditRollupRepository rollups = null;
+            if (AppConfig.getBoolean("audit.rollup.enabled", true)) {
+                rollups = new AuditRollupRepositoryImpl();
+                repository = new RollupAuditRepository(repository, rollups);
+            }
+            return new Storage(repository, rollups, chainVerifier);
+        }
+    }
+}
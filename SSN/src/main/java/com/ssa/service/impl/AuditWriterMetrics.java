@@ -0,0 +1,84 @@
+package com.ssa.service.impl;
+
+import com.ssa.util.LatencyHistogram;
+
+/**
+ * Point-in-time view of AsyncAuditWriter state.
+ *
+ * Counters are copied when the snapshot is taken; the commit latency
+ * histogram is a live view shared with the writer.
+ */
+public class AuditWriterMetrics {
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long committedRecords;
+    private final long droppedRecords;
+    private final long failedRecords;
+    private final long batches;
+    private final LatencyHistogram commitLatency;
+
+    public AuditWriterMetrics(int queueDepth, int queueCapacity, long committedRecords, long droppedRecords,
+                              long failedRecords, long batches, LatencyHistogram commitLatency) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.committedRecords = committedRecords;
+        this.droppedRecords = droppedRecords;
+        this.failedRecords = failedRecords;
+        this.batches = batches;
+        this.commitLatency = commitLatency;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCommittedRecords() {
+        return committedRecords;
+    }
+
+    /**
+     * Records rejected because the buffer was full (DROP) or the writer was closed.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    /**
+     * Records given up on after repeated write failures.
+     */
+    public long getFailedRecords() {
+        return failedRecords;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Average records per commit.
+     */
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0.0 : (double) committedRecords / batches;
+    }
+
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditWriterMetrics{" +
+                "queueDepth=" + queueDepth +
+                "/" + queueCapacity +
+                ", committed=" + committedRecords +
+                ", dropped=" + droppedRecords +
+                ", failed=" + failedRecords +
+                ", avgBatch=" + String.format("%.1f", getAverageBatchSize()) +
+                ", commitP99Micros=" + commitLatency.getPercentileMicros(99) +
+                '}';
+    }
+}
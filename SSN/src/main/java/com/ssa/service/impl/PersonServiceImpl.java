@@ -0,0 +1,210 @@
+package com.ssa.service.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.dedupe.PersonDeduplicator;
+import com.ssa.exception.RepositoryException;
+import com.ssa.exception.ValidationException;
+import com.ssa.model.DuplicateMatch;
+import com.ssa.model.DuplicateReport;
+import com.ssa.model.Page;
+import com.ssa.model.Person;
+import com.ssa.model.SSN;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.repository.index.IndexedPersonRepository;
+import com.ssa.search.PersonSearchHit;
+import com.ssa.search.PersonSearchIndex;
+import com.ssa.service.IPersonService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementation of IPersonService.
+ *
+ * Black Box Implementation Detail: Persons are validated with
+ * Person.isValid() before every write. searchPersons() is answered by an
+ * in-memory PersonSearchIndex built from the persons table when the service
+ * is created. The index is kept current by an IndexedPersonRepository, so a
+ * clerk sees a new person in the typeahead as soon as its row is committed.
+ * Hand the same IndexedPersonRepository to the other services that write
+ * persons and their inserts show up too; if the repository passed in does
+ * not maintain this index, the service wraps it for its own writes.
+ *
+ * When dedupe.inline.enabled, createPerson() first asks the
+ * PersonDeduplicator for existing records the new person probably
+ * duplicates and rejects it, naming them, if there are any. The check is
+ * advisory, not a constraint: two concurrent creates of the same person can
+ * both pass it, and findDuplicatePersons() is the batch sweep that catches
+ * those and anything saved before the check existed.
+ */
+public class PersonServiceImpl implements IPersonService {
+    private static final Logger logger = LoggerFactory.getLogger(PersonServiceImpl.class);
+
+    private final IPersonRepository personRepository;
+    private final PersonSearchIndex searchIndex;
+    private final PersonDeduplicator deduplicator;
+    private final boolean checkDuplicatesOnCreate;
+
+    /**
+     * Use the index of an IndexedPersonRepository, or build one from the
+     * persons table when search.persons.enabled.
+     */
+    public PersonServiceImpl(IPersonRepository personRepository) {
+        this(personRepository, createIndex(personRepository));
+    }
+
+    /**
+     * @param personRepository Person storage
+     * @param searchIndex Loaded typeahead index, or null to disable searchPersons()
+     */
+    public PersonServiceImpl(IPersonRepository personRepository, PersonSearchIndex searchIndex) {
+        this(personRepository, searchIndex, new PersonDeduplicator(personRepository),
+                AppConfig.getBoolean("dedupe.inline.enabled", true));
+    }
+
+    /**
+     * @param personRepository Person storage
+     * @param searchIndex Loaded typeahead index, or null to disable searchPersons()
+     * @param deduplicator Duplicate detector over the same storage
+     * @param checkDuplicatesOnCreate Reject probable duplicates in createPerson()
+     */
+    public PersonServiceImpl(IPersonRepository personRepository, PersonSearchIndex searchIndex,
+                             PersonDeduplicator deduplicator, boolean checkDuplicatesOnCreate) {
+        this.personRepository = searchIndex == null || maintains(personRepository, searchIndex)
+                ? personRepository
+                : new IndexedPersonRepository(personRepository, searchIndex);
+        this.searchIndex = searchIndex;
+        this.deduplicator = deduplicator;
+        this.checkDuplicatesOnCreate = checkDuplicatesOnCreate;
+    }
+
+    private static PersonSearchIndex createIndex(IPersonRepository personRepository) {
+        if (personRepository instanceof IndexedPersonRepository indexed) {
+            return indexed.getSearchIndex();
+        }
+        if (!AppConfig.getBoolean("search.persons.enabled", true)) {
+            return null;
+        }
+        PersonSearchIndex index = new PersonSearchIndex();
+        index.rebuild(personRepository);
+        return index;
+    }
+
+    private static boolean maintains(IPersonRepository personRepository, PersonSearchIndex searchIndex) {
+        return personRepository instanceof IndexedPersonRepository indexed
+                && indexed.getSearchIndex() == searchIndex;
+    }
+
+    @Override
+    public Person createPerson(Person person) throws ValidationException {
+        if (person == null) {
+            throw new ValidationException("Person is required");
+        }
+        if (person.getPersonId() != null) {
+            throw new ValidationException("New person must not have an ID");
+        }
+        validate(person);
+        if (checkDuplicatesOnCreate) {
+            rejectDuplicates(person);
+        }
+        Person saved = save(person);
+        logger.info("Created person {}", saved.getPersonId());
+        return saved;
+    }
+
+    @Override
+    public Person updatePerson(Person person) throws ValidationException {
+        if (person == null || person.getPersonId() == null) {
+            throw new ValidationException("Person ID is required");
+        }
+        if (!personRepository.exists(person.getPersonId())) {
+            throw new ValidationException("Person not found: " + person.getPersonId());
+        }
+        validate(person);
+        return save(person);
+    }
+
+    private static void validate(Person person) throws ValidationException {
+        if (!person.isValid()) {
+            throw new ValidationException("Person record is incomplete");
+        }
+        if (person.getDateOfBirth().isAfter(LocalDate.now())) {
+            throw new ValidationException("Date of birth is in the future");
+        }
+    }
+
+    private void rejectDuplicates(Person person) throws ValidationException {
+        List<DuplicateMatch> matches;
+        try {
+            matches = deduplicator.findDuplicates(person);
+        } catch (RepositoryException e) {
+            logger.error("Duplicate check failed for {}", person.getFullName(), e);
+            throw new ValidationException("Failed to check for duplicate persons", e);
+        }
+        if (!matches.isEmpty()) {
+            List<Long> ids = matches.stream().map(DuplicateMatch::getMatchedPersonId).toList();
+            logger.warn("Rejected probable duplicate of persons {}", ids);
+            throw new ValidationException("Probable duplicate of existing person(s) " + ids);
+        }
+    }
+
+    private Person save(Person person) throws ValidationException {
+        try {
+            return personRepository.save(person);
+        } catch (RepositoryException e) {
+            logger.error("Failed to save person {}", person.getPersonId(), e);
+            throw new ValidationException("Failed to save person", e);
+        }
+    }
+
+    @Override
+    public Person findById(Long personId) throws ValidationException {
+        return personRepository.findById(personId)
+                .orElseThrow(() -> new ValidationException("Person not found: " + personId));
+    }
+
+    @Override
+    public List<Person> findByName(String firstName, String lastName) {
+        return personRepository.findByName(firstName, lastName);
+    }
+
+    @Override
+    public Person findBySSN(String ssn) throws ValidationException {
+        if (!SSN.isValidFormat(ssn)) {
+            throw new ValidationException("Invalid SSN format");
+        }
+        return personRepository.findBySSN(ssn)
+                .orElseThrow(() -> new ValidationException("No person with SSN " + SSN.maskSSN(ssn)));
+    }
+
+    @Override
+    public boolean hasSSN(Long personId) {
+        return personRepository.hasSSN(personId);
+    }
+
+    @Override
+    public List<Person> getAllPersons() {
+        return personRepository.findAll();
+    }
+
+    @Override
+    public Page<Person> getAllPersons(int pageSize, String pageToken) {
+        return personRepository.findAll(pageSize, pageToken);
+    }
+
+    @Override
+    public List<PersonSearchHit> searchPersons(String lastNamePrefix, String firstNamePrefix, LocalDate dateOfBirth,
+                                               int limit) {
+        if (searchIndex == null) {
+            throw new IllegalStateException("Person search index is not enabled; set search.persons.enabled=true");
+        }
+        return searchIndex.search(lastNamePrefix, firstNamePrefix, dateOfBirth, limit);
+    }
+
+    @Override
+    public DuplicateReport findDuplicatePersons() {
+        return deduplicator.scanAll();
+    }
+}
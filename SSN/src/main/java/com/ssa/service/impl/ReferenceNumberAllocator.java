@@ -0,0 +1,91 @@
+package com.ssa.service.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.model.ReferenceCode;
+import com.ssa.model.ReferenceNumberGenerator;
+import com.ssa.repository.IReferenceSequenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collision-free application reference numbers from persistently reserved
+ * per-year sequence blocks.
+ *
+ * Black Box Implementation Detail: The allocator reserves
+ * reference.allocator.blockSize values of the year's sequence at a time and
+ * gives them to threads with a single atomic increment. Callers never wait
+ * on each other, and touch the database only once per block (or when the
+ * year changes). Each value is encoded by ReferenceCode. A block is
+ * committed before any of its values are used and is never handed out
+ * again, so references are unique across threads, processes and restarts.
+ * Values left in a block at shutdown are skipped, which only leaves gaps.
+ */
+public class ReferenceNumberAllocator implements ReferenceNumberGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceNumberAllocator.class);
+
+    private final IReferenceSequenceRepository sequences;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>();
+    private final Object refillLock = new Object();
+
+    public ReferenceNumberAllocator(IReferenceSequenceRepository sequences) {
+        this(sequences, AppConfig.getInt("reference.allocator.blockSize", 1000));
+    }
+
+    /**
+     * @param sequences Sequence reservation store
+     * @param blockSize Values reserved per database round trip
+     */
+    public ReferenceNumberAllocator(IReferenceSequenceRepository sequences, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.sequences = sequences;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @throws com.ssa.exception.RepositoryException if a block cannot be reserved
+     */
+    @Override
+    public String next(int year) {
+        while (true) {
+            Block block = current.get();
+            if (block != null && block.year == year) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    return ReferenceCode.format(year, value);
+                }
+            }
+            refill(block, year);
+        }
+    }
+
+    private void refill(Block stale, int year) {
+        synchronized (refillLock) {
+            if (current.get() != stale) {
+                // Another thread already refilled
+                return;
+            }
+            long first = sequences.reserve(year, blockSize, ReferenceCode.CAPACITY);
+            Block block = new Block(year, first, Math.min(first + blockSize, ReferenceCode.CAPACITY));
+            logger.debug("Reserved reference numbers {}..{} of {}", block.cursor.get(), block.end - 1, year);
+            current.set(block);
+        }
+    }
+
+    private static final class Block {
+        private final int year;
+        private final AtomicLong cursor;
+        private final long end;
+
+        Block(int year, long first, long end) {
+            this.year = year;
+            this.cursor = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ssa.service.impl;
+
+import com.ssa.config.AppConfig;
+import com.ssa.exception.SSNException;
+import com.ssa.model.SSNBlock;
+import com.ssa.repository.ISSNBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out SSN numbers from persistently reserved blocks.
+ *
+ * Black Box Implementation Detail: The allocator reserves a block of
+ * ssn.allocator.blockSize slots at a time and gives them to threads with a
+ * single atomic increment, so concurrent callers never wait on each other or
+ * on the database except once per block. Blocks are recorded before any of
+ * their numbers are used and held under a lease of ssn.allocator.leaseMs,
+ * which a background thread renews every third of that time. If the process
+ * dies the lease runs out, and the next allocator to start reclaims the
+ * block; a block under a live lease is never taken. If a renewal finds the
+ * current block gone (the process stalled past its lease), the block is
+ * dropped and a new one reserved. close() returns the unused tail of the
+ * current block.
+ *
+ * Numbers from a reclaimed block may already have been issued, and
+ * pre-existing SSNs are not known to the allocator, so callers must still
+ * check each number before saving it.
+ */
+public class SSNBlockAllocator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SSNBlockAllocator.class);
+
+    private final ISSNBlockRepository blocks;
+    private final String owner;
+    private final int blockSize;
+    private final long leaseMillis;
+    private final AtomicReference<ActiveBlock> current = new AtomicReference<>();
+    private final Object refillLock = new Object();
+    private final ScheduledExecutorService leaseRenewer;
+    private boolean closed;
+
+    public SSNBlockAllocator(ISSNBlockRepository blocks) {
+        this(blocks,
+                AppConfig.getInt("ssn.allocator.blockSize", 1000),
+                AppConfig.getLong("ssn.allocator.leaseMs", 60000));
+    }
+
+    /**
+     * @param blocks Block reservation store
+     * @param blockSize Slots reserved per database round trip
+     * @param leaseMillis Lease on held blocks; must comfortably exceed any
+     *                    pause of this process, or other allocators may reclaim its block
+     */
+    public SSNBlockAllocator(ISSNBlockRepository blocks, int blockSize, long leaseMillis) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        if (leaseMillis < 3) {
+            throw new IllegalArgumentException("leaseMillis must be at least 3");
+        }
+        this.blocks = blocks;
+        this.blockSize = blockSize;
+        this.leaseMillis = leaseMillis;
+        this.owner = "alloc-" + UUID.randomUUID();
+        blocks.reclaimOrphans(owner);
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ssn-allocator-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long renewEvery = leaseMillis / 3;
+        leaseRenewer.scheduleWithFixedDelay(this::renewLease, renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Next SSN number (XXX-XX-XXXX) that no other allocator will hand out.
+     * @throws SSNException if the allocator is closed or the number space is exhausted
+     */
+    public String next() throws SSNException {
+        while (true) {
+            ActiveBlock active = current.get();
+            if (active != null) {
+                int slot = active.cursor.getAndIncrement();
+                if (slot < active.block.getEndSlot()) {
+                    return active.block.format(slot);
+                }
+            }
+            refill(active);
+        }
+    }
+
+    private void refill(ActiveBlock exhausted) throws SSNException {
+        synchronized (refillLock) {
+            if (closed) {
+                throw new SSNException("SSN allocator is closed");
+            }
+            if (current.get() != exhausted) {
+                // Another thread already refilled
+                return;
+            }
+            if (exhausted != null) {
+                blocks.releaseBlock(owner, exhausted.block.getReservationId());
+            }
+            SSNBlock block = blocks.reserveBlock(owner, blockSize, leaseMillis)
+                    .orElseThrow(() -> new SSNException("SSN number space is exhausted"));
+            if (block.isReclaimed()) {
+                logger.info("Continuing reclaimed SSN block {}", block);
+            }
+            current.set(new ActiveBlock(block));
+        }
+    }
+
+    private void renewLease() {
+        ActiveBlock active = current.get();
+        if (active == null) {
+            return;
+        }
+        try {
+            if (blocks.renewLease(owner, leaseMillis) > 0) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Renewing the lease of SSN block {} failed; retrying", active.block, e);
+            return;
+        }
+        // The lease ran out and the block was reclaimed: stop drawing from it
+        synchronized (refillLock) {
+            if (current.compareAndSet(active, null)) {
+                active.cursor.set(active.block.getEndSlot());
+                logger.warn("Lease on SSN block {} expired and it was reclaimed; reserving a new block", active.block);
+            }
+        }
+    }
+
+    /**
+     * Return the unused part of the current block to the shared pool.
+     * Further next() calls fail.
+     */
+    @Override
+    public void close() {
+        synchronized (refillLock) {
+            if (closed) return;
+            closed = true;
+            leaseRenewer.shutdownNow();
+            ActiveBlock active = current.getAndSet(null);
+            if (active != null) {
+                int end = active.block.getEndSlot();
+                // Push the cursor past the end so no straggler can take a slot we give back
+                int from = Math.min(active.cursor.getAndSet(end), end);
+                blocks.returnUnused(owner, active.block.getReservationId(), from);
+            }
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static final class ActiveBlock {
+        private final SSNBlock block;
+        private final AtomicInteger cursor;
+
+        ActiveBlock(SSNBlock block) {
+            this.block = block;
+            this.cursor = new AtomicInteger(block.getStartSlot());
+        }
+    }
+}
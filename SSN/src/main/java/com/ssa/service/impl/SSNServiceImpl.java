@@ -0,0 +1,165 @@
+package com.ssa.service.impl;
+
+import com.ssa.exception.RepositoryException;
+import com.ssa.exception.SSNException;
+import com.ssa.model.Person;
+import com.ssa.model.SSN;
+import com.ssa.model.enums.NameMatch;
+import com.ssa.model.enums.SSNStatus;
+import com.ssa.repository.IPersonRepository;
+import com.ssa.repository.ISSNRepository;
+import com.ssa.service.ISSNService;
+import com.ssa.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of ISSNService.
+ *
+ * Black Box Implementation Detail: New numbers come from an SSNBlockAllocator,
+ * so concurrent generateSSN() calls never serialize on a "latest SSN" read.
+ * Each candidate is still checked with ssnExists() before it is saved; wire a
+ * BloomFilteredSSNRepository in front of the repository to make that check
+ * free for fresh numbers. The ssns insert and the persons.ssn update are one
+ * transaction, and persons.ssn is only set while it is still empty, so two
+ * concurrent calls for the same person issue one SSN: the loser writes
+ * nothing and fails with "already has an SSN".
+ */
+public class SSNServiceImpl implements ISSNService {
+    private static final Logger logger = LoggerFactory.getLogger(SSNServiceImpl.class);
+
+    // Consecutive already-issued candidates before giving up
+    private static final int MAX_COLLISIONS = 1000;
+
+    private final DatabaseManager databaseManager;
+    private final ISSNRepository ssnRepository;
+    private final IPersonRepository personRepository;
+    private final SSNBlockAllocator allocator;
+
+    public SSNServiceImpl(ISSNRepository ssnRepository, IPersonRepository personRepository,
+                          SSNBlockAllocator allocator) {
+        this(DatabaseManager.getInstance(), ssnRepository, personRepository, allocator);
+    }
+
+    /**
+     * @param databaseManager Runs each issuance as one transaction
+     */
+    public SSNServiceImpl(DatabaseManager databaseManager, ISSNRepository ssnRepository,
+                          IPersonRepository personRepository, SSNBlockAllocator allocator) {
+        this.databaseManager = databaseManager;
+        this.ssnRepository = ssnRepository;
+        this.personRepository = personRepository;
+        this.allocator = allocator;
+    }
+
+    @Override
+    public SSN generateSSN(Long personId) throws SSNException {
+        if (personId == null) {
+            throw new SSNException("Person ID is required");
+        }
+        try {
+            Person person = personRepository.findById(personId)
+                    .orElseThrow(() -> new SSNException("Person not found: " + personId));
+            if (!person.isEligibleForSSN()) {
+                throw new SSNException("Person " + personId + " is not eligible for an SSN");
+            }
+            if (person.getSsn() != null || ssnRepository.findByPersonId(personId).isPresent()) {
+                throw new SSNException("Person " + personId + " already has an SSN");
+            }
+            for (int attempt = 0; attempt < MAX_COLLISIONS; attempt++) {
+                String candidate = allocator.next();
+                if (ssnRepository.ssnExists(candidate)) {
+                    logger.debug("Skipping already issued SSN {}", SSN.maskSSN(candidate));
+                    continue;
+                }
+                SSN ssn = new SSN(candidate, personId);
+                AtomicBoolean taken = new AtomicBoolean();
+                databaseManager.inTransaction(() -> {
+                    if (personRepository.assignSSNsIfUnassigned(Map.of(personId, candidate)).isEmpty()) {
+                        ssnRepository.save(ssn);
+                    } else {
+                        taken.set(true);
+                    }
+                });
+                if (taken.get()) {
+                    throw new SSNException("Person " + personId + " already has an SSN");
+                }
+                logger.info("Issued SSN {} to person {}", SSN.maskSSN(candidate), personId);
+                return ssn;
+            }
+            throw new SSNException("No unused SSN found after " + MAX_COLLISIONS + " candidates");
+        } catch (RepositoryException e) {
+            logger.error("SSN generation failed for person {}", personId, e);
+            throw new SSNException("SSN generation failed", e);
+        }
+    }
+
+    @Override
+    public boolean validateSSN(String ssn) {
+        return SSN.isValidFormat(ssn) && ssnRepository.ssnExists(ssn);
+    }
+
+    @Override
+    public SSN lookupSSN(String ssn) throws SSNException {
+        if (!SSN.isValidFormat(ssn)) {
+            throw new SSNException("Invalid SSN format");
+        }
+        return ssnRepository.findBySSN(ssn)
+                .orElseThrow(() -> new SSNException("SSN not found: " + SSN.maskSSN(ssn)));
+    }
+
+    @Override
+    public List<SSN> searchByPerson(String firstName, String lastName, LocalDate dateOfBirth) {
+        return searchByPerson(firstName, lastName, dateOfBirth, NameMatch.EXACT);
+    }
+
+    @Override
+    public List<SSN> searchByPerson(String firstName, String lastName, LocalDate dateOfBirth, NameMatch match) {
+        List<SSN> results = new ArrayList<>();
+        for (Person person : personRepository.findByName(firstName, lastName, match)) {
+            if (dateOfBirth != null && !dateOfBirth.equals(person.getDateOfBirth())) {
+                continue;
+            }
+            ssnRepository.findByPersonId(person.getPersonId()).ifPresent(results::add);
+        }
+        return results;
+    }
+
+    @Override
+    public void suspendSSN(String ssn, String reason) throws SSNException {
+        SSN record = lookupSSN(ssn);
+        if (record.getStatus() != SSNStatus.ACTIVE) {
+            throw new SSNException("SSN " + SSN.maskSSN(ssn) + " is not active");
+        }
+        record.setStatus(SSNStatus.SUSPENDED);
+        ssnRepository.update(record);
+        logger.info("Suspended SSN {}: {}", SSN.maskSSN(ssn), reason);
+    }
+
+    @Override
+    public void reactivateSSN(String ssn) throws SSNException {
+        SSN record = lookupSSN(ssn);
+        if (record.getStatus() != SSNStatus.SUSPENDED) {
+            throw new SSNException("SSN " + SSN.maskSSN(ssn) + " is not suspended");
+        }
+        record.setStatus(SSNStatus.ACTIVE);
+        ssnRepository.update(record);
+        logger.info("Reactivated SSN {}", SSN.maskSSN(ssn));
+    }
+
+    @Override
+    public long getTotalSSNCount() {
+        return ssnRepository.count();
+    }
+
+    @Override
+    public long getCountByStatus(SSNStatus status) {
+        return ssnRepository.countByStatus(status);
+    }
+}
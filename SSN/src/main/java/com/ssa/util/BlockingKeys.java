@@ -0,0 +1,86 @@
+package com.ssa.util;
+
+import java.time.LocalDate;
+
+/**
+ * Blocking keys for duplicate-person detection: two records are only ever
+ * compared if they share at least one of these keys.
+ *
+ * Black Box Implementation Detail: Each key is a 64-bit FNV-1a hash of a
+ * short string built from NameKeys, so it fits one indexed BIGINT column:
+ * <ul>
+ *   <li>nameDob: normalized last name + date of birth</li>
+ *   <li>maidenDob: normalized mother's maiden name + date of birth (catches
+ *       a changed or misspelled last name)</li>
+ *   <li>phonetic: Soundex of last name + Soundex of mother's maiden name +
+ *       birth year (catches a misspelling together with a mistyped day or
+ *       month)</li>
+ * </ul>
+ * A hash collision only adds a candidate that the similarity score then
+ * rejects. The keys are stored in persons.block_*, so changing them means
+ * clearing and recomputing those columns.
+ */
+public final class BlockingKeys {
+    /** Number of keys per person. */
+    public static final int COUNT = 3;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long nameDob;
+    private final long maidenDob;
+    private final long phonetic;
+
+    private BlockingKeys(long nameDob, long maidenDob, long phonetic) {
+        this.nameDob = nameDob;
+        this.maidenDob = maidenDob;
+        this.phonetic = phonetic;
+    }
+
+    public static BlockingKeys of(String lastName, String mothersMaidenName, LocalDate dateOfBirth) {
+        String dob = dateOfBirth != null ? dateOfBirth.toString() : "";
+        String year = dateOfBirth != null ? Integer.toString(dateOfBirth.getYear()) : "";
+        return new BlockingKeys(
+                hash("N|" + nonNull(NameKeys.normalize(lastName)) + '|' + dob),
+                hash("M|" + nonNull(NameKeys.normalize(mothersMaidenName)) + '|' + dob),
+                hash("P|" + NameKeys.soundex(lastName) + NameKeys.soundex(mothersMaidenName) + '|' + year));
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            h = (h ^ (c & 0xff)) * FNV_PRIME;
+            h = (h ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    public long getNameDob() {
+        return nameDob;
+    }
+
+    public long getMaidenDob() {
+        return maidenDob;
+    }
+
+    public long getPhonetic() {
+        return phonetic;
+    }
+
+    /**
+     * Key by position: 0 = nameDob, 1 = maidenDob, 2 = phonetic.
+     */
+    public long get(int index) {
+        return switch (index) {
+            case 0 -> nameDob;
+            case 1 -> maidenDob;
+            case 2 -> phonetic;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.ssa.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit/miss counters for a TtlCache.
+ */
+public class CacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordNegativeHit() {
+        negativeHits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordLoad() {
+        loads.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordExpiration() {
+        expirations.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Lookups answered "not found" from a cached miss, without touching the database.
+     */
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * Share of lookups served from the cache, positive and negative.
+     */
+    public double getHitRatio() {
+        long served = hits.sum() + negativeHits.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0.0 : (double) served / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + getHits() +
+                ", negativeHits=" + getNegativeHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                ", expirations=" + getExpirations() +
+                ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+                '}';
+    }
+}
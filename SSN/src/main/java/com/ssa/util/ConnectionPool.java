@@ -0,0 +1,355 @@
+package com.ssa.util;
+
+import com.ssa.exception.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Black Box Implementation Detail: Callers borrow a Connection and close() it
+ * when done; close() hands the physical connection back to the pool instead of
+ * closing it. At most maxSize physical connections exist, minSize are kept
+ * open, and a borrow that cannot be satisfied within borrowTimeoutMs fails
+ * with a RepositoryException; connections discarded below minSize are
+ * reopened in the background every few seconds. Connections are validated
+ * before being handed out, and leases held longer than leakThresholdMs are logged with the stack
+ * trace of the borrower. Each physical connection keeps a StatementCache, so
+ * prepareStatement(sql) on a pooled connection reuses earlier statements.
+ * unwrap() never exposes the physical connection, whose close() would
+ * bypass the pool.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    // How often discarded connections are replaced to get back to minSize
+    private static final long REPLENISH_INTERVAL_MS = 5000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final int validationTimeoutSeconds;
+    private final long leakThresholdMs;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PhysicalConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram borrowLatency = new LatencyHistogram();
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize, long borrowTimeoutMs,
+                          int validationTimeoutSeconds, long leakThresholdMs, int statementCacheSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakThresholdMs = leakThresholdMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        for (int i = 0; i < minSize; i++) {
+            try {
+                idle.offerLast(openPhysical());
+            } catch (SQLException e) {
+                close();
+                throw new RepositoryException("Failed to open initial pool connections", e);
+            }
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ssn-db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        if (leakThresholdMs > 0) {
+            long period = Math.max(1000, leakThresholdMs / 2);
+            housekeeper.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        }
+        if (minSize > 0) {
+            housekeeper.scheduleWithFixedDelay(this::replenish,
+                    REPLENISH_INTERVAL_MS, REPLENISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Connection pool started (min={}, max={}, borrowTimeout={}ms)", minSize, maxSize, borrowTimeoutMs);
+    }
+
+    /**
+     * Borrow a connection. The caller must close() it to return it to the pool.
+     * @return Pooled connection
+     * @throws RepositoryException if the pool is closed, exhausted past the timeout, or the database is unreachable
+     */
+    public Connection borrow() {
+        if (closed) {
+            throw new RepositoryException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        waitingThreads.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+        waitTime.record(System.nanoTime() - start);
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new RepositoryException("Timed out after " + borrowTimeoutMs
+                    + "ms waiting for a database connection (active=" + leases.size() + ", max=" + maxSize + ")");
+        }
+
+        PhysicalConnection physical;
+        try {
+            physical = takeValidConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw new RepositoryException("Failed to obtain database connection", e);
+        }
+
+        Lease lease = new Lease(physical, leakThresholdMs > 0 ? new Exception("Connection borrowed here") : null);
+        leases.add(lease);
+        borrowCount.increment();
+        borrowLatency.record(System.nanoTime() - start);
+        return lease.proxy;
+    }
+
+    private PhysicalConnection takeValidConnection() throws SQLException {
+        PhysicalConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isUsable(candidate.connection)) {
+                return candidate;
+            }
+            validationFailures.increment();
+            discard(candidate);
+        }
+        return openPhysical();
+    }
+
+    private boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PhysicalConnection openPhysical() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PhysicalConnection(connection,
+                new StatementCache(connection, statementCacheSize, statementCacheStats));
+    }
+
+    private void discard(PhysicalConnection physical) {
+        totalConnections.decrementAndGet();
+        physical.statements.close();
+        try {
+            physical.connection.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing discarded connection", e);
+        }
+    }
+
+    private void release(Lease lease) {
+        leases.remove(lease);
+        PhysicalConnection physical = lease.physical;
+        Connection connection = physical.connection;
+        try {
+            if (closed || connection.isClosed()) {
+                discard(physical);
+                return;
+            }
+            // Never hand the next borrower someone else's open transaction
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+            connection.clearWarnings();
+            idle.offerFirst(physical);
+        } catch (SQLException e) {
+            logger.warn("Discarding connection that could not be reset", e);
+            discard(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (Lease lease : leases) {
+            long heldMs = TimeUnit.NANOSECONDS.toMillis(now - lease.borrowedAt);
+            if (heldMs >= leakThresholdMs && lease.reportedLeak.compareAndSet(false, true)) {
+                leakCount.increment();
+                logger.warn("Possible connection leak: connection held for {}ms by thread '{}'",
+                        heldMs, lease.threadName, lease.borrowSite);
+            }
+        }
+    }
+
+    /**
+     * Top up to the minimum size in case connections were discarded.
+     */
+    private void replenish() {
+        while (!closed && totalConnections.get() < minSize) {
+            try {
+                PhysicalConnection physical = openPhysical();
+                idle.offerLast(physical);
+                // close() may have drained idle while this one was opening
+                if (closed && idle.remove(physical)) {
+                    discard(physical);
+                }
+            } catch (SQLException e) {
+                logger.warn("Failed to replenish connection pool", e);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Snapshot of pool counters and latency histograms.
+     */
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(leases.size(), idle.size(), totalConnections.get(), maxSize,
+                waitingThreads.get(), borrowCount.sum(), timeoutCount.sum(), leakCount.sum(),
+                validationFailures.sum(), waitTime, borrowLatency, statementCacheStats);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PhysicalConnection physical;
+        while ((physical = idle.pollFirst()) != null) {
+            discard(physical);
+        }
+        if (!leases.isEmpty()) {
+            logger.warn("Connection pool closed with {} connection(s) still borrowed", leases.size());
+        }
+        logger.info("Connection pool closed");
+    }
+
+    /**
+     * A driver connection plus the statements cached on it.
+     */
+    private static final class PhysicalConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+
+        PhysicalConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * One borrow of a physical connection. The proxy turns close() into
+     * release() and routes prepareStatement through the statement cache.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private final Exception borrowSite;
+        private final String threadName = Thread.currentThread().getName();
+        private final long borrowedAt = System.nanoTime();
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private final AtomicBoolean reportedLeak = new AtomicBoolean();
+        private final Connection proxy;
+
+        Lease(PhysicalConnection physical, Exception borrowSite) {
+            this.physical = physical;
+            this.borrowSite = borrowSite;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.connection + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    throw new SQLException("Pooled connection does not wrap " + ((Class<?>) args[0]).getName());
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (method.getName().equals("prepareStatement") && isCacheable(method)) {
+                        String[] columnNames = args.length == 2 ? (String[]) args[1] : null;
+                        return physical.statements.prepare(this.proxy, (String) args[0], columnNames);
+                    }
+                    try {
+                        return method.invoke(physical.connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        // prepareStatement(String) and prepareStatement(String, String[]) only;
+        // cursor-type and holdability variants carry per-call settings
+        private boolean isCacheable(Method method) {
+            Class<?>[] params = method.getParameterTypes();
+            return params.length == 1
+                    || (params.length == 2 && params[1] == String[].class);
+        }
+    }
+}
@@ -1,19 +1,48 @@
 package com.ssa.util;
 
+import com.ssa.config.AppConfig;
 import com.ssa.exception.RepositoryException;
+import com.ssa.model.enums.ApplicationStatus;
+import com.ssa.model.enums.SSNStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Database connection manager for H2 embedded database.
  * 
  * Black Box Implementation Detail: Manages database lifecycle.
  * Other modules only see Connection objects, not how they're created.
+ * Connections come from a bounded pool; callers must close() what they
+ * borrow (try-with-resources) so it goes back to the pool.
+ *
+ * inTransaction() binds one pooled connection to the calling thread:
+ * every getConnection() on that thread until it returns hands out the
+ * same connection (with close() made a no-op), so several repository calls
+ * commit or roll back together.
+ *
+ * status_counts holds per-status row counts of applications and ssns,
+ * maintained by StatusCountTrigger inside each writing transaction.
+ * reconcileStatusCounts() recounts them from the tables, at first start and
+ * every db.statusCounts.reconcileIntervalMs after that.
  */
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
@@ -23,7 +52,21 @@ public class DatabaseManager {
     private static final String DB_PASSWORD = "";
     
     private static DatabaseManager instance;
-    private Connection connection;
+    // Tables with a status column counted in status_counts, and their statuses
+    private static final Map<String, Enum<?>[]> COUNTED_TABLES = new LinkedHashMap<>();
+
+    static {
+        COUNTED_TABLES.put("applications", ApplicationStatus.values());
+        COUNTED_TABLES.put("ssns", SSNStatus.values());
+    }
+
+    private ConnectionPool pool;
+    private ScheduledExecutorService reconciler;
+    private final Deque<AutoCloseable> closeHooks = new ArrayDeque<>();
+    private final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    // Actions waiting for the bound transaction to commit, or to end either way
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
+    private final ThreadLocal<List<Runnable>> afterCompletion = new ThreadLocal<>();
 
     private DatabaseManager() {
         // Private constructor for singleton
@@ -41,33 +84,207 @@ public class DatabaseManager {
         try {
             // Load H2 driver
             Class.forName("org.h2.Driver");
-            // Create connection
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established");
+            // Create connection pool
+            pool = new ConnectionPool(
+                    AppConfig.get("db.url", DB_URL),
+                    AppConfig.get("db.user", DB_USER),
+                    AppConfig.get("db.password", DB_PASSWORD),
+                    AppConfig.getInt("db.pool.minSize", 2),
+                    AppConfig.getInt("db.pool.maxSize", 10),
+                    AppConfig.getLong("db.pool.borrowTimeoutMs", 5000),
+                    AppConfig.getInt("db.pool.validationTimeoutSeconds", 2),
+                    AppConfig.getLong("db.pool.leakThresholdMs", 30000),
+                    AppConfig.getInt("db.pool.statementCacheSize", 64));
+            logger.info("Database connection pool established");
             // Initialize schema
-            initializeSchema();
-        } catch (ClassNotFoundException | SQLException e) {
+            if (initializeSchema()) {
+                // Outside initializeSchema: the recount borrows a connection of its own
+                reconcileStatusCounts();
+            }
+            long reconcileIntervalMs = AppConfig.getLong("db.statusCounts.reconcileIntervalMs", 3_600_000L);
+            if (reconcileIntervalMs > 0) {
+                reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "ssn-status-count-reconciler");
+                    t.setDaemon(true);
+                    return t;
+                });
+                reconciler.scheduleWithFixedDelay(() -> {
+                    try {
+                        reconcileStatusCounts();
+                    } catch (RuntimeException e) {
+                        logger.warn("Status count reconciliation failed; retrying next interval", e);
+                    }
+                }, reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (ClassNotFoundException e) {
             logger.error("Failed to initialize database", e);
             throw new RepositoryException("Database initialization failed", e);
         }
     }
 
+    /**
+     * Borrow a pooled connection. Close it to return it to the pool.
+     * @return Connection owned by the caller until closed
+     * @throws RepositoryException if no connection becomes available in time
+     */
     public Connection getConnection() {
+        Connection bound = boundConnection.get();
+        if (bound != null) {
+            return bound;
+        }
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            return pool.borrow();
+        } catch (RepositoryException e) {
+            logger.error("Failed to get database connection", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Borrow a pooled connection even if this thread has a transaction bound,
+     * for work that must commit on its own whatever the caller's transaction
+     * does (e.g. reserving sequence numbers). Close it to return it to the pool.
+     */
+    public Connection getIndependentConnection() {
+        try {
+            return pool.borrow();
+        } catch (RepositoryException e) {
+            logger.error("Failed to get database connection", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Run work in one transaction shared by every repository call it makes on
+     * this thread. Commits when work returns, rolls back if it or the commit
+     * throws. A call made while a transaction is already bound joins that
+     * transaction.
+     *
+     * Repositories take part through AbstractJdbcRepository.inTransaction(),
+     * which does not commit a connection that is already in a transaction;
+     * code that calls commit() itself must not run inside work.
+     * @throws RepositoryException if the commit fails (work's own exceptions pass through)
+     */
+    public void inTransaction(Runnable work) {
+        if (boundConnection.get() != null) {
+            work.run();
+            return;
+        }
+        List<Runnable> committed = new ArrayList<>();
+        List<Runnable> completed = new ArrayList<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            boundConnection.set(unclosable(conn));
+            afterCommit.set(committed);
+            afterCompletion.set(completed);
+            try {
+                work.run();
+                conn.commit();
+            } catch (SQLException | RuntimeException | Error e) {
+                // Also after a failed commit, so the connection goes back to the pool without an open transaction
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                boundConnection.remove();
+                afterCommit.remove();
+                afterCompletion.remove();
+                conn.setAutoCommit(true);
             }
-            return connection;
         } catch (SQLException e) {
-            logger.error("Failed to get database connection", e);
-            throw new RepositoryException("Failed to get database connection", e);
+            throw new RepositoryException("Transaction failed", e);
+        } finally {
+            runAll(completed, "After-completion");
+        }
+        runAll(committed, "After-commit");
+    }
+
+    private static void runAll(List<Runnable> actions, String kind) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.warn("{} action failed", kind, e);
+            }
+        }
+    }
+
+    /**
+     * Whether this thread is inside inTransaction().
+     */
+    public boolean isInTransaction() {
+        return boundConnection.get() != null;
+    }
+
+    /**
+     * Run action once the transaction bound to this thread (inTransaction)
+     * has committed, or right away if none is bound. If the transaction
+     * rolls back the action is dropped. For keeping in-memory state such as
+     * caches and indexes in step with what was actually committed.
+     */
+    public void afterCommit(Runnable action) {
+        List<Runnable> pending = afterCommit.get();
+        if (pending == null) {
+            action.run();
+        } else {
+            pending.add(action);
         }
     }
 
-    private void initializeSchema() {
+    /**
+     * Run action once the transaction bound to this thread has ended,
+     * committed or rolled back, or right away if none is bound. For dropping
+     * in-memory state that may have been read from the transaction's
+     * uncommitted rows, or reloaded by another thread before they committed.
+     */
+    public void afterCompletion(Runnable action) {
+        List<Runnable> pending = afterCompletion.get();
+        if (pending == null) {
+            action.run();
+        } else {
+            pending.add(action);
+        }
+    }
+
+    private static Connection unclosable(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(conn, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Current pool metrics (active/idle counts, wait time, borrow latency,
+     * prepared statement cache hit rate).
+     */
+    public PoolMetrics getPoolMetrics() {
+        return pool.getMetrics();
+    }
+
+    /**
+     * @return Whether status_counts was just created and still needs its first recount
+     */
+    private boolean initializeSchema() {
         logger.info("Initializing database schema");
         
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection connection = getConnection();
+             Statement stmt = connection.createStatement()) {
             // Create persons table
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS persons (
@@ -85,6 +302,16 @@ public class DatabaseManager {
                 )
             """);
 
+            // Name search keys maintained on save (see NameKeys); databases created before them are backfilled
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS first_name_norm VARCHAR(100)");
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS last_name_norm VARCHAR(100)");
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS first_name_sdx VARCHAR(4)");
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS last_name_sdx VARCHAR(4)");
+            // Duplicate-detection blocking keys maintained on save (see BlockingKeys)
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS block_name_dob BIGINT");
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS block_maiden_dob BIGINT");
+            stmt.execute("ALTER TABLE persons ADD COLUMN IF NOT EXISTS block_phonetic BIGINT");
+
             // Create SSNs table
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS ssns (
@@ -124,30 +351,334 @@ public class DatabaseManager {
                 )
             """);
 
+            // Log IDs shared by the monthly audit_logs_pYYYYMM partitions; moved past
+            // audit_logs IDs by PartitionedAuditRepositoryImpl on start
+            stmt.execute("CREATE SEQUENCE IF NOT EXISTS audit_log_seq");
+
+            // Audit event counts per time bucket; '' stands for a missing action or user
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS audit_rollups (
+                    resolution VARCHAR(10) NOT NULL,
+                    bucket_start TIMESTAMP NOT NULL,
+                    action VARCHAR(100) NOT NULL,
+                    user_name VARCHAR(100) NOT NULL,
+                    event_count BIGINT NOT NULL,
+                    PRIMARY KEY (resolution, bucket_start, action, user_name)
+                )
+            """);
+
+            // Audit hash chain: one sealed header per segment of consecutive audit_logs IDs
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS audit_chain_segments (
+                    segment_no BIGINT PRIMARY KEY,
+                    first_log_id BIGINT NOT NULL,
+                    last_log_id BIGINT NOT NULL,
+                    log_count INT NOT NULL,
+                    first_timestamp TIMESTAMP NOT NULL,
+                    last_timestamp TIMESTAMP NOT NULL,
+                    merkle_root VARCHAR(64) NOT NULL,
+                    prev_hash VARCHAR(64) NOT NULL,
+                    chain_hash VARCHAR(64) NOT NULL,
+                    sealed_at TIMESTAMP NOT NULL
+                )
+            """);
+
+            // Bulk intake progress: last committed CSV record per job, written with the rows
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS intake_checkpoints (
+                    job_id VARCHAR(1000) PRIMARY KEY,
+                    source_size BIGINT NOT NULL,
+                    last_record BIGINT NOT NULL,
+                    persons_created BIGINT NOT NULL,
+                    applications_created BIGINT NOT NULL,
+                    rejected BIGINT NOT NULL,
+                    rejects_bytes BIGINT NOT NULL,
+                    completed BOOLEAN NOT NULL,
+                    updated_at TIMESTAMP NOT NULL
+                )
+            """);
+
+            // SSN block allocation: next fresh slot per area, and blocks handed out
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS ssn_area_sequences (
+                    area INT PRIMARY KEY,
+                    next_slot INT NOT NULL
+                )
+            """);
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS ssn_block_reservations (
+                    reservation_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    area INT NOT NULL,
+                    start_slot INT NOT NULL,
+                    end_slot INT NOT NULL,
+                    owner VARCHAR(64),
+                    reserved_at TIMESTAMP NOT NULL,
+                    lease_until TIMESTAMP,
+                    reclaimed BOOLEAN NOT NULL DEFAULT FALSE
+                )
+            """);
+            // Owner's lease, renewed while it draws from the block; databases created before it are migrated
+            stmt.execute("ALTER TABLE ssn_block_reservations ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP");
+
+            // Application reference numbers: next unreserved sequence value per year
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS reference_sequences (
+                    ref_year INT PRIMARY KEY,
+                    next_value BIGINT NOT NULL
+                )
+            """);
+
             // Create indexes
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_name ON persons(last_name, first_name)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_name_norm ON persons(last_name_norm, first_name_norm)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_name_sdx ON persons(last_name_sdx, first_name_sdx)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_dob ON persons(date_of_birth)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_block_name ON persons(block_name_dob)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_block_maiden ON persons(block_maiden_dob)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_block_phonetic ON persons(block_phonetic)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_person_ssn ON persons(ssn)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_ssn_person ON ssns(person_id)");
+            try {
+                // One SSN per person, whatever path issued it
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_ssn_person_unique ON ssns(person_id)");
+                stmt.execute("DROP INDEX IF EXISTS idx_ssn_person");
+            } catch (SQLException e) {
+                logger.error("Some persons already hold more than one SSN; one SSN per person is not enforced"
+                        + " until they are resolved", e);
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_ssn_person ON ssns(person_id)");
+            }
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_app_status ON applications(status)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_app_refnum ON applications(reference_number)");
+            // Keyset pagination of a status queue by (application_date, application_id)
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_app_status_date ON applications(status, application_date)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_audit_date ON audit_logs(timestamp)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rollup_action ON audit_rollups(resolution, action, bucket_start)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rollup_user ON audit_rollups(resolution, user_name, bucket_start)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_ssn_block_owner ON ssn_block_reservations(owner)");
+
+            // Materialized row counts per status, see StatusCountTrigger
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS status_counts (
+                    table_name VARCHAR(64) NOT NULL,
+                    status VARCHAR(20) NOT NULL,
+                    slot INT NOT NULL,
+                    row_count BIGINT NOT NULL,
+                    PRIMARY KEY (table_name, status, slot)
+                )
+            """);
+            boolean firstCount = seedStatusCounts(connection);
+            for (String table : COUNTED_TABLES.keySet()) {
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_status_count"
+                        + " AFTER INSERT, UPDATE, DELETE ON " + table
+                        + " FOR EACH ROW CALL '" + StatusCountTrigger.class.getName() + "'");
+            }
+
+            backfillNameKeys(connection);
+            backfillBlockingKeys(connection);
 
             logger.info("Database schema initialized successfully");
+            return firstCount;
         } catch (SQLException e) {
             logger.error("Failed to initialize schema", e);
             throw new RepositoryException("Schema initialization failed", e);
         }
     }
 
+    /**
+     * Fill the name search keys of persons saved before those columns existed, a page at a time.
+     */
+    private void backfillNameKeys(Connection connection) throws SQLException {
+        int filled = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT person_id, first_name, last_name FROM persons WHERE last_name_norm IS NULL LIMIT 1000");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE persons SET first_name_norm = ?, last_name_norm = ?, first_name_sdx = ?, last_name_sdx = ?"
+                             + " WHERE person_id = ?")) {
+            while (true) {
+                int page = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        String firstName = rs.getString(2);
+                        String lastName = rs.getString(3);
+                        update.setString(1, NameKeys.normalize(firstName));
+                        update.setString(2, NameKeys.normalize(lastName));
+                        update.setString(3, NameKeys.soundex(firstName));
+                        update.setString(4, NameKeys.soundex(lastName));
+                        update.setLong(5, rs.getLong(1));
+                        update.addBatch();
+                        page++;
+                    }
+                }
+                if (page == 0) break;
+                update.executeBatch();
+                filled += page;
+            }
+        }
+        if (filled > 0) {
+            logger.info("Backfilled name search keys for {} persons", filled);
+        }
+    }
+
+    private void backfillBlockingKeys(Connection connection) throws SQLException {
+        int filled = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT person_id, last_name, mothers_maiden_name, date_of_birth FROM persons"
+                             + " WHERE block_name_dob IS NULL LIMIT 1000");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE persons SET block_name_dob = ?, block_maiden_dob = ?, block_phonetic = ?"
+                             + " WHERE person_id = ?")) {
+            while (true) {
+                int page = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        BlockingKeys keys = BlockingKeys.of(rs.getString(2), rs.getString(3),
+                                rs.getObject(4, LocalDate.class));
+                        update.setLong(1, keys.getNameDob());
+                        update.setLong(2, keys.getMaidenDob());
+                        update.setLong(3, keys.getPhonetic());
+                        update.setLong(4, rs.getLong(1));
+                        update.addBatch();
+                        page++;
+                    }
+                }
+                if (page == 0) break;
+                update.executeBatch();
+                filled += page;
+            }
+        }
+        if (filled > 0) {
+            logger.info("Backfilled duplicate-detection keys for {} persons", filled);
+        }
+    }
+
+    /**
+     * Create any missing counter rows. Rows written before the triggers
+     * existed were never counted, so a fresh status_counts needs a full recount.
+     * @return true if status_counts was empty
+     */
+    private boolean seedStatusCounts(Connection connection) throws SQLException {
+        boolean empty;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM status_counts")) {
+            rs.next();
+            empty = rs.getLong(1) == 0;
+        }
+        try (PreparedStatement seed = connection.prepareStatement(
+                "INSERT INTO status_counts (table_name, status, slot, row_count) SELECT ?, ?, ?, 0"
+                        + " WHERE NOT EXISTS (SELECT 1 FROM status_counts"
+                        + " WHERE table_name = ? AND status = ? AND slot = ?)")) {
+            for (Map.Entry<String, Enum<?>[]> table : COUNTED_TABLES.entrySet()) {
+                for (Enum<?> status : table.getValue()) {
+                    for (int slot = 0; slot <= StatusCountTrigger.SLOTS; slot++) {
+                        seed.setString(1, table.getKey());
+                        seed.setString(2, status.name());
+                        seed.setInt(3, slot);
+                        seed.setString(4, table.getKey());
+                        seed.setString(5, status.name());
+                        seed.setInt(6, slot);
+                        seed.addBatch();
+                    }
+                }
+            }
+            seed.executeBatch();
+        }
+        return empty;
+    }
+
+    /**
+     * Recount status_counts from the counted tables and log any drift found.
+     *
+     * Runs in one transaction. It first locks the table's counter rows in
+     * key order, so a writer that has not committed is either waited for and
+     * counted, or blocked until the recount commits and then applies its own
+     * delta. Writers wait for the GROUP BY scan.
+     */
+    public void reconcileStatusCounts() {
+        long start = System.nanoTime();
+        inTransaction(() -> {
+            Connection conn = getConnection();
+            try {
+                for (String table : COUNTED_TABLES.keySet()) {
+                    reconcileStatusCounts(conn, table);
+                }
+            } catch (SQLException e) {
+                throw new RepositoryException("Failed to reconcile status counts", e);
+            }
+        });
+        logger.info("Status counts reconciled in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void reconcileStatusCounts(Connection conn, String table) throws SQLException {
+        Map<String, Long> counted = new TreeMap<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT status, row_count FROM status_counts"
+                + " WHERE table_name = ? ORDER BY status, slot FOR UPDATE")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counted.merge(rs.getString(1), rs.getLong(2), Long::sum);
+                }
+            }
+        }
+        Map<String, Long> actual = new TreeMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT status, COUNT(*) FROM " + table + " GROUP BY status")) {
+            while (rs.next()) {
+                actual.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        try (PreparedStatement clear = conn.prepareStatement(
+                     "UPDATE status_counts SET row_count = 0 WHERE table_name = ? AND slot > 0");
+             PreparedStatement set = conn.prepareStatement("MERGE INTO status_counts (table_name, status, slot, row_count)"
+                     + " KEY (table_name, status, slot) VALUES (?, ?, 0, ?)")) {
+            clear.setString(1, table);
+            clear.executeUpdate();
+            Map<String, Long> statuses = new TreeMap<>(counted);
+            statuses.putAll(actual);
+            for (String status : statuses.keySet()) {
+                long count = actual.getOrDefault(status, 0L);
+                long drift = count - counted.getOrDefault(status, 0L);
+                if (drift != 0) {
+                    logger.warn("Status count of {} {} was off by {}; now {}", table, status, drift, count);
+                }
+                set.setString(1, table);
+                set.setString(2, status);
+                set.setLong(3, count);
+                set.addBatch();
+            }
+            set.executeBatch();
+        }
+    }
+
+    /**
+     * Register something that must be closed while the pool is still open,
+     * e.g. a writer that still has queued rows. Hooks run in reverse order
+     * of registration when close() is called.
+     */
+    public void addCloseHook(AutoCloseable hook) {
+        synchronized (closeHooks) {
+            closeHooks.push(hook);
+        }
+    }
+
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.info("Database connection closed");
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+        while (true) {
+            AutoCloseable hook;
+            synchronized (closeHooks) {
+                hook = closeHooks.poll();
             }
-        } catch (SQLException e) {
-            logger.error("Error closing database connection", e);
+            if (hook == null) break;
+            try {
+                hook.close();
+            } catch (Exception e) {
+                logger.error("Close hook {} failed", hook, e);
+            }
+        }
+        if (pool != null) {
+            pool.close();
+            logger.info("Database connection pool closed");
         }
     }
 }
@@ -0,0 +1,20 @@
+package com.ssa.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances for repeated name strings, so a million "Smith"s
+ * share one String.
+ */
+public final class Interner {
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ssa.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets.
+ *
+ * Black Box Implementation Detail: Bucket i counts samples in
+ * [2^(i-1), 2^i) microseconds; bucket 0 holds sub-microsecond samples.
+ * Recording is a single atomic increment, so it is safe on hot paths.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile long maxNanos;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos) {
+            synchronized (this) {
+                if (nanos > maxNanos) maxNanos = nanos;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / 1000.0 / n;
+    }
+
+    /**
+     * Approximate percentile, reported as the upper bound of the bucket that contains it.
+     * @param percentile Value between 0 and 100
+     * @return Upper bound in microseconds
+     */
+    public long getPercentileMicros(double percentile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(n * (percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return i == 0 ? 1 : 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    /**
+     * Copy of the raw bucket counts (index i = samples below 2^i microseconds).
+     */
+    public long[] getBuckets() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", meanMicros=" + String.format("%.1f", getMeanMicros()) +
+                ", p50=" + getPercentileMicros(50) +
+                ", p99=" + getPercentileMicros(99) +
+                ", maxMicros=" + TimeUnit.NANOSECONDS.toMicros(maxNanos) +
+                '}';
+    }
+}
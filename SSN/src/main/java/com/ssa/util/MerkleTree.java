@@ -0,0 +1,59 @@
+package com.ssa.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * SHA-256 Merkle root over a list of leaf hashes.
+ *
+ * Black Box Implementation Detail: Leaves are hashed by the caller. Inner
+ * nodes are SHA-256(0x01 || left || right); callers prefix leaf input with
+ * 0x00 so a leaf can never be passed off as an inner node. An odd node at
+ * the end of a level is promoted unchanged rather than paired with itself,
+ * so two different leaf lists never share a root. The root of an empty list
+ * is 32 zero bytes.
+ */
+public final class MerkleTree {
+    public static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+    private static final int HASH_BYTES = 32;
+
+    private MerkleTree() {
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param leaves Leaf hashes in order; not modified
+     * @param digest SHA-256 digest to reuse (not thread-safe)
+     */
+    public static byte[] root(List<byte[]> leaves, MessageDigest digest) {
+        if (leaves.isEmpty()) {
+            return new byte[HASH_BYTES];
+        }
+        byte[][] level = leaves.toArray(new byte[0][]);
+        int size = level.length;
+        while (size > 1) {
+            int next = 0;
+            for (int i = 0; i < size; i += 2) {
+                if (i + 1 == size) {
+                    level[next++] = level[i];
+                } else {
+                    digest.update(NODE_PREFIX);
+                    digest.update(level[i]);
+                    digest.update(level[i + 1]);
+                    level[next++] = digest.digest();
+                }
+            }
+            size = next;
+        }
+        return level[0];
+    }
+}
@@ -0,0 +1,121 @@
+package com.ssa.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Search keys derived from person names.
+ *
+ * Black Box Implementation Detail: normalize() case-folds, strips accents
+ * (NFKD, then drop combining marks, plus a few letters that do not
+ * decompose such as o-slash and sharp s), removes apostrophes and periods,
+ * turns other punctuation into spaces and collapses whitespace, so
+ * "JOSE  O'Neil-Smith" (with or without the accent) and "jose oneil smith"
+ * share a key. soundex() is American Soundex (the
+ * census name code, e.g. Robert and Rupert are both R163) over the letters
+ * of the normalized name.
+ *
+ * The keys are stored next to the names (persons.*_norm / *_sdx), so
+ * changing either algorithm means clearing and recomputing those columns.
+ */
+public final class NameKeys {
+    // Soundex digit for 'a'..'z'; '0' = vowel-like (separates), '-' = h/w (does not separate)
+    private static final String SOUNDEX_CODES = "0123012-02245501262301-202";
+
+    private NameKeys() {
+    }
+
+    /**
+     * Case-folded, accent-free form of name; null for null.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        // NFKD leaves ASCII unchanged; most names never pay for it
+        String decomposed = isAscii(folded) ? folded : Normalizer.normalize(folded, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '\'' || c == '\u2019' || c == '.') {
+                continue;
+            }
+            String mapped = unaccented(c);
+            if (mapped != null) {
+                out.append(mapped);
+                space = false;
+            } else if (Character.isLetterOrDigit(c)) {
+                out.append(c);
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int end = out.length();
+        if (end > 0 && out.charAt(end - 1) == ' ') {
+            out.setLength(end - 1);
+        }
+        return out.toString();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unaccented(char c) {
+        return switch (c) {
+            case '\u00f8' -> "o";            // o with stroke
+            case '\u0142' -> "l";            // l with stroke
+            case '\u0111', '\u00f0' -> "d";  // d with stroke, eth
+            case '\u00df' -> "ss";           // sharp s
+            case '\u00e6' -> "ae";
+            case '\u0153' -> "oe";
+            case '\u00fe' -> "th";           // thorn
+            case '\u0131' -> "i";            // dotless i
+            default -> null;
+        };
+    }
+
+    /**
+     * Four-character American Soundex code of name, or "" if it has no letters a-z.
+     */
+    public static String soundex(String name) {
+        if (name == null) {
+            return "";
+        }
+        String normalized = normalize(name);
+        StringBuilder code = new StringBuilder(4);
+        char last = 0;
+        for (int i = 0; i < normalized.length() && code.length() < 4; i++) {
+            char c = normalized.charAt(i);
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (code.length() == 0) {
+                code.append(Character.toUpperCase(c));
+                last = digit;
+            } else if (digit == '0') {
+                last = '0';
+            } else if (digit != '-' && digit != last) {
+                code.append(digit);
+                last = digit;
+            }
+        }
+        if (code.length() == 0) {
+            return "";
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ssa.util;
+
+/**
+ * Point-in-time view of ConnectionPool state.
+ *
+ * Counters are copied when the snapshot is taken; the histograms and the
+ * statement cache stats are live views shared with the pool.
+ */
+public class PoolMetrics {
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int maxConnections;
+    private final int waitingThreads;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final long validationFailures;
+    private final LatencyHistogram waitTime;
+    private final LatencyHistogram borrowLatency;
+    private final StatementCacheStats statementCache;
+
+    public PoolMetrics(int activeConnections, int idleConnections, int totalConnections, int maxConnections,
+                       int waitingThreads, long borrowCount, long timeoutCount, long leakCount,
+                       long validationFailures, LatencyHistogram waitTime, LatencyHistogram borrowLatency,
+                       StatementCacheStats statementCache) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.maxConnections = maxConnections;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.validationFailures = validationFailures;
+        this.waitTime = waitTime;
+        this.borrowLatency = borrowLatency;
+        this.statementCache = statementCache;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    /**
+     * Time spent blocked waiting for a free slot.
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Total borrow latency including validation and connection creation.
+     */
+    public LatencyHistogram getBorrowLatency() {
+        return borrowLatency;
+    }
+
+    /**
+     * Prepared statement cache hit/miss/eviction counters across all connections.
+     */
+    public StatementCacheStats getStatementCache() {
+        return statementCache;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", total=" + totalConnections +
+                ", max=" + maxConnections +
+                ", waiting=" + waitingThreads +
+                ", borrows=" + borrowCount +
+                ", timeouts=" + timeoutCount +
+                ", leaks=" + leakCount +
+                ", borrowLatency=" + borrowLatency +
+                ", statementCache=" + statementCache +
+                '}';
+    }
+}
@@ -0,0 +1,200 @@
+package com.ssa.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements for one physical connection.
+ *
+ * Black Box Implementation Detail: Callers get a PreparedStatement whose
+ * close() resets it and hands it back to the cache instead of closing it, so
+ * the next prepare of the same SQL text skips parsing and planning. When the
+ * cache is full the least recently used statement is evicted and closed; a
+ * statement that is evicted while a caller still holds it is closed when that
+ * caller returns it. If the same SQL is prepared again while its cached
+ * statement is in use, the second caller gets an ordinary uncached statement.
+ */
+public class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private final Connection physical;
+    private final int capacity;
+    private final StatementCacheStats stats;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed;
+
+    public StatementCache(Connection physical, int capacity, StatementCacheStats stats) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.stats = stats;
+    }
+
+    /**
+     * Prepare (or reuse) a statement for the given SQL.
+     * @param owner Connection the caller sees, returned from getConnection()
+     * @param sql SQL text, used verbatim as the cache key
+     * @param columnNames Generated-key columns, or null for a plain statement
+     */
+    public synchronized PreparedStatement prepare(Connection owner, String sql, String[] columnNames) throws SQLException {
+        String key = columnNames == null ? sql : sql + "\u0000keys=" + String.join(",", columnNames);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.inUse) {
+                stats.recordHit();
+                entry.inUse = true;
+                return entry.newHandle(owner);
+            }
+            // Same SQL already checked out on this connection (e.g. nested use)
+            stats.recordBypass();
+            return create(sql, columnNames);
+        }
+
+        stats.recordMiss();
+        PreparedStatement statement = create(sql, columnNames);
+        if (closed || capacity <= 0) {
+            return statement;
+        }
+        entry = new Entry(statement);
+        entry.inUse = true;
+        entries.put(key, entry);
+        evictOverflow();
+        return entry.newHandle(owner);
+    }
+
+    private PreparedStatement create(String sql, String[] columnNames) throws SQLException {
+        return columnNames == null ? physical.prepareStatement(sql) : physical.prepareStatement(sql, columnNames);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            stats.recordEviction();
+            eldest.evicted = true;
+            if (!eldest.inUse) {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void giveBack(Entry entry) {
+        entry.inUse = false;
+        try {
+            ResultSet open = entry.statement.getResultSet();
+            if (open != null) {
+                open.close();
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.clearWarnings();
+        } catch (SQLException e) {
+            // Unusable statement - drop it from the cache
+            logger.debug("Dropping cached statement that could not be reset", e);
+            entries.values().remove(entry);
+            entry.evicted = true;
+        }
+        if (entry.evicted || closed) {
+            closeQuietly(entry.statement);
+        }
+    }
+
+    /**
+     * Close every cached statement. Called when the physical connection is discarded.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (Entry entry : entries.values()) {
+            entry.evicted = true;
+            if (!entry.inUse) {
+                closeQuietly(entry.statement);
+            }
+        }
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cached statement", e);
+        }
+    }
+
+    /**
+     * One cached physical statement. Each checkout gets a fresh proxy handle so
+     * a stale handle from an earlier checkout cannot touch the statement.
+     */
+    private final class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement newHandle(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Handle(this, owner));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection owner;
+        private boolean returned;
+
+        Handle(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Statement has been closed");
+                    }
+                    try {
+                        return method.invoke(entry.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ssa.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit/miss/eviction counters shared by every StatementCache in a pool.
+ */
+public class StatementCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordBypass() {
+        bypasses.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Prepares that found their statement already checked out and got an uncached one.
+     */
+    public long getBypasses() {
+        return bypasses.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum() + bypasses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheStats{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                ", bypasses=" + getBypasses() +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.ssa.util;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * H2 row trigger that keeps status_counts in step with a table's status column.
+ *
+ * Black Box Implementation Detail: Every insert, delete, or update that
+ * changes status adds -1 to the old status's counter and +1 to the new one,
+ * on the writer's own connection, so the counters commit or roll back with
+ * the row. Each (table, status) pair has SLOTS counter rows. A writer
+ * updates the slot picked by its thread, so concurrent transactions rarely
+ * wait on the same counter row. Slot 0 is reserved for
+ * DatabaseManager.reconcileStatusCounts(). When a transition touches two
+ * counters they are updated in status order, the same order reconcile
+ * locks them.
+ *
+ * A count is the sum of a status's slots: a few index rows, whatever the
+ * size of the table.
+ */
+public class StatusCountTrigger implements Trigger {
+    /** Counter rows per (table, status) written by triggers; slot 0 is reconcile's. */
+    public static final int SLOTS = 8;
+
+    private static final String ADD = "UPDATE status_counts SET row_count = row_count + ?"
+            + " WHERE table_name = ? AND status = ? AND slot = ?";
+    private static final String SEED = "INSERT INTO status_counts (table_name, status, slot, row_count)"
+            + " VALUES (?, ?, ?, ?)";
+
+    private String table;
+    private int statusColumn = -1;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        this.table = tableName.toLowerCase(Locale.ROOT);
+        try (PreparedStatement ps = conn.prepareStatement("SELECT ORDINAL_POSITION FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_NAME = 'STATUS'")) {
+            ps.setString(1, schemaName);
+            ps.setString(2, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Table " + tableName + " has no status column");
+                }
+                statusColumn = rs.getInt(1) - 1;
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        String from = oldRow != null ? (String) oldRow[statusColumn] : null;
+        String to = newRow != null ? (String) newRow[statusColumn] : null;
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        int slot = 1 + (int) (Thread.currentThread().getId() % SLOTS);
+        if (from != null && to != null && to.compareTo(from) < 0) {
+            add(conn, to, slot, 1);
+            add(conn, from, slot, -1);
+        } else {
+            if (from != null) add(conn, from, slot, -1);
+            if (to != null) add(conn, to, slot, 1);
+        }
+    }
+
+    private void add(Connection conn, String status, int slot, long delta) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ADD)) {
+            ps.setLong(1, delta);
+            ps.setString(2, table);
+            ps.setString(3, status);
+            ps.setInt(4, slot);
+            if (ps.executeUpdate() > 0) {
+                return;
+            }
+        }
+        // A status the schema did not seed (written by hand, or a new enum value)
+        try (PreparedStatement ps = conn.prepareStatement(SEED)) {
+            ps.setString(1, table);
+            ps.setString(2, status);
+            ps.setInt(3, slot);
+            ps.setLong(4, delta);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ssa.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded read-through cache with per-entry time-to-live.
+ *
+ * Black Box Implementation Detail: Entries live in an access-ordered map, so
+ * the least recently used entry is evicted when the cache is full. Misses are
+ * cached too (as Optional.empty) with their own, usually shorter, TTL.
+ * Loaders run outside the lock; a load that overlaps an invalidate() is not
+ * stored, so a write that races a read can never leave stale data behind.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class TtlCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final CacheStats stats = new CacheStats();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxSize Maximum number of entries (hits and cached misses)
+     * @param ttlMillis Lifetime of a cached value
+     * @param negativeTtlMillis Lifetime of a cached miss; 0 disables negative caching
+     */
+    public TtlCache(int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.negativeTtlNanos = negativeTtlMillis * 1_000_000L;
+    }
+
+    /**
+     * Return the cached value for key, loading and caching it on a miss.
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            return entry.value;
+        }
+        long generation = invalidations.get();
+        Optional<V> loaded = loader.apply(key);
+        stats.recordLoad();
+        put(key, loaded, generation);
+        return loaded;
+    }
+
+    private synchronized Entry<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            stats.recordExpiration();
+            stats.recordMiss();
+            return null;
+        }
+        if (entry.value.isPresent()) {
+            stats.recordHit();
+        } else {
+            stats.recordNegativeHit();
+        }
+        return entry;
+    }
+
+    private synchronized void put(K key, Optional<V> value, long generation) {
+        if (generation != invalidations.get()) {
+            return;
+        }
+        long ttl = value.isPresent() ? ttlNanos : negativeTtlNanos;
+        if (ttl <= 0 || maxSize <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttl));
+        Iterator<K> it = entries.keySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            stats.recordEviction();
+        }
+    }
+
+    /**
+     * Store a value directly, e.g. right after it was written to the database.
+     */
+    public void put(K key, V value) {
+        put(key, Optional.ofNullable(value), invalidations.get());
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Drop every cached value matching the predicate (cached misses are kept).
+     */
+    public synchronized void invalidateMatching(Predicate<V> predicate) {
+        invalidations.incrementAndGet();
+        entries.values().removeIf(entry -> entry.value.isPresent() && predicate.test(entry.value.get()));
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Most recently used keys that currently hold a value (misses excluded).
+     * @param limit Maximum number of keys
+     */
+    public synchronized List<K> hotKeys(int limit) {
+        List<K> keys = new ArrayList<>();
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (e.getValue().value.isPresent()) {
+                keys.add(e.getKey());
+            }
+        }
+        // Access order is eldest first; the hottest keys are at the end
+        List<K> hottest = new ArrayList<>(Math.min(limit, keys.size()));
+        for (int i = keys.size() - 1; i >= 0 && hottest.size() < limit; i--) {
+            hottest.add(keys.get(i));
+        }
+        return hottest;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private static final class Entry<V> {
+        private final Optional<V> value;
+        private final long expiresAt;
+
+        Entry(Optional<V> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ssa.benchmark;
+
+import com.ssa.model.ReferenceCode;
+import com.ssa.model.ReferenceNumberGenerator;
+import com.ssa.repository.IReferenceSequenceRepository;
+import com.ssa.service.impl.ReferenceNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReferenceNumberAllocator against the UUID-based reference numbers
+ * Application generated before it, on one thread and on four sharing one
+ * generator.
+ *
+ * The allocator reserves blocks from an in-memory sequence here, so the
+ * numbers show the per-reference cost; with the H2 repository one
+ * reservation per reference.allocator.blockSize references is added.
+ *
+ * Run with (exec:exec, so the forked benchmark JVMs get the test classpath):
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.ssa.benchmark.ReferenceNumberBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReferenceNumberBenchmark {
+    private static final int YEAR = 2026;
+
+    private ReferenceNumberGenerator allocator;
+    private final ReferenceNumberGenerator random = ReferenceNumberGenerator.random();
+
+    @Setup
+    public void setUp() {
+        AtomicLong next = new AtomicLong();
+        // Wraps instead of running out, so long runs keep measuring the steady state
+        IReferenceSequenceRepository sequences = (year, count, limit) ->
+                next.getAndAdd(count) % (limit - count);
+        allocator = new ReferenceNumberAllocator(sequences, 1000);
+    }
+
+    @Benchmark
+    public String uuidLegacy() {
+        return Legacy.generateReferenceNumber();
+    }
+
+    @Benchmark
+    public String randomCode() {
+        return random.next(YEAR);
+    }
+
+    @Benchmark
+    public String allocator() {
+        return allocator.next(YEAR);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidLegacyContended() {
+        return Legacy.generateReferenceNumber();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String allocatorContended() {
+        return allocator.next(YEAR);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return ReferenceCode.isValid("APP-2026-PPJ2F1P");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReferenceNumberBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Application's reference number generation before ReferenceNumberAllocator, kept as the baseline.
+     */
+    static final class Legacy {
+        static String generateReferenceNumber() {
+            int year = LocalDateTime.now().getYear();
+            String random = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+            return "APP-" + year + "-" + random;
+        }
+    }
+}
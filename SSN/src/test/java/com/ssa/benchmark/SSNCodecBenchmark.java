@@ -0,0 +1,165 @@
+package com.ssa.benchmark;
+
+import com.ssa.model.SSN;
+import com.ssa.model.SSNCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSNCodec against the substring/regex code SSN used before it.
+ *
+ * Run with (exec:exec, so the forked benchmark JVMs get the test classpath):
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.ssa.benchmark.SSNCodecBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SSNCodecBenchmark {
+    private static final int SIZE = 1024;
+
+    private final String[] dashed = new String[SIZE];
+    private final String[] plain = new String[SIZE];
+    private final int[] packed = new int[SIZE];
+    private final StringBuilder out = new StringBuilder(SSNCodec.FORMATTED_LENGTH);
+    private final char[] buffer = new char[SSNCodec.FORMATTED_LENGTH];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            int value = SSNCodec.pack(1 + random.nextInt(899), 1 + random.nextInt(99), 1 + random.nextInt(9999));
+            packed[i] = value;
+            dashed[i] = SSNCodec.toString(value);
+            plain[i] = dashed[i].replace("-", "");
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (SIZE - 1);
+        return index;
+    }
+
+    // Validation
+
+    @Benchmark
+    public boolean validateLegacy() {
+        return Legacy.isValidFormat(dashed[next()]);
+    }
+
+    @Benchmark
+    public boolean validateCodec() {
+        return SSN.isValidFormat(dashed[next()]);
+    }
+
+    // Normalizing unformatted input
+
+    @Benchmark
+    public String formatLegacy() {
+        return Legacy.formatSSN(plain[next()]);
+    }
+
+    @Benchmark
+    public String formatCodec() {
+        return SSN.formatSSN(plain[next()]);
+    }
+
+    @Benchmark
+    public char[] formatCodecIntoBuffer() {
+        SSNCodec.format(SSNCodec.parse(plain[next()]), buffer, 0);
+        return buffer;
+    }
+
+    // Masking for logs and toString
+
+    @Benchmark
+    public String maskLegacy() {
+        return Legacy.maskSSN(dashed[next()]);
+    }
+
+    @Benchmark
+    public StringBuilder maskCodecIntoBuilder() {
+        out.setLength(0);
+        return SSNCodec.mask(SSNCodec.parse(dashed[next()]), out);
+    }
+
+    // Field access
+
+    @Benchmark
+    public void fieldsLegacy(Blackhole bh) {
+        String ssn = dashed[next()];
+        bh.consume(Legacy.getGroupNumber(ssn));
+        bh.consume(Legacy.getSerialNumber(ssn));
+    }
+
+    @Benchmark
+    public void fieldsCodec(Blackhole bh) {
+        int value = packed[next()];
+        bh.consume(SSNCodec.group(value));
+        bh.consume(SSNCodec.serial(value));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SSNCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * The string-based implementations SSN had before SSNCodec, kept as the baseline.
+     */
+    static final class Legacy {
+        static boolean isValidFormat(String ssn) {
+            if (ssn == null) return false;
+            String cleaned = ssn.replace("-", "");
+            return cleaned.matches("^\\d{9}$");
+        }
+
+        static String formatSSN(String ssn) {
+            if (ssn == null) return null;
+            String cleaned = ssn.replace("-", "");
+            if (cleaned.length() != 9) return ssn;
+            return cleaned.substring(0, 3) + "-" +
+                   cleaned.substring(3, 5) + "-" +
+                   cleaned.substring(5);
+        }
+
+        static String maskSSN(String ssn) {
+            if (ssn == null || ssn.length() < 4) return "***-**-****";
+            String formatted = formatSSN(ssn);
+            return "***-**-" + formatted.substring(7);
+        }
+
+        static String getGroupNumber(String ssn) {
+            if (ssn == null || ssn.length() < 6) return null;
+            String cleaned = ssn.replace("-", "");
+            return cleaned.substring(3, 5);
+        }
+
+        static String getSerialNumber(String ssn) {
+            if (ssn == null) return null;
+            String cleaned = ssn.replace("-", "");
+            if (cleaned.length() < 9) return null;
+            return cleaned.substring(5);
+        }
+    }
+}